@@ -163,6 +163,52 @@ public class ThreadPool extends ThreadPoolExecutor {
                               keepAliveTime, keepAliveTimeUnits, threadFactory, queue, rejectionHandler);
     }
 
+    /**
+     * Returns a new {@code ThreadPool} running each task on a new thread of the provided factory, which is intended
+     * to create virtual threads. Up to {@code maxConcurrency} tasks run at the same time, the other tasks wait
+     * in the work queue. A thread terminates once it is idle for the keep alive time, so it is reused only by the tasks
+     * waiting in the queue.
+     *
+     * @param name The pool name.
+     * @param maxConcurrency The maximum number of tasks running at the same time.
+     * @param keepAliveTime The maximum time an idle thread waits for a queued task before terminating.
+     * @param keepAliveTimeUnits The units for {@code keepAliveTime}.
+     * @param workQueueCapacity The capacity of the work queue.
+     * @param threadFactory The factory of the threads.
+     * @param rejectionHandler The rejection policy.
+     * @throws IllegalArgumentException if any of the following holds:<br>
+     * {@code name is null or empty}<br>
+     * {@code maxConcurrency < 1}<br>
+     * {@code keepAliveTime < 1}<br>
+     * {@code workQueueCapacity < 1}
+     */
+    static ThreadPool createPerTask(String name,
+                                    int maxConcurrency,
+                                    long keepAliveTime,
+                                    TimeUnit keepAliveTimeUnits,
+                                    int workQueueCapacity,
+                                    ThreadFactory threadFactory,
+                                    RejectionHandler rejectionHandler) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("name is null or empty");
+        } else if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency < 1");
+        } else if (keepAliveTime < 1) {
+            throw new IllegalArgumentException("keepAliveTime < 1");
+        } else if (workQueueCapacity < 1) {
+            throw new IllegalArgumentException("workQueueCapacity < 1");
+        } else if (rejectionHandler == null) {
+            throw new IllegalArgumentException("rejectionPolicy is null");
+        }
+
+        // a new thread is started for each task while there are less threads than the core size
+        final ThreadPool pool = new ThreadPool(name, maxConcurrency, maxConcurrency, 0, 0,
+                                               keepAliveTime, keepAliveTimeUnits, threadFactory,
+                                               new WorkQueue(workQueueCapacity), rejectionHandler);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
     private ThreadPool(String name,
                        int corePoolSize,
                        int maximumPoolSize,
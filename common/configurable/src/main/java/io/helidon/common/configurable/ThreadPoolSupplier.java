@@ -16,7 +16,9 @@
 
 package io.helidon.common.configurable;
 
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -29,6 +31,10 @@ import io.helidon.config.Config;
 /**
  * Supplier of a custom thread pool.
  * The returned thread pool supports {@link io.helidon.common.context.Context} propagation.
+ * <p>
+ * With {@link Builder#virtualThreads(boolean) virtual threads} enabled and supported by the JVM, each task runs on a new
+ * virtual thread, optionally with a limit of tasks running at the same time. The returned executor is still
+ * a {@link ThreadPool} with the same statistics. On a JVM without virtual threads a pool of platform threads is used.
  */
 public final class ThreadPoolSupplier implements Supplier<ExecutorService> {
     private static final Logger LOGGER = Logger.getLogger(ThreadPoolSupplier.class.getName());
@@ -44,6 +50,9 @@ public final class ThreadPoolSupplier implements Supplier<ExecutorService> {
     private static final String DEFAULT_POOL_NAME_PREFIX = "helidon-thread-pool-";
     private static final int DEFAULT_GROWTH_RATE = 0; // Maintain JDK pool behavior when max > core
     private static final int DEFAULT_GROWTH_THRESHOLD = 1000;
+    private static final boolean DEFAULT_VIRTUAL_THREADS = false;
+    private static final int DEFAULT_MAX_VIRTUAL_THREADS = 0;
+    private static final int VIRTUAL_KEEP_ALIVE_SECONDS = 1;
 
     private final int corePoolSize;
     private final int maxPoolSize;
@@ -56,6 +65,8 @@ public final class ThreadPoolSupplier implements Supplier<ExecutorService> {
     private final int growthThreshold;
     private final int growthRate;
     private final ThreadPool.RejectionHandler rejectionHandler;
+    private final boolean virtualThreads;
+    private final int maxVirtualThreads;
     private volatile ExecutorService instance;
 
     private ThreadPoolSupplier(Builder builder) {
@@ -70,6 +81,8 @@ public final class ThreadPoolSupplier implements Supplier<ExecutorService> {
         this.growthThreshold = builder.growthThreshold;
         this.growthRate = builder.growthRate;
         this.rejectionHandler = builder.rejectionHandler == null ? DEFAULT_REJECTION_POLICY : builder.rejectionHandler;
+        this.virtualThreads = builder.virtualThreads;
+        this.maxVirtualThreads = builder.maxVirtualThreads;
     }
 
     /**
@@ -102,6 +115,19 @@ public final class ThreadPoolSupplier implements Supplier<ExecutorService> {
     }
 
     ThreadPool getThreadPool() {
+        if (virtualThreads) {
+            Optional<ThreadFactory> virtualThreadFactory = VirtualThreads.factory(threadNamePrefix);
+            if (virtualThreadFactory.isPresent()) {
+                return ThreadPool.createPerTask(name,
+                                                maxVirtualThreads > 0 ? maxVirtualThreads : Integer.MAX_VALUE,
+                                                VIRTUAL_KEEP_ALIVE_SECONDS,
+                                                TimeUnit.SECONDS,
+                                                queueCapacity,
+                                                virtualThreadFactory.get(),
+                                                rejectionHandler);
+            }
+            LOGGER.info("Virtual threads are not supported by this JVM, thread pool '" + name + "' uses platform threads");
+        }
         ThreadPool result = ThreadPool.create(name,
                                               corePoolSize,
                                               maxPoolSize,
@@ -142,6 +168,8 @@ public final class ThreadPoolSupplier implements Supplier<ExecutorService> {
         private int growthRate = DEFAULT_GROWTH_RATE;
         private ThreadPool.RejectionHandler rejectionHandler = DEFAULT_REJECTION_POLICY;
         private String name;
+        private boolean virtualThreads = DEFAULT_VIRTUAL_THREADS;
+        private int maxVirtualThreads = DEFAULT_MAX_VIRTUAL_THREADS;
 
         private Builder() {
         }
@@ -287,6 +315,30 @@ public final class ThreadPoolSupplier implements Supplier<ExecutorService> {
             return this;
         }
 
+        /**
+         * Whether to run each task on a new virtual thread. Used only if the JVM supports virtual threads, otherwise
+         * the pool uses platform threads as configured by the other properties.
+         *
+         * @param virtualThreads whether to use virtual threads
+         * @return updated builder instance
+         */
+        public Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * Maximal number of tasks running on virtual threads at the same time, the other tasks wait in the queue.
+         * If {@code 0}, the number of virtual threads is not limited.
+         *
+         * @param maxVirtualThreads maximal number of virtual threads or {@code 0}
+         * @return updated builder instance
+         */
+        public Builder maxVirtualThreads(int maxVirtualThreads) {
+            this.maxVirtualThreads = maxVirtualThreads;
+            return this;
+        }
+
         /**
          * Load all properties for this thread pool from configuration.
          * <p>
@@ -333,6 +385,16 @@ public final class ThreadPoolSupplier implements Supplier<ExecutorService> {
          *     <td>{@code true}</td>
          *     <td>Whether or not all core threads should be started when the pool is created.</td>
          * </tr>
+         * <tr>
+         *     <td>virtual-threads</td>
+         *     <td>{@code false}</td>
+         *     <td>Whether to run each task on a new virtual thread if supported by the JVM.</td>
+         * </tr>
+         * <tr>
+         *     <td>max-virtual-threads</td>
+         *     <td>0</td>
+         *     <td>The maximum number of tasks running on virtual threads at the same time, {@code 0} for no limit.</td>
+         * </tr>
          * </table>
          * <p>
          * <table class="config">
@@ -375,6 +437,8 @@ public final class ThreadPoolSupplier implements Supplier<ExecutorService> {
             config.get("is-daemon").asBoolean().ifPresent(this::daemon);
             config.get("thread-name-prefix").asString().ifPresent(this::threadNamePrefix);
             config.get("should-prestart").asBoolean().ifPresent(this::prestart);
+            config.get("virtual-threads").asBoolean().ifPresent(this::virtualThreads);
+            config.get("max-virtual-threads").asInt().ifPresent(this::maxVirtualThreads);
             config.get("growth-threshold").asInt().ifPresent(value -> {
                 warnExperimental("growth-threshold");
                 growthThreshold(value);
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.configurable;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Access to virtual threads of the running JVM. The sources are compiled for Java 8, so the virtual thread API
+ * ({@code Thread.ofVirtual()}) is invoked reflectively and reported as not supported on JVMs without it,
+ * including the JVMs which have it only as a disabled preview feature.
+ */
+final class VirtualThreads {
+    private static final Logger LOGGER = Logger.getLogger(VirtualThreads.class.getName());
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Whether the running JVM supports virtual threads.
+     *
+     * @return {@code true} if virtual threads can be created
+     */
+    static boolean isSupported() {
+        return factory("helidon-virtual-").isPresent();
+    }
+
+    /**
+     * Creates a factory of virtual threads named with the prefix and a counter.
+     *
+     * @param threadNamePrefix prefix of the thread names
+     * @return the factory or empty if virtual threads are not supported
+     */
+    static Optional<ThreadFactory> factory(String threadNamePrefix) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Method name = builderClass.getMethod("name", String.class, long.class);
+            Method factory = builderClass.getMethod("factory");
+
+            Object builder = ofVirtual.invoke(null);
+            builder = name.invoke(builder, threadNamePrefix, 1L);
+            return Optional.of((ThreadFactory) factory.invoke(builder));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // not available, or a preview feature which is not enabled
+            LOGGER.log(Level.FINEST, "Virtual threads are not supported", e);
+            return Optional.empty();
+        }
+    }
+}
@@ -39,6 +39,7 @@ import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 
 /**
  * Unit test for {@link ThreadPoolSupplier}.
@@ -140,6 +141,30 @@ class ThreadPoolSupplierTest {
         }
     }
 
+    @Test
+    void testVirtualThreads() throws Exception {
+        Config config = Config.create(ConfigSources.create(mapOf("virtual-threads", "true",
+                                                                 "max-virtual-threads", "4",
+                                                                 "thread-name-prefix", "virtual-unit-test-")));
+        ThreadPool pool = ThreadPoolSupplier.create(config).getThreadPool();
+        try {
+            AtomicReference<String> threadName = new AtomicReference<>();
+            pool.submit(() -> threadName.set(Thread.currentThread().getName())).get();
+            assertThat(threadName.get(), startsWith("virtual-unit-test-"));
+            assertThat(pool.getCompletedTasks(), is(1));
+
+            if (VirtualThreads.isSupported()) {
+                assertThat(pool.getCorePoolSize(), is(4));
+                assertThat(pool.getPoolSize(), is(lessThanOrEqualTo(1)));
+            } else {
+                // falls back to the platform threads of the default pool
+                assertThat(pool.getCorePoolSize(), is(10));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     private void testInstance(ThreadPoolExecutor theInstance,
                               String namePrefix,
                               int corePoolSize,
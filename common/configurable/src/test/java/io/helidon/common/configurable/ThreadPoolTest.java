@@ -18,6 +18,7 @@ package io.helidon.common.configurable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.RejectedExecutionException;
@@ -500,6 +501,35 @@ class ThreadPoolTest {
         }
     }
 
+    @Test
+    void testPerTaskPool() throws Exception {
+        pool = ThreadPool.createPerTask("test", 2, 1, SECONDS, 1, Executors.defaultThreadFactory(),
+                                        new ThreadPool.RejectionHandler());
+
+        // each task gets a new thread until the limit is reached
+        waitUntilActiveThreadsIs(2, addTasks(2));
+        assertThat(pool.getPoolSize(), is(2));
+
+        // the next task waits in the queue and the following one is rejected
+        Task queued = new Task();
+        pool.execute(queued);
+        tasks.add(queued);
+        assertThat(pool.getQueueSize(), is(1));
+        assertThrows(RejectedExecutionException.class, () -> pool.execute(new Task()));
+        assertThat(pool.getRejectionCount(), is(1));
+
+        tasks.forEach(Task::finish);
+        waitUntil(() -> pool.getCompletedTasks() == 3);
+        assertThat(pool.getActiveThreads(), is(0));
+    }
+
+    @Test
+    void testPerTaskPoolInvalidConcurrency() {
+        assertIllegalArgument(() -> ThreadPool.createPerTask("test", 0, 1, SECONDS, 1, Executors.defaultThreadFactory(),
+                                                             new ThreadPool.RejectionHandler()),
+                              "maxConcurrency < 1");
+    }
+
     private CountDownLatch addTasks(int count) {
         final CountDownLatch awaitRunning = new CountDownLatch(count);
         IntStream.range(0, count).forEach(n -> {
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.http;
+
+import java.nio.charset.Charset;
+
+/**
+ * Creates {@link DataChunk data chunks} in memory provided by the consumer of the chunks. A server may provide
+ * a factory using pooled direct memory which is handed to the network without a copy and returned to the pool
+ * when the chunk is {@link DataChunk#release() released}.
+ * <p>
+ * Chunks created by a factory must be released by their consumer. The {@link #heap() heap factory} creates plain
+ * heap chunks with no release requirements.
+ */
+public interface DataChunkFactory {
+
+    /**
+     * Creates a chunk with a copy of the provided bytes.
+     *
+     * @param bytes  bytes to copy
+     * @param offset offset of the first byte
+     * @param length number of bytes to copy
+     * @return a new chunk
+     */
+    DataChunk create(byte[] bytes, int offset, int length);
+
+    /**
+     * Creates a chunk with the encoded character sequence.
+     *
+     * @param chars   characters to encode
+     * @param charset charset of the encoded characters
+     * @return a new chunk
+     */
+    DataChunk create(CharSequence chars, Charset charset);
+
+    /**
+     * Factory of heap chunks.
+     *
+     * @return a factory creating heap chunks
+     */
+    static DataChunkFactory heap() {
+        return HeapDataChunkFactory.INSTANCE;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.http;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * {@link DataChunkFactory} creating heap chunks.
+ */
+final class HeapDataChunkFactory implements DataChunkFactory {
+
+    static final HeapDataChunkFactory INSTANCE = new HeapDataChunkFactory();
+
+    private HeapDataChunkFactory() {
+    }
+
+    @Override
+    public DataChunk create(byte[] bytes, int offset, int length) {
+        return DataChunk.create(false, ByteBuffer.wrap(Arrays.copyOfRange(bytes, offset, offset + length)));
+    }
+
+    @Override
+    public DataChunk create(CharSequence chars, Charset charset) {
+        return DataChunk.create(false, charset.encode(chars.toString()));
+    }
+}
@@ -236,6 +236,11 @@ public final class Http {
          * <a href="https://tools.ietf.org/html/rfc2324#section-2.3.2">Hyper Text Coffee Pot Control Protocol (HTCPCP/1.0)</a>.
          */
         I_AM_A_TEAPOT(418, "I'm a teapot"),
+        /**
+         * 429 Too Many Requests, see
+         * <a href="https://tools.ietf.org/html/rfc6585#section-4">Additional HTTP Status Codes</a>.
+         */
+        TOO_MANY_REQUESTS_429(429, "Too Many Requests"),
         /**
          * 500 Internal Server Error, see
          * <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec10.html#sec10.5.1">HTTP/1.1 documentation</a>.
@@ -88,6 +88,10 @@ public final class MediaType implements AcceptPredicate<MediaType> {
      * A {@link MediaType} constant representing {@code text/html} media type.
      */
     public static final MediaType TEXT_HTML = createMediaType("text", "html");
+    /**
+     * A {@link MediaType} constant representing {@code text/event-stream} media type of Server-Sent Events.
+     */
+    public static final MediaType TEXT_EVENT_STREAM = createMediaType("text", "event-stream");
     /**
      * A {@link MediaType} constant representing OpenAPI yaml.
      * <p>
@@ -31,7 +31,7 @@ import io.helidon.common.reactive.Flow.Subscription;
  */
 abstract class BaseProcessor<T, U> implements Processor<T, U>, Subscription {
 
-    private Subscription subscription;
+    private volatile Subscription subscription;
     private final SingleSubscriberHolder<U> subscriber;
     private final RequestedCounter requested;
     private final AtomicBoolean ready;
@@ -49,7 +49,12 @@ abstract class BaseProcessor<T, U> implements Processor<T, U>, Subscription {
     @Override
     public final void request(long n) {
         requested.increment(n, ex -> onError(ex));
-        tryRequest(subscription);
+        // forward just the increment, anything requested before the subscription was received
+        // is forwarded from onSubscribe
+        Subscription s = subscription;
+        if (n > 0 && s != null && !subscriber.isClosed()) {
+            s.request(n);
+        }
         if (done) {
             tryComplete();
         }
@@ -105,6 +105,11 @@ final class FixedItemsPublisher<T> implements Publisher<T> {
                     // give a chance to some other thread to publish
                     publishing.set(false);
                 }
+
+                // a request from another thread may have been missed while publishing
+                immediateRetry = !subscriber.isClosed()
+                        && requested.get() > 0
+                        && !queue.isEmpty();
             }
         }
     }
@@ -60,6 +60,7 @@ public abstract class OriginThreadPublisher<T, U> implements Publisher<T> {
 
     private volatile Subscriber<? super T> singleSubscriber;
     private volatile boolean completed;
+    private volatile boolean cancelled;
     private volatile Throwable t;
     private final BlockingQueue<T> queue = new ArrayBlockingQueue<>(256);
     private final AtomicLong nextCount = new AtomicLong();
@@ -155,7 +156,18 @@ public abstract class OriginThreadPublisher<T, U> implements Publisher<T> {
                 @Override
                 public void cancel() {
                     hookOnCancel();
-                    singleSubscriber = null;
+                    try {
+                        reentrantLock.lock();
+                        cancelled = true;
+                        singleSubscriber = null;
+                        // the items will never be published, hand them over to the drain hook right away
+                        T item;
+                        while ((item = queue.poll()) != null) {
+                            drain(item);
+                        }
+                    } finally {
+                        reentrantLock.unlock();
+                    }
                 }
             });
         } finally {
@@ -187,6 +199,10 @@ public abstract class OriginThreadPublisher<T, U> implements Publisher<T> {
     public void submit(U data) {
         try {
             reentrantLock.lock();
+            if (cancelled) {
+                drain(wrap(data));
+                return;
+            }
             if (!queue.offer(wrap(data))) {
                 LOGGER.severe("Unable to add an element to the publisher cache.");
                 error(new IllegalStateException("Unable to add an element to the publisher cache."));
@@ -247,7 +263,9 @@ public abstract class OriginThreadPublisher<T, U> implements Publisher<T> {
     }
 
     /**
-     * Process a drained item. This default implementation of this method is a no-op, it is meant to be overridden by sub-classes
+     * Process a drained item. Items are drained when no one subscribed to this publisher (see {@link #drain()}) and
+     * when the subscriber cancels its subscription, in which case the items not published yet are drained.
+     * This default implementation of this method is a no-op, it is meant to be overridden by sub-classes
      * to customize the draining process.
      *
      * @param item drained item
@@ -73,6 +73,31 @@ public class BaseProcessorTest {
         assertThat(subscriber.getLastError(), is(instanceOf(IllegalStateException.class)));
     }
 
+    @Test
+    public void testRequestForwardsIncrementOnly() {
+        TestProcessor<String> processor = new TestProcessor<>();
+        TestSubscription subscription = new TestSubscription();
+        processor.onSubscribe(subscription);
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        processor.subscribe(subscriber);
+        subscriber.request1();
+        subscriber.request1();
+        subscriber.request1();
+        assertThat(subscription.requested, is(equalTo(3L)));
+    }
+
+    @Test
+    public void testRequestBeforeOnSubscribe() {
+        TestProcessor<String> processor = new TestProcessor<>();
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        processor.subscribe(subscriber);
+        subscriber.request1();
+        subscriber.request1();
+        TestSubscription subscription = new TestSubscription();
+        processor.onSubscribe(subscription);
+        assertThat(subscription.requested, is(equalTo(2L)));
+    }
+
     @Test
     public void testOnNextAfterOnComplete() {
         TestProcessor<String> processor = new TestProcessor<>();
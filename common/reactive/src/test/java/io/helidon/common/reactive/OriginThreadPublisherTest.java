@@ -16,6 +16,8 @@
 
 package io.helidon.common.reactive;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -39,6 +41,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.junit.jupiter.api.Assertions.fail;
 
 /**
@@ -276,4 +279,28 @@ public class OriginThreadPublisherTest {
         publisher.subscribe(subscriber);
         assertThat(canceled.get(), is(equalTo(true)));
     }
+
+    @Test
+    public void testCancelDrainsItems() {
+        final List<Long> drained = new ArrayList<>();
+        OriginThreadPublisher<Long, Long> publisher = new OriginThreadPublisher<Long, Long>(){
+            @Override
+            protected void drain(Long item) {
+                drained.add(item);
+            }
+        };
+        TestSubscriber<Long> subscriber = new TestSubscriber<>();
+        publisher.subscribe(subscriber);
+        subscriber.request1();
+        publisher.submit(1L);
+        publisher.submit(2L);
+        publisher.submit(3L);
+        subscriber.getSubcription().cancel();
+        assertThat(drained, contains(2L, 3L));
+
+        // items submitted after the cancellation are drained too
+        publisher.submit(4L);
+        assertThat(drained, contains(2L, 3L, 4L));
+        assertThat(subscriber.getItems(), contains(1L));
+    }
 }
@@ -19,9 +19,11 @@ package io.helidon.media.common;
 import java.nio.ByteBuffer;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
+import java.util.Objects;
 import java.util.function.Function;
 
 import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.DataChunkFactory;
 import io.helidon.common.reactive.Flow.Publisher;
 import io.helidon.common.reactive.RetrySchema;
 import io.helidon.common.reactive.Single;
@@ -95,6 +97,22 @@ public final class ContentWriters {
         return (bytes) -> writeBytes(bytes, copy);
     }
 
+    /**
+     * Returns a writer function for {@code byte[]} copying the bytes to
+     * a chunk created by the provided factory. The chunk is created once
+     * it is requested, so a subscriber cancelling before the request does
+     * not leave an unreleased chunk behind.
+     *
+     * @param factory a factory of the chunks, e.g. a factory of pooled chunks
+     * provided by the server response
+     * @return a {@code byte[]} writer
+     * @throws NullPointerException if parameter {@code factory} is {@code null}
+     */
+    public static Function<byte[], Publisher<DataChunk>> byteArrayWriter(DataChunkFactory factory) {
+        Objects.requireNonNull(factory, "Parameter 'factory' is null!");
+        return (bytes) -> new LazyChunkPublisher(() -> factory.create(bytes, 0, bytes.length));
+    }
+
     /**
      * Returns a writer function for {@link CharSequence} using provided
      * standard {@code charset}.
@@ -110,6 +128,26 @@ public final class ContentWriters {
         return (cs) -> writeCharSequence(cs, charset);
     }
 
+    /**
+     * Returns a writer function for {@link CharSequence} encoding the
+     * characters directly to a chunk created by the provided factory.
+     * The chunk is created once it is requested, so a subscriber cancelling
+     * before the request does not leave an unreleased chunk behind.
+     *
+     * @param charset a standard charset to use
+     * @param factory a factory of the chunks, e.g. a factory of pooled chunks
+     * provided by the server response
+     * @return a {@link String} writer
+     * @throws NullPointerException if parameter {@code charset} or
+     * {@code factory} is {@code null}
+     */
+    public static Function<CharSequence, Publisher<DataChunk>> charSequenceWriter(Charset charset,
+                                                                                   DataChunkFactory factory) {
+        Objects.requireNonNull(charset, "Parameter 'charset' is null!");
+        Objects.requireNonNull(factory, "Parameter 'factory' is null!");
+        return (cs) -> new LazyChunkPublisher(() -> factory.create(cs, charset));
+    }
+
     /**
      * Returns a writer function for {@link CharBuffer} using provided standard
      * {@code charset}.
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.media.common;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow.Publisher;
+import io.helidon.common.reactive.Flow.Subscriber;
+import io.helidon.common.reactive.Flow.Subscription;
+
+/**
+ * Publisher of a single {@link DataChunk} created once it is requested.
+ * <p>
+ * The chunk may hold a pooled buffer which is released by the subscriber once consumed. Creating the chunk
+ * only when it is delivered ensures a subscriber which cancels before requesting, e.g. because the connection
+ * was closed, never leaves an unreleased chunk behind.
+ */
+final class LazyChunkPublisher implements Publisher<DataChunk> {
+
+    private final Supplier<DataChunk> chunkSupplier;
+
+    /**
+     * Creates a new publisher.
+     *
+     * @param chunkSupplier creates the chunk, invoked at most once per subscriber
+     */
+    LazyChunkPublisher(Supplier<DataChunk> chunkSupplier) {
+        this.chunkSupplier = chunkSupplier;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super DataChunk> subscriber) {
+        subscriber.onSubscribe(new LazyChunkSubscription(subscriber));
+    }
+
+    private final class LazyChunkSubscription implements Subscription {
+
+        private final Subscriber<? super DataChunk> subscriber;
+        private final AtomicBoolean done = new AtomicBoolean(false);
+
+        private LazyChunkSubscription(Subscriber<? super DataChunk> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                if (done.compareAndSet(false, true)) {
+                    subscriber.onError(new IllegalArgumentException("Requested a non-positive number of items: " + n));
+                }
+                return;
+            }
+            if (done.compareAndSet(false, true)) {
+                DataChunk chunk;
+                try {
+                    chunk = chunkSupplier.get();
+                } catch (RuntimeException e) {
+                    subscriber.onError(e);
+                    return;
+                }
+                subscriber.onNext(chunk);
+                subscriber.onComplete();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            done.set(true);
+        }
+    }
+}
@@ -16,11 +16,16 @@
 
 package io.helidon.media.common;
 
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.DataChunkFactory;
 import io.helidon.common.reactive.Flow.Publisher;
-import java.util.concurrent.TimeUnit;
+import io.helidon.common.reactive.Flow.Subscriber;
+import io.helidon.common.reactive.Flow.Subscription;
 
 import org.junit.jupiter.api.Test;
 
@@ -64,4 +69,54 @@ public class ContentWritersTest {
         byte[] result = ContentReaders.readBytes(publisher).get(5, TimeUnit.SECONDS);
         assertThat(new String(result, StandardCharsets.UTF_8), is(data));
     }
+
+    @Test
+    public void factoryWriters() throws Exception {
+        Publisher<DataChunk> bytes = ContentWriters.byteArrayWriter(DataChunkFactory.heap())
+                .apply("abc".getBytes(StandardCharsets.UTF_8));
+        assertThat(new String(ContentReaders.readBytes(bytes).get(5, TimeUnit.SECONDS), StandardCharsets.UTF_8), is("abc"));
+        Publisher<DataChunk> chars = ContentWriters.charSequenceWriter(StandardCharsets.UTF_16BE, DataChunkFactory.heap())
+                .apply("\u017elu\u0165ou\u010dk\u00fd");
+        assertThat(new String(ContentReaders.readBytes(chars).get(5, TimeUnit.SECONDS), StandardCharsets.UTF_16BE),
+                   is("\u017elu\u0165ou\u010dk\u00fd"));
+    }
+
+    @Test
+    public void factoryWriterCreatesChunkOnRequest() {
+        AtomicInteger created = new AtomicInteger();
+        DataChunkFactory factory = new DataChunkFactory() {
+            @Override
+            public DataChunk create(byte[] bytes, int offset, int length) {
+                created.incrementAndGet();
+                return DataChunkFactory.heap().create(bytes, offset, length);
+            }
+
+            @Override
+            public DataChunk create(CharSequence chars, Charset charset) {
+                created.incrementAndGet();
+                return DataChunkFactory.heap().create(chars, charset);
+            }
+        };
+        // cancelled before requesting, e.g. when the connection was closed
+        ContentWriters.charSequenceWriter(StandardCharsets.UTF_8, factory).apply("abc").subscribe(new Subscriber<DataChunk>() {
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                subscription.cancel();
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(DataChunk item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        assertThat(created.get(), is(0));
+    }
 }
@@ -42,9 +42,13 @@ import io.helidon.webserver.RequestHeaders;
 import io.helidon.webserver.Routing;
 import io.helidon.webserver.ServerRequest;
 import io.helidon.webserver.ServerResponse;
+import io.helidon.webserver.ServerStatistics;
 import io.helidon.webserver.Service;
+import io.helidon.webserver.StaticContentSupport;
 
 import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.Histogram;
 import org.eclipse.microprofile.metrics.Metadata;
 import org.eclipse.microprofile.metrics.Meter;
 import org.eclipse.microprofile.metrics.Metric;
@@ -298,6 +302,255 @@ public final class MetricsSupport implements Service {
             totalMeter.mark();
             req.next();
         });
+
+        rules.onNewWebServer(webServer -> {
+            registerServerMetrics(vendor, webServer.statistics());
+            webServer.configuration()
+                    .sockets()
+                    .keySet()
+                    .forEach(socketName -> registerEventLoopMetrics(vendor, socketName, webServer.statistics()));
+        });
+    }
+
+    private static void registerServerMetrics(Registry vendor, ServerStatistics statistics) {
+        registerServerGauge(vendor, "server.connections",
+                            "Open connections",
+                            "Number of currently open connections of all server sockets",
+                            MetricUnits.NONE,
+                            statistics::connections);
+        registerServerGauge(vendor, "server.requests.inflight",
+                            "Requests in flight",
+                            "Number of requests currently processed, from the request received until its response is"
+                                    + " completely written",
+                            MetricUnits.NONE,
+                            statistics::inFlightRequests);
+        registerServerGauge(vendor, "server.connections.unwritable",
+                            "Connections not writable",
+                            "Number of connections with the outbound buffer over the high water mark",
+                            MetricUnits.NONE,
+                            statistics::nonWritableConnections);
+        registerServerGauge(vendor, "server.outbound.pending",
+                            "Pending outbound bytes",
+                            "Number of bytes waiting to be sent to the clients over all connections",
+                            MetricUnits.BYTES,
+                            statistics::pendingOutboundBytes);
+        registerServerGauge(vendor, "server.outbound.pending.max",
+                            "Maximal pending outbound bytes of a connection",
+                            "Number of bytes waiting to be sent to the client of the connection with the fullest"
+                                    + " outbound buffer",
+                            MetricUnits.BYTES,
+                            statistics::maxPendingOutboundBytes);
+        registerServerGauge(vendor, "server.outbound.pauses",
+                            "Writability pauses",
+                            "Number of times a response stopped requesting data because the connection was not writable",
+                            MetricUnits.NONE,
+                            statistics::writabilityPauses);
+        registerServerGauge(vendor, "server.requests.chunks.leaked",
+                            "Leaked request chunks",
+                            "Number of request chunks garbage collected without being released, as found by the leak"
+                                    + " detection",
+                            MetricUnits.NONE,
+                            statistics::leakedRequestChunks);
+        registerServerGauge(vendor, "server.pipeline.waiting",
+                            "Waiting pipelined responses",
+                            "Number of responses of pipelined requests buffered until the responses of the preceding"
+                                    + " requests are sent",
+                            MetricUnits.NONE,
+                            statistics::pipelinedResponses);
+        registerServerGauge(vendor, "server.pipeline.depth.max",
+                            "Maximal pipeline depth",
+                            "Maximal number of pipelined requests of a connection processed concurrently",
+                            MetricUnits.NONE,
+                            statistics::maxPipelineDepth);
+        registerServerGauge(vendor, "server.pipeline.hol.waits",
+                            "Head-of-line waits",
+                            "Number of responses of pipelined requests which waited for the responses of the preceding"
+                                    + " requests",
+                            MetricUnits.NONE,
+                            statistics::headOfLineWaits);
+        registerServerGauge(vendor, "server.pipeline.hol.time",
+                            "Head-of-line wait time",
+                            "Total time the responses of pipelined requests waited for the responses of the preceding"
+                                    + " requests",
+                            MetricUnits.MILLISECONDS,
+                            statistics::headOfLineWaitTime);
+        registerServerGauge(vendor, "server.connections.rejected",
+                            "Rejected connections",
+                            "Total number of connections closed right after they were accepted, because the maximal"
+                                    + " number of connections of their socket was reached",
+                            MetricUnits.NONE,
+                            statistics::rejectedConnections);
+        registerServerGauge(vendor, "server.accept.paused",
+                            "Paused accepts",
+                            "Total number of times a socket stopped accepting connections, because the maximal number"
+                                    + " of connections was reached",
+                            MetricUnits.NONE,
+                            statistics::acceptPauses);
+        registerServerGauge(vendor, "server.connections.timedout",
+                            "Timed out connections",
+                            "Total number of connections closed because of the idle or the read timeout",
+                            MetricUnits.NONE,
+                            statistics::timedOutConnections);
+        registerServerGauge(vendor, "server.requests.rejected",
+                            "Rejected requests",
+                            "Total number of requests rejected because their initial line, headers or content exceeded"
+                                    + " the limits",
+                            MetricUnits.NONE,
+                            statistics::rejectedRequests);
+        registerServerGauge(vendor, "server.offload.queue",
+                            "Offload queue depth",
+                            "Number of requests of offloaded handlers currently waiting for a thread",
+                            MetricUnits.NONE,
+                            statistics::offloadQueueDepth);
+        registerServerGauge(vendor, "server.offload.requests",
+                            "Offloaded requests",
+                            "Total number of requests of offloaded handlers which started running on a thread",
+                            MetricUnits.NONE,
+                            statistics::offloadedRequests);
+        registerServerGauge(vendor, "server.offload.wait.time",
+                            "Offload wait time",
+                            "Total time the requests of offloaded handlers waited for a thread",
+                            MetricUnits.MILLISECONDS,
+                            statistics::offloadWaitTime);
+        registerServerGauge(vendor, "server.offload.rejected",
+                            "Rejected offloaded requests",
+                            "Total number of requests of offloaded handlers rejected by the executor",
+                            MetricUnits.NONE,
+                            statistics::offloadRejections);
+        registerServerGauge(vendor, "server.eventloop.stalls",
+                            "Event loop stalls",
+                            "Total number of event loop probes which waited longer than the stall threshold",
+                            MetricUnits.NONE,
+                            statistics::eventLoopStalls);
+        registerServerGauge(vendor, "server.eventloop.lag.max",
+                            "Maximal event loop lag",
+                            "The longest time an event loop probe waited to be executed",
+                            MetricUnits.MILLISECONDS,
+                            statistics::eventLoopMaxLag);
+        registerServerGauge(vendor, "server.websocket.sessions",
+                            "WebSocket sessions",
+                            "Number of WebSocket sessions currently open",
+                            MetricUnits.NONE,
+                            statistics::webSocketSessions);
+        registerServerGauge(vendor, "server.websocket.sessions.opened",
+                            "Opened WebSocket sessions",
+                            "Total number of WebSocket sessions opened",
+                            MetricUnits.NONE,
+                            statistics::webSocketSessionsOpened);
+        registerServerGauge(vendor, "server.websocket.messages.received",
+                            "Received WebSocket messages",
+                            "Total number of WebSocket messages received from the clients",
+                            MetricUnits.NONE,
+                            statistics::webSocketMessagesReceived);
+        registerServerGauge(vendor, "server.websocket.messages.sent",
+                            "Sent WebSocket messages",
+                            "Total number of WebSocket messages sent to the clients",
+                            MetricUnits.NONE,
+                            statistics::webSocketMessagesSent);
+        registerServerGauge(vendor, "server.concurrency.limit",
+                            "Concurrency limit",
+                            "Current limit of the requests processed concurrently",
+                            MetricUnits.NONE,
+                            statistics::concurrencyLimit);
+        registerServerGauge(vendor, "server.concurrency.inflight",
+                            "Limited requests in flight",
+                            "Number of the requests admitted by the concurrency limit and not completed yet",
+                            MetricUnits.NONE,
+                            statistics::concurrencyLimitInFlight);
+        registerServerGauge(vendor, "server.concurrency.rejections",
+                            "Concurrency limit rejections",
+                            "Total number of requests rejected over the concurrency limit",
+                            MetricUnits.NONE,
+                            statistics::concurrencyLimitRejections);
+
+        Histogram lag = vendor.histogram(new Metadata("server.eventloop.lag",
+                                                      "Event loop lag",
+                                                      "Time the event loop probes waited to be executed",
+                                                      MetricType.HISTOGRAM,
+                                                      MetricUnits.MICROSECONDS));
+        statistics.eventLoopLagListener(lag::update);
+    }
+
+    private static void registerEventLoopMetrics(Registry vendor, String socketName, ServerStatistics statistics) {
+        String metricPrefix = "server.socket." + socketName.replace("@", "") + ".eventloop.";
+
+        registerServerGauge(vendor, metricPrefix + "utilization",
+                            "Event loop utilization",
+                            "Percentage of time the worker event loops of the socket '" + socketName
+                                    + "' were busy during the last sample",
+                            MetricUnits.PERCENT,
+                            () -> statistics.eventLoopUtilization(socketName));
+        registerServerGauge(vendor, metricPrefix + "pending",
+                            "Pending event loop tasks",
+                            "Number of tasks waiting in the queues of the worker event loops of the socket '"
+                                    + socketName + "'",
+                            MetricUnits.NONE,
+                            () -> statistics.eventLoopPendingTasks(socketName));
+        registerServerGauge(vendor, metricPrefix + "threads",
+                            "Event loop threads",
+                            "Number of the started worker event loop threads of the socket '" + socketName + "'",
+                            MetricUnits.NONE,
+                            () -> statistics.eventLoopThreads(socketName));
+    }
+
+    /**
+     * Configure vendor metrics of the static content cache. The metrics are registered only if the static
+     * content has the cache enabled (see {@link StaticContentSupport.Builder#cacheMaxSize(long)}).
+     *
+     * @param name          name of the static content used in the metric names ({@code static-content.<name>.cache.*})
+     * @param staticContent static content support to provide metrics of
+     */
+    public void configureStaticContentMetrics(String name, StaticContentSupport staticContent) {
+        staticContent.cacheStatistics().ifPresent(statistics -> {
+            Registry vendor = rf.getARegistry(MetricRegistry.Type.VENDOR);
+            String metricPrefix = "static-content." + name + ".cache.";
+
+            registerServerGauge(vendor, metricPrefix + "hits",
+                                "Static content cache hits",
+                                "Number of static content requests served from the in-memory cache",
+                                MetricUnits.NONE,
+                                statistics::hits);
+            registerServerGauge(vendor, metricPrefix + "misses",
+                                "Static content cache misses",
+                                "Number of static content requests that loaded the resource from the class-path",
+                                MetricUnits.NONE,
+                                statistics::misses);
+            registerServerGauge(vendor, metricPrefix + "hit-rate",
+                                "Static content cache hit rate",
+                                "Percentage of cacheable static content requests served from the in-memory cache",
+                                MetricUnits.PERCENT,
+                                () -> {
+                                    long hits = statistics.hits();
+                                    long total = hits + statistics.misses();
+                                    return (total == 0) ? 0L : hits * 100 / total;
+                                });
+            registerServerGauge(vendor, metricPrefix + "evictions",
+                                "Static content cache evictions",
+                                "Number of resources removed from the cache to free space for others",
+                                MetricUnits.NONE,
+                                statistics::evictions);
+            registerServerGauge(vendor, metricPrefix + "size",
+                                "Static content cache size",
+                                "Size of all cached static content including compressed variants",
+                                MetricUnits.BYTES,
+                                statistics::size);
+            registerServerGauge(vendor, metricPrefix + "entries",
+                                "Static content cache entries",
+                                "Number of cached static content resources",
+                                MetricUnits.NONE,
+                                statistics::entries);
+        });
+    }
+
+    private static void registerServerGauge(Registry vendor,
+                                            String name,
+                                            String displayName,
+                                            String description,
+                                            String unit,
+                                            Supplier<Long> value) {
+        // the routing may be used by more than one web server, the latest one wins
+        vendor.remove(name);
+        vendor.register(new Metadata(name, displayName, description, MetricType.GAUGE, unit), (Gauge<Long>) value::get);
     }
 
     /**
@@ -18,11 +18,16 @@ package io.helidon.metrics;
 
 import javax.json.JsonObject;
 
+import io.helidon.webserver.StaticContentSupport;
+
 import org.eclipse.microprofile.metrics.Counter;
 import org.eclipse.microprofile.metrics.MetricRegistry;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
 /**
  * Unit test for {@link MetricsSupport}.
  */
@@ -78,4 +83,17 @@ class MetricsSupportTest {
         JsonObject jsonObject = MetricsSupport.toJsonMeta(app, base);
         System.out.println("jsonObject = " + jsonObject);
     }
+
+    @Test
+    void testStaticContentMetrics() {
+        MetricsSupport metrics = MetricsSupport.create();
+
+        metrics.configureStaticContentMetrics("uncached", StaticContentSupport.create("/web"));
+        assertThat(vendor.getGauges().containsKey("static-content.uncached.cache.hits"), is(false));
+
+        metrics.configureStaticContentMetrics("web", StaticContentSupport.builder("/web").cacheMaxSize(1024).build());
+        assertThat(vendor.getGauges().get("static-content.web.cache.hits").getValue(), is(0L));
+        assertThat(vendor.getGauges().get("static-content.web.cache.hit-rate").getValue(), is(0L));
+        assertThat(vendor.getGauges().get("static-content.web.cache.size").getValue(), is(0L));
+    }
 }
@@ -362,6 +362,8 @@ public final class SecurityHandler implements Handler {
                         tracing.logProceed();
                         tracing.finish();
 
+                        // the principal is available to the handlers not depending on security, e.g. rate limiting
+                        securityContext.userPrincipal().ifPresent(principal -> req.context().register(principal));
                         req.next();
                     } else {
                         tracing.logDeny();
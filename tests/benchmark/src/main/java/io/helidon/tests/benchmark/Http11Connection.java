@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.tests.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal blocking HTTP/1.1 client connection used to drive the benchmarks without client library overhead.
+ * Supports only responses with a {@code Content-Length} header.
+ */
+final class Http11Connection implements AutoCloseable {
+
+    private final Socket socket;
+    private final InputStream in;
+    private final OutputStream out;
+
+    private Http11Connection(Socket socket) throws IOException {
+        this.socket = socket;
+        this.in = new BufferedInputStream(socket.getInputStream());
+        this.out = socket.getOutputStream();
+    }
+
+    /**
+     * Opens a new connection.
+     *
+     * @param port local port to connect to
+     * @return a new connection
+     * @throws IOException in case the connection cannot be opened
+     */
+    static Http11Connection open(int port) throws IOException {
+        Socket socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.connect(new InetSocketAddress("localhost", port));
+        return new Http11Connection(socket);
+    }
+
+    /**
+     * Creates a connection over an already connected socket, such as an {@link javax.net.ssl.SSLSocket}.
+     *
+     * @param socket connected socket
+     * @return a new connection
+     * @throws IOException in case the socket streams cannot be obtained
+     */
+    static Http11Connection create(Socket socket) throws IOException {
+        return new Http11Connection(socket);
+    }
+
+    /**
+     * Creates a GET request.
+     *
+     * @param path      request path
+     * @param keepAlive whether to keep the connection open
+     * @return request bytes
+     */
+    static byte[] get(String path, boolean keepAlive) {
+        return ("GET " + path + " HTTP/1.1\r\n"
+                + "Host: localhost\r\n"
+                + "Connection: " + (keepAlive ? "keep-alive" : "close") + "\r\n"
+                + "\r\n").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Sends a request and reads the whole response.
+     *
+     * @param request request bytes
+     * @return number of entity bytes received
+     * @throws IOException in case of an I/O error
+     */
+    int exchange(byte[] request) throws IOException {
+        out.write(request);
+        out.flush();
+        return readResponse();
+    }
+
+    private int readResponse() throws IOException {
+        int contentLength = -1;
+        String line;
+        while (!(line = readLine()).isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0 && line.regionMatches(true, 0, "content-length", 0, colon)) {
+                contentLength = Integer.parseInt(line.substring(colon + 1).trim());
+            }
+        }
+        if (contentLength < 0) {
+            throw new IOException("Response without content-length is not supported");
+        }
+        for (int i = 0; i < contentLength; i++) {
+            if (in.read() < 0) {
+                throw new IOException("Unexpected end of stream");
+            }
+        }
+        return contentLength;
+    }
+
+    private String readLine() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\n') {
+            if (c < 0) {
+                throw new IOException("Unexpected end of stream");
+            }
+            if (c != '\r') {
+                sb.append((char) c);
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.tests.benchmark;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+import io.helidon.common.reactive.Flow;
+import io.helidon.webserver.BareRequest;
+import io.helidon.webserver.BareResponse;
+import io.helidon.webserver.Routing;
+import io.helidon.webserver.WebServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the routing of a request to a handler, without any I/O, for routings with 10, 100 and 1000 routes.
+ * Half of the routes are literal paths ({@code /api/resource42}), the other half have a path parameter
+ * ({@code /api/resource42/{id}}), and there is a filter for all the paths registered first.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RoutingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int routes;
+
+    private Routing routing;
+    private WebServer webServer;
+    private StubRequest firstRoute;
+    private StubRequest lastRoute;
+    private StubRequest paramRoute;
+    private long handled;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Routing.Builder builder = Routing.builder()
+                .any((req, res) -> req.next());
+        int resources = routes / 2;
+        for (int i = 0; i < resources; i++) {
+            builder.get("/api/resource" + i, (req, res) -> handled++);
+            builder.get("/api/resource" + i + "/{id}", (req, res) -> handled += req.path().param("id").length());
+        }
+        routing = builder.build();
+        webServer = WebServer.create(routing);
+        firstRoute = new StubRequest(webServer, "/api/resource0");
+        lastRoute = new StubRequest(webServer, "/api/resource" + (resources - 1));
+        paramRoute = new StubRequest(webServer, "/api/resource" + (resources - 1) + "/42");
+    }
+
+    @Benchmark
+    public long firstRoute() {
+        routing.route(firstRoute, new StubResponse());
+        return handled;
+    }
+
+    @Benchmark
+    public long lastRoute() {
+        routing.route(lastRoute, new StubResponse());
+        return handled;
+    }
+
+    @Benchmark
+    public long paramRoute() {
+        routing.route(paramRoute, new StubResponse());
+        return handled;
+    }
+
+    /**
+     * A GET request without headers and content.
+     */
+    private static final class StubRequest implements BareRequest {
+        private final WebServer webServer;
+        private final URI uri;
+
+        private StubRequest(WebServer webServer, String path) {
+            this.webServer = webServer;
+            this.uri = URI.create("http://localhost:8080" + path);
+        }
+
+        @Override
+        public WebServer webServer() {
+            return webServer;
+        }
+
+        @Override
+        public Http.RequestMethod method() {
+            return Http.Method.GET;
+        }
+
+        @Override
+        public Http.Version version() {
+            return Http.Version.V1_1;
+        }
+
+        @Override
+        public URI uri() {
+            return uri;
+        }
+
+        @Override
+        public String localAddress() {
+            return "127.0.0.1";
+        }
+
+        @Override
+        public int localPort() {
+            return 8080;
+        }
+
+        @Override
+        public String remoteAddress() {
+            return "127.0.0.1";
+        }
+
+        @Override
+        public int remotePort() {
+            return 50000;
+        }
+
+        @Override
+        public boolean isSecure() {
+            return false;
+        }
+
+        @Override
+        public Map<String, List<String>> headers() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public Flow.Publisher<DataChunk> bodyPublisher() {
+            return Flow.Subscriber::onComplete;
+        }
+
+        @Override
+        public long requestId() {
+            return 1;
+        }
+    }
+
+    /**
+     * A response discarding everything, the benchmarked handlers do not send anything.
+     */
+    private static final class StubResponse implements BareResponse {
+        private final CompletableFuture<BareResponse> completed = CompletableFuture.completedFuture(this);
+
+        @Override
+        public void writeStatusAndHeaders(Http.ResponseStatus status, Map<String, List<String>> headers) {
+        }
+
+        @Override
+        public CompletionStage<BareResponse> whenHeadersCompleted() {
+            return completed;
+        }
+
+        @Override
+        public CompletionStage<BareResponse> whenCompleted() {
+            return completed;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(DataChunk data) {
+            data.release();
+        }
+
+        @Override
+        public void onError(Throwable thr) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        @Override
+        public long requestId() {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.tests.benchmark;
+
+import java.io.IOException;
+import java.security.cert.X509Certificate;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+import io.helidon.common.configurable.Resource;
+import io.helidon.common.pki.KeyConfig;
+import io.helidon.webserver.Routing;
+import io.helidon.webserver.SSLContextBuilder;
+import io.helidon.webserver.ServerConfiguration;
+import io.helidon.webserver.TlsConfiguration;
+import io.helidon.webserver.WebServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the JDK and the OpenSSL TLS provider for full and resumed handshakes, each followed by a single request.
+ * OpenSSL needs {@code netty-tcnative} on the class-path, build with {@code -Popenssl}; the server falls back to the
+ * JDK provider otherwise, check the server log.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+public class TlsHandshakeBenchmark {
+
+    private static final byte[] CLOSE_REQUEST = Http11Connection.get("/", false);
+
+    /**
+     * The server under test.
+     */
+    @State(Scope.Benchmark)
+    public static class Server {
+        @Param({"jdk", "openssl"})
+        String provider;
+
+        WebServer webServer;
+        SSLContext clientContext;
+
+        @Setup(Level.Trial)
+        public void start() throws Exception {
+            KeyConfig keys = KeyConfig.pemBuilder()
+                    .key(Resource.create("ssl/key.pkcs8.pem"))
+                    .certChain(Resource.create("ssl/certificate.pem"))
+                    .build();
+            webServer = WebServer.create(
+                    ServerConfiguration.builder()
+                            .ssl(SSLContextBuilder.create(keys))
+                            .tls(TlsConfiguration.builder()
+                                         .provider(TlsConfiguration.Provider.valueOf(provider.toUpperCase(Locale.ROOT)))
+                                         .privateKey(keys)
+                                         .build())
+                            .build(),
+                    Routing.builder()
+                            .get("/", (req, res) -> res.send("Hello World!"))
+                            .build())
+                    .start()
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+
+            clientContext = SSLContext.getInstance("TLS");
+            clientContext.init(null, new TrustManager[] {new TrustAll()}, null);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() throws Exception {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * A full handshake for each request, the session is invalidated so that it cannot be resumed.
+     *
+     * @param server server to connect to
+     * @return received entity length
+     * @throws IOException in case of an I/O error
+     */
+    @Benchmark
+    public int fullHandshake(Server server) throws IOException {
+        SSLSocket socket = connect(server);
+        try (Http11Connection connection = Http11Connection.create(socket)) {
+            socket.getSession().invalidate();
+            return connection.exchange(CLOSE_REQUEST);
+        }
+    }
+
+    /**
+     * An abbreviated handshake resuming a session cached by the client for each request.
+     *
+     * @param server server to connect to
+     * @return received entity length
+     * @throws IOException in case of an I/O error
+     */
+    @Benchmark
+    public int resumedHandshake(Server server) throws IOException {
+        try (Http11Connection connection = Http11Connection.create(connect(server))) {
+            return connection.exchange(CLOSE_REQUEST);
+        }
+    }
+
+    private static SSLSocket connect(Server server) throws IOException {
+        SSLSocket socket = (SSLSocket) server.clientContext.getSocketFactory()
+                .createSocket("localhost", server.webServer.port());
+        socket.setTcpNoDelay(true);
+        socket.startHandshake();
+        return socket;
+    }
+
+    private static final class TrustAll implements X509TrustManager {
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return new X509Certificate[0];
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.tests.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.webserver.Routing;
+import io.helidon.webserver.ServerConfiguration;
+import io.helidon.webserver.WebServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the NIO and the native epoll transport for keep-alive and connection churn workloads.
+ * The native transport silently falls back to NIO when not available; check the server log.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+public class TransportBenchmark {
+
+    private static final byte[] KEEP_ALIVE_REQUEST = Http11Connection.get("/", true);
+    private static final byte[] CLOSE_REQUEST = Http11Connection.get("/", false);
+
+    /**
+     * The server under test.
+     */
+    @State(Scope.Benchmark)
+    public static class Server {
+        @Param({"nio", "epoll"})
+        String transport;
+
+        @Param({"1", "4"})
+        int acceptors;
+
+        WebServer webServer;
+
+        @Setup(Level.Trial)
+        public void start() throws Exception {
+            webServer = WebServer.create(
+                    ServerConfiguration.builder()
+                            .nativeTransport("epoll".equals(transport))
+                            .acceptors(acceptors)
+                            .build(),
+                    Routing.builder()
+                            .get("/", (req, res) -> res.send("Hello World!"))
+                            .build())
+                    .start()
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() throws Exception {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * A persistent connection per benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class Connection {
+        Http11Connection connection;
+
+        @Setup(Level.Iteration)
+        public void open(Server server) throws IOException {
+            connection = Http11Connection.open(server.webServer.port());
+        }
+
+        @TearDown(Level.Iteration)
+        public void close() throws IOException {
+            connection.close();
+        }
+    }
+
+    /**
+     * Requests sent over a kept-alive connection.
+     *
+     * @param connection connection to use
+     * @return received entity length
+     * @throws IOException in case of an I/O error
+     */
+    @Benchmark
+    public int keepAlive(Connection connection) throws IOException {
+        return connection.connection.exchange(KEEP_ALIVE_REQUEST);
+    }
+
+    /**
+     * A new connection for each request.
+     *
+     * @param server server to connect to
+     * @return received entity length
+     * @throws IOException in case of an I/O error
+     */
+    @Benchmark
+    public int connectionChurn(Server server) throws IOException {
+        try (Http11Connection connection = Http11Connection.open(server.webServer.port())) {
+            return connection.exchange(CLOSE_REQUEST);
+        }
+    }
+}
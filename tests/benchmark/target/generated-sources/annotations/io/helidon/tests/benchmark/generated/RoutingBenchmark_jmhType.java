@@ -0,0 +1,4 @@
+package io.helidon.tests.benchmark.generated;
+public class RoutingBenchmark_jmhType extends RoutingBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package io.helidon.tests.benchmark.generated;
+public class TlsHandshakeBenchmark_Server_jmhType extends TlsHandshakeBenchmark_Server_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package io.helidon.tests.benchmark.generated;
+public class TlsHandshakeBenchmark_jmhType extends TlsHandshakeBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package io.helidon.tests.benchmark.generated;
+public class TransportBenchmark_Connection_jmhType extends TransportBenchmark_Connection_jmhType_B3 {
+}
+
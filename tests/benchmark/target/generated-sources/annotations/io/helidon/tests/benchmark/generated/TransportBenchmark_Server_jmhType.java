@@ -0,0 +1,4 @@
+package io.helidon.tests.benchmark.generated;
+public class TransportBenchmark_Server_jmhType extends TransportBenchmark_Server_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package io.helidon.tests.benchmark.generated;
+public class TransportBenchmark_jmhType extends TransportBenchmark_jmhType_B3 {
+}
+
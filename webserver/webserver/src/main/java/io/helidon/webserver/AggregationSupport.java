@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+/**
+ * A {@link Service} and {@link Handler} overriding the {@link SocketConfiguration#aggregationBufferSize() aggregation
+ * buffer size of the server socket} for the routes it is registered on.
+ * <pre>{@code
+ * Routing.builder()
+ *        // reports are sent with their length up to 1 MB
+ *        .register("/reports", AggregationSupport.create(1024 * 1024))
+ *        // the download is streamed as it is produced even if the server socket aggregates
+ *        .get("/download", AggregationSupport.create(0), downloadHandler)
+ *        .build()
+ * }</pre>
+ */
+public final class AggregationSupport implements Service, Handler {
+
+    private final int aggregationBufferSize;
+
+    private AggregationSupport(int aggregationBufferSize) {
+        this.aggregationBufferSize = aggregationBufferSize;
+    }
+
+    /**
+     * Creates a new instance with the provided aggregation buffer size.
+     *
+     * @param aggregationBufferSize maximal size of the content aggregated to be sent with a known length,
+     *                              {@code 0} to disable aggregation
+     * @return a new instance
+     * @throws IllegalArgumentException if the size is negative
+     */
+    public static AggregationSupport create(int aggregationBufferSize) {
+        if (aggregationBufferSize < 0) {
+            throw new IllegalArgumentException("Aggregation buffer size must not be negative: " + aggregationBufferSize);
+        }
+        return new AggregationSupport(aggregationBufferSize);
+    }
+
+    /**
+     * Registers this handler for any HTTP method.
+     *
+     * @param rules a routing configuration where the aggregation should be registered
+     */
+    @Override
+    public void update(Routing.Rules rules) {
+        rules.any(this);
+    }
+
+    @Override
+    public void accept(ServerRequest req, ServerResponse res) {
+        if (res instanceof Response) {
+            ((Response) res).aggregationBufferSize(aggregationBufferSize);
+        }
+        req.next();
+    }
+}
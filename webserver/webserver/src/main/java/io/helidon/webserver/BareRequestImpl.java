@@ -31,6 +31,7 @@ import io.helidon.common.http.Http;
 import io.helidon.common.reactive.Flow;
 
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpRequest;
 
 /**
@@ -45,6 +46,7 @@ class BareRequestImpl implements BareRequest {
     private final SSLEngine sslEngine;
     private final long requestId;
     private final URI uri;
+    private final Http.RequestMethod method;
 
     BareRequestImpl(HttpRequest request,
                     Flow.Publisher<DataChunk> publisher,
@@ -59,6 +61,7 @@ class BareRequestImpl implements BareRequest {
         this.sslEngine = sslEngine;
         this.requestId = requestId;
         this.uri = URI.create(nettyRequest.uri());
+        this.method = Http.RequestMethod.create(nettyRequest.method().name());
     }
 
     @Override
@@ -68,7 +71,7 @@ class BareRequestImpl implements BareRequest {
 
     @Override
     public Http.RequestMethod method() {
-        return Http.RequestMethod.create(nettyRequest.method().name());
+        return method;
     }
 
     @Override
@@ -114,6 +117,16 @@ class BareRequestImpl implements BareRequest {
         return sslEngine != null;
     }
 
+    /**
+     * Returns the Netty headers of the request. Used to create a {@link NettyRequestHeaders} view instead of
+     * copying the {@link #headers()}.
+     *
+     * @return request headers
+     */
+    HttpHeaders nettyHeaders() {
+        return nettyRequest.headers();
+    }
+
     @Override
     public Map<String, List<String>> headers() {
         HashMap<String, List<String>> map = new HashMap<>();
@@ -134,4 +147,15 @@ class BareRequestImpl implements BareRequest {
     public long requestId() {
         return requestId;
     }
+
+    /**
+     * Sets the maximal length of the request content, the content over the limit fails the body publisher.
+     *
+     * @param maxContentLength maximal content length in bytes
+     */
+    void maxContentLength(long maxContentLength) {
+        if (publisher instanceof HttpRequestScopedPublisher) {
+            ((HttpRequestScopedPublisher) publisher).maxContentLength(maxContentLength);
+        }
+    }
 }
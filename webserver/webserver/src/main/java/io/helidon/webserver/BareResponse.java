@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.concurrent.CompletionStage;
 
 import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.DataChunkFactory;
 import io.helidon.common.http.Http;
 import io.helidon.common.reactive.Flow;
 
@@ -100,4 +101,14 @@ public interface BareResponse extends Flow.Subscriber<DataChunk> {
      * @return a unique correlation ID associated with this response and its request
      */
     long requestId();
+
+    /**
+     * Returns a factory of data chunks which can be written to this response without a copy.
+     * The chunks are released by this response once written.
+     *
+     * @return a factory of data chunks
+     */
+    default DataChunkFactory dataChunkFactory() {
+        return DataChunkFactory.heap();
+    }
 }
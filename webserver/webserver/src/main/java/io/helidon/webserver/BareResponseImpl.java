@@ -16,33 +16,49 @@
 
 package io.helidon.webserver;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BooleanSupplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.DataChunkFactory;
 import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
 import io.helidon.common.reactive.Flow;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.DefaultFileRegion;
 import io.netty.handler.codec.http.DefaultHttpContent;
 import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.DefaultLastHttpContent;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.ssl.SslHandler;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
 
@@ -56,13 +72,18 @@ class BareResponseImpl implements BareResponse {
 
     private static final Logger LOGGER = Logger.getLogger(BareResponseImpl.class.getName());
 
-    // See HttpConversionUtil.ExtensionHeaderNames
-    private static final String HTTP_2_HEADER_PREFIX = "x-http2";
     private static final SocketClosedException CLOSED = new SocketClosedException("Response channel is closed!");
     private static final LastHttpContent LAST_HTTP_CONTENT = new DefaultLastHttpContent(Unpooled.EMPTY_BUFFER);
+    // number of chunks requested upfront; every written chunk requests another one while the channel is writable
+    private static final long INITIAL_DEMAND = 4;
+    // size of a TLS record
+    private static final int FILE_CHUNK_SIZE = 16 * 1024;
 
     private final boolean keepAlive;
+    private final boolean headRequest;
     private final ChannelHandlerContext ctx;
+    private final ResponseQueue.Slot slot;
+    private final PooledDataChunkFactory dataChunkFactory;
     private final AtomicBoolean statusHeadersSent = new AtomicBoolean(false);
     private final AtomicBoolean internallyClosed = new AtomicBoolean(false);
     private final CompletableFuture<BareResponse> responseFuture;
@@ -73,11 +94,21 @@ class BareResponseImpl implements BareResponse {
     private final HttpHeaders requestHeaders;
     private final ChannelFuture channelClosedFuture;
     private final GenericFutureListener<? extends Future<? super Void>> channelClosedListener;
+    private final AtomicLong deferredDemand = new AtomicLong();
+    private final AtomicLong pendingDemand = new AtomicLong();
+    private final AtomicInteger requesting = new AtomicInteger();
 
     private volatile Flow.Subscription subscription;
+    private volatile boolean closeConnection;
     private volatile DataChunk firstChunk;
+    // the following chunks of the content copied with the first one while the length may still be sent, guarded by this
+    private ByteBuf aggregated;
+    private volatile int aggregationBufferSize;
     private volatile DefaultHttpResponse response;
     private volatile boolean lengthOptimization;
+    private volatile FileChunks fileChunks;
+    private volatile CompressionConfiguration compression;
+    private volatile ContentCompressor compressor;
 
     /**
      * @param ctx the channel handler context
@@ -85,19 +116,31 @@ class BareResponseImpl implements BareResponse {
      * @param requestContentConsumed whether the request content is consumed
      * @param thread the outbound event loop thread which will be used to write the response
      * @param requestId the correlation ID that is added to the log statements
+     * @param compression compression configuration of the server socket
+     * @param aggregationBufferSize maximal size of the content aggregated to be sent with a known length
+     * @param slot the place of the response in the queue of pipelined responses or {@code null} if the requests
+     *             of the connection are not pipelined
      */
     BareResponseImpl(ChannelHandlerContext ctx,
                      HttpRequest request,
                      BooleanSupplier requestContentConsumed,
                      Thread thread,
-                     long requestId) {
+                     long requestId,
+                     CompressionConfiguration compression,
+                     int aggregationBufferSize,
+                     ResponseQueue.Slot slot) {
+        this.compression = compression;
+        this.aggregationBufferSize = aggregationBufferSize;
         this.requestContentConsumed = requestContentConsumed;
         this.thread = thread;
         this.responseFuture = new CompletableFuture<>();
         this.headersFuture = new CompletableFuture<>();
         this.ctx = ctx;
+        this.slot = slot;
+        this.dataChunkFactory = new PooledDataChunkFactory(ctx.alloc());
         this.requestId = requestId;
         this.keepAlive = HttpUtil.isKeepAlive(request);
+        this.headRequest = HttpMethod.HEAD.equals(request.method());
         this.requestHeaders = request.headers();
 
         // We need to keep this listener so we can remove it when this response completes. If we don't, we leak
@@ -111,6 +154,9 @@ class BareResponseImpl implements BareResponse {
         channelClosedFuture.addListener(channelClosedListener);
 
         responseFuture.whenComplete(this::responseComplete);
+        if (slot != null) {
+            slot.writableListener(this::channelWritable);
+        }
     }
 
     private void responseComplete(BareResponse self, Throwable throwable) {
@@ -123,7 +169,167 @@ class BareResponseImpl implements BareResponse {
     }
 
     private void channelClosed(Future<? super Void> future) {
-        responseFuture.completeExceptionally(CLOSED);
+        // a HTTP/2 stream is closed as soon as the last content is written, the response is completed by the write
+        if (!internallyClosed.get()) {
+            responseFuture.completeExceptionally(CLOSED);
+        }
+        closeFile();
+        ContentCompressor c = compressor;
+        if (c != null) {
+            c.close();
+        }
+        DataChunk chunk = takeFirstChunk();
+        if (chunk != null) {
+            chunk.release();
+        }
+        ByteBuf content = takeAggregated();
+        if (content != null) {
+            content.release();
+        }
+        Flow.Subscription s = subscription;
+        if (s != null) {
+            // nobody is going to read the data anymore, let the publisher know
+            s.cancel();
+        }
+    }
+
+    /**
+     * The event loop writing this response.
+     *
+     * @return event loop of the channel
+     */
+    ScheduledExecutorService executor() {
+        return ctx.executor();
+    }
+
+    /**
+     * The channel handler context of the connection.
+     *
+     * @return channel handler context
+     */
+    ChannelHandlerContext context() {
+        return ctx;
+    }
+
+    /**
+     * Headers of the request of this response.
+     *
+     * @return request headers
+     */
+    HttpHeaders requestHeaders() {
+        return requestHeaders;
+    }
+
+    /**
+     * Whether the connection may be upgraded to another protocol by this response. The response must not have
+     * been started and must not wait for the pipelined responses before it, a HTTP/2 stream cannot be upgraded.
+     *
+     * @return whether the connection may be upgraded
+     */
+    boolean upgradeable() {
+        return !(ctx.channel() instanceof Http2StreamChannel)
+                && !statusHeadersSent.get()
+                && !internallyClosed.get()
+                && (slot == null || slot.isHead());
+    }
+
+    /**
+     * Completes this response without writing it, the connection was upgraded to another protocol which writes
+     * its own response.
+     */
+    void upgraded() {
+        if (internallyClosed.compareAndSet(false, true)) {
+            completeResponseFuture(null);
+        }
+    }
+
+    /**
+     * Invoked by the {@link ForwardingHandler} once the channel becomes writable again
+     * (the outbound buffer dropped below the low water mark), or by the {@link ResponseQueue} once a pipelined
+     * response may continue writing.
+     * Continues writing of a file, or requests the chunks deferred while the channel was not writable.
+     */
+    void channelWritable() {
+        if (fileChunks != null) {
+            if (ctx.executor().inEventLoop()) {
+                writeFileChunks();
+            } else {
+                ctx.executor().execute(this::writeFileChunks);
+            }
+            return;
+        }
+        long n = deferredDemand.getAndSet(0);
+        if (n > 0) {
+            LOGGER.finest(() -> log("Channel writable, resuming demand: " + n));
+            request(n);
+        }
+    }
+
+    /**
+     * Requests next chunk if the channel is writable, otherwise defers the demand until
+     * the channel becomes writable again.
+     */
+    private void demandNext() {
+        if (internallyClosed.get()) {
+            return;
+        }
+        if (isWritable()) {
+            request(1);
+            return;
+        }
+        LOGGER.finest(() -> log("Channel not writable, pausing demand"));
+        // written data must be flushed, otherwise the channel never becomes writable again
+        flush();
+        deferredDemand.incrementAndGet();
+        // writability may have changed before the demand was deferred
+        if (isWritable()) {
+            channelWritable();
+        }
+    }
+
+    /**
+     * Requests data from the subscription. The request is not reentrant, demand signalled from within
+     * {@link #onNext(DataChunk)} of a synchronous publisher is accumulated and requested once the outer request returns.
+     *
+     * @param n number of chunks to request
+     */
+    private void request(long n) {
+        Flow.Subscription s = subscription;
+        if (s == null) {
+            return;
+        }
+        pendingDemand.addAndGet(n);
+        if (requesting.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            long r = pendingDemand.getAndSet(0);
+            if (r > 0) {
+                s.request(r);
+            }
+            missed = requesting.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Overrides the compression configuration of the server socket for this response.
+     * Must be invoked before the status and headers are written.
+     *
+     * @param compression compression configuration
+     */
+    void compression(CompressionConfiguration compression) {
+        this.compression = compression;
+    }
+
+    /**
+     * Overrides the aggregation buffer size of the server socket for this response.
+     * Must be invoked before the content is written.
+     *
+     * @param aggregationBufferSize maximal size of the content aggregated to be sent with a known length
+     */
+    void aggregationBufferSize(int aggregationBufferSize) {
+        this.aggregationBufferSize = aggregationBufferSize;
     }
 
     @Override
@@ -138,10 +344,13 @@ class BareResponseImpl implements BareResponse {
             response.headers().add(headerEntry.getKey(), headerEntry.getValue());
         }
 
-        // Copy HTTP/2 headers to response for correlation (streamId)
-        requestHeaders.names().stream()
-                .filter(header -> header.startsWith(HTTP_2_HEADER_PREFIX))
-                .forEach(header -> response.headers().add(header, requestHeaders.get(header)));
+        ContentCompressor c = createCompressor(status);
+        if (c != null) {
+            // length of the compressed content is not known upfront
+            response.headers().set(HttpHeaderNames.CONTENT_ENCODING, c.encoding());
+            response.headers().remove(HttpHeaderNames.CONTENT_LENGTH);
+            compressor = c;
+        }
 
         // Set chunked if length not set, may switch to length later
         boolean lengthSet = HttpUtil.isContentLengthSet(response);
@@ -153,8 +362,10 @@ class BareResponseImpl implements BareResponse {
 
         // Add keep alive header as per:
         // http://www.w3.org/Protocols/HTTP/1.1/draft-ietf-http-v11-spec-01.html#Connection
-        if (keepAlive) {
+        if (keepAlive && !closeConnection) {
             response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+        } else if (keepAlive) {
+            response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
         }
 
         // Content length optimization attempt
@@ -164,6 +375,48 @@ class BareResponseImpl implements BareResponse {
         }
     }
 
+    /**
+     * Creates a compressor if the response content should be compressed.
+     * Adds {@code Vary: Accept-Encoding} to all compressible responses, including those the client does not
+     * accept compressed.
+     *
+     * @param status response status
+     * @return a new compressor or {@code null}
+     */
+    private ContentCompressor createCompressor(Http.ResponseStatus status) {
+        CompressionConfiguration config = compression;
+        int code = status.code();
+        if (config == null
+                || !config.enabled()
+                || headRequest
+                || code < 200
+                || code == Http.Status.NO_CONTENT_204.code()
+                || code == Http.Status.PARTIAL_CONTENT_206.code()
+                || code == Http.Status.NOT_MODIFIED_304.code()) {
+            return null;
+        }
+        HttpHeaders headers = response.headers();
+        String contentType = headers.get(HttpHeaderNames.CONTENT_TYPE);
+        if (contentType == null || headers.contains(HttpHeaderNames.CONTENT_ENCODING)) {
+            return null;
+        }
+        try {
+            if (!config.compressible(MediaType.parse(contentType))) {
+                return null;
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!headers.containsValue(HttpHeaderNames.VARY, Http.Header.ACCEPT_ENCODING, true)) {
+            headers.add(HttpHeaderNames.VARY, Http.Header.ACCEPT_ENCODING);
+        }
+        long length = HttpUtil.getContentLength(response, -1L);
+        if (length >= 0 && length < config.minSize()) {
+            return null;
+        }
+        return ContentCompressor.create(config, requestHeaders.getAll(HttpHeaderNames.ACCEPT_ENCODING));
+    }
+
     /**
      * Completes {@code responseFuture} instance to signal that this response is done.
      * <b>Prefer to use {@link #completeInternal(Throwable)} to cover whole completion process.</b>
@@ -191,7 +444,7 @@ class BareResponseImpl implements BareResponse {
             return;
         }
 
-        if (keepAlive) {
+        if (keepAlive && !closeConnection) {
             LOGGER.finest(() -> log("Writing an empty last http content; keep-alive: true"));
 
             writeLastContent(throwable, ChannelFutureListener.CLOSE_ON_FAILURE);
@@ -214,7 +467,7 @@ class BareResponseImpl implements BareResponse {
     }
 
     /**
-     * Write last HTTP content. If length optimization is active and a first chunk is cached,
+     * Write last HTTP content. If length optimization is active and the content is aggregated,
      * switch content encoding and write response.
      *
      * @param throwable A throwable.
@@ -222,18 +475,180 @@ class BareResponseImpl implements BareResponse {
      */
     private void writeLastContent(final Throwable throwable, final ChannelFutureListener closeAction) {
         if (lengthOptimization) {
-            if (firstChunk != null) {
+            DataChunk chunk = firstChunk;
+            ByteBuf aggregatedContent = aggregated;
+            int length = (aggregatedContent != null)
+                    ? aggregatedContent.readableBytes()
+                    : (chunk == null) ? 0 : chunk.data().remaining();
+            ContentCompressor c = compressor;
+            if (c != null && ((chunk == null && aggregatedContent == null) || length < compression.minSize())) {
+                // the whole content is known and it is empty or too small to be compressed
+                response.headers().remove(HttpHeaderNames.CONTENT_ENCODING);
+                c.close();
+                compressor = null;
+                c = null;
+            }
+            if (c != null) {
+                // the whole content compressed at once, so the compressed length is known as well
+                ByteBuf content;
+                if (aggregatedContent != null) {
+                    takeAggregated();
+                    content = Unpooled.wrappedBuffer(c.compress(aggregatedContent.nioBuffer(), ctx.alloc()),
+                                                     c.finish(ctx.alloc()));
+                    aggregatedContent.release();
+                } else {
+                    content = Unpooled.wrappedBuffer(c.compress(chunk.data(), ctx.alloc()), c.finish(ctx.alloc()));
+                    takeFirstChunk();
+                    chunk.release();
+                }
+                compressor = null;
                 HttpUtil.setTransferEncodingChunked(response, false);
-                HttpUtil.setContentLength(response, firstChunk.data().remaining());
+                HttpUtil.setContentLength(response, content.readableBytes());
+                initWriteResponse();
+                write(new DefaultHttpContent(content))
+                        .addListener(completeOnFailureListener("Failure when sending a content!"))
+                        .addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+            } else {
+                if (chunk != null || aggregatedContent != null) {
+                    HttpUtil.setTransferEncodingChunked(response, false);
+                    HttpUtil.setContentLength(response, length);
+                }
+                initWriteResponse();
             }
-            initWriteResponse();
         }
-        ctx.writeAndFlush(LAST_HTTP_CONTENT)
+        ContentCompressor c = compressor;
+        if (c != null) {
+            compressor = null;
+            write(new DefaultHttpContent(c.finish(ctx.alloc())))
+                    .addListener(completeOnFailureListener("Failure when sending a content!"))
+                    .addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+        }
+        writeLast(LAST_HTTP_CONTENT)
                 .addListener(completeOnFailureListener("An exception occurred when writing last http content."))
                 .addListener(completeOnSuccessListener(throwable))
                 .addListener(closeAction);
     }
 
+    /**
+     * Closes the connection once this response is completely written, e.g. when the server is shutting down.
+     * The client is told by the {@code Connection: close} header unless the headers were already sent.
+     */
+    void closeConnection() {
+        closeConnection = true;
+    }
+
+    /**
+     * Whether the response content can be written directly from a file using {@link #sendFile(FileContent)}.
+     * Files are not supported for HTTP/2 streams, the content must be published as data chunks.
+     *
+     * @return {@code true} if a file can be sent
+     */
+    boolean fileTransferSupported() {
+        return !(ctx.channel() instanceof Http2StreamChannel);
+    }
+
+    /**
+     * Writes the file content and completes this response. Status and headers must be already written.
+     * <p>
+     * On a plain socket the file regions are written as {@link DefaultFileRegion}s and transferred by the kernel
+     * ({@code sendfile}) without copying them to the heap. Data of a TLS socket must be encrypted, so the file is read
+     * using positional reads into pooled buffers, chunk by chunk while the channel is writable.
+     *
+     * @param content the file content to send
+     * @throws IOException if the file cannot be opened
+     */
+    void sendFile(FileContent content) throws IOException {
+        if (internallyClosed.get()) {
+            // completed when sending headers failed
+            return;
+        }
+        if (lengthOptimization) {
+            initWriteResponse();
+        }
+        LOGGER.finest(() -> log("Sending file: " + content.length() + " bytes"));
+        // compressed content must be read to be compressed, the same as the content of a TLS connection
+        if (compressor == null && ctx.pipeline().get(SslHandler.class) == null) {
+            File file = content.path().toFile();
+            for (FileContent.Part part : content.parts()) {
+                if (part.length() == 0) {
+                    continue;
+                }
+                Object msg;
+                if (part.isRegion()) {
+                    // the file is opened once the region is being transferred
+                    msg = new DefaultFileRegion(file, part.position(), part.length());
+                } else {
+                    msg = new DefaultHttpContent(Unpooled.wrappedBuffer(part.data()));
+                }
+                write(msg)
+                        .addListener(completeOnFailureListener("Failure when sending a file!"))
+                        .addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+            }
+            completeInternal(null);
+        } else {
+            fileChunks = new FileChunks(content);
+            if (ctx.executor().inEventLoop()) {
+                writeFileChunks();
+            } else {
+                ctx.executor().execute(this::writeFileChunks);
+            }
+        }
+    }
+
+    /**
+     * Writes chunks of the file being sent while the channel is writable. Invoked again from {@link #channelWritable()}.
+     * Always executed on the event loop.
+     */
+    private void writeFileChunks() {
+        FileChunks chunks = fileChunks;
+        if (chunks == null) {
+            return;
+        }
+        try {
+            while (isWritable()) {
+                ByteBuf chunk = chunks.next(ctx.alloc());
+                if (chunk == null) {
+                    closeFile();
+                    completeInternal(null);
+                    return;
+                }
+                write(new DefaultHttpContent(compress(chunk)))
+                        .addListener(completeOnFailureListener("Failure when sending a file!"))
+                        .addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+            }
+            flush();
+        } catch (IOException | RuntimeException e) {
+            closeFile();
+            // content length was already sent, the connection cannot be reused
+            completeResponseFuture(e);
+            ctx.close();
+        }
+    }
+
+    private ByteBuf compress(ByteBuf chunk) {
+        ContentCompressor c = compressor;
+        if (c == null) {
+            return chunk;
+        }
+        try {
+            return c.compress(chunk.nioBuffer(), ctx.alloc());
+        } finally {
+            chunk.release();
+        }
+    }
+
+    private void closeFile() {
+        FileChunks chunks = fileChunks;
+        fileChunks = null;
+        if (chunks != null) {
+            try {
+                chunks.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINEST, e, () -> log("Failed to close a file"));
+            }
+        }
+    }
+
     private GenericFutureListener<Future<? super Void>> completeOnFailureListener(String message) {
         return future -> {
             if (!future.isSuccess()) {
@@ -254,7 +669,7 @@ class BareResponseImpl implements BareResponse {
     @Override
     public void onSubscribe(Flow.Subscription subscription) {
         this.subscription = subscription;
-        subscription.request(Long.MAX_VALUE);
+        request(INITIAL_DEMAND);
     }
 
     @Override
@@ -264,18 +679,21 @@ class BareResponseImpl implements BareResponse {
         }
         if (data != null) {
             if (data.isFlushChunk()) {
-                ctx.flush();
-                return;
-            }
-            if (lengthOptimization) {
-                if (firstChunk == null) {
-                    firstChunk = data.isReadOnly() ? data : data.duplicate();      // cache first chunk
-                    return;
+                if (lengthOptimization) {
+                    // the cached chunk must be written now, so the length of the content cannot be known
+                    initWriteResponse();
                 }
-                initWriteResponse();
+                flush();
+            } else if (lengthOptimization && !data.flush() && aggregate(data)) {
+                LOGGER.finest(() -> log("Data chunk aggregated"));
+            } else {
+                if (lengthOptimization) {
+                    initWriteResponse();
+                }
+                sendData(data);
             }
-            sendData(data);
         }
+        demandNext();
     }
 
     /**
@@ -284,7 +702,7 @@ class BareResponseImpl implements BareResponse {
      * @return Future of response or first chunk.
      */
     private ChannelFuture initWriteResponse() {
-        ChannelFuture cf = ctx.write(response)
+        ChannelFuture cf = write(response)
                 .addListener(future -> {
                     if (future.isSuccess()) {
                         headersFuture.complete(this);
@@ -293,26 +711,85 @@ class BareResponseImpl implements BareResponse {
                 .addListener(completeOnFailureListener("An exception occurred when writing headers."))
                 .addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
         response = null;
-        if (firstChunk != null) {
-            cf = sendData(firstChunk);
-            firstChunk = null;
+        DataChunk chunk = takeFirstChunk();
+        if (chunk != null) {
+            cf = sendData(chunk);
+        }
+        ByteBuf content = takeAggregated();
+        if (content != null) {
+            cf = write(new DefaultHttpContent(compress(content)))
+                    .addListener(completeOnFailureListener("Failure when sending a content!"))
+                    .addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
         }
         lengthOptimization = false;
         return cf;
     }
 
+    /**
+     * Holds a chunk of the content while the whole content may fit into the aggregation buffer, so its length
+     * can be sent. The first chunk is held as is, once another chunk arrives the chunks are copied into a single
+     * pooled buffer and released.
+     *
+     * @param data the chunk
+     * @return {@code true} if the chunk is held, {@code false} if it does not fit and the content must be written
+     */
+    private synchronized boolean aggregate(DataChunk data) {
+        DataChunk first = firstChunk;
+        if (first == null && aggregated == null) {
+            // cache first chunk
+            firstChunk = data.isReadOnly() ? data : data.duplicate();
+            return true;
+        }
+        int length = data.data().remaining();
+        int current = (aggregated == null) ? first.data().remaining() : aggregated.readableBytes();
+        if ((long) current + length > aggregationBufferSize) {
+            return false;
+        }
+        if (aggregated == null) {
+            aggregated = ctx.alloc().buffer(current + length, aggregationBufferSize);
+            aggregated.writeBytes(first.data().duplicate());
+            firstChunk = null;
+            first.release();
+        }
+        aggregated.writeBytes(data.data().duplicate());
+        data.release();
+        return true;
+    }
+
+    private synchronized DataChunk takeFirstChunk() {
+        DataChunk chunk = firstChunk;
+        firstChunk = null;
+        return chunk;
+    }
+
+    private synchronized ByteBuf takeAggregated() {
+        ByteBuf content = aggregated;
+        aggregated = null;
+        return content;
+    }
+
     private ChannelFuture sendData(DataChunk data) {
             LOGGER.finest(() -> log("Sending data chunk"));
 
-            DefaultHttpContent httpContent = new DefaultHttpContent(Unpooled.wrappedBuffer(data.data()));
+            ContentCompressor c = compressor;
+            ByteBuf content;
+            if (c != null) {
+                content = c.compress(data.data(), ctx.alloc());
+            } else if (data instanceof ByteBufDataChunk) {
+                // written without a copy, the chunk is released once written as any other
+                content = ((ByteBufDataChunk) data).retainedContent();
+            } else {
+                content = Unpooled.wrappedBuffer(data.data());
+            }
+            DefaultHttpContent httpContent = new DefaultHttpContent(content);
 
             LOGGER.finest(() -> log("Sending data chunk on event loop thread."));
 
             ChannelFuture channelFuture;
             if (data.flush()) {
-                channelFuture = ctx.writeAndFlush(httpContent);
+                channelFuture = writeAndFlush(httpContent);
             } else {
-                channelFuture = ctx.write(httpContent);
+                channelFuture = write(httpContent);
             }
 
             return channelFuture
@@ -324,6 +801,84 @@ class BareResponseImpl implements BareResponse {
                     .addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
     }
 
+    /**
+     * Reads the parts of a file content as chunks of at most {@link #FILE_CHUNK_SIZE} bytes.
+     */
+    private static final class FileChunks {
+        private final FileChannel file;
+        private final Iterator<FileContent.Part> parts;
+
+        private FileContent.Part current;
+        private long offset;
+
+        private FileChunks(FileContent content) throws IOException {
+            this.file = FileChannel.open(content.path(), StandardOpenOption.READ);
+            this.parts = content.parts().iterator();
+        }
+
+        /**
+         * Reads next chunk.
+         *
+         * @param alloc allocator of the chunk buffer
+         * @return next chunk or {@code null} if all parts were read
+         * @throws IOException if the file cannot be read
+         */
+        private ByteBuf next(ByteBufAllocator alloc) throws IOException {
+            while (current == null || offset >= current.length()) {
+                if (!parts.hasNext()) {
+                    return null;
+                }
+                current = parts.next();
+                offset = 0;
+            }
+            if (!current.isRegion()) {
+                offset = current.length();
+                return Unpooled.wrappedBuffer(current.data());
+            }
+            int length = (int) Math.min(FILE_CHUNK_SIZE, current.length() - offset);
+            ByteBuf chunk = alloc.buffer(length);
+            try {
+                int read = chunk.writeBytes(file, current.position() + offset, length);
+                if (read <= 0) {
+                    throw new IOException("File is shorter than expected: " + file);
+                }
+                offset += read;
+                return chunk;
+            } catch (IOException | RuntimeException e) {
+                chunk.release();
+                throw e;
+            }
+        }
+
+        private void close() throws IOException {
+            file.close();
+        }
+    }
+
+    private ChannelFuture write(Object msg) {
+        return slot == null ? ctx.write(msg) : slot.write(msg, false);
+    }
+
+    private ChannelFuture writeAndFlush(Object msg) {
+        return slot == null ? ctx.writeAndFlush(msg) : slot.write(msg, true);
+    }
+
+    private ChannelFuture writeLast(Object msg) {
+        return slot == null ? ctx.writeAndFlush(msg) : slot.writeLast(msg);
+    }
+
+    private void flush() {
+        if (slot == null) {
+            ctx.flush();
+        } else {
+            slot.flush();
+        }
+    }
+
+    private boolean isWritable() {
+        return slot == null ? ctx.channel().isWritable() : slot.isWritable();
+    }
+
     private String log(String s) {
         return "(reqID: " + requestId + ") " + s;
     }
@@ -354,6 +909,11 @@ class BareResponseImpl implements BareResponse {
         return headersFuture;
     }
 
+    @Override
+    public DataChunkFactory dataChunkFactory() {
+        return dataChunkFactory;
+    }
+
     @Override
     public long requestId() {
         return requestId;
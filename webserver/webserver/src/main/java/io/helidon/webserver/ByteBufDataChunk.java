@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.ByteBuffer;
+
+import io.helidon.common.http.DataChunk;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A {@link DataChunk} backed by a Netty {@link ByteBuf}, usually a pooled direct buffer.
+ * {@link #release() Releasing} the chunk releases the buffer.
+ */
+final class ByteBufDataChunk implements DataChunk {
+
+    private final ByteBuf byteBuf;
+    private final ByteBuffer data;
+    private boolean released;
+
+    /**
+     * Creates a chunk with the readable bytes of the buffer, exposed as a read-only {@link ByteBuffer}.
+     *
+     * @param byteBuf a buffer, the chunk takes over its reference
+     */
+    ByteBufDataChunk(ByteBuf byteBuf) {
+        this.byteBuf = byteBuf;
+        this.data = byteBuf.nioBuffer().asReadOnlyBuffer();
+    }
+
+    @Override
+    public ByteBuffer data() {
+        return data;
+    }
+
+    /**
+     * Returns a retained slice of the buffer with the {@link #data() remaining data}, to be written to the channel.
+     *
+     * @return a retained slice of the buffer
+     */
+    ByteBuf retainedContent() {
+        return byteBuf.retainedSlice(byteBuf.readerIndex() + data.position(), data.remaining());
+    }
+
+    @Override
+    public void release() {
+        if (!released) {
+            released = true;
+            byteBuf.release();
+        }
+    }
+
+    @Override
+    public boolean isReleased() {
+        return released;
+    }
+
+    /**
+     * The {@link #data() data} is a read-only view of the buffer owned by the chunk, so it does not have to be copied
+     * when held.
+     *
+     * @return {@code true}
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
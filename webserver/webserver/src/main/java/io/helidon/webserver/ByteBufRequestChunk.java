@@ -18,9 +18,8 @@ package io.helidon.webserver;
 
 import java.nio.ByteBuffer;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.logging.Logger;
 
 import io.helidon.common.http.DataChunk;
 
@@ -29,27 +28,34 @@ import io.netty.buffer.ByteBuf;
 /**
  * A {@link DataChunk} implementation that wraps {@link ByteBuf} and invokes
  * {@link ByteBuf#release()} during {@link DataChunk#release()}.
+ * <p>
+ * The chunk holds one reference to the buffer, released exactly once. The release is reported to the
+ * {@link HttpRequestScopedPublisher publisher} of the request, which counts the chunks not released yet.
+ * A chunk is tracked by the {@link RequestChunkLeakDetector} only if selected by the leak detection level.
  */
 class ByteBufRequestChunk implements DataChunk {
-    private static final boolean IS_GRAAL_VM = Boolean.getBoolean("com.oracle.graalvm.isaot");
-    private static final Logger LOGGER = Logger.getLogger(ByteBufRequestChunk.class.getName());
     private static final AtomicLong ID_INCREMENTER = new AtomicLong(1);
+    private static final AtomicIntegerFieldUpdater<ByteBufRequestChunk> RELEASED =
+            AtomicIntegerFieldUpdater.newUpdater(ByteBufRequestChunk.class, "released");
 
     private final long id = ID_INCREMENTER.getAndIncrement();
+    private final ByteBuf byteBuf;
     private final ByteBuffer byteBuffer;
-    private final ReferenceHoldingQueue.ReleasableReference<DataChunk> ref;
-
-    ByteBufRequestChunk(ByteBuf byteBuf, ReferenceHoldingQueue<DataChunk> referenceHoldingQueue) {
+    private final HttpRequestScopedPublisher publisher;
+    private final ReferenceHoldingQueue.ReleasableReference<DataChunk> leakReference;
+    private volatile int released;
 
+    ByteBufRequestChunk(ByteBuf byteBuf, HttpRequestScopedPublisher publisher, RequestChunkLeakDetector leakDetector) {
         Objects.requireNonNull(byteBuf, "The ByteBuf must not be null!");
-        byteBuffer = byteBuf.nioBuffer().asReadOnlyBuffer();
-        ref = new ReferenceHoldingQueue.ReleasableReference<>(this, referenceHoldingQueue, byteBuf::release);
-        byteBuf.retain();
+        this.byteBuf = byteBuf.retain();
+        this.byteBuffer = byteBuf.nioBuffer().asReadOnlyBuffer();
+        this.publisher = publisher;
+        this.leakReference = leakDetector.track(this, byteBuf);
     }
 
     @Override
     public boolean isReleased() {
-        return ref.isReleased();
+        return released == 1;
     }
 
     @Override
@@ -62,79 +68,18 @@ class ByteBufRequestChunk implements DataChunk {
 
     @Override
     public void release() {
-        ref.release();
+        if (RELEASED.compareAndSet(this, 0, 1)) {
+            if (leakReference == null) {
+                byteBuf.release();
+            } else {
+                leakReference.release();
+            }
+            publisher.chunkReleased();
+        }
     }
 
     @Override
     public long id() {
         return id;
     }
-
-    /**
-     * If possible, release this chunk as part of the finalization rather than
-     * through the reference queue (see {@link ReferenceHoldingQueue#release()}
-     * and from where it is called). Releasing the underlying {@link ByteBuf} as
-     * part of the finalization has a lower memory demand and performs slightly
-     * better under a heavy load.
-     */
-    @SuppressWarnings("checkstyle:NoFinalizer")
-    @Override
-    protected void finalize() {
-        if (!isReleased()) {
-            OneTimeLoggerHolder.logOnce();
-            release();
-        }
-    }
-
-    private static void logLeak() {
-        // TODO add a link to a website that explains the problem
-        LOGGER.warning("LEAK: RequestChunk.release() was not called before it was garbage collected. "
-                               + "While the Reactive WebServer is "
-                               + "designed to automatically release all the RequestChunks, it still "
-                               + "comes with a considerable performance penalty and a demand for a large "
-                               + "memory space (depending on expected throughput, it might require even more than 2GB). "
-                               + "As such the users are "
-                               + "strongly advised to release all the RequestChunk instances "
-                               + "explicitly when they're not needed.");
-    }
-
-    /**
-     * An implementation of {@link ReferenceHoldingQueue} that logs a warning
-     * message once and only once.
-     */
-    static class RefHoldingQueue extends ReferenceHoldingQueue<DataChunk> {
-
-        @Override
-        protected void hookOnAutoRelease() {
-            OneTimeLoggerHolder.logOnce();
-        }
-    }
-
-    // one time logger is designed to produce a warning only and only once in the JVM run
-    static class OneTimeLoggerHolder {
-        private static final AtomicBoolean LOGGED = new AtomicBoolean();
-
-        static {
-            if (!IS_GRAAL_VM) {
-                logLeak();
-            }
-        }
-
-        private OneTimeLoggerHolder() {
-        }
-
-        /**
-         * Trigger initialization of this class and a consequent call of the
-         * static constructor that produces the log message.
-         */
-        static void logOnce() {
-            // noop by design; the only purpose of this method is to request an initialization of this class
-            // and a consequent call of the static initializer
-            if (IS_GRAAL_VM) {
-                if (LOGGED.compareAndSet(false, true)) {
-                    logLeak();
-                }
-            }
-        }
-    }
 }
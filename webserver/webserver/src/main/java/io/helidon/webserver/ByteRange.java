@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A satisfiable byte range of a representation as requested by the {@code Range} header
+ * (<a href="https://tools.ietf.org/html/rfc7233">RFC 7233</a>).
+ */
+final class ByteRange {
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    private final long first;
+    private final long last;
+
+    private ByteRange(long first, long last) {
+        this.first = first;
+        this.last = last;
+    }
+
+    /**
+     * Parses the value of a {@code Range} header.
+     *
+     * @param header    the header value
+     * @param length    length of the representation
+     * @param maxRanges maximal number of ranges
+     * @return satisfiable ranges in the requested order, empty list if no range is satisfiable; or {@code null} if
+     * the header is not valid, uses an unknown unit or requests more than {@code maxRanges} ranges, or the ranges
+     * together are longer than the representation. The header should be ignored in such case.
+     */
+    static List<ByteRange> parse(String header, long length, int maxRanges) {
+        if (header == null || !header.toLowerCase(Locale.ENGLISH).startsWith(BYTES_UNIT)) {
+            return null;
+        }
+        String[] specs = header.substring(BYTES_UNIT.length()).split(",");
+        if (specs.length > maxRanges) {
+            return null;
+        }
+
+        List<ByteRange> result = new ArrayList<>(specs.length);
+        long total = 0;
+        for (String spec : specs) {
+            spec = spec.trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            String firstPart = spec.substring(0, dash).trim();
+            String lastPart = spec.substring(dash + 1).trim();
+            long first;
+            long last;
+            try {
+                if (firstPart.isEmpty()) {
+                    // suffix range: last N bytes
+                    long suffix = parseNumber(lastPart);
+                    if (suffix == 0) {
+                        continue;
+                    }
+                    first = Math.max(0, length - suffix);
+                    last = length - 1;
+                } else {
+                    first = parseNumber(firstPart);
+                    if (lastPart.isEmpty()) {
+                        last = length - 1;
+                    } else {
+                        last = parseNumber(lastPart);
+                        if (last < first) {
+                            return null;
+                        }
+                        last = Math.min(last, length - 1);
+                    }
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (first >= length) {
+                // not satisfiable
+                continue;
+            }
+            ByteRange range = new ByteRange(first, last);
+            total += range.length();
+            result.add(range);
+        }
+        if (total > length) {
+            // overlapping ranges, serve the whole representation instead
+            return null;
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static long parseNumber(String number) {
+        if (number.isEmpty() || number.charAt(0) == '+' || number.charAt(0) == '-') {
+            throw new NumberFormatException("Not a range number: " + number);
+        }
+        return Long.parseLong(number);
+    }
+
+    /**
+     * Position of the first byte of this range.
+     *
+     * @return first byte position
+     */
+    long first() {
+        return first;
+    }
+
+    /**
+     * Position of the last byte of this range (inclusive).
+     *
+     * @return last byte position
+     */
+    long last() {
+        return last;
+    }
+
+    /**
+     * Number of bytes in this range.
+     *
+     * @return range length
+     */
+    long length() {
+        return last - first + 1;
+    }
+
+    /**
+     * Value of the {@code Content-Range} header of this range.
+     *
+     * @param completeLength length of the whole representation
+     * @return content range header value
+     */
+    String contentRange(long completeLength) {
+        return "bytes " + first + "-" + last + "/" + completeLength;
+    }
+
+    @Override
+    public String toString() {
+        return first + "-" + last;
+    }
+}
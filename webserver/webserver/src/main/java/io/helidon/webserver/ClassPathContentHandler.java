@@ -16,6 +16,7 @@
 
 package io.helidon.webserver;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.JarURLConnection;
@@ -30,6 +31,7 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.Instant;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -38,6 +40,7 @@ import java.util.logging.Logger;
 import io.helidon.common.http.DataChunk;
 import io.helidon.common.http.Http;
 import io.helidon.common.reactive.Flow;
+import io.helidon.common.reactive.Single;
 
 /**
  * Handles static content from the classpath.
@@ -50,22 +53,41 @@ class ClassPathContentHandler extends StaticContentHandler {
     private final Map<String, ExtractedJarEntry> extracted = new ConcurrentHashMap<>();
     private final String root;
     private final String rootWithTrailingSlash;
+    // in-memory cache of resources, null if disabled
+    private final StaticContentCache cache;
 
     ClassPathContentHandler(String welcomeFilename,
                             ContentTypeSelector contentTypeSelector,
                             String root,
                             ClassLoader classLoader) {
+        this(welcomeFilename, contentTypeSelector, root, classLoader, null);
+    }
+
+    ClassPathContentHandler(String welcomeFilename,
+                            ContentTypeSelector contentTypeSelector,
+                            String root,
+                            ClassLoader classLoader,
+                            StaticContentCache cache) {
         super(welcomeFilename, contentTypeSelector);
 
         this.classLoader = (classLoader == null) ? this.getClass().getClassLoader() : classLoader;
         this.root = root;
         this.rootWithTrailingSlash = root + '/';
+        this.cache = cache;
     }
 
     public static StaticContentHandler create(String welcomeFileName,
                                               ContentTypeSelector selector,
                                               String clRoot,
                                               ClassLoader classLoader) {
+        return create(welcomeFileName, selector, clRoot, classLoader, null);
+    }
+
+    static StaticContentHandler create(String welcomeFileName,
+                                       ContentTypeSelector selector,
+                                       String clRoot,
+                                       ClassLoader classLoader,
+                                       StaticContentCache cache) {
         ClassLoader contentClassloader = (classLoader == null)
                 ? ClassPathContentHandler.class.getClassLoader()
                 : classLoader;
@@ -80,7 +102,19 @@ class ClassPathContentHandler extends StaticContentHandler {
             throw new IllegalArgumentException("Cannot serve full classpath, please configure a classpath prefix");
         }
 
-        return new ClassPathContentHandler(welcomeFileName, selector, clRoot, contentClassloader);
+        return new ClassPathContentHandler(welcomeFileName, selector, clRoot, contentClassloader, cache);
+    }
+
+    @Override
+    void releaseCache() {
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    @Override
+    Optional<StaticContentSupport.CacheStatistics> cacheStatistics() {
+        return Optional.ofNullable(cache);
     }
 
     @SuppressWarnings("checkstyle:RegexpSinglelineJava")
@@ -99,6 +133,16 @@ class ClassPathContentHandler extends StaticContentHandler {
             return false;
         }
 
+        // byte ranges are served directly from the resource
+        boolean cached = (cache != null) && !request.headers().first(Http.Header.RANGE).isPresent();
+        if (cached) {
+            StaticContentCache.Entry entry = cache.get(requestedResource);
+            if (entry != null) {
+                sendCached(method, entry, request, response);
+                return true;
+            }
+        }
+
         // try to find the resource on classpath (cannot use root URL and then resolve, as root and sub-resource
         // may be from different jar files/directories
         URL url = classLoader.getResource(resource);
@@ -106,6 +150,7 @@ class ClassPathContentHandler extends StaticContentHandler {
             return false;
         }
 
+        String cacheKey = requestedResource;
         String welcomeFileName = welcomePageName();
         if (null != welcomeFileName) {
             String welcomeFileResource = requestedResource + "/" + welcomeFileName;
@@ -116,6 +161,7 @@ class ClassPathContentHandler extends StaticContentHandler {
                 if (rawFullPath.endsWith("/")) {
                     // this is OK, as the path ends with a forward slash
                     url = welcomeUrl;
+                    cacheKey = welcomeFileResource;
                 } else {
                     // must redirect
                     redirect(response, rawFullPath + "/");
@@ -124,6 +170,18 @@ class ClassPathContentHandler extends StaticContentHandler {
             }
         }
 
+        if (cached) {
+            StaticContentCache.Entry entry = cache.get(cacheKey);
+            if (entry == null) {
+                cache.miss();
+                entry = cacheResource(cacheKey, url);
+            }
+            if (entry != null) {
+                sendCached(method, entry, request, response);
+                return true;
+            }
+        }
+
         // now read the URL - we have direct support for files and jar files, others are handled by stream only
         switch (url.getProtocol()) {
         case "file":
@@ -144,7 +202,7 @@ class ClassPathContentHandler extends StaticContentHandler {
                             String requestedResource,
                             URL url,
                             ServerRequest request,
-                            ServerResponse response) throws URISyntaxException {
+                            ServerResponse response) throws IOException {
 
         ExtractedJarEntry extrEntry = extracted.computeIfAbsent(requestedResource, thePath -> extractJarEntry(url));
         if (extrEntry.tempFile == null) {
@@ -162,11 +220,7 @@ class ClassPathContentHandler extends StaticContentHandler {
                            response.headers(),
                            contentTypeSelector());
 
-        if (method == Http.Method.HEAD) {
-            response.send();
-        } else {
-            response.send(extrEntry.tempFile);
-        }
+        sendFile(method, extrEntry.tempFile, request, response);
 
         return true;
     }
@@ -220,6 +274,83 @@ class ClassPathContentHandler extends StaticContentHandler {
         response.send(dataChunkPublisher);
     }
 
+    private void sendCached(Http.RequestMethod method,
+                            StaticContentCache.Entry entry,
+                            ServerRequest request,
+                            ServerResponse response) {
+
+        RequestHeaders requestHeaders = request.headers();
+        ResponseHeaders responseHeaders = response.headers();
+
+        String coding = entry.coding(requestHeaders.all(Http.Header.ACCEPT_ENCODING));
+        responseHeaders.put(Http.Header.VARY, Http.Header.ACCEPT_ENCODING);
+        processEtag(entry.etag(coding), requestHeaders, responseHeaders);
+        if (entry.lastModified() != null) {
+            processModifyHeaders(entry.lastModified(), requestHeaders, responseHeaders);
+        }
+        processContentType(entry.fileName(), requestHeaders, responseHeaders, contentTypeSelector());
+
+        ByteBuffer content = entry.content(coding);
+        if (coding == null) {
+            responseHeaders.put(Http.Header.ACCEPT_RANGES, "bytes");
+        } else {
+            responseHeaders.put(Http.Header.CONTENT_ENCODING, coding);
+        }
+        responseHeaders.contentLength(content.remaining());
+
+        if (method == Http.Method.HEAD) {
+            response.send();
+            return;
+        }
+        response.send(Single.just(DataChunk.create(false, content, true)));
+    }
+
+    /**
+     * Loads the resource into the cache.
+     *
+     * @return cached entry or {@code null} if the resource is a directory or cannot be cached
+     */
+    private StaticContentCache.Entry cacheResource(String cacheKey, URL url) throws IOException, URISyntaxException {
+        if ("file".equals(url.getProtocol()) && Files.isDirectory(Paths.get(url.toURI()))) {
+            return null;
+        }
+        URLConnection urlConnection = url.openConnection();
+        if ((urlConnection instanceof JarURLConnection)
+                && ((JarURLConnection) urlConnection).getJarEntry().isDirectory()) {
+            return null;
+        }
+        if (!cache.fits(urlConnection.getContentLengthLong())) {
+            return null;
+        }
+        long lastModified = urlConnection.getLastModified();
+        byte[] content;
+        try (InputStream in = urlConnection.getInputStream()) {
+            content = StaticContentCache.readAll(in, cache.maxSize());
+        }
+        if (content == null) {
+            return null;
+        }
+        String fileName = fileName(url);
+        LOGGER.finest(() -> "Caching class path resource: " + cacheKey);
+
+        return cache.put(cacheKey,
+                         fileName,
+                         (lastModified == 0) ? null : Instant.ofEpochMilli(lastModified),
+                         content,
+                         precompressed(url, fileName + ".br"),
+                         precompressed(url, fileName + ".gz"));
+    }
+
+    // content of a precompressed sibling of the resource, created when the application was built
+    private byte[] precompressed(URL url, String name) throws IOException {
+        URL variant = new URL(url, name);
+        try (InputStream in = variant.openStream()) {
+            return StaticContentCache.readAll(in, cache.maxSize());
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+    }
+
     static String fileName(URL url) {
         String path = url.getPath();
         int index = path.lastIndexOf('/');
@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.zip.Deflater;
+
+import io.helidon.common.CollectionsHelper;
+import io.helidon.common.http.MediaType;
+import io.helidon.config.Config;
+
+/**
+ * Configuration of the response compression. Compression can be configured for a
+ * {@link SocketConfiguration#compression() server socket} and overridden for a route using {@link CompressionSupport}.
+ * <p>
+ * A response is compressed if the client accepts one of the {@link #encodings() configured encodings},
+ * its content type is one of the {@link #mediaTypes() compressible media types} and it is not known to be smaller than
+ * the {@link #minSize() minimal size}. Responses which already have a {@code Content-Encoding} and partial content
+ * responses are never compressed.
+ */
+public interface CompressionConfiguration {
+
+    /**
+     * The {@code gzip} content coding.
+     */
+    String GZIP = "gzip";
+
+    /**
+     * The {@code deflate} content coding.
+     */
+    String DEFLATE = "deflate";
+
+    /**
+     * Default minimal size of compressed responses in bytes.
+     */
+    int DEFAULT_MIN_SIZE = 1024;
+
+    /**
+     * Default compression level.
+     */
+    int DEFAULT_LEVEL = 6;
+
+    /**
+     * Default compressible media types.
+     */
+    List<MediaType> DEFAULT_MEDIA_TYPES = Collections.unmodifiableList(CollectionsHelper.listOf(
+            MediaType.parse("text/*"),
+            MediaType.APPLICATION_JSON,
+            MediaType.create("application", "javascript"),
+            MediaType.APPLICATION_XML,
+            MediaType.APPLICATION_XHTML_XML,
+            MediaType.create("image", "svg+xml"),
+            MediaType.APPLICATION_YAML));
+
+    /**
+     * Whether the responses are compressed.
+     *
+     * @return {@code true} if compression is enabled
+     */
+    boolean enabled();
+
+    /**
+     * Supported content codings ({@value #GZIP} and {@value #DEFLATE}) in order of preference.
+     *
+     * @return content codings
+     */
+    List<String> encodings();
+
+    /**
+     * Responses with a known content length smaller than this value are sent uncompressed. Content of a response
+     * without content length which is written as a single chunk is also checked.
+     *
+     * @return minimal size in bytes
+     */
+    int minSize();
+
+    /**
+     * Media types of compressible content. A media type with a wildcard subtype (e.g. {@code text/*}) matches all
+     * the subtypes.
+     *
+     * @return compressible media types
+     */
+    List<MediaType> mediaTypes();
+
+    /**
+     * Compression level from {@code 1} (fastest) to {@code 9} (best compression).
+     *
+     * @return compression level
+     */
+    int level();
+
+    /**
+     * Whether content of the media type should be compressed.
+     *
+     * @param mediaType media type of the content
+     * @return {@code true} if one of the {@link #mediaTypes()} matches the media type
+     */
+    default boolean compressible(MediaType mediaType) {
+        if (mediaType == null) {
+            return false;
+        }
+        for (MediaType compressible : mediaTypes()) {
+            if (compressible.type().equalsIgnoreCase(mediaType.type())
+                    && (compressible.isWildcardSubtype() || compressible.subtype().equalsIgnoreCase(mediaType.subtype()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Configuration with compression disabled.
+     *
+     * @return disabled compression
+     */
+    static CompressionConfiguration disabled() {
+        return builder().enabled(false).build();
+    }
+
+    /**
+     * Creates compression configuration from the provided config.
+     * <p>
+     * Configuration keys: {@code enabled} (defaults to {@code true} if the node exists), {@code encodings},
+     * {@code min-size}, {@code media-types}, {@code level}.
+     *
+     * @param config configuration node of the compression
+     * @return a new configuration
+     */
+    static CompressionConfiguration create(Config config) {
+        return builder().config(config).build();
+    }
+
+    /**
+     * Creates a new fluent API builder. The builder creates enabled compression with the default settings.
+     *
+     * @return a new builder instance
+     */
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link CompressionConfiguration}.
+     */
+    final class Builder implements io.helidon.common.Builder<CompressionConfiguration> {
+
+        private boolean enabled = true;
+        private List<String> encodings = CollectionsHelper.listOf(GZIP, DEFLATE);
+        private int minSize = DEFAULT_MIN_SIZE;
+        private List<MediaType> mediaTypes = DEFAULT_MEDIA_TYPES;
+        private int level = DEFAULT_LEVEL;
+
+        private Builder() {
+        }
+
+        /**
+         * Enables or disables the compression.
+         *
+         * @param enabled whether to compress responses
+         * @return updated builder
+         */
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        /**
+         * Sets supported content codings in order of preference.
+         *
+         * @param encodings {@value #GZIP} and/or {@value #DEFLATE}
+         * @return updated builder
+         * @throws IllegalArgumentException if an encoding is not supported
+         */
+        public Builder encodings(List<String> encodings) {
+            List<String> result = new ArrayList<>(encodings.size());
+            for (String encoding : encodings) {
+                String normalized = encoding.trim().toLowerCase(Locale.ENGLISH);
+                if (!GZIP.equals(normalized) && !DEFLATE.equals(normalized)) {
+                    throw new IllegalArgumentException("Unsupported content encoding: " + encoding);
+                }
+                result.add(normalized);
+            }
+            this.encodings = Collections.unmodifiableList(result);
+            return this;
+        }
+
+        /**
+         * Sets the minimal size of a compressed response.
+         *
+         * @param bytes minimal size in bytes
+         * @return updated builder
+         */
+        public Builder minSize(int bytes) {
+            this.minSize = Math.max(0, bytes);
+            return this;
+        }
+
+        /**
+         * Sets media types of compressible content, replacing the {@link #DEFAULT_MEDIA_TYPES defaults}.
+         *
+         * @param mediaTypes compressible media types
+         * @return updated builder
+         */
+        public Builder mediaTypes(List<MediaType> mediaTypes) {
+            Objects.requireNonNull(mediaTypes, "Parameter 'mediaTypes' is null!");
+            this.mediaTypes = Collections.unmodifiableList(new ArrayList<>(mediaTypes));
+            return this;
+        }
+
+        /**
+         * Adds a media type of compressible content.
+         *
+         * @param mediaType compressible media type
+         * @return updated builder
+         */
+        public Builder addMediaType(MediaType mediaType) {
+            Objects.requireNonNull(mediaType, "Parameter 'mediaType' is null!");
+            List<MediaType> result = new ArrayList<>(mediaTypes);
+            result.add(mediaType);
+            this.mediaTypes = Collections.unmodifiableList(result);
+            return this;
+        }
+
+        /**
+         * Sets the compression level.
+         *
+         * @param level compression level from {@code 1} (fastest) to {@code 9} (best compression)
+         * @return updated builder
+         * @throws IllegalArgumentException if level is out of range
+         */
+        public Builder level(int level) {
+            if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+                throw new IllegalArgumentException("Compression level must be between 1 and 9, but is " + level);
+            }
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Updates the builder from configuration.
+         *
+         * @param config configuration node of the compression
+         * @return updated builder
+         */
+        public Builder config(Config config) {
+            if (config.exists()) {
+                enabled(true);
+            }
+            config.get("enabled").asBoolean().ifPresent(this::enabled);
+            config.get("encodings").asList(String.class).ifPresent(this::encodings);
+            config.get("min-size").asInt().ifPresent(this::minSize);
+            config.get("media-types").asList(String.class).ifPresent(types -> {
+                List<MediaType> result = new ArrayList<>(types.size());
+                types.forEach(type -> result.add(MediaType.parse(type)));
+                mediaTypes(result);
+            });
+            config.get("level").asInt().ifPresent(this::level);
+            return this;
+        }
+
+        @Override
+        public CompressionConfiguration build() {
+            boolean enabled = this.enabled && !encodings.isEmpty();
+            List<String> encodings = this.encodings;
+            int minSize = this.minSize;
+            List<MediaType> mediaTypes = this.mediaTypes;
+            int level = this.level;
+
+            return new CompressionConfiguration() {
+                @Override
+                public boolean enabled() {
+                    return enabled;
+                }
+
+                @Override
+                public List<String> encodings() {
+                    return encodings;
+                }
+
+                @Override
+                public int minSize() {
+                    return minSize;
+                }
+
+                @Override
+                public List<MediaType> mediaTypes() {
+                    return mediaTypes;
+                }
+
+                @Override
+                public int level() {
+                    return level;
+                }
+            };
+        }
+    }
+}
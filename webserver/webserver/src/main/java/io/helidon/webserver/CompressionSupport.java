@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Objects;
+
+import io.helidon.config.Config;
+
+/**
+ * A {@link Service} and {@link Handler} overriding the {@link SocketConfiguration#compression() compression of the server
+ * socket} for the routes it is registered on.
+ * <pre>{@code
+ * Routing.builder()
+ *        // compress the JSON API with the best compression
+ *        .register("/api", CompressionSupport.create(CompressionConfiguration.builder().level(9).build()))
+ *        // never compress the events
+ *        .any("/events", CompressionSupport.create(CompressionConfiguration.disabled()))
+ *        .build()
+ * }</pre>
+ * The content is compressed when it is written, so the response filters and writers always work with
+ * the original data.
+ */
+public final class CompressionSupport implements Service, Handler {
+
+    private final CompressionConfiguration configuration;
+
+    private CompressionSupport(CompressionConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Creates a new instance with the provided configuration.
+     *
+     * @param configuration compression configuration of the route
+     * @return a new instance
+     * @throws NullPointerException if {@code configuration} is {@code null}
+     */
+    public static CompressionSupport create(CompressionConfiguration configuration) {
+        Objects.requireNonNull(configuration, "Parameter 'configuration' is null!");
+        return new CompressionSupport(configuration);
+    }
+
+    /**
+     * Creates a new instance from configuration, see {@link CompressionConfiguration#create(Config)}.
+     *
+     * @param config configuration node of the compression
+     * @return a new instance
+     */
+    public static CompressionSupport create(Config config) {
+        return create(CompressionConfiguration.create(config));
+    }
+
+    /**
+     * Registers this handler for any HTTP method.
+     *
+     * @param rules a routing configuration where compression should be registered
+     */
+    @Override
+    public void update(Routing.Rules rules) {
+        rules.any(this);
+    }
+
+    @Override
+    public void accept(ServerRequest req, ServerResponse res) {
+        if (res instanceof Response) {
+            ((Response) res).compression(configuration);
+        }
+        req.next();
+    }
+}
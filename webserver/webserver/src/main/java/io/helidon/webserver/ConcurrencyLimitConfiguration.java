@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import io.helidon.config.Config;
+
+/**
+ * Configuration of the adaptive concurrency limit, see {@link ConcurrencyLimitSupport}.
+ * <p>
+ * The limit starts at the {@link #initialLimit() initial limit} and is adjusted once per
+ * {@link #windowMillis() window} within the {@link #minLimit() minimal} and {@link #maxLimit() maximal} limit.
+ * Setting the minimal and maximal limit to the same value makes the limit fixed.
+ */
+public interface ConcurrencyLimitConfiguration {
+
+    /**
+     * Default initial limit.
+     */
+    int DEFAULT_INITIAL_LIMIT = 20;
+
+    /**
+     * Default minimal limit.
+     */
+    int DEFAULT_MIN_LIMIT = 1;
+
+    /**
+     * Default maximal limit.
+     */
+    int DEFAULT_MAX_LIMIT = 1000;
+
+    /**
+     * Default ratio of the current latency to the long-term latency tolerated before the limit is decreased.
+     */
+    double DEFAULT_RTT_TOLERANCE = 1.5;
+
+    /**
+     * Default weight of a new limit.
+     */
+    double DEFAULT_SMOOTHING = 0.2;
+
+    /**
+     * Default length of the sampling window.
+     */
+    long DEFAULT_WINDOW_MILLIS = 1000;
+
+    /**
+     * Default delay sent in the {@code Retry-After} header of a rejected request.
+     */
+    long DEFAULT_RETRY_AFTER_SECONDS = 1;
+
+    /**
+     * The limit before the first window was sampled.
+     *
+     * @return initial limit of concurrent requests
+     */
+    int initialLimit();
+
+    /**
+     * The limit is never decreased below the minimal limit.
+     *
+     * @return minimal limit of concurrent requests
+     */
+    int minLimit();
+
+    /**
+     * The limit is never increased above the maximal limit.
+     *
+     * @return maximal limit of concurrent requests
+     */
+    int maxLimit();
+
+    /**
+     * Ratio of the latency of the current window to the long-term latency tolerated before the limit is decreased,
+     * e.g. {@code 1.5} tolerates the latency growing by half.
+     *
+     * @return latency tolerance, at least {@code 1}
+     */
+    double rttTolerance();
+
+    /**
+     * Weight of the limit computed from the current window, the rest of the new limit is the previous limit.
+     *
+     * @return smoothing factor between {@code 0} exclusive and {@code 1} inclusive
+     */
+    double smoothing();
+
+    /**
+     * Length of the window the latencies are sampled in before the limit is adjusted. A window is extended
+     * until a few requests completed within it.
+     *
+     * @return sampling window in milliseconds
+     */
+    long windowMillis();
+
+    /**
+     * Delay sent in the {@code Retry-After} header of a rejected request.
+     *
+     * @return retry delay in seconds
+     */
+    long retryAfterSeconds();
+
+    /**
+     * Default configuration.
+     *
+     * @return default configuration
+     */
+    static ConcurrencyLimitConfiguration defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a configuration from a configuration node.
+     * <p>
+     * Configuration keys: {@code initial-limit}, {@code min-limit}, {@code max-limit}, {@code rtt-tolerance},
+     * {@code smoothing}, {@code window-millis} and {@code retry-after-seconds}.
+     *
+     * @param config configuration node
+     * @return a new configuration
+     */
+    static ConcurrencyLimitConfiguration create(Config config) {
+        return builder().config(config).build();
+    }
+
+    /**
+     * Creates a new fluent API builder.
+     *
+     * @return a new builder instance
+     */
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link ConcurrencyLimitConfiguration}.
+     */
+    final class Builder implements io.helidon.common.Builder<ConcurrencyLimitConfiguration> {
+
+        private int initialLimit = DEFAULT_INITIAL_LIMIT;
+        private int minLimit = DEFAULT_MIN_LIMIT;
+        private int maxLimit = DEFAULT_MAX_LIMIT;
+        private double rttTolerance = DEFAULT_RTT_TOLERANCE;
+        private double smoothing = DEFAULT_SMOOTHING;
+        private long windowMillis = DEFAULT_WINDOW_MILLIS;
+        private long retryAfterSeconds = DEFAULT_RETRY_AFTER_SECONDS;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the limit before the first window was sampled.
+         *
+         * @param initialLimit initial limit of concurrent requests
+         * @return updated builder
+         */
+        public Builder initialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        /**
+         * Sets the minimal limit.
+         *
+         * @param minLimit minimal limit of concurrent requests
+         * @return updated builder
+         */
+        public Builder minLimit(int minLimit) {
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        /**
+         * Sets the maximal limit.
+         *
+         * @param maxLimit maximal limit of concurrent requests
+         * @return updated builder
+         */
+        public Builder maxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * Sets the latency ratio tolerated before the limit is decreased.
+         *
+         * @param rttTolerance latency tolerance, at least {@code 1}
+         * @return updated builder
+         */
+        public Builder rttTolerance(double rttTolerance) {
+            this.rttTolerance = rttTolerance;
+            return this;
+        }
+
+        /**
+         * Sets the weight of the limit computed from the current window.
+         *
+         * @param smoothing smoothing factor between {@code 0} exclusive and {@code 1} inclusive
+         * @return updated builder
+         */
+        public Builder smoothing(double smoothing) {
+            this.smoothing = smoothing;
+            return this;
+        }
+
+        /**
+         * Sets the length of the sampling window.
+         *
+         * @param windowMillis sampling window in milliseconds
+         * @return updated builder
+         */
+        public Builder windowMillis(long windowMillis) {
+            this.windowMillis = windowMillis;
+            return this;
+        }
+
+        /**
+         * Sets the delay sent in the {@code Retry-After} header of a rejected request.
+         *
+         * @param retryAfterSeconds retry delay in seconds
+         * @return updated builder
+         */
+        public Builder retryAfterSeconds(long retryAfterSeconds) {
+            this.retryAfterSeconds = retryAfterSeconds;
+            return this;
+        }
+
+        /**
+         * Updates the builder from a configuration node.
+         *
+         * @param config configuration node
+         * @return updated builder
+         */
+        public Builder config(Config config) {
+            config.get("initial-limit").asInt().ifPresent(this::initialLimit);
+            config.get("min-limit").asInt().ifPresent(this::minLimit);
+            config.get("max-limit").asInt().ifPresent(this::maxLimit);
+            config.get("rtt-tolerance").asDouble().ifPresent(this::rttTolerance);
+            config.get("smoothing").asDouble().ifPresent(this::smoothing);
+            config.get("window-millis").asLong().ifPresent(this::windowMillis);
+            config.get("retry-after-seconds").asLong().ifPresent(this::retryAfterSeconds);
+            return this;
+        }
+
+        /**
+         * Builds the configuration.
+         *
+         * @return a new configuration
+         * @throws IllegalArgumentException if the limits are not positive, the initial limit is not within
+         *                                  the minimal and maximal limit, or the other values are out of their range
+         */
+        @Override
+        public ConcurrencyLimitConfiguration build() {
+            if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+                throw new IllegalArgumentException("Limits must be positive and the initial limit within the minimal and "
+                                                           + "maximal limit: " + initialLimit + " [" + minLimit + ", "
+                                                           + maxLimit + "]");
+            }
+            if (rttTolerance < 1) {
+                throw new IllegalArgumentException("Latency tolerance must be at least 1: " + rttTolerance);
+            }
+            if (smoothing <= 0 || smoothing > 1) {
+                throw new IllegalArgumentException("Smoothing must be within (0, 1]: " + smoothing);
+            }
+            if (windowMillis <= 0 || retryAfterSeconds < 0) {
+                throw new IllegalArgumentException("Window must be positive and retry delay must not be negative: "
+                                                           + windowMillis + ", " + retryAfterSeconds);
+            }
+            int initialLimit = this.initialLimit;
+            int minLimit = this.minLimit;
+            int maxLimit = this.maxLimit;
+            double rttTolerance = this.rttTolerance;
+            double smoothing = this.smoothing;
+            long windowMillis = this.windowMillis;
+            long retryAfterSeconds = this.retryAfterSeconds;
+
+            return new ConcurrencyLimitConfiguration() {
+                @Override
+                public int initialLimit() {
+                    return initialLimit;
+                }
+
+                @Override
+                public int minLimit() {
+                    return minLimit;
+                }
+
+                @Override
+                public int maxLimit() {
+                    return maxLimit;
+                }
+
+                @Override
+                public double rttTolerance() {
+                    return rttTolerance;
+                }
+
+                @Override
+                public double smoothing() {
+                    return smoothing;
+                }
+
+                @Override
+                public long windowMillis() {
+                    return windowMillis;
+                }
+
+                @Override
+                public long retryAfterSeconds() {
+                    return retryAfterSeconds;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+import io.helidon.common.http.Http;
+import io.helidon.config.Config;
+
+/**
+ * A {@link Service} and {@link Handler} limiting the number of requests processed concurrently by the routes
+ * it is registered on. The limit adapts to the observed latency.
+ * <pre>{@code
+ * ConcurrencyLimitSupport limit = ConcurrencyLimitSupport.create();
+ * Routing.builder()
+ *        // health checks are admitted up to the full limit
+ *        .get("/health", limit.handler(ConcurrencyLimitSupport.Priority.HIGH), healthHandler)
+ *        // reports are shed first
+ *        .get("/reports", limit.handler(ConcurrencyLimitSupport.Priority.LOW), reportHandler)
+ *        // the other requests
+ *        .register(limit)
+ *        .build()
+ * }</pre>
+ * A request over the limit of its priority is forwarded to the error handling as {@link HttpException} with
+ * the {@code 503 Service Unavailable} status and the {@code Retry-After} header set, so the default error handling
+ * answers with {@code 503} right away rather than queueing the request. A request is admitted once, by the first
+ * handler of the limit it reaches, and released when its response is sent.
+ * <p>
+ * The limit is adjusted by the gradient of the latency: once per {@link ConcurrencyLimitConfiguration#windowMillis()
+ * window}, the average latency of the window is compared to the long-term average. While the latency stays within
+ * the {@link ConcurrencyLimitConfiguration#rttTolerance() tolerance}, the limit grows by its square root, which
+ * leaves room for a small queue; once the latency grows over the tolerance, the limit shrinks in proportion, down to
+ * half of the limit per window. The limit is not grown while less than half of it is used. The admission itself
+ * is lock-free, the limit is recomputed by a single request completing the window.
+ * <p>
+ * The current limit, the requests in flight and the rejections are reported in the {@link ServerStatistics}.
+ */
+public final class ConcurrencyLimitSupport implements Service, Handler {
+
+    private static final Logger LOGGER = Logger.getLogger(ConcurrencyLimitSupport.class.getName());
+
+    // a window is extended until it has enough samples for a meaningful average
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    // weight of a window in the long-term latency, about the last 20 windows
+    private static final double LONG_RTT_WEIGHT = 0.05;
+
+    private final ConcurrencyLimitConfiguration configuration;
+    private final String retryAfter;
+    private final long windowNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final LongAdder windowRttNanos = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final AtomicBoolean updating = new AtomicBoolean();
+
+    // guarded by updating
+    private double longRttNanos;
+
+    private volatile double limit;
+    private volatile long windowEnd;
+    private volatile boolean registered;
+
+    private ConcurrencyLimitSupport(ConcurrencyLimitConfiguration configuration) {
+        this.configuration = configuration;
+        this.retryAfter = String.valueOf(configuration.retryAfterSeconds());
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(configuration.windowMillis());
+        this.limit = configuration.initialLimit();
+        this.windowEnd = System.nanoTime() + windowNanos;
+    }
+
+    /**
+     * Creates a new instance with the default configuration.
+     *
+     * @return a new instance
+     */
+    public static ConcurrencyLimitSupport create() {
+        return create(ConcurrencyLimitConfiguration.defaults());
+    }
+
+    /**
+     * Creates a new instance with the provided configuration.
+     *
+     * @param configuration configuration of the limit
+     * @return a new instance
+     * @throws NullPointerException if {@code configuration} is {@code null}
+     */
+    public static ConcurrencyLimitSupport create(ConcurrencyLimitConfiguration configuration) {
+        Objects.requireNonNull(configuration, "Parameter 'configuration' is null!");
+        return new ConcurrencyLimitSupport(configuration);
+    }
+
+    /**
+     * Creates a new instance from configuration, see {@link ConcurrencyLimitConfiguration#create(Config)}.
+     *
+     * @param config configuration node of the limit
+     * @return a new instance
+     */
+    public static ConcurrencyLimitSupport create(Config config) {
+        return create(ConcurrencyLimitConfiguration.create(config));
+    }
+
+    /**
+     * Registers this handler for any HTTP method, the requests are admitted with the {@link Priority#NORMAL}
+     * priority.
+     *
+     * @param rules a routing configuration where the limit should be registered
+     */
+    @Override
+    public void update(Routing.Rules rules) {
+        rules.onNewWebServer(webServer -> register(webServer.statistics()));
+        rules.any(this);
+    }
+
+    /**
+     * Admits the request with the {@link Priority#NORMAL} priority.
+     *
+     * @param req the request
+     * @param res the response
+     */
+    @Override
+    public void accept(ServerRequest req, ServerResponse res) {
+        admit(req, res, Priority.NORMAL);
+    }
+
+    /**
+     * A handler admitting the requests of its routes with the provided priority to this limit.
+     *
+     * @param priority priority of the requests
+     * @return a new handler
+     */
+    public Handler handler(Priority priority) {
+        Objects.requireNonNull(priority, "Parameter 'priority' is null!");
+        return (req, res) -> admit(req, res, priority);
+    }
+
+    /**
+     * The current limit of concurrent requests.
+     *
+     * @return current limit
+     */
+    public int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * Number of the admitted requests whose responses were not sent yet.
+     *
+     * @return number of requests in flight
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Total number of requests rejected by this limit.
+     *
+     * @return number of rejected requests
+     */
+    public long rejections() {
+        return rejections.sum();
+    }
+
+    private void admit(ServerRequest req, ServerResponse res, Priority priority) {
+        if (req.context().get(this, Admission.class).isPresent()) {
+            // already admitted by another handler of this limit
+            req.next();
+            return;
+        }
+        ServerStatistics statistics = req.webServer().statistics();
+        if (!registered) {
+            register(statistics);
+        }
+
+        int allowed = Math.max(1, (int) (limit * priority.share));
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= allowed) {
+                reject(req, res, statistics);
+                return;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        windowMaxInFlight.accumulateAndGet(current + 1, Math::max);
+
+        req.context().register(this, Admission.INSTANCE);
+        long start = System.nanoTime();
+        res.whenSent().whenComplete((response, throwable) -> release(start, throwable == null));
+        req.next();
+    }
+
+    private void reject(ServerRequest req, ServerResponse res, ServerStatistics statistics) {
+        rejections.increment();
+        if (statistics instanceof NettyServerStatistics) {
+            ((NettyServerStatistics) statistics).requestRejected();
+        }
+        res.headers().put(Http.Header.RETRY_AFTER, retryAfter);
+        req.next(new HttpException("Concurrency limit of " + limit() + " requests reached",
+                                   Http.Status.SERVICE_UNAVAILABLE_503));
+    }
+
+    private void release(long start, boolean sent) {
+        inFlight.decrementAndGet();
+        long now = System.nanoTime();
+        if (sent) {
+            windowRttNanos.add(now - start);
+            windowSamples.increment();
+        }
+        if (now - windowEnd >= 0 && windowSamples.sum() >= MIN_WINDOW_SAMPLES && updating.compareAndSet(false, true)) {
+            try {
+                long samples = windowSamples.sumThenReset();
+                long rttNanos = windowRttNanos.sumThenReset();
+                int maxInFlight = windowMaxInFlight.getAndSet(inFlight.get());
+                if (samples > 0) {
+                    update(rttNanos / samples, maxInFlight);
+                }
+                windowEnd = now + windowNanos;
+            } finally {
+                updating.set(false);
+            }
+        }
+    }
+
+    /**
+     * Adjusts the limit by the latency of a window. Invoked by a single thread at a time.
+     *
+     * @param rttNanos    average latency of the window
+     * @param maxInFlight maximal number of requests in flight within the window
+     */
+    void update(long rttNanos, int maxInFlight) {
+        double shortRtt = Math.max(1, rttNanos);
+        if (longRttNanos == 0) {
+            longRttNanos = shortRtt;
+        } else {
+            longRttNanos = longRttNanos * (1 - LONG_RTT_WEIGHT) + shortRtt * LONG_RTT_WEIGHT;
+            if (longRttNanos > 2 * shortRtt) {
+                // the latency returned to normal after a long overload, let the long-term latency catch up
+                longRttNanos *= 0.95;
+            }
+        }
+
+        double current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, configuration.rttTolerance() * longRttNanos / shortRtt));
+        double computed = current * gradient + Math.sqrt(current);
+        if (computed > current && maxInFlight < current / 2) {
+            // the limit was not used, the latency tells nothing about a higher limit
+            return;
+        }
+        double smoothing = configuration.smoothing();
+        double next = Math.min(configuration.maxLimit(),
+                               Math.max(configuration.minLimit(), current * (1 - smoothing) + computed * smoothing));
+        limit = next;
+        LOGGER.finest(() -> "Concurrency limit " + (int) current + " -> " + (int) next + ", latency "
+                + TimeUnit.NANOSECONDS.toMicros(rttNanos) + " us");
+    }
+
+    private void register(ServerStatistics statistics) {
+        if (statistics instanceof NettyServerStatistics) {
+            ((NettyServerStatistics) statistics).concurrencyLimitRegistered(this);
+            registered = true;
+        }
+    }
+
+    /**
+     * Priority class of the requests. A request is admitted while the requests in flight are below its share
+     * of the limit, so the lower priorities are shed first as the limit is approached.
+     */
+    public enum Priority {
+        /**
+         * Admitted up to the full limit.
+         */
+        HIGH(1.0),
+        /**
+         * Admitted up to 80 % of the limit.
+         */
+        NORMAL(0.8),
+        /**
+         * Admitted up to half of the limit.
+         */
+        LOW(0.5);
+
+        private final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+
+    /**
+     * Marks a request admitted by a limit in the request context.
+     */
+    private enum Admission {
+        INSTANCE
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Compresses the content of a single response using {@code gzip} or {@code deflate} content coding.
+ * <p>
+ * Each chunk is compressed and flushed ({@link Deflater#SYNC_FLUSH}) on its own, so a streamed response reaches
+ * the client chunk by chunk as without compression. The native resources are released by {@link #close()},
+ * which may be called concurrently with the compression when the connection is closed.
+ */
+final class ContentCompressor {
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+    private static final int MIN_BUFFER = 64;
+
+    private final String encoding;
+    private final boolean gzip;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+
+    private boolean headerWritten;
+    private boolean closed;
+
+    private ContentCompressor(String encoding, int level) {
+        this.encoding = encoding;
+        this.gzip = CompressionConfiguration.GZIP.equals(encoding);
+        // gzip has its own header and trailer around raw deflate data
+        this.deflater = new Deflater(level, gzip);
+    }
+
+    /**
+     * Creates a compressor for the first of the configured encodings acceptable by the client.
+     *
+     * @param config         compression configuration
+     * @param acceptEncoding values of the request {@code Accept-Encoding} header
+     * @return a new compressor or {@code null} if the compression is disabled or no encoding is acceptable
+     */
+    static ContentCompressor create(CompressionConfiguration config, List<String> acceptEncoding) {
+        if (config == null || !config.enabled() || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        for (String encoding : config.encodings()) {
+            if (accepts(acceptEncoding, encoding)) {
+                return new ContentCompressor(encoding, config.level());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether the provided content coding is acceptable according to {@code Accept-Encoding} header values.
+     *
+     * @param acceptEncoding values of the {@code Accept-Encoding} header
+     * @param coding         content coding
+     * @return {@code true} if explicitly listed or matched by a wildcard and not disabled by {@code q=0}
+     */
+    static boolean accepts(List<String> acceptEncoding, String coding) {
+        Boolean wildcard = null;
+        for (String value : acceptEncoding) {
+            for (String token : value.split(",")) {
+                String[] params = token.split(";");
+                String name = params[0].trim().toLowerCase(Locale.ENGLISH);
+                if (name.equals(coding)) {
+                    return quality(params) > 0;
+                }
+                if (name.equals("*")) {
+                    wildcard = quality(params) > 0;
+                }
+            }
+        }
+        return wildcard != null && wildcard;
+    }
+
+    private static double quality(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * The content coding of this compressor.
+     *
+     * @return {@code gzip} or {@code deflate}
+     */
+    String encoding() {
+        return encoding;
+    }
+
+    /**
+     * Compresses a chunk of data. The position of the data buffer is not changed.
+     *
+     * @param data  data to compress
+     * @param alloc allocator of the result
+     * @return compressed and flushed data
+     */
+    synchronized ByteBuf compress(ByteBuffer data, ByteBufAllocator alloc) {
+        if (closed) {
+            return Unpooled.EMPTY_BUFFER;
+        }
+        int length = data.remaining();
+        ByteBuf out = alloc.heapBuffer(Math.max(MIN_BUFFER, length / 2));
+        writeHeader(out);
+        if (length > 0) {
+            byte[] bytes;
+            int offset;
+            if (data.hasArray()) {
+                bytes = data.array();
+                offset = data.arrayOffset() + data.position();
+            } else {
+                bytes = new byte[length];
+                data.duplicate().get(bytes);
+                offset = 0;
+            }
+            if (gzip) {
+                crc.update(bytes, offset, length);
+            }
+            deflater.setInput(bytes, offset, length);
+        }
+        deflate(out, Deflater.SYNC_FLUSH);
+        return out;
+    }
+
+    /**
+     * Finishes the compressed stream and releases the native resources.
+     *
+     * @param alloc allocator of the result
+     * @return remaining compressed data including the trailer
+     */
+    synchronized ByteBuf finish(ByteBufAllocator alloc) {
+        if (closed) {
+            return Unpooled.EMPTY_BUFFER;
+        }
+        ByteBuf out = alloc.heapBuffer(MIN_BUFFER);
+        writeHeader(out);
+        deflater.finish();
+        while (!deflater.finished()) {
+            deflate(out, Deflater.NO_FLUSH);
+        }
+        if (gzip) {
+            out.writeIntLE((int) crc.getValue());
+            out.writeIntLE((int) deflater.getBytesRead());
+        }
+        close();
+        return out;
+    }
+
+    /**
+     * Releases the native resources. Data compressed after this method was invoked are ignored.
+     */
+    synchronized void close() {
+        if (!closed) {
+            closed = true;
+            deflater.end();
+        }
+    }
+
+    private void writeHeader(ByteBuf out) {
+        if (gzip && !headerWritten) {
+            out.writeBytes(GZIP_HEADER);
+        }
+        headerWritten = true;
+    }
+
+    private void deflate(ByteBuf out, int flush) {
+        int written;
+        do {
+            out.ensureWritable(MIN_BUFFER);
+            int writable = out.writableBytes();
+            written = deflater.deflate(out.array(), out.arrayOffset() + out.writerIndex(), writable, flush);
+            out.writerIndex(out.writerIndex() + written);
+            // a completely filled buffer means there may be more output
+            if (written < writable) {
+                return;
+            }
+        } while (written > 0);
+    }
+}
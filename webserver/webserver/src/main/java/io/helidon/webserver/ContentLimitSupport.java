@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.OptionalLong;
+
+import io.helidon.common.http.Http;
+
+/**
+ * A {@link Service} and {@link Handler} limiting the length of the request content of the routes it is registered on.
+ * <pre>{@code
+ * Routing.builder()
+ *        // uploads up to 10 MiB
+ *        .post("/upload", ContentLimitSupport.create(10 * 1024 * 1024), uploadHandler)
+ *        .build()
+ * }</pre>
+ * A request with a {@code Content-Length} over the limit is rejected with {@code 413 Request Entity Too Large}
+ * before its content is read. The content of a request without the length, such as a chunked request, is counted
+ * as it is received; once it exceeds the limit, the content publisher fails with a {@link HttpException} with
+ * the {@code 413} status, the rest of the content is discarded without being buffered and the connection is closed
+ * once the response is sent. The default error handling answers both with {@code 413}.
+ */
+public final class ContentLimitSupport implements Service, Handler {
+
+    private final long maxContentLength;
+
+    private ContentLimitSupport(long maxContentLength) {
+        this.maxContentLength = maxContentLength;
+    }
+
+    /**
+     * Creates a new instance with the provided limit.
+     *
+     * @param maxContentLength maximal length of the request content in bytes
+     * @return a new instance
+     * @throws IllegalArgumentException if {@code maxContentLength} is negative
+     */
+    public static ContentLimitSupport create(long maxContentLength) {
+        if (maxContentLength < 0) {
+            throw new IllegalArgumentException("Maximal content length must not be negative: " + maxContentLength);
+        }
+        return new ContentLimitSupport(maxContentLength);
+    }
+
+    /**
+     * Registers this handler for any HTTP method.
+     *
+     * @param rules a routing configuration where the limit should be registered
+     */
+    @Override
+    public void update(Routing.Rules rules) {
+        rules.any(this);
+    }
+
+    @Override
+    public void accept(ServerRequest req, ServerResponse res) {
+        OptionalLong contentLength = req.headers().contentLength();
+        if (contentLength.isPresent() && contentLength.getAsLong() > maxContentLength) {
+            ServerStatistics statistics = req.webServer().statistics();
+            if (statistics instanceof NettyServerStatistics) {
+                ((NettyServerStatistics) statistics).requestRejected();
+            }
+            req.next(new HttpException("Request content is larger than " + maxContentLength + " bytes",
+                                       Http.Status.REQUEST_ENTITY_TOO_LARGE_413));
+            return;
+        }
+        if (req instanceof Request) {
+            ((Request) req).maxContentLength(maxContentLength);
+        }
+        req.next();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+
+/**
+ * Thread factory of an event loop group which measures the utilization of the created event loop threads.
+ * <p>
+ * The utilization is the CPU time the threads consumed relative to the elapsed time; an event loop waiting
+ * for I/O does not consume CPU time. The value is sampled at most once per {@link #SAMPLE_INTERVAL_NANOS},
+ * so all the sockets sharing the group report the same value regardless of how often it is read.
+ */
+final class EventLoopStatistics implements ThreadFactory {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final long SAMPLE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ThreadFactory delegate;
+    private final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+    private volatile EventLoopGroup group;
+    private long lastSampleNanos = System.nanoTime();
+    private long lastCpuNanos;
+    private long utilization;
+
+    /**
+     * Creates statistics of a group with threads named after the pool.
+     *
+     * @param poolName name of the thread pool
+     */
+    EventLoopStatistics(String poolName) {
+        this.delegate = new DefaultThreadFactory(poolName);
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+        Thread thread = delegate.newThread(r);
+        threads.add(thread);
+        return thread;
+    }
+
+    /**
+     * Sets the group created with this thread factory.
+     *
+     * @param group the event loop group
+     * @return the group
+     */
+    EventLoopGroup group(EventLoopGroup group) {
+        this.group = group;
+        return group;
+    }
+
+    /**
+     * The group created with this thread factory.
+     *
+     * @return the event loop group or {@code null} if not created yet
+     */
+    EventLoopGroup group() {
+        return group;
+    }
+
+    /**
+     * Finds the thread of an event loop of the group.
+     *
+     * @param executor the event loop
+     * @return the thread of the event loop or {@code null} if it is not started
+     */
+    Thread thread(EventExecutor executor) {
+        for (Thread thread : threads) {
+            if (executor.inEventLoop(thread)) {
+                return thread;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Utilization of the event loop threads since the previous sample.
+     *
+     * @return utilization in percents
+     */
+    synchronized long utilization() {
+        long now = System.nanoTime();
+        long elapsed = now - lastSampleNanos;
+        if (elapsed < SAMPLE_INTERVAL_NANOS) {
+            return utilization;
+        }
+        long cpuNanos = cpuNanos();
+        int count = threads.size();
+        if (count > 0 && cpuNanos >= lastCpuNanos) {
+            utilization = Math.min(100, (cpuNanos - lastCpuNanos) * 100 / (elapsed * count));
+        }
+        lastSampleNanos = now;
+        lastCpuNanos = cpuNanos;
+        return utilization;
+    }
+
+    /**
+     * Number of tasks waiting in the queues of the event loops, including the writes of the responses
+     * submitted by other threads.
+     *
+     * @return number of pending tasks
+     */
+    long pendingTasks() {
+        EventLoopGroup group = this.group;
+        if (group == null) {
+            return 0;
+        }
+        long pending = 0;
+        for (EventExecutor executor : group) {
+            if (executor instanceof SingleThreadEventExecutor) {
+                pending += ((SingleThreadEventExecutor) executor).pendingTasks();
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Number of the threads started by the group.
+     *
+     * @return number of event loop threads
+     */
+    int threads() {
+        return threads.size();
+    }
+
+    private long cpuNanos() {
+        if (!THREADS.isThreadCpuTimeSupported() || !THREADS.isThreadCpuTimeEnabled()) {
+            return 0;
+        }
+        long total = 0;
+        for (Thread thread : threads) {
+            // -1 once the thread terminated
+            total += Math.max(0, THREADS.getThreadCpuTime(thread.getId()));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+
+/**
+ * Watchdog of the worker event loops, see {@link ServerConfiguration#eventLoopStallThresholdMillis()}.
+ * <p>
+ * A watchdog thread submits a probe task to each event loop; the lag of the probe, the time between its submission
+ * and its execution, is recorded in the {@link NettyServerStatistics server statistics}. A probe not executed within
+ * the threshold means the event loop thread is blocked; the stack of the thread and the route it is handling are
+ * logged as a {@code event-loop-stall} event. The parameter of the log record is a map of the event properties.
+ * <p>
+ * The routes handled by the event loop threads are tracked only while a watchdog is running.
+ */
+final class EventLoopWatchdog {
+
+    private static final Logger LOGGER = Logger.getLogger(EventLoopWatchdog.class.getName());
+    // probes of the event loop threads of all the running watchdogs
+    private static final Map<Thread, Probe> THREAD_PROBES = new ConcurrentHashMap<>();
+
+    private final Collection<EventLoopStatistics> eventLoops;
+    private final NettyServerStatistics statistics;
+    private final long thresholdNanos;
+    private final Map<EventExecutor, Probe> probes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a new watchdog, not started.
+     *
+     * @param eventLoops      statistics of the event loop groups to watch
+     * @param statistics      statistics to record the probes in
+     * @param thresholdMillis time after which an event loop is reported as stalled
+     */
+    EventLoopWatchdog(Collection<EventLoopStatistics> eventLoops, NettyServerStatistics statistics, long thresholdMillis) {
+        this.eventLoops = eventLoops;
+        this.statistics = statistics;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "helidon-event-loop-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts probing the event loops, twice per threshold.
+     */
+    void start() {
+        long period = Math.max(TimeUnit.MILLISECONDS.toNanos(1), thresholdNanos / 2);
+        scheduler.scheduleAtFixedRate(this::probe, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops probing the event loops.
+     */
+    void stop() {
+        scheduler.shutdownNow();
+        THREAD_PROBES.values().removeAll(probes.values());
+    }
+
+    /**
+     * Records the route handled by the current thread if it is a watched event loop thread.
+     *
+     * @param route the route to be handled
+     * @return the route handled so far, to be passed to {@link #routeFinished(Object)}
+     */
+    static Object routeStarted(HandlerRoute route) {
+        if (THREAD_PROBES.isEmpty()) {
+            return null;
+        }
+        Probe probe = THREAD_PROBES.get(Thread.currentThread());
+        if (probe == null) {
+            return null;
+        }
+        HandlerRoute previous = probe.route;
+        probe.route = route;
+        return previous;
+    }
+
+    /**
+     * Restores the route handled by the current thread once the handler of a route returned.
+     *
+     * @param previous the value returned by {@link #routeStarted(HandlerRoute)}
+     */
+    static void routeFinished(Object previous) {
+        if (THREAD_PROBES.isEmpty()) {
+            return;
+        }
+        Probe probe = THREAD_PROBES.get(Thread.currentThread());
+        if (probe != null) {
+            probe.route = (HandlerRoute) previous;
+        }
+    }
+
+    private void probe() {
+        try {
+            long now = System.nanoTime();
+            for (EventLoopStatistics eventLoop : eventLoops) {
+                EventLoopGroup group = eventLoop.group();
+                if (group == null) {
+                    continue;
+                }
+                for (EventExecutor executor : group) {
+                    probes.computeIfAbsent(executor, Probe::new).check(now, eventLoop);
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.FINE, "Event loop probe failed", e);
+        }
+    }
+
+    /**
+     * Probe of a single event loop.
+     */
+    private final class Probe implements Runnable {
+        private final EventExecutor executor;
+
+        private volatile long submittedNanos;
+        private volatile boolean reported;
+        private volatile Thread thread;
+        private volatile HandlerRoute route;
+
+        private Probe(EventExecutor executor) {
+            this.executor = executor;
+        }
+
+        private void check(long now, EventLoopStatistics eventLoop) {
+            if (thread == null) {
+                // register the thread as soon as it is started so that the routes it handles before the first
+                // probe runs are known
+                register(eventLoop.thread(executor));
+            }
+            long submitted = submittedNanos;
+            if (submitted == 0) {
+                reported = false;
+                submittedNanos = now;
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // the event loop is shutting down
+                    submittedNanos = 0;
+                }
+            } else if (!reported && now - submitted > thresholdNanos) {
+                reported = true;
+                stalled(now - submitted, eventLoop);
+            }
+        }
+
+        @Override
+        public void run() {
+            long lag = System.nanoTime() - submittedNanos;
+            if (thread == null) {
+                register(Thread.currentThread());
+            }
+            statistics.eventLoopProbed(lag, lag > thresholdNanos);
+            submittedNanos = 0;
+        }
+
+        private synchronized void register(Thread eventLoopThread) {
+            if (thread == null && eventLoopThread != null) {
+                THREAD_PROBES.put(eventLoopThread, this);
+                thread = eventLoopThread;
+            }
+        }
+
+        private void stalled(long lagNanos, EventLoopStatistics eventLoop) {
+            Thread stalledThread = thread == null ? eventLoop.thread(executor) : thread;
+            HandlerRoute stalledRoute = route;
+
+            Map<String, String> event = new LinkedHashMap<>();
+            if (stalledRoute != null) {
+                event.putAll(stalledRoute.diagnosticEvent());
+            }
+            event.put("event", "event-loop-stall");
+            event.put("thread", stalledThread == null ? "unknown" : stalledThread.getName());
+            event.put("lag.millis", String.valueOf(TimeUnit.NANOSECONDS.toMillis(lagNanos)));
+
+            LogRecord record = new LogRecord(Level.WARNING, "Event loop stalled: " + event);
+            record.setLoggerName(LOGGER.getName());
+            record.setParameters(new Object[] {event});
+            if (stalledThread != null) {
+                StallTrace trace = new StallTrace(stalledThread);
+                trace.setStackTrace(stalledThread.getStackTrace());
+                record.setThrown(trace);
+            }
+            LOGGER.log(record);
+        }
+    }
+
+    /**
+     * Carries the stack of a stalled event loop thread in the log record.
+     */
+    private static final class StallTrace extends Throwable {
+        private static final long serialVersionUID = 1L;
+
+        private StallTrace(Thread thread) {
+            super("Stack of the stalled event loop thread " + thread.getName(), null, false, true);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Content of a response sent from a file: the whole file, a single range of it, or several ranges
+ * as a {@code multipart/byteranges} body.
+ * <p>
+ * The content consists of {@link Part parts}, each of them either in-memory data (multipart boundaries and headers)
+ * or a region of the file. Regions are written as file regions by the {@link BareResponseImpl}, or read
+ * using positional reads from {@link #channel()} if the content must be published as data chunks.
+ */
+final class FileContent {
+
+    private final Path path;
+    private final List<Part> parts;
+    private final long length;
+
+    private FileContent(Path path, List<Part> parts) {
+        this.path = path;
+        this.parts = Collections.unmodifiableList(parts);
+        long total = 0;
+        for (Part part : parts) {
+            total += part.length();
+        }
+        this.length = total;
+    }
+
+    /**
+     * Content of the whole file.
+     *
+     * @param path the file
+     * @return file content
+     * @throws IOException if the size of the file cannot be determined
+     */
+    static FileContent create(Path path) throws IOException {
+        return create(path, 0, Files.size(path));
+    }
+
+    /**
+     * Content of a region of the file.
+     *
+     * @param path     the file
+     * @param position position of the first byte of the region
+     * @param count    number of bytes of the region
+     * @return file content
+     */
+    static FileContent create(Path path, long position, long count) {
+        List<Part> parts = new ArrayList<>(1);
+        parts.add(new Part(position, count));
+        return new FileContent(path, parts);
+    }
+
+    /**
+     * Content of several ranges of the file as a {@code multipart/byteranges} body.
+     *
+     * @param path           the file
+     * @param ranges         ranges to send
+     * @param completeLength length of the file
+     * @param contentType    content type of the file, may be {@code null}
+     * @param boundary       multipart boundary
+     * @return file content
+     */
+    static FileContent createMultipart(Path path,
+                                       List<ByteRange> ranges,
+                                       long completeLength,
+                                       String contentType,
+                                       String boundary) {
+        List<Part> parts = new ArrayList<>(ranges.size() * 2 + 1);
+        for (ByteRange range : ranges) {
+            StringBuilder header = new StringBuilder()
+                    .append("\r\n--").append(boundary).append("\r\n");
+            if (contentType != null) {
+                header.append("Content-Type: ").append(contentType).append("\r\n");
+            }
+            header.append("Content-Range: ").append(range.contentRange(completeLength)).append("\r\n\r\n");
+            parts.add(new Part(header.toString().getBytes(StandardCharsets.US_ASCII)));
+            parts.add(new Part(range.first(), range.length()));
+        }
+        parts.add(new Part(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII)));
+        return new FileContent(path, parts);
+    }
+
+    /**
+     * The file.
+     *
+     * @return path of the file
+     */
+    Path path() {
+        return path;
+    }
+
+    /**
+     * Parts of the content in the order they should be sent.
+     *
+     * @return content parts
+     */
+    List<Part> parts() {
+        return parts;
+    }
+
+    /**
+     * Number of bytes of the content.
+     *
+     * @return content length
+     */
+    long length() {
+        return length;
+    }
+
+    /**
+     * A channel reading the content, file regions are read using positional reads.
+     *
+     * @return a new channel of the content
+     * @throws IOException if the file cannot be opened
+     */
+    ReadableByteChannel channel() throws IOException {
+        return new PartsChannel(FileChannel.open(path, StandardOpenOption.READ), parts.iterator());
+    }
+
+    /**
+     * A part of the content, either in-memory data or a file region.
+     */
+    static final class Part {
+        private final byte[] data;
+        private final long position;
+        private final long count;
+
+        private Part(byte[] data) {
+            this.data = data;
+            this.position = 0;
+            this.count = data.length;
+        }
+
+        private Part(long position, long count) {
+            this.data = null;
+            this.position = position;
+            this.count = count;
+        }
+
+        /**
+         * Whether this part is a region of the file.
+         *
+         * @return {@code true} for a file region, {@code false} for in-memory data
+         */
+        boolean isRegion() {
+            return data == null;
+        }
+
+        /**
+         * In-memory data of this part.
+         *
+         * @return data, {@code null} for a file region
+         */
+        byte[] data() {
+            return data;
+        }
+
+        /**
+         * Position of the file region in the file.
+         *
+         * @return position of the first byte
+         */
+        long position() {
+            return position;
+        }
+
+        /**
+         * Number of bytes of this part.
+         *
+         * @return part length
+         */
+        long length() {
+            return count;
+        }
+    }
+
+    private static final class PartsChannel implements ReadableByteChannel {
+        private final FileChannel file;
+        private final Iterator<Part> parts;
+
+        private Part current;
+        private long offset;
+
+        private PartsChannel(FileChannel file, Iterator<Part> parts) {
+            this.file = file;
+            this.parts = parts;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            while (current == null || offset >= current.length()) {
+                if (!parts.hasNext()) {
+                    return -1;
+                }
+                current = parts.next();
+                offset = 0;
+            }
+            int toRead = (int) Math.min(dst.remaining(), current.length() - offset);
+            int read;
+            if (current.isRegion()) {
+                ByteBuffer slice = dst.duplicate();
+                slice.limit(slice.position() + toRead);
+                read = file.read(slice, current.position() + offset);
+                if (read < 0) {
+                    throw new IOException("File is shorter than expected: " + file);
+                }
+                dst.position(dst.position() + read);
+            } else {
+                dst.put(current.data(), (int) offset, toRead);
+                read = toRead;
+            }
+            offset += read;
+            return read;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return file.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            file.close();
+        }
+    }
+}
@@ -113,11 +113,7 @@ class FileSystemContentHandler extends StaticContentHandler {
         }
 
         processContentType(fileName(path), request.headers(), response.headers(), contentTypeSelector);
-        if (method == Http.Method.HEAD) {
-            response.send();
-        } else {
-            response.send(path);
-        }
+        sendFile(method, path, request, response);
     }
 
     /**
@@ -17,36 +17,49 @@
 package io.helidon.webserver;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Queue;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 import javax.net.ssl.SSLEngine;
 
-import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.TooLongFrameException;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpContent;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.timeout.IdleState;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.util.ReferenceCountUtil;
 
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
 import static io.netty.handler.codec.http.HttpResponseStatus.CONTINUE;
+import static io.netty.handler.codec.http.HttpResponseStatus.REQUEST_HEADER_FIELDS_TOO_LARGE;
+import static io.netty.handler.codec.http.HttpResponseStatus.REQUEST_URI_TOO_LONG;
 import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
 
 /**
  * ForwardingHandler bridges Netty response and request related APIs to
  * {@link BareRequest} and {@link BareResponse}.
  * <p>
- * For each tcp connection, a single {@link ForwardingHandler} is created.
+ * For each tcp connection, or each stream of a HTTP/2 connection, a single {@link ForwardingHandler} is created.
  */
 public class ForwardingHandler extends SimpleChannelInboundHandler<Object> {
 
@@ -56,20 +69,44 @@ public class ForwardingHandler extends SimpleChannelInboundHandler<Object> {
     private final Routing routing;
     private final NettyWebServer webServer;
     private final SSLEngine sslEngine;
-    private final Queue<ReferenceHoldingQueue<DataChunk>> queues;
+    private final RequestChunkLeakDetector leakDetector;
+    private final CompressionConfiguration compression;
+    private final int aggregationBufferSize;
+    private final int maxPipelinedRequests;
+    private final AtomicInteger inFlight = new AtomicInteger();
 
     // this field is always accessed by the very same thread; as such, it doesn't need to be
     // concurrency aware
     private RequestContext requestContext;
+    private BareResponseImpl bareResponse;
+    // set on the event loop, read by the threads completing the responses
+    private volatile boolean draining;
+    // responses of pipelined requests, null if pipelining is disabled
+    private ResponseQueue responses;
+    // received messages of pipelined requests over the limit
+    private final Deque<Object> backlog = new ArrayDeque<>();
 
     ForwardingHandler(Routing routing,
                       NettyWebServer webServer,
                       SSLEngine sslEngine,
-                      Queue<ReferenceHoldingQueue<DataChunk>> queues) {
+                      RequestChunkLeakDetector leakDetector,
+                      CompressionConfiguration compression,
+                      int aggregationBufferSize,
+                      int maxPipelinedRequests) {
         this.routing = routing;
         this.webServer = webServer;
         this.sslEngine = sslEngine;
-        this.queues = queues;
+        this.leakDetector = leakDetector;
+        this.compression = compression;
+        this.aggregationBufferSize = aggregationBufferSize;
+        this.maxPipelinedRequests = maxPipelinedRequests;
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        if (maxPipelinedRequests > 1) {
+            responses = new ResponseQueue(ctx, webServer.statistics());
+        }
     }
 
     @Override
@@ -91,17 +128,31 @@ public class ForwardingHandler extends SimpleChannelInboundHandler<Object> {
     protected void channelRead0(ChannelHandlerContext ctx, Object msg) {
         LOGGER.fine(() -> String.format("[Handler: %s] Received object: %s", System.identityHashCode(this), msg.getClass()));
 
+        if (responses != null
+                && (!backlog.isEmpty() || (msg instanceof HttpRequest && inFlight.get() >= maxPipelinedRequests))) {
+            // requests already decoded from the received data, processed once the pipeline is below the limit
+            backlog.add(ReferenceCountUtil.retain(msg));
+            return;
+        }
+        handle(ctx, msg);
+    }
+
+    private void handle(ChannelHandlerContext ctx, Object msg) {
         if (msg instanceof HttpRequest) {
 
             ctx.channel().config().setAutoRead(false);
 
             HttpRequest request = (HttpRequest) msg;
-            ReferenceHoldingQueue<DataChunk> queue = new ReferenceHoldingQueue<>();
-            queues.add(queue);
-            requestContext = new RequestContext(new HttpRequestScopedPublisher(ctx, queue), request);
+            if (request.decoderResult().isFailure()) {
+                rejectUndecodable(ctx, request);
+                return;
+            }
+            RequestContext requestContext = new RequestContext(new HttpRequestScopedPublisher(ctx, leakDetector), request);
+            this.requestContext = requestContext;
             // the only reason we have the 'ref' here is that the field might get assigned with null
             final HttpRequestScopedPublisher publisherRef = requestContext.publisher();
             long requestId = REQUEST_ID_GENERATOR.incrementAndGet();
+            ResponseQueue.Slot slot = (responses == null) ? null : responses.add();
 
             // If a problem with the request URI, return 400 response
             BareRequestImpl bareRequest;
@@ -109,33 +160,49 @@ public class ForwardingHandler extends SimpleChannelInboundHandler<Object> {
                 bareRequest = new BareRequestImpl((HttpRequest) msg, requestContext.publisher(),
                         webServer, ctx, sslEngine, requestId);
             } catch (IllegalArgumentException e) {
-                send400BadRequest(ctx, e.getMessage());
+                send400BadRequest(ctx, slot, e.getMessage());
                 return;
             }
 
             BareResponseImpl bareResponse =
-                    new BareResponseImpl(ctx, request, publisherRef::isCompleted, Thread.currentThread(), requestId);
+                    new BareResponseImpl(ctx, request, publisherRef::isCompleted, Thread.currentThread(), requestId, compression,
+                                         aggregationBufferSize, slot);
+            this.bareResponse = bareResponse;
+            if (draining) {
+                bareResponse.closeConnection();
+            }
+            inFlight.incrementAndGet();
+            webServer.statistics().requestStarted();
             bareResponse.whenCompleted()
-                        .thenRun(() -> {
-                            RequestContext requestContext = this.requestContext;
-                            if (requestContext != null) {
-                                requestContext.responseCompleted(true);
-                            }
+                        .whenComplete((response, throwable) -> {
+                            webServer.statistics().requestCompleted();
+                            requestContext.responseCompleted(true);
 
-                            // Cleanup for these queues is done in HttpInitializer, but
-                            // we try to do it here if possible to reduce memory usage,
-                            // especially for keep-alive connections
-                            if (queue.release()) {
-                                queues.remove(queue);
-                            }
+                            // release the chunks no one subscribed to, the chunks delivered to the application
+                            // are only reported as it may still read them
                             publisherRef.drain();
-
-                            // Enable auto-read only after response has been completed
-                            // to avoid a race condition with the next response
-                            ctx.channel().config().setAutoRead(true);
+                            leakDetector.requestCompleted(requestId, publisherRef.unreleasedChunks());
+
+                            int remaining = inFlight.decrementAndGet();
+                            if (draining) {
+                                if (remaining == 0) {
+                                    // the response is written, it may have been completed before it was told to close
+                                    ctx.close();
+                                }
+                                return;
+                            }
+                            if (responses == null) {
+                                // Enable auto-read only after response has been completed
+                                // to avoid a race condition with the next response
+                                ctx.channel().config().setAutoRead(true);
+                            } else if (ctx.executor().inEventLoop()) {
+                                readPipelined(ctx);
+                            } else {
+                                ctx.executor().execute(() -> readPipelined(ctx));
+                            }
                         });
             if (HttpUtil.is100ContinueExpected(request)) {
-                send100Continue(ctx);
+                send100Continue(ctx, slot);
             }
 
             routing.route(bareRequest, bareResponse);
@@ -166,14 +233,24 @@ public class ForwardingHandler extends SimpleChannelInboundHandler<Object> {
                     // payload is not consumed and the response is already sent; we must close the connection
                     LOGGER.finer(() -> "Closing connection because request payload was not consumed; method: " + method);
                     ctx.close();
+                } else if (requestContext.contentRejected()) {
+                    // the content over the maximal content length is discarded
+                    LOGGER.finest(() -> "Discarding rejected request content");
+                } else if (requestContext.contentExceeded(content.readableBytes())) {
+                    rejectContent(requestContext);
                 } else {
                     requestContext.publisher().submit(content);
                 }
             }
 
             if (msg instanceof LastHttpContent) {
-                requestContext.publisher().complete();
+                if (!requestContext.contentRejected()) {
+                    requestContext.publisher().complete();
+                }
                 requestContext = null; // just to be sure that current http req/res session doesn't interfere with other ones
+                if (responses != null) {
+                    readPipelined(ctx);
+                }
             } else if (!content.isReadable()) {
                 // this is here to handle the case when the content is not readable but we didn't
                 // exceptionally complete the publisher and close the connection
@@ -182,23 +259,193 @@ public class ForwardingHandler extends SimpleChannelInboundHandler<Object> {
         }
     }
 
-    private static void send100Continue(ChannelHandlerContext ctx) {
+    /**
+     * Processes the requests waiting in the backlog and reads the next pipelined request if the current request
+     * was completely received and the number of requests processed concurrently is below the limit.
+     * Executed on the event loop.
+     *
+     * @param ctx the channel handler context
+     */
+    private void readPipelined(ChannelHandlerContext ctx) {
+        Object msg;
+        while ((msg = backlog.peek()) != null) {
+            if (msg instanceof HttpRequest && inFlight.get() >= maxPipelinedRequests) {
+                return;
+            }
+            backlog.poll();
+            try {
+                handle(ctx, msg);
+            } finally {
+                ReferenceCountUtil.release(msg);
+            }
+        }
+        if (requestContext == null && inFlight.get() < maxPipelinedRequests) {
+            ctx.channel().config().setAutoRead(true);
+        }
+    }
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+        if (evt == DrainEvent.INSTANCE) {
+            drain(ctx);
+        } else if (evt instanceof IdleStateEvent) {
+            idle(ctx, ((IdleStateEvent) evt).state());
+        } else {
+            super.userEventTriggered(ctx, evt);
+        }
+    }
+
+    /**
+     * Closes the connection once the requests in flight are completed. An idle connection is closed immediately,
+     * otherwise the last response closes the connection. Pipelined requests not routed yet are discarded,
+     * the client retries them on a new connection.
+     *
+     * @param ctx the channel handler context
+     */
+    private void drain(ChannelHandlerContext ctx) {
+        draining = true;
+        backlog.forEach(ReferenceCountUtil::release);
+        backlog.clear();
+        BareResponseImpl bareResponse = this.bareResponse;
+        if (inFlight.get() == 0) {
+            ctx.close();
+        } else if (bareResponse != null) {
+            bareResponse.closeConnection();
+        }
+    }
+
+    /**
+     * Closes the connection once it reaches the idle timeout with no request in flight, or the read timeout
+     * while a request is expected. A request is expected when there is no request in flight, or when the content
+     * of the current request was requested and not received yet.
+     *
+     * @param ctx   the channel handler context
+     * @param state the timeout reached
+     */
+    private void idle(ChannelHandlerContext ctx, IdleState state) {
+        RequestContext requestContext = this.requestContext;
+        boolean waiting = inFlight.get() == 0 && backlog.isEmpty();
+        boolean expected = waiting
+                || (requestContext != null && !requestContext.contentRejected() && !requestContext.publisher().isSuspended());
+        if ((state == IdleState.ALL_IDLE && waiting) || (state == IdleState.READER_IDLE && expected)) {
+            LOGGER.finer(() -> "Closing connection on " + state + ", requests in flight: " + inFlight.get());
+            webServer.statistics().connectionTimedOut();
+            if (requestContext != null) {
+                requestContext.publisher().error(new SocketClosedException("Request content was not received in time"));
+            }
+            ctx.close();
+        }
+    }
+
+    /**
+     * Fails the content of a request larger than the maximal content length of its route. The remaining content is
+     * discarded without being buffered and the connection is closed with the response.
+     *
+     * @param requestContext context of the rejected request
+     */
+    private void rejectContent(RequestContext requestContext) {
+        long maxContentLength = requestContext.publisher().maxContentLength();
+        LOGGER.finer(() -> "Rejecting request content larger than " + maxContentLength + " bytes");
+        webServer.statistics().requestRejected();
+        BareResponseImpl bareResponse = this.bareResponse;
+        if (bareResponse != null) {
+            bareResponse.closeConnection();
+        }
+        requestContext.publisher().error(new HttpException("Request content is larger than " + maxContentLength + " bytes",
+                                                           Http.Status.REQUEST_ENTITY_TOO_LARGE_413));
+    }
+
+    /**
+     * Responds to a request which could not be decoded and closes the connection, the data following the request
+     * cannot be decoded either. An initial line or headers over the limits of the socket are rejected with
+     * {@code 414} or {@code 431}, other failures with {@code 400}.
+     *
+     * @param ctx     the channel handler context
+     * @param request the request failed by the decoder
+     */
+    private void rejectUndecodable(ChannelHandlerContext ctx, HttpRequest request) {
+        Throwable cause = request.decoderResult().cause();
+        HttpResponseStatus status;
+        if (cause instanceof TooLongFrameException) {
+            webServer.statistics().requestRejected();
+            // the decoder fails the request created from the decoded initial line if the headers failed, a full
+            // request is only created as a placeholder if the initial line itself could not be decoded
+            status = (request instanceof FullHttpRequest)
+                    ? REQUEST_URI_TOO_LONG
+                    : REQUEST_HEADER_FIELDS_TOO_LARGE;
+        } else {
+            status = BAD_REQUEST;
+        }
+        LOGGER.finer(() -> "Rejecting request with " + status + ": " + cause);
+        FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, status);
+        response.headers().add(HttpHeaderNames.CONTENT_LENGTH, 0);
+        response.headers().add(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+        ResponseQueue.Slot slot = (responses == null) ? null : responses.add();
+        ChannelFuture future = (slot == null) ? ctx.writeAndFlush(response) : slot.writeLast(response);
+        future.addListener(ChannelFutureListener.CLOSE);
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (ctx.channel().isWritable()) {
+            if (responses != null) {
+                responses.channelWritable();
+            } else {
+                BareResponseImpl bareResponse = this.bareResponse;
+                if (bareResponse != null) {
+                    bareResponse.channelWritable();
+                }
+            }
+        } else {
+            webServer.statistics().writabilityPaused();
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        if (responses != null) {
+            responses.close();
+            backlog.forEach(ReferenceCountUtil::release);
+            backlog.clear();
+        }
+        super.channelInactive(ctx);
+    }
+
+    /**
+     * User event fired on the pipeline of a HTTP/1.1 connection when the server is shutting down,
+     * see {@link ServerConfiguration#drainTimeoutMillis()}.
+     */
+    enum DrainEvent {
+        INSTANCE
+    }
+
+    private static void send100Continue(ChannelHandlerContext ctx, ResponseQueue.Slot slot) {
         FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, CONTINUE);
-        ctx.write(response);
+        if (slot == null) {
+            ctx.write(response);
+        } else {
+            slot.write(response, false);
+        }
     }
 
     /**
      * Returns a 400 (Bad Request) response with a message as content.
      *
      * @param ctx Channel context.
+     * @param slot Place of the response in the pipelined responses or {@code null}.
      * @param message The message.
      */
-    private static void send400BadRequest(ChannelHandlerContext ctx, String message) {
+    private static void send400BadRequest(ChannelHandlerContext ctx, ResponseQueue.Slot slot, String message) {
         byte[] entity = message.getBytes(StandardCharsets.UTF_8);
         FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, BAD_REQUEST, Unpooled.wrappedBuffer(entity));
         response.headers().add(HttpHeaderNames.CONTENT_TYPE, "text/plain");
         response.headers().add(HttpHeaderNames.CONTENT_LENGTH, entity.length);
-        ctx.write(response);
+        if (slot == null) {
+            ctx.write(response);
+        } else {
+            slot.writeLast(response);
+        }
     }
 
     @Override
@@ -19,6 +19,7 @@ package io.helidon.webserver;
 import java.util.Objects;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
 import java.util.function.BiConsumer;
 
 /**
@@ -96,6 +97,41 @@ public interface Handler extends BiConsumer<ServerRequest, ServerResponse> {
         };
     }
 
+    /**
+     * Creates new instance of the {@link Handler} running the provided handler on a thread pool instead of the event loop
+     * which received the request. Use it for handlers which block, such as on JDBC or file calls; a blocking handler
+     * invoked on the event loop stalls all the connections of the event loop.
+     * <p>
+     * The handler runs on a bounded thread pool shared by all the offloaded handlers of the server, configured by
+     * {@link ServerConfiguration#offloadExecutorService()} (configuration key {@code offload-executor-service}),
+     * created when the server starts and shut down with it. The request context is propagated to the pool.
+     * A request rejected because the queue of the pool is full is answered with {@code 503 Service Unavailable}
+     * by the default error handling.
+     *
+     * @param handler a handler to run on the thread pool
+     * @return new {@code Handler} instance
+     */
+    static Handler offload(Handler handler) {
+        Objects.requireNonNull(handler, "Parameter 'handler' is null!");
+        return OffloadHandler.create(handler);
+    }
+
+    /**
+     * Creates new instance of the {@link Handler} running the provided handler on the provided executor instead of
+     * the event loop which received the request. The request context is propagated to the executor. A request
+     * rejected by the executor is answered with {@code 503 Service Unavailable} by the default error handling.
+     *
+     * @param executor an executor to run the handler on, should be bounded
+     * @param handler  a handler to run on the executor
+     * @return new {@code Handler} instance
+     * @see #offload(Handler)
+     */
+    static Handler offload(ExecutorService executor, Handler handler) {
+        Objects.requireNonNull(executor, "Parameter 'executor' is null!");
+        Objects.requireNonNull(handler, "Parameter 'handler' is null!");
+        return OffloadHandler.create(executor, handler);
+    }
+
     /**
      * Handles {@link ServerRequest request}, {@link ServerResponse response} and HTTP request content entity.
      * Used as functional parameter in {@link #create(Class, EntityHandler)} method.
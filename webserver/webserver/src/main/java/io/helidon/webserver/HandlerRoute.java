@@ -134,6 +134,15 @@ class HandlerRoute implements Route {
         return handler;
     }
 
+    /**
+     * Returns an effective {@link PathMatcher}.
+     *
+     * @return a path matcher
+     */
+    PathMatcher pathMatcher() {
+        return pathMatcher;
+    }
+
     public Map<String, String> diagnosticEvent() {
         return diagnosticEvent;
     }
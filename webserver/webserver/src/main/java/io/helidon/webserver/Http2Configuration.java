@@ -26,6 +26,26 @@ public interface Http2Configuration {
      */
     int DEFAULT_MAX_CONTENT_LENGTH = 64 * 1024;
 
+    /**
+     * Default value for max concurrent streams of a connection.
+     */
+    long DEFAULT_MAX_CONCURRENT_STREAMS = 100;
+
+    /**
+     * Default value for initial flow-control window size of a stream, as defined by the specification.
+     */
+    int DEFAULT_INITIAL_WINDOW_SIZE = 65535;
+
+    /**
+     * Default value for max frame size, as defined by the specification.
+     */
+    int DEFAULT_MAX_FRAME_SIZE = 16384;
+
+    /**
+     * Default value for header table size, as defined by the specification.
+     */
+    long DEFAULT_HEADER_TABLE_SIZE = 4096;
+
     /**
      * Config property to enable HTTP/2 support.
      *
@@ -34,13 +54,51 @@ public interface Http2Configuration {
     boolean enable();
 
     /**
-     * Default HTTP/2 content length. Streaming is currently not supported for HTTP/2,
-     * so this is largest payload acceptable.
+     * Max content length of a HTTP/1.1 request upgraded to HTTP/2 ({@code h2c} upgrade), the content of the upgrade
+     * request is aggregated. Content of the HTTP/2 streams is not aggregated, it is streamed to the routing.
      *
-     * @return Max HTTP/2 buffer size.
+     * @return Max content length of the upgrade request.
      */
     int maxContentLength();
 
+    /**
+     * Max number of streams of a connection processed concurrently ({@code SETTINGS_MAX_CONCURRENT_STREAMS}).
+     * Each stream is routed as an independent request.
+     *
+     * @return Max concurrent streams.
+     */
+    default long maxConcurrentStreams() {
+        return DEFAULT_MAX_CONCURRENT_STREAMS;
+    }
+
+    /**
+     * Initial flow-control window size of a stream ({@code SETTINGS_INITIAL_WINDOW_SIZE}). The client may send
+     * up to this number of bytes of a request the routing did not request yet.
+     *
+     * @return Initial window size in bytes.
+     */
+    default int initialWindowSize() {
+        return DEFAULT_INITIAL_WINDOW_SIZE;
+    }
+
+    /**
+     * Max size of a frame payload the server accepts ({@code SETTINGS_MAX_FRAME_SIZE}).
+     *
+     * @return Max frame size in bytes.
+     */
+    default int maxFrameSize() {
+        return DEFAULT_MAX_FRAME_SIZE;
+    }
+
+    /**
+     * Size of the header compression table of the server ({@code SETTINGS_HEADER_TABLE_SIZE}).
+     *
+     * @return Header table size in bytes.
+     */
+    default long headerTableSize() {
+        return DEFAULT_HEADER_TABLE_SIZE;
+    }
+
     /**
      * Create a new fluent API builder.
      *
@@ -54,9 +112,15 @@ public interface Http2Configuration {
      * Builder for {@link Http2Configuration}.
      */
     final class Builder implements io.helidon.common.Builder<Http2Configuration> {
+        private static final long MAX_UNSIGNED_INT = 0xFFFFFFFFL;
+        private static final int MAX_FRAME_SIZE = 0xFFFFFF;
 
         private boolean enableHttp2 = false;
         private int http2MaxContentLength = DEFAULT_MAX_CONTENT_LENGTH;
+        private long maxConcurrentStreams = DEFAULT_MAX_CONCURRENT_STREAMS;
+        private int initialWindowSize = DEFAULT_INITIAL_WINDOW_SIZE;
+        private int maxFrameSize = DEFAULT_MAX_FRAME_SIZE;
+        private long headerTableSize = DEFAULT_HEADER_TABLE_SIZE;
 
         /**
          * Sets value to enable HTTP/2 support.
@@ -80,6 +144,64 @@ public interface Http2Configuration {
             return this;
         }
 
+        /**
+         * Sets max number of concurrent streams of a connection.
+         *
+         * @param maxConcurrentStreams max concurrent streams, between {@code 0} and {@code 2^32-1}
+         * @return this builder
+         * @throws IllegalArgumentException if the value is out of range
+         */
+        public Builder maxConcurrentStreams(long maxConcurrentStreams) {
+            checkRange("Max concurrent streams", maxConcurrentStreams, 0, MAX_UNSIGNED_INT);
+            this.maxConcurrentStreams = maxConcurrentStreams;
+            return this;
+        }
+
+        /**
+         * Sets initial flow-control window size of a stream.
+         *
+         * @param initialWindowSize window size in bytes, between {@code 0} and {@code 2^31-1}
+         * @return this builder
+         * @throws IllegalArgumentException if the value is out of range
+         */
+        public Builder initialWindowSize(int initialWindowSize) {
+            checkRange("Initial window size", initialWindowSize, 0, Integer.MAX_VALUE);
+            this.initialWindowSize = initialWindowSize;
+            return this;
+        }
+
+        /**
+         * Sets max size of a frame payload the server accepts.
+         *
+         * @param maxFrameSize frame size in bytes, between {@code 16384} and {@code 2^24-1}
+         * @return this builder
+         * @throws IllegalArgumentException if the value is out of range
+         */
+        public Builder maxFrameSize(int maxFrameSize) {
+            checkRange("Max frame size", maxFrameSize, DEFAULT_MAX_FRAME_SIZE, MAX_FRAME_SIZE);
+            this.maxFrameSize = maxFrameSize;
+            return this;
+        }
+
+        /**
+         * Sets size of the header compression table of the server.
+         *
+         * @param headerTableSize table size in bytes, between {@code 0} and {@code 2^32-1}
+         * @return this builder
+         * @throws IllegalArgumentException if the value is out of range
+         */
+        public Builder headerTableSize(long headerTableSize) {
+            checkRange("Header table size", headerTableSize, 0, MAX_UNSIGNED_INT);
+            this.headerTableSize = headerTableSize;
+            return this;
+        }
+
+        private static void checkRange(String name, long value, long min, long max) {
+            if (value < min || value > max) {
+                throw new IllegalArgumentException(name + " must be between " + min + " and " + max + ", but is " + value);
+            }
+        }
+
         @Override
         public Http2Configuration build() {
             return new Http2Configuration() {
@@ -92,6 +214,26 @@ public interface Http2Configuration {
                 public int maxContentLength() {
                     return http2MaxContentLength;
                 }
+
+                @Override
+                public long maxConcurrentStreams() {
+                    return Builder.this.maxConcurrentStreams;
+                }
+
+                @Override
+                public int initialWindowSize() {
+                    return Builder.this.initialWindowSize;
+                }
+
+                @Override
+                public int maxFrameSize() {
+                    return Builder.this.maxFrameSize;
+                }
+
+                @Override
+                public long headerTableSize() {
+                    return Builder.this.headerTableSize;
+                }
             };
         }
     }
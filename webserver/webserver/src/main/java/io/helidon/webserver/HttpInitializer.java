@@ -16,16 +16,18 @@
 
 package io.helidon.webserver;
 
-
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
 import javax.net.ssl.SSLEngine;
 
-import io.helidon.common.http.DataChunk;
-import io.helidon.webserver.HelidonConnectionHandler.HelidonHttp2ConnectionHandlerBuilder;
-
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerAdapter;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelInitializer;
@@ -37,43 +39,87 @@ import io.netty.handler.codec.http.HttpServerCodec;
 import io.netty.handler.codec.http.HttpServerUpgradeHandler;
 import io.netty.handler.codec.http2.CleartextHttp2ServerUpgradeHandler;
 import io.netty.handler.codec.http2.Http2CodecUtil;
+import io.netty.handler.codec.http2.Http2FrameCodec;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2FrameLogger;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
 import io.netty.handler.codec.http2.Http2ServerUpgradeCodec;
+import io.netty.handler.codec.http2.Http2Settings;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.ApplicationProtocolNegotiationHandler;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
 import io.netty.util.AsciiString;
 
+import static io.netty.handler.logging.LogLevel.DEBUG;
+
 /**
  * The HttpInitializer.
+ * <p>
+ * With HTTP/2 enabled, a connection negotiates HTTP/2 with ALPN ({@code h2}) when TLS is used, otherwise it starts
+ * HTTP/2 either with the prior knowledge or by an upgrade of a HTTP/1.1 request ({@code h2c}). Each stream
+ * of a HTTP/2 connection is a child channel with its own {@link ForwardingHandler}, so the streams are routed
+ * as independent requests and their content is streamed with a backpressure of the stream.
+ * <p>
+ * The initializer of a socket also enforces the {@link SocketConfiguration#maxConnections() maximal number of connections}
+ * of the socket, and adds an {@link IdleStateHandler} when the socket has an idle or read timeout. The timeouts are
+ * applied by the {@link ForwardingHandler} of a HTTP/1.1 connection, which knows whether a request is expected, and by
+ * the HTTP/2 handlers to a connection with no active streams.
  */
 class HttpInitializer extends ChannelInitializer<SocketChannel> {
     private static final Logger LOGGER = Logger.getLogger(HttpInitializer.class.getName());
+    private static final Http2FrameLogger FRAME_LOGGER = new Http2FrameLogger(DEBUG, HttpInitializer.class);
+    private static final int MAX_CHUNK_SIZE = 8192;
 
     private final SslContext sslContext;
     private final NettyWebServer webServer;
     private final Routing routing;
-    private final Queue<ReferenceHoldingQueue<DataChunk>> queues = new ConcurrentLinkedQueue<>();
+    private final CompressionConfiguration compression;
+    private final int maxPipelinedRequests;
+    private final int maxConnections;
+    private final boolean queueConnections;
+    private final long idleTimeoutMillis;
+    private final long readTimeoutMillis;
+    private final int maxInitialLineLength;
+    private final int maxHeaderSize;
+    private final int aggregationBufferSize;
+    // connections of this socket, only counted with the connection limit
+    private final AtomicInteger connections = new AtomicInteger();
+    // server channels which stopped accepting because of the connection limit
+    private final Set<Channel> pausedAcceptors = ConcurrentHashMap.newKeySet();
 
-    HttpInitializer(SslContext sslContext, Routing routing, NettyWebServer webServer) {
+    HttpInitializer(SslContext sslContext, Routing routing, NettyWebServer webServer, SocketConfiguration soConfig) {
         this.routing = routing;
         this.sslContext = sslContext;
         this.webServer = webServer;
-    }
-
-    private void clearQueues() {
-        queues.removeIf(ReferenceHoldingQueue::release);
-    }
-
-    void queuesShutdown() {
-        queues.removeIf(queue -> {
-            queue.shutdown();
-            return true;
-        });
+        this.compression = soConfig.compression();
+        this.maxPipelinedRequests = soConfig.maxPipelinedRequests();
+        this.maxConnections = soConfig.maxConnections();
+        this.queueConnections = soConfig.queueConnections();
+        this.idleTimeoutMillis = soConfig.idleTimeoutMillis();
+        this.readTimeoutMillis = soConfig.readTimeoutMillis();
+        this.maxInitialLineLength = soConfig.maxInitialLineLength();
+        this.maxHeaderSize = soConfig.maxHeaderSize();
+        this.aggregationBufferSize = soConfig.aggregationBufferSize();
     }
 
     @Override
     public void initChannel(SocketChannel ch) {
         final ChannelPipeline p = ch.pipeline();
 
+        if (maxConnections > 0 && !admit(ch)) {
+            return;
+        }
+        webServer.statistics().connectionOpened(ch);
+
+        if (idleTimeoutMillis > 0 || readTimeoutMillis > 0) {
+            p.addLast(new IdleStateHandler(readTimeoutMillis, 0, idleTimeoutMillis, TimeUnit.MILLISECONDS));
+        }
+
         SSLEngine sslEngine = null;
         if (sslContext != null) {
             SslHandler sslHandler = sslContext.newHandler(ch.alloc());
@@ -83,36 +129,191 @@ class HttpInitializer extends ChannelInitializer<SocketChannel> {
 
         // Set up HTTP/2 pipeline if feature is enabled
         ServerConfiguration serverConfig = webServer.configuration();
-        if (serverConfig.isHttp2Enabled()) {
-            ExperimentalConfiguration experimental = serverConfig.experimental();
-            Http2Configuration http2Config = experimental.http2();
-            HttpServerCodec sourceCodec = new HttpServerCodec();
-            HelidonConnectionHandler helidonHandler = new HelidonHttp2ConnectionHandlerBuilder()
-                    .maxContentLength(http2Config.maxContentLength()).build();
+        if (!serverConfig.isHttp2Enabled()) {
+            addHttp1(p, sslEngine);
+        } else if (sslEngine != null) {
+            p.addLast(new AlpnHandler(serverConfig.experimental().http2(), sslEngine));
+        } else {
+            Http2Configuration http2Config = serverConfig.experimental().http2();
+            HttpServerCodec sourceCodec = new HttpServerCodec(maxInitialLineLength, maxHeaderSize, MAX_CHUNK_SIZE);
+            // only one of the upgrade and the prior knowledge happens
+            Http2FrameCodec frameCodec = http2FrameCodec(http2Config, serverConfig.drainTimeoutMillis());
+            ChannelHandler http2Handler = new CleartextHttp2Initializer(frameCodec);
             HttpServerUpgradeHandler upgradeHandler = new HttpServerUpgradeHandler(sourceCodec,
                     protocol -> AsciiString.contentEquals(Http2CodecUtil.HTTP_UPGRADE_PROTOCOL_NAME, protocol)
-                            ? new Http2ServerUpgradeCodec(helidonHandler) : null,
+                            ? new Http2ServerUpgradeCodec(frameCodec, http2Handler) : null,
                     http2Config.maxContentLength());
 
             CleartextHttp2ServerUpgradeHandler cleartextHttp2ServerUpgradeHandler =
-                    new CleartextHttp2ServerUpgradeHandler(sourceCodec, upgradeHandler, helidonHandler);
+                    new CleartextHttp2ServerUpgradeHandler(sourceCodec, upgradeHandler, http2Handler);
 
             p.addLast(cleartextHttp2ServerUpgradeHandler);
             p.addLast(new HelidonEventLogger());
-        } else {
-            p.addLast(new HttpRequestDecoder());
-            // Uncomment the following line if you don't want to handle HttpChunks.
-            //        p.addLast(new HttpObjectAggregator(1048576));
-            p.addLast(new HttpResponseEncoder());
-            // Remove the following line if you don't want automatic content compression.
-            //p.addLast(new HttpContentCompressor());
+            // HTTP/1.1 requests not upgraded to HTTP/2
+            p.addLast(forwardingHandler(null, maxPipelinedRequests));
+        }
+    }
+
+    /**
+     * Counts a new connection against the maximal number of connections. A connection over the limit is closed,
+     * unless the connections are queued. With the connections queued, the server channel which accepted the connection
+     * stops accepting once the limit is reached, and all the paused server channels start accepting again once
+     * a connection is closed.
+     *
+     * @param ch the accepted connection
+     * @return whether the connection is admitted
+     */
+    private boolean admit(SocketChannel ch) {
+        int open = connections.incrementAndGet();
+        if (queueConnections) {
+            Channel acceptor = ch.parent();
+            if (open >= maxConnections && acceptor != null && pausedAcceptors.add(acceptor)) {
+                acceptor.config().setAutoRead(false);
+                webServer.statistics().acceptPaused();
+            }
+        } else if (open > maxConnections) {
+            connections.decrementAndGet();
+            webServer.statistics().connectionRejected();
+            ch.close();
+            return false;
+        }
+        ch.closeFuture().addListener(future -> connectionClosed());
+        return true;
+    }
+
+    private void connectionClosed() {
+        if (connections.decrementAndGet() < maxConnections && !pausedAcceptors.isEmpty()) {
+            Iterator<Channel> iterator = pausedAcceptors.iterator();
+            while (iterator.hasNext()) {
+                Channel acceptor = iterator.next();
+                iterator.remove();
+                acceptor.config().setAutoRead(true);
+            }
         }
+    }
+
+    private void addHttp1(ChannelPipeline p, SSLEngine sslEngine) {
+        p.addLast(new HttpRequestDecoder(maxInitialLineLength, maxHeaderSize, MAX_CHUNK_SIZE));
+        // Uncomment the following line if you don't want to handle HttpChunks.
+        //        p.addLast(new HttpObjectAggregator(1048576));
+        p.addLast(new HttpResponseEncoder());
 
         // Helidon's forwarding handler
-        p.addLast(new ForwardingHandler(routing, webServer, sslEngine, queues));
+        p.addLast(forwardingHandler(sslEngine, maxPipelinedRequests));
+    }
+
+    private ForwardingHandler forwardingHandler(SSLEngine sslEngine, int maxPipelinedRequests) {
+        return new ForwardingHandler(routing, webServer, sslEngine, webServer.leakDetector(), compression,
+                                     aggregationBufferSize, maxPipelinedRequests);
+    }
 
-        // Cleanup queues as part of event loop
-        ch.eventLoop().execute(this::clearQueues);
+    /**
+     * Creates the handlers of a HTTP/2 connection. Each stream is a child channel converting the frames
+     * to HTTP objects for its own forwarding handler.
+     *
+     * @param sslEngine the SSL engine of the connection or {@code null}
+     * @return the multiplex handler
+     */
+    private Http2MultiplexHandler http2MultiplexHandler(SSLEngine sslEngine) {
+        return new Http2MultiplexHandler(new ChannelInitializer<Http2StreamChannel>() {
+            @Override
+            protected void initChannel(Http2StreamChannel ch) {
+                // streams of a HTTP/2 connection are independent, their responses are not ordered
+                ch.pipeline().addLast(new Http2StreamFrameToHttpObjectCodec(true),
+                                      forwardingHandler(sslEngine, 1));
+            }
+        });
+    }
+
+    private void addHttp2Timeouts(ChannelPipeline p) {
+        if (p.get(IdleStateHandler.class) != null) {
+            p.addLast(new Http2TimeoutHandler());
+        }
+    }
+
+    private static Http2FrameCodec http2FrameCodec(Http2Configuration http2Config, long drainTimeoutMillis) {
+        Http2Settings settings = Http2Settings.defaultSettings()
+                .maxConcurrentStreams(http2Config.maxConcurrentStreams())
+                .initialWindowSize(http2Config.initialWindowSize())
+                .maxFrameSize(http2Config.maxFrameSize())
+                .headerTableSize(http2Config.headerTableSize());
+        return Http2FrameCodecBuilder.forServer()
+                .initialSettings(settings)
+                // a connection closed on shutdown sends GOAWAY and waits for its active streams
+                .gracefulShutdownTimeoutMillis(drainTimeoutMillis)
+                .frameLogger(FRAME_LOGGER)
+                .build();
+    }
+
+    /**
+     * Replaces the HTTP/1.1 handlers with the HTTP/2 ones once a cleartext connection is upgraded or starts with
+     * the prior knowledge.
+     */
+    private final class CleartextHttp2Initializer extends ChannelHandlerAdapter {
+        private final Http2FrameCodec frameCodec;
+
+        private CleartextHttp2Initializer(Http2FrameCodec frameCodec) {
+            this.frameCodec = frameCodec;
+        }
+
+        @Override
+        public void handlerAdded(ChannelHandlerContext ctx) {
+            ChannelPipeline p = ctx.pipeline();
+            p.remove(ForwardingHandler.class);
+            if (p.get(Http2FrameCodec.class) == null) {
+                // prior knowledge, the upgrade codec adds the frame codec itself
+                p.addBefore(ctx.name(), null, frameCodec);
+            }
+            p.replace(this, null, http2MultiplexHandler(null));
+            addHttp2Timeouts(p);
+        }
+    }
+
+    /**
+     * Configures the pipeline for the application protocol negotiated by the TLS handshake.
+     */
+    private final class AlpnHandler extends ApplicationProtocolNegotiationHandler {
+        private final Http2Configuration http2Config;
+        private final SSLEngine sslEngine;
+
+        private AlpnHandler(Http2Configuration http2Config, SSLEngine sslEngine) {
+            super(ApplicationProtocolNames.HTTP_1_1);
+            this.http2Config = http2Config;
+            this.sslEngine = sslEngine;
+        }
+
+        @Override
+        protected void configurePipeline(ChannelHandlerContext ctx, String protocol) {
+            if (ApplicationProtocolNames.HTTP_2.equals(protocol)) {
+                ctx.pipeline().addLast(http2FrameCodec(http2Config, webServer.configuration().drainTimeoutMillis()),
+                                       http2MultiplexHandler(sslEngine));
+                addHttp2Timeouts(ctx.pipeline());
+            } else if (ApplicationProtocolNames.HTTP_1_1.equals(protocol)) {
+                addHttp1(ctx.pipeline(), sslEngine);
+            } else {
+                throw new IllegalStateException("Unsupported application protocol: " + protocol);
+            }
+        }
+    }
+
+    /**
+     * Closes a HTTP/2 connection with no active streams once it reaches the idle or the read timeout.
+     * The connection is closed with {@code GOAWAY}.
+     */
+    private final class Http2TimeoutHandler extends ChannelInboundHandlerAdapter {
+        @Override
+        public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
+            if (evt instanceof IdleStateEvent) {
+                Http2FrameCodec frameCodec = ctx.pipeline().get(Http2FrameCodec.class);
+                if (frameCodec == null || frameCodec.connection().numActiveStreams() == 0) {
+                    LOGGER.finer(() -> "Closing HTTP/2 connection on " + evt);
+                    webServer.statistics().connectionTimedOut();
+                    ctx.close();
+                }
+            } else {
+                ctx.fireUserEventTriggered(evt);
+            }
+        }
     }
 
     private static final class HelidonEventLogger extends ChannelInboundHandlerAdapter {
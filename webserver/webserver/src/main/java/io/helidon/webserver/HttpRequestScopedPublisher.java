@@ -15,6 +15,7 @@
  */
 package io.helidon.webserver;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Logger;
 
@@ -36,11 +37,13 @@ class HttpRequestScopedPublisher extends OriginThreadPublisher<DataChunk, ByteBu
     private volatile boolean suspended = false;
     private final ChannelHandlerContext ctx;
     private final ReentrantReadWriteLock.WriteLock lock = new ReentrantReadWriteLock().writeLock();
-    private final ReferenceHoldingQueue<DataChunk> referenceQueue;
+    private final RequestChunkLeakDetector leakDetector;
+    private final AtomicInteger unreleasedChunks = new AtomicInteger();
+    private volatile long maxContentLength = -1;
 
-    HttpRequestScopedPublisher(ChannelHandlerContext ctx, ReferenceHoldingQueue<DataChunk> referenceQueue) {
+    HttpRequestScopedPublisher(ChannelHandlerContext ctx, RequestChunkLeakDetector leakDetector) {
         super();
-        this.referenceQueue = referenceQueue;
+        this.leakDetector = leakDetector;
         this.ctx = ctx;
     }
 
@@ -103,36 +106,55 @@ class HttpRequestScopedPublisher extends OriginThreadPublisher<DataChunk, ByteBu
         }
     }
 
-    @Override
-    public void submit(ByteBuf data) {
-        try {
-            super.submit(data);
-        } finally {
-            referenceQueue.release();
-        }
+    /**
+     * Whether the subscriber did not request more chunks than were received, so no data is read from the connection.
+     *
+     * @return whether the publisher waits for the subscriber
+     */
+    boolean isSuspended() {
+        return suspended;
     }
 
-    @Override
-    public void complete() {
-        try {
-            super.complete();
-        } finally {
-            referenceQueue.release();
-        }
+    /**
+     * Sets the maximal length of the request content, the content received over the limit is rejected.
+     * May be invoked by any thread.
+     *
+     * @param maxContentLength maximal content length in bytes or {@code -1} for no limit
+     */
+    void maxContentLength(long maxContentLength) {
+        this.maxContentLength = maxContentLength;
     }
 
-    @Override
-    public void error(Throwable throwable) {
-        try {
-            super.error(throwable);
-        } finally {
-            referenceQueue.release();
-        }
+    /**
+     * The maximal length of the request content.
+     *
+     * @return maximal content length in bytes or {@code -1} for no limit
+     */
+    long maxContentLength() {
+        return maxContentLength;
     }
 
     @Override
     protected DataChunk wrap(ByteBuf data) {
-        return new ByteBufRequestChunk(data, referenceQueue);
+        unreleasedChunks.incrementAndGet();
+        return new ByteBufRequestChunk(data, this, leakDetector);
+    }
+
+    /**
+     * Invoked by a chunk of this request when it is released.
+     */
+    void chunkReleased() {
+        unreleasedChunks.decrementAndGet();
+    }
+
+    /**
+     * Number of chunks of this request that were published or are waiting to be published and were not released yet.
+     * Undelivered chunks are released when the subscriber cancels or when the publisher is {@link #drain() drained}.
+     *
+     * @return number of chunks not released
+     */
+    int unreleasedChunks() {
+        return unreleasedChunks.get();
     }
 
     @Override
@@ -0,0 +1,442 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOutboundBuffer;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.util.concurrent.GlobalEventExecutor;
+
+/**
+ * {@link ServerStatistics} of the {@link NettyWebServer}.
+ * <p>
+ * Open connections are tracked in a channel group, closed channels are removed from the group automatically.
+ */
+final class NettyServerStatistics implements ServerStatistics {
+
+    private final ChannelGroup connections = new DefaultChannelGroup("helidon-connections", GlobalEventExecutor.INSTANCE);
+    private final LongAdder inFlightRequests = new LongAdder();
+    private final LongAdder writabilityPauses = new LongAdder();
+    private final LongAdder leakedRequestChunks = new LongAdder();
+    private final LongAdder pipelinedResponses = new LongAdder();
+    private final LongAccumulator maxPipelineDepth = new LongAccumulator(Math::max, 0);
+    private final LongAdder headOfLineWaits = new LongAdder();
+    private final LongAdder headOfLineWaitNanos = new LongAdder();
+    private final LongAdder rejectedConnections = new LongAdder();
+    private final LongAdder acceptPauses = new LongAdder();
+    private final LongAdder timedOutConnections = new LongAdder();
+    private final LongAdder rejectedRequests = new LongAdder();
+    private final LongAdder offloadQueueDepth = new LongAdder();
+    private final LongAdder offloadedRequests = new LongAdder();
+    private final LongAdder offloadWaitNanos = new LongAdder();
+    private final LongAdder offloadRejections = new LongAdder();
+    private final Map<String, EventLoopStatistics> eventLoops = new ConcurrentHashMap<>();
+    private final LongAdder eventLoopStalls = new LongAdder();
+    private final LongAccumulator eventLoopMaxLagNanos = new LongAccumulator(Math::max, 0);
+    private final List<LongConsumer> eventLoopLagListeners = new CopyOnWriteArrayList<>();
+    private final LongAdder webSocketSessions = new LongAdder();
+    private final LongAdder webSocketSessionsOpened = new LongAdder();
+    private final LongAdder webSocketMessagesReceived = new LongAdder();
+    private final LongAdder webSocketMessagesSent = new LongAdder();
+    private final Set<ConcurrencyLimitSupport> concurrencyLimits = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Registers a newly accepted connection.
+     *
+     * @param channel the connection channel
+     */
+    void connectionOpened(Channel channel) {
+        connections.add(channel);
+    }
+
+    /**
+     * Open connections of the server.
+     *
+     * @return group of the open connections
+     */
+    ChannelGroup openConnections() {
+        return connections;
+    }
+
+    /**
+     * Records a request received.
+     */
+    void requestStarted() {
+        inFlightRequests.increment();
+    }
+
+    /**
+     * Records a request with its response completely written, or failed.
+     */
+    void requestCompleted() {
+        inFlightRequests.decrement();
+    }
+
+    /**
+     * Records a connection becoming not writable.
+     */
+    void writabilityPaused() {
+        writabilityPauses.increment();
+    }
+
+    /**
+     * Records a request chunk garbage collected without being released.
+     */
+    void requestChunkLeaked() {
+        leakedRequestChunks.increment();
+    }
+
+    /**
+     * Records a pipelined request.
+     *
+     * @param depth number of requests of the connection processed concurrently, including the new one
+     */
+    void requestPipelined(int depth) {
+        maxPipelineDepth.accumulate(depth);
+    }
+
+    /**
+     * Records a response which has to wait for the responses of the preceding requests of its connection.
+     */
+    void responseWaiting() {
+        pipelinedResponses.increment();
+    }
+
+    /**
+     * Records a waiting response which stopped waiting, either it can be sent or the connection was closed.
+     *
+     * @param waitNanos time the response waited in nanoseconds
+     */
+    void responseWaited(long waitNanos) {
+        pipelinedResponses.decrement();
+        headOfLineWaits.increment();
+        headOfLineWaitNanos.add(waitNanos);
+    }
+
+    /**
+     * Records a connection closed because the maximal number of connections was reached.
+     */
+    void connectionRejected() {
+        rejectedConnections.increment();
+    }
+
+    /**
+     * Records a socket which stopped accepting connections because the maximal number of connections was reached.
+     */
+    void acceptPaused() {
+        acceptPauses.increment();
+    }
+
+    /**
+     * Records a connection closed because of the idle or read timeout.
+     */
+    void connectionTimedOut() {
+        timedOutConnections.increment();
+    }
+
+    /**
+     * Records a request rejected because it exceeded the limits.
+     */
+    void requestRejected() {
+        rejectedRequests.increment();
+    }
+
+    /**
+     * Records a request of an offloaded handler submitted to its executor.
+     */
+    void offloadQueued() {
+        offloadQueueDepth.increment();
+    }
+
+    /**
+     * Records a request of an offloaded handler which started running on a thread.
+     *
+     * @param waitNanos time the request waited for the thread in nanoseconds
+     */
+    void offloadStarted(long waitNanos) {
+        offloadQueueDepth.decrement();
+        offloadedRequests.increment();
+        offloadWaitNanos.add(waitNanos);
+    }
+
+    /**
+     * Records a request of an offloaded handler rejected by its executor.
+     */
+    void offloadRejected() {
+        offloadQueueDepth.decrement();
+        offloadRejections.increment();
+    }
+
+    /**
+     * Registers the statistics of the worker event loops serving the connections of a socket.
+     *
+     * @param socketName          name of the socket
+     * @param eventLoopStatistics statistics of the worker event loop group of the socket
+     */
+    void eventLoops(String socketName, EventLoopStatistics eventLoopStatistics) {
+        eventLoops.put(socketName, eventLoopStatistics);
+    }
+
+    /**
+     * Records the lag of an event loop probe.
+     *
+     * @param lagNanos time between the submission and the execution of the probe
+     * @param stalled  whether the lag exceeded the stall threshold
+     */
+    void eventLoopProbed(long lagNanos, boolean stalled) {
+        if (stalled) {
+            eventLoopStalls.increment();
+        }
+        eventLoopMaxLagNanos.accumulate(lagNanos);
+        long lagMicros = TimeUnit.NANOSECONDS.toMicros(lagNanos);
+        for (LongConsumer listener : eventLoopLagListeners) {
+            listener.accept(lagMicros);
+        }
+    }
+
+    /**
+     * Records a WebSocket session opened by an upgrade.
+     */
+    void webSocketOpened() {
+        webSocketSessions.increment();
+        webSocketSessionsOpened.increment();
+    }
+
+    /**
+     * Records a closed WebSocket session.
+     */
+    void webSocketClosed() {
+        webSocketSessions.decrement();
+    }
+
+    /**
+     * Records a WebSocket message received from a client.
+     */
+    void webSocketMessageReceived() {
+        webSocketMessagesReceived.increment();
+    }
+
+    /**
+     * Records a WebSocket message sent to a client.
+     */
+    void webSocketMessageSent() {
+        webSocketMessagesSent.increment();
+    }
+
+    /**
+     * Registers a concurrency limit used by the routing of the server.
+     *
+     * @param limit the concurrency limit
+     */
+    void concurrencyLimitRegistered(ConcurrencyLimitSupport limit) {
+        concurrencyLimits.add(limit);
+    }
+
+    @Override
+    public long connections() {
+        return connections.size();
+    }
+
+    @Override
+    public long inFlightRequests() {
+        return inFlightRequests.sum();
+    }
+
+    @Override
+    public long pendingOutboundBytes() {
+        long total = 0;
+        for (Channel channel : connections) {
+            total += pendingOutboundBytes(channel);
+        }
+        return total;
+    }
+
+    @Override
+    public long maxPendingOutboundBytes() {
+        long max = 0;
+        for (Channel channel : connections) {
+            max = Math.max(max, pendingOutboundBytes(channel));
+        }
+        return max;
+    }
+
+    @Override
+    public long nonWritableConnections() {
+        long count = 0;
+        for (Channel channel : connections) {
+            if (!channel.isWritable()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long writabilityPauses() {
+        return writabilityPauses.sum();
+    }
+
+    @Override
+    public long pipelinedResponses() {
+        return pipelinedResponses.sum();
+    }
+
+    @Override
+    public long maxPipelineDepth() {
+        return maxPipelineDepth.get();
+    }
+
+    @Override
+    public long headOfLineWaits() {
+        return headOfLineWaits.sum();
+    }
+
+    @Override
+    public long headOfLineWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(headOfLineWaitNanos.sum());
+    }
+
+    @Override
+    public long leakedRequestChunks() {
+        return leakedRequestChunks.sum();
+    }
+
+    @Override
+    public long rejectedConnections() {
+        return rejectedConnections.sum();
+    }
+
+    @Override
+    public long acceptPauses() {
+        return acceptPauses.sum();
+    }
+
+    @Override
+    public long timedOutConnections() {
+        return timedOutConnections.sum();
+    }
+
+    @Override
+    public long rejectedRequests() {
+        return rejectedRequests.sum();
+    }
+
+    @Override
+    public long offloadQueueDepth() {
+        return offloadQueueDepth.sum();
+    }
+
+    @Override
+    public long offloadedRequests() {
+        return offloadedRequests.sum();
+    }
+
+    @Override
+    public long offloadWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(offloadWaitNanos.sum());
+    }
+
+    @Override
+    public long offloadRejections() {
+        return offloadRejections.sum();
+    }
+
+    @Override
+    public long eventLoopStalls() {
+        return eventLoopStalls.sum();
+    }
+
+    @Override
+    public long eventLoopMaxLag() {
+        return TimeUnit.NANOSECONDS.toMillis(eventLoopMaxLagNanos.get());
+    }
+
+    @Override
+    public long webSocketSessions() {
+        return webSocketSessions.sum();
+    }
+
+    @Override
+    public long webSocketSessionsOpened() {
+        return webSocketSessionsOpened.sum();
+    }
+
+    @Override
+    public long webSocketMessagesReceived() {
+        return webSocketMessagesReceived.sum();
+    }
+
+    @Override
+    public long webSocketMessagesSent() {
+        return webSocketMessagesSent.sum();
+    }
+
+    @Override
+    public long concurrencyLimit() {
+        return concurrencyLimits.stream().mapToLong(ConcurrencyLimitSupport::limit).sum();
+    }
+
+    @Override
+    public long concurrencyLimitInFlight() {
+        return concurrencyLimits.stream().mapToLong(ConcurrencyLimitSupport::inFlight).sum();
+    }
+
+    @Override
+    public long concurrencyLimitRejections() {
+        return concurrencyLimits.stream().mapToLong(ConcurrencyLimitSupport::rejections).sum();
+    }
+
+    @Override
+    public void eventLoopLagListener(LongConsumer listener) {
+        eventLoopLagListeners.add(listener);
+    }
+
+    @Override
+    public long eventLoopUtilization(String socketName) {
+        EventLoopStatistics eventLoop = eventLoops.get(socketName);
+        return eventLoop == null ? 0 : eventLoop.utilization();
+    }
+
+    @Override
+    public long eventLoopPendingTasks(String socketName) {
+        EventLoopStatistics eventLoop = eventLoops.get(socketName);
+        return eventLoop == null ? 0 : eventLoop.pendingTasks();
+    }
+
+    @Override
+    public long eventLoopThreads(String socketName) {
+        EventLoopStatistics eventLoop = eventLoops.get(socketName);
+        return eventLoop == null ? 0 : eventLoop.threads();
+    }
+
+    private static long pendingOutboundBytes(Channel channel) {
+        ChannelOutboundBuffer buffer = channel.unsafe().outboundBuffer();
+        // the buffer is null once the channel is closed
+        return buffer == null ? 0 : buffer.totalPendingWriteBytes();
+    }
+}
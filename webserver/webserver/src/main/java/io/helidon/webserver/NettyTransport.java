@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Logger;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+
+/**
+ * Netty transport used by the {@link NettyWebServer}; either the native epoll transport (if requested and available)
+ * or the NIO transport.
+ * <p>
+ * The native transport is an optional dependency; all the epoll specific classes are referenced only from
+ * the {@link Epolls} holder which is not loaded unless the native transport classes are present.
+ */
+final class NettyTransport {
+
+    private static final Logger LOGGER = Logger.getLogger(NettyTransport.class.getName());
+    private static final String EPOLL_CLASS_NAME = "io.netty.channel.epoll.Epoll";
+
+    private final boolean nativeTransport;
+
+    private NettyTransport(boolean nativeTransport) {
+        this.nativeTransport = nativeTransport;
+    }
+
+    /**
+     * Creates a transport for the given server configuration.
+     *
+     * @param config server configuration
+     * @return the native transport if requested and available, the NIO transport otherwise
+     */
+    static NettyTransport create(ServerConfiguration config) {
+        if (!config.nativeTransport()) {
+            return new NettyTransport(false);
+        }
+        if (isNativeAvailable()) {
+            LOGGER.fine("Using native epoll transport");
+            return new NettyTransport(true);
+        }
+        LOGGER.fine("Native epoll transport requested but not available, falling back to NIO");
+        return new NettyTransport(false);
+    }
+
+    /**
+     * Whether the native epoll transport can be used on the current platform.
+     *
+     * @return {@code true} if the native transport is available
+     */
+    static boolean isNativeAvailable() {
+        try {
+            Class.forName(EPOLL_CLASS_NAME, false, NettyTransport.class.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+        return Epolls.isAvailable();
+    }
+
+    /**
+     * Whether this is the native transport.
+     *
+     * @return {@code true} for the native transport
+     */
+    boolean isNative() {
+        return nativeTransport;
+    }
+
+    /**
+     * Creates a new event loop group of this transport.
+     *
+     * @param threads       number of threads, {@code 0} or less for the Netty default
+     * @param threadFactory factory of the event loop threads
+     * @return a new event loop group
+     */
+    EventLoopGroup eventLoopGroup(int threads, ThreadFactory threadFactory) {
+        int count = threads <= 0 ? 0 : threads;
+        return nativeTransport ? Epolls.eventLoopGroup(count, threadFactory) : new NioEventLoopGroup(count, threadFactory);
+    }
+
+    /**
+     * Server socket channel class of this transport.
+     *
+     * @return server channel class
+     */
+    Class<? extends ServerChannel> serverChannelClass() {
+        return nativeTransport ? Epolls.serverChannelClass() : NioServerSocketChannel.class;
+    }
+
+    /**
+     * Number of accept loops to bind for the socket. Only the native transport supports {@code SO_REUSEPORT},
+     * with NIO a single accept loop is used.
+     *
+     * @param soConfig socket configuration
+     * @return number of server channels to bind
+     */
+    int acceptors(SocketConfiguration soConfig) {
+        return nativeTransport ? Math.max(1, soConfig.acceptors()) : 1;
+    }
+
+    /**
+     * Configures the server and child channel options of the socket.
+     *
+     * @param bootstrap bootstrap to configure
+     * @param soConfig  socket configuration
+     */
+    void configure(ServerBootstrap bootstrap, SocketConfiguration soConfig) {
+        if (soConfig.backlog() > 0) {
+            bootstrap.option(ChannelOption.SO_BACKLOG, soConfig.backlog());
+        }
+        if (soConfig.timeoutMillis() > 0) {
+            bootstrap.option(ChannelOption.SO_TIMEOUT, soConfig.timeoutMillis());
+        }
+        if (soConfig.receiveBufferSize() > 0) {
+            bootstrap.option(ChannelOption.SO_RCVBUF, soConfig.receiveBufferSize());
+        }
+        if (nativeTransport) {
+            Epolls.configure(bootstrap, acceptors(soConfig) > 1, soConfig.tcpFastOpen());
+        }
+
+        bootstrap.childOption(ChannelOption.TCP_NODELAY, soConfig.tcpNoDelay());
+        if (soConfig.sendBufferSize() > 0) {
+            bootstrap.childOption(ChannelOption.SO_SNDBUF, soConfig.sendBufferSize());
+        }
+        WriteBufferWaterMark waterMark = writeBufferWaterMark(soConfig);
+        if (waterMark != null) {
+            bootstrap.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, waterMark);
+        }
+    }
+
+    private static WriteBufferWaterMark writeBufferWaterMark(SocketConfiguration soConfig) {
+        int low = soConfig.writeBufferLowWaterMark();
+        int high = soConfig.writeBufferHighWaterMark();
+        if (low <= 0 && high <= 0) {
+            return null;
+        }
+        if (high <= 0) {
+            high = Math.max(low, WriteBufferWaterMark.DEFAULT.high());
+        }
+        if (low <= 0) {
+            low = Math.min(high, WriteBufferWaterMark.DEFAULT.low());
+        }
+        return new WriteBufferWaterMark(low, high);
+    }
+
+    @Override
+    public String toString() {
+        return nativeTransport ? "epoll" : "nio";
+    }
+
+    /**
+     * Holder of all references to the native epoll transport classes.
+     */
+    private static final class Epolls {
+        private Epolls() {
+        }
+
+        private static boolean isAvailable() {
+            return Epoll.isAvailable();
+        }
+
+        private static EventLoopGroup eventLoopGroup(int threads, ThreadFactory threadFactory) {
+            return new EpollEventLoopGroup(threads, threadFactory);
+        }
+
+        private static Class<? extends ServerChannel> serverChannelClass() {
+            return EpollServerSocketChannel.class;
+        }
+
+        private static void configure(ServerBootstrap bootstrap, boolean reusePort, int tcpFastOpen) {
+            if (reusePort) {
+                bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+            }
+            if (tcpFastOpen > 0) {
+                bootstrap.option(EpollChannelOption.TCP_FASTOPEN, tcpFastOpen);
+            }
+        }
+    }
+}
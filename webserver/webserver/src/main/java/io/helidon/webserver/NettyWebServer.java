@@ -18,8 +18,9 @@ package io.helidon.webserver;
 
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -27,9 +28,12 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -40,18 +44,13 @@ import io.helidon.common.http.ContextualRegistry;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
-import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.group.ChannelGroup;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
-import io.netty.handler.ssl.ApplicationProtocolConfig;
-import io.netty.handler.ssl.ApplicationProtocolNames;
-import io.netty.handler.ssl.ClientAuth;
-import io.netty.handler.ssl.IdentityCipherSuiteFilter;
-import io.netty.handler.ssl.JdkSslContext;
+import io.netty.handler.ssl.SslContext;
 import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.ScheduledFuture;
 
 /**
  * The Netty based WebServer implementation.
@@ -61,8 +60,10 @@ class NettyWebServer implements WebServer {
 
     private static final Logger LOGGER = Logger.getLogger(NettyWebServer.class.getName());
 
+    private final NettyTransport transport;
     private final EventLoopGroup bossGroup;
     private final EventLoopGroup workerGroup;
+    private final List<EventLoopGroup> eventLoopGroups = new ArrayList<>();
     private final Map<String, ServerBootstrap> bootstraps = new HashMap<>();
     private final ServerConfiguration configuration;
     private final CompletableFuture<WebServer> startFuture = new CompletableFuture<>();
@@ -72,9 +73,12 @@ class NettyWebServer implements WebServer {
     private final CompletableFuture<WebServer> threadGroupsShutdownFuture = new CompletableFuture<>();
     private final ContextualRegistry contextualRegistry;
     private final ConcurrentMap<String, Channel> channels = new ConcurrentHashMap<>();
-    private final List<HttpInitializer> initializers = new LinkedList<>();
+    private final NettyServerStatistics statistics = new NettyServerStatistics();
+    private final RequestChunkLeakDetector leakDetector;
+    private final EventLoopWatchdog watchdog;
 
     private volatile boolean started;
+    private volatile ExecutorService offloadExecutor;
     private final AtomicBoolean shutdownThreadGroupsInitiated = new AtomicBoolean(false);
 
     /**
@@ -92,8 +96,15 @@ class NettyWebServer implements WebServer {
         Set<Map.Entry<String, SocketConfiguration>> sockets = config.sockets().entrySet();
 
         LOGGER.info(() -> "Version: " + Version.VERSION);
-        this.bossGroup = new NioEventLoopGroup(sockets.size());
-        this.workerGroup = config.workersCount() <= 0 ? new NioEventLoopGroup() : new NioEventLoopGroup(config.workersCount());
+        this.transport = NettyTransport.create(config);
+        LOGGER.fine(() -> "Transport: " + transport);
+        int acceptors = sockets.stream()
+                .filter(entry -> !entry.getValue().dedicatedAcceptor())
+                .mapToInt(entry -> transport.acceptors(entry.getValue()))
+                .sum();
+        this.bossGroup = eventLoopGroup(Math.max(1, acceptors), new EventLoopStatistics("server-boss"));
+        EventLoopStatistics workerStatistics = new EventLoopStatistics("server-worker");
+        this.workerGroup = eventLoopGroup(config.workersCount(), workerStatistics);
         // the contextual registry needs to be created as a different type is expected. Once we remove ContextualRegistry
         // we can simply use the one from config
         Context context = config.context();
@@ -103,60 +114,63 @@ class NettyWebServer implements WebServer {
             this.contextualRegistry = ContextualRegistry.create(config.context());
         }
         this.configuration = config;
+        this.leakDetector = new RequestChunkLeakDetector(config.leakDetection(), statistics);
+        Set<EventLoopStatistics> workerEventLoops = new LinkedHashSet<>();
+        workerEventLoops.add(workerStatistics);
 
         for (Map.Entry<String, SocketConfiguration> entry : sockets) {
             String name = entry.getKey();
             SocketConfiguration soConfig = entry.getValue();
             ServerBootstrap bootstrap = new ServerBootstrap();
             // Transform java SSLContext into Netty SslContext
-            JdkSslContext sslContext = null;
+            SslContext sslContext = null;
             if (soConfig.ssl() != null) {
-                // TODO configuration support for CLIENT AUTH (btw, ClientAuth.REQUIRE doesn't seem to work with curl nor with
-                // Chrome)
-                String[] protocols;
-                if (soConfig.enabledSslProtocols().isEmpty()) {
-                    protocols = null;
-                } else {
-                    protocols = soConfig.enabledSslProtocols().toArray(new String[0]);
-                }
-
-                // Enable ALPN for application protocol negotiation with HTTP/2
-                // Needs JDK >= 9 or Jetty’s ALPN boot library
-                ApplicationProtocolConfig appProtocolConfig = null;
-                if (configuration.isHttp2Enabled()) {
-                    appProtocolConfig = new ApplicationProtocolConfig(
-                            ApplicationProtocolConfig.Protocol.ALPN,
-                            ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
-                            ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
-                            ApplicationProtocolNames.HTTP_2,
-                            ApplicationProtocolNames.HTTP_1_1);
-                }
-
-                sslContext = new JdkSslContext(
-                        soConfig.ssl(), false, null,
-                        IdentityCipherSuiteFilter.INSTANCE, appProtocolConfig,
-                        ClientAuth.NONE, protocols, false);
+                sslContext = SslContextFactory.create(name, soConfig, configuration.isHttp2Enabled());
             }
 
-            if (soConfig.backlog() > 0) {
-                bootstrap.option(ChannelOption.SO_BACKLOG, soConfig.backlog());
-            }
-            if (soConfig.timeoutMillis() > 0) {
-                bootstrap.option(ChannelOption.SO_TIMEOUT, soConfig.timeoutMillis());
+            transport.configure(bootstrap, soConfig);
+
+            HttpInitializer childHandler = new HttpInitializer(sslContext,
+                                                               namedRoutings.getOrDefault(name, routing),
+                                                               this,
+                                                               soConfig);
+            // a socket with dedicated groups is not affected by the load of the other sockets
+            EventLoopGroup socketBossGroup = bossGroup;
+            if (soConfig.dedicatedAcceptor()) {
+                socketBossGroup = eventLoopGroup(transport.acceptors(soConfig),
+                                                 new EventLoopStatistics(poolName(name, "boss")));
             }
-            if (soConfig.receiveBufferSize() > 0) {
-                bootstrap.option(ChannelOption.SO_RCVBUF, soConfig.receiveBufferSize());
+            EventLoopGroup socketWorkerGroup = workerGroup;
+            EventLoopStatistics socketWorkerStatistics = workerStatistics;
+            if (soConfig.dedicatedWorkers() > 0) {
+                socketWorkerStatistics = new EventLoopStatistics(poolName(name, "worker"));
+                socketWorkerGroup = eventLoopGroup(soConfig.dedicatedWorkers(), socketWorkerStatistics);
             }
-
-            HttpInitializer childHandler = new HttpInitializer(sslContext, namedRoutings.getOrDefault(name, routing), this);
-            initializers.add(childHandler);
-            bootstrap.group(bossGroup, workerGroup)
-                     .channel(NioServerSocketChannel.class)
+            statistics.eventLoops(name, socketWorkerStatistics);
+            workerEventLoops.add(socketWorkerStatistics);
+            bootstrap.group(socketBossGroup, socketWorkerGroup)
+                     .channel(transport.serverChannelClass())
                      .handler(new LoggingHandler(LogLevel.DEBUG))
                      .childHandler(childHandler);
 
             bootstraps.put(name, bootstrap);
         }
+
+        if (config.eventLoopStallThresholdMillis() > 0) {
+            this.watchdog = new EventLoopWatchdog(workerEventLoops, statistics, config.eventLoopStallThresholdMillis());
+        } else {
+            this.watchdog = null;
+        }
+    }
+
+    private EventLoopGroup eventLoopGroup(int threads, EventLoopStatistics eventLoopStatistics) {
+        EventLoopGroup group = eventLoopStatistics.group(transport.eventLoopGroup(threads, eventLoopStatistics));
+        eventLoopGroups.add(group);
+        return group;
+    }
+
+    private static String poolName(String socketName, String role) {
+        return "server-" + socketName.replace("@", "") + "-" + role;
     }
 
     @Override
@@ -164,9 +178,28 @@ class NettyWebServer implements WebServer {
         return configuration;
     }
 
+    @Override
+    public NettyServerStatistics statistics() {
+        return statistics;
+    }
+
+    RequestChunkLeakDetector leakDetector() {
+        return leakDetector;
+    }
+
+    /**
+     * The thread pool of the {@link Handler#offload(Handler) offloaded handlers}, obtained when the server starts.
+     *
+     * @return offload thread pool
+     */
+    ExecutorService offloadExecutor() {
+        return offloadExecutor;
+    }
+
     @Override
     public synchronized CompletionStage<WebServer> start() {
         if (!started) {
+            offloadExecutor = configuration.offloadExecutorService().get();
 
             channelsUpFuture.thenAccept(startFuture::complete)
                             .exceptionally(throwable -> {
@@ -179,7 +212,8 @@ class NettyWebServer implements WebServer {
                                 return null;
                             });
 
-            channelsCloseFuture.whenComplete((webServer, throwable) -> shutdown(throwable));
+            channelsCloseFuture.whenComplete((webServer, throwable) -> drainConnections()
+                    .whenComplete((drained, t) -> shutdown(throwable)));
 
             Set<Map.Entry<String, ServerBootstrap>> bootstrapEntries = bootstraps.entrySet();
             int bootstrapsSize = bootstrapEntries.size();
@@ -210,9 +244,12 @@ class NettyWebServer implements WebServer {
                         Channel channel = ((ChannelFuture) channelFuture).channel();
                         LOGGER.info(() -> "Channel '" + name + "' started: " + channel);
                         channels.put(name, channel);
+                        List<Channel> acceptorChannels = bindAcceptors(name, bootstrap, channel,
+                                                                       transport.acceptors(socketConfig) - 1);
 
                         channel.closeFuture().addListener(future -> {
                             LOGGER.info(() -> "Channel '" + name + "' closed: " + channel);
+                            closeAcceptors(acceptorChannels);
                             channels.remove(name);
                             if (channelsUpFuture.isCompletedExceptionally()) {
                                 // we're in a startup failure handler
@@ -254,12 +291,96 @@ class NettyWebServer implements WebServer {
                 }
             }
 
+            if (watchdog != null) {
+                watchdog.start();
+            }
             started = true;
             LOGGER.fine(() -> "All channels startup routine initiated: " + bootstrapsSize);
         }
         return startFuture;
     }
 
+    /**
+     * Binds additional accept loops to the port of an already bound channel (requires {@code SO_REUSEPORT}).
+     * The additional channels are closed together with the primary channel; a failure to bind
+     * an additional accept loop is not fatal as the primary channel keeps accepting connections.
+     *
+     * @param name      socket name
+     * @param bootstrap bootstrap of the socket
+     * @param primary   the primary (already bound) channel
+     * @param count     number of additional accept loops
+     * @return a list of the additional channels
+     */
+    private List<Channel> bindAcceptors(String name, ServerBootstrap bootstrap, Channel primary, int count) {
+        List<Channel> acceptorChannels = new CopyOnWriteArrayList<>();
+        if (count <= 0) {
+            return acceptorChannels;
+        }
+        SocketAddress address = primary.localAddress();
+        for (int i = 0; i < count; i++) {
+            bootstrap.bind(address).addListener(future -> {
+                if (!future.isSuccess()) {
+                    LOGGER.log(Level.WARNING, "Channel '" + name + "' additional acceptor startup failed.", future.cause());
+                    return;
+                }
+                Channel channel = ((ChannelFuture) future).channel();
+                acceptorChannels.add(channel);
+                if (!primary.isOpen()) {
+                    // primary channel closed before this one was bound
+                    channel.close();
+                }
+                LOGGER.fine(() -> "Channel '" + name + "' additional acceptor started: " + channel);
+            });
+        }
+        return acceptorChannels;
+    }
+
+    private static void closeAcceptors(List<Channel> acceptorChannels) {
+        for (Channel channel : acceptorChannels) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Drains the open connections once the server sockets stopped accepting, see
+     * {@link ServerConfiguration#drainTimeoutMillis()}.
+     *
+     * @return a stage completed once all the connections are closed or the drain timeout elapsed
+     */
+    private CompletionStage<Void> drainConnections() {
+        CompletableFuture<Void> drained = new CompletableFuture<>();
+        ChannelGroup connections = statistics.openConnections();
+        long timeout = configuration.drainTimeoutMillis();
+        if (timeout <= 0 || connections.isEmpty()) {
+            drained.complete(null);
+            return drained;
+        }
+
+        LOGGER.fine(() -> "Draining " + connections.size() + " connections, requests in flight: "
+                + statistics.inFlightRequests());
+        connections.newCloseFuture().addListener(future -> drained.complete(null));
+        for (Channel channel : connections) {
+            if (channel.pipeline().get(ForwardingHandler.class) != null) {
+                channel.pipeline().fireUserEventTriggered(ForwardingHandler.DrainEvent.INSTANCE);
+            } else {
+                // HTTP/2 sends GOAWAY and closes the connection once its streams are completed
+                channel.close();
+            }
+        }
+        try {
+            ScheduledFuture<?> deadline = workerGroup.schedule(() -> {
+                if (drained.complete(null)) {
+                    LOGGER.info(() -> "Connections not drained in " + timeout + " ms: " + connections.size()
+                            + ", requests in flight: " + statistics.inFlightRequests());
+                }
+            }, timeout, TimeUnit.MILLISECONDS);
+            drained.whenComplete((result, throwable) -> deadline.cancel(false));
+        } catch (RejectedExecutionException e) {
+            drained.complete(null);
+        }
+        return drained;
+    }
+
     private WebServer startFailureHandler(Throwable throwable) {
         shutdownThreadGroups()
                 .whenComplete((webServer, t) -> {
@@ -296,35 +417,43 @@ class NettyWebServer implements WebServer {
             return threadGroupsShutdownFuture;
         }
 
-        forceQueuesRelease();
+        leakDetector.shutdown();
+        if (watchdog != null) {
+            watchdog.stop();
+        }
+        if (offloadExecutor != null) {
+            offloadExecutor.shutdown();
+        }
 
         // there's no need for a quiet time as the channel is not expected to be used from now on
-        Future<?> bossGroupFuture = bossGroup.shutdownGracefully(0, 10, TimeUnit.SECONDS);
-        Future<?> workerGroupFuture = workerGroup.shutdownGracefully(0, 10, TimeUnit.SECONDS);
+        List<Future<?>> futures = new ArrayList<>(eventLoopGroups.size());
+        for (EventLoopGroup group : eventLoopGroups) {
+            futures.add(group.shutdownGracefully(0, 10, TimeUnit.SECONDS));
+        }
 
-        workerGroupFuture.addListener(workerFuture -> {
-            bossGroupFuture.addListener(bossFuture -> {
-                if (workerFuture.isSuccess() && bossFuture.isSuccess()) {
+        AtomicInteger remaining = new AtomicInteger(futures.size());
+        for (Future<?> future : futures) {
+            future.addListener(groupFuture -> {
+                if (remaining.decrementAndGet() > 0) {
+                    return;
+                }
+                StringBuilder sb = new StringBuilder();
+                for (Future<?> f : futures) {
+                    if (f.cause() != null) {
+                        sb.append(sb.length() == 0 ? "" : ", ").append(f.cause().getMessage());
+                    }
+                }
+                if (sb.length() == 0) {
                     threadGroupsShutdownFuture.complete(this);
                 } else {
-                    StringBuilder sb = new StringBuilder();
-                    sb.append(workerFuture.cause() != null ? "Worker Group problem: " + workerFuture.cause().getMessage() : "")
-                      .append(bossFuture.cause() != null ? "Boss Group problem: " + bossFuture.cause().getMessage() : "");
                     threadGroupsShutdownFuture
                             .completeExceptionally(new IllegalStateException("Unable to shutdown Netty thread groups: " + sb));
                 }
             });
-        });
+        }
         return threadGroupsShutdownFuture;
     }
 
-    private void forceQueuesRelease() {
-        initializers.removeIf(httpInitializer -> {
-            httpInitializer.queuesShutdown();
-            return true;
-        });
-    }
-
     @Override
     public CompletionStage<WebServer> shutdown() {
         if (!startFuture.isDone()) {
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+import io.helidon.common.configurable.ServerThreadPoolSupplier;
+import io.helidon.common.configurable.ThreadPoolSupplier;
+import io.helidon.common.context.Contexts;
+
+/**
+ * A {@link Handler} running another handler on an executor, so the handler may block without stalling
+ * the event loop and the other connections it serves. See {@link Handler#offload(Handler)}.
+ * <p>
+ * A request rejected by the executor, such as when the queue of the thread pool is full, is forwarded to
+ * the error handling as {@link RejectedExecutionException}, answered with {@code 503 Service Unavailable} by default.
+ * The number of waiting requests and the time they waited are recorded in the {@link ServerStatistics}.
+ */
+final class OffloadHandler implements Handler {
+
+    private final Function<ServerRequest, Executor> executor;
+    private final Handler handler;
+
+    private OffloadHandler(Function<ServerRequest, Executor> executor, Handler handler) {
+        this.executor = executor;
+        this.handler = handler;
+    }
+
+    /**
+     * Creates a handler running on the offload thread pool of the server, see
+     * {@link ServerConfiguration#offloadExecutorService()}.
+     *
+     * @param handler the handler to run
+     * @return a new instance
+     */
+    static OffloadHandler create(Handler handler) {
+        return new OffloadHandler(OffloadHandler::serverExecutor, handler);
+    }
+
+    /**
+     * Creates a handler running on the provided executor, the executor propagates the request context.
+     *
+     * @param executor the executor to run the handler on
+     * @param handler  the handler to run
+     * @return a new instance
+     */
+    static OffloadHandler create(ExecutorService executor, Handler handler) {
+        ExecutorService contextAware = Contexts.wrap(executor);
+        return new OffloadHandler(req -> contextAware, handler);
+    }
+
+    @Override
+    public void accept(ServerRequest req, ServerResponse res) {
+        ServerStatistics serverStatistics = req.webServer().statistics();
+        NettyServerStatistics statistics = (serverStatistics instanceof NettyServerStatistics)
+                ? (NettyServerStatistics) serverStatistics
+                : null;
+        long submitted = System.nanoTime();
+        if (statistics != null) {
+            statistics.offloadQueued();
+        }
+        try {
+            executor.apply(req).execute(() -> {
+                if (statistics != null) {
+                    statistics.offloadStarted(System.nanoTime() - submitted);
+                }
+                try {
+                    handler.accept(req, res);
+                } catch (Throwable t) {
+                    req.next(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (statistics != null) {
+                statistics.offloadRejected();
+            }
+            req.next(e);
+        }
+    }
+
+    /**
+     * A builder of the offload thread pool with the defaults of the server, the threads are not prestarted as the pool
+     * is created when the server starts.
+     *
+     * @return a new builder
+     */
+    static ThreadPoolSupplier.Builder executorServiceBuilder() {
+        return ServerThreadPoolSupplier.builder()
+                .name("offload")
+                .prestart(false);
+    }
+
+    private static Executor serverExecutor(ServerRequest req) {
+        WebServer webServer = req.webServer();
+        if (webServer instanceof NettyWebServer) {
+            return ((NettyWebServer) webServer).offloadExecutor();
+        }
+        // not served by an event loop, e.g. by the test client
+        return Runnable::run;
+    }
+}
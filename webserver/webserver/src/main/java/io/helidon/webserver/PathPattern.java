@@ -143,6 +143,10 @@ final class PathPattern {
         }
         try {
             if (isRegexp) {
+                SegmentPathMatcher segmentMatcher = SegmentPathMatcher.parse(pattern.toString());
+                if (segmentMatcher != null) {
+                    return segmentMatcher;
+                }
                 return new RegexpPathMatcher(regexp.toString(), paramToGroupName);
             } else {
                 return new CanonicalPathMatcher(canonical.toString());
@@ -152,6 +156,54 @@ final class PathPattern {
         }
     }
 
+    /**
+     * Returns path segments matched by the provided matcher if it is a {@link CanonicalPathMatcher} or
+     * a {@link SegmentPathMatcher}. A {@code null} segment stands for a parameter matching any non-empty segment.
+     *
+     * @param matcher a path matcher
+     * @return segments or {@code null} if the matcher does not match whole path segments
+     */
+    static String[] segments(PathMatcher matcher) {
+        if (matcher instanceof SegmentPathMatcher) {
+            return ((SegmentPathMatcher) matcher).segments;
+        } else if (matcher instanceof CanonicalPathMatcher) {
+            String pattern = ((CanonicalPathMatcher) matcher).pattern;
+            return pattern.startsWith("/") ? split(pattern) : null;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Splits an absolute path to segments. The root path has no segments.
+     *
+     * @param path an absolute path
+     * @return path segments
+     */
+    static String[] split(String path) {
+        int length = path.length();
+        if (length <= 1) {
+            return new String[0];
+        }
+        int count = 1;
+        for (int i = 1; i < length; i++) {
+            if (path.charAt(i) == '/') {
+                count++;
+            }
+        }
+        String[] result = new String[count];
+        int start = 1;
+        for (int i = 0; i < count; i++) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            result[i] = path.substring(start, end);
+            start = end + 1;
+        }
+        return result;
+    }
+
     private static void escapeIfNeeded(char ch, StringBuilder builder) {
         if (Arrays.binarySearch(REGEXP_META_CHARACTERS, ch) < 0) {
             builder.append(ch);
@@ -338,6 +390,148 @@ final class PathPattern {
         }
     }
 
+    /**
+     * Matcher of patterns consisting of literal segments and simple {@code {name}} parameter segments only,
+     * e.g. {@code /users/{id}/orders}. Matches segment by segment with the same result as the equivalent
+     * {@link RegexpPathMatcher}, but without regular expressions.
+     */
+    static class SegmentPathMatcher implements PathMatcher {
+
+        private final String pattern;
+        private final String[] segments;
+        private final String[] paramNames;
+        private final int paramCount;
+
+        private SegmentPathMatcher(String pattern, String[] segments, String[] paramNames, int paramCount) {
+            this.pattern = pattern;
+            this.segments = segments;
+            this.paramNames = paramNames;
+            this.paramCount = paramCount;
+        }
+
+        /**
+         * Creates a matcher if the pattern contains only literal and simple parameter segments.
+         *
+         * @param pattern a path pattern
+         * @return a new matcher or {@code null} if the pattern requires regular expression
+         */
+        static SegmentPathMatcher parse(String pattern) {
+            if (!pattern.startsWith("/")) {
+                return null;
+            }
+            String[] segments = split(pattern);
+            String[] paramNames = new String[segments.length];
+            int paramCount = 0;
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.length() >= 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}') {
+                    String name = segment.substring(1, segment.length() - 1);
+                    if (name.startsWith("+") || hasSpecialCharacter(name)) {
+                        return null;
+                    }
+                    name = name.trim();
+                    segments[i] = null;
+                    if (!name.isEmpty()) {
+                        paramNames[i] = name;
+                        paramCount++;
+                    }
+                } else if (hasSpecialCharacter(segment)) {
+                    return null;
+                }
+            }
+            return new SegmentPathMatcher(pattern, segments, paramNames, paramCount);
+        }
+
+        private static boolean hasSpecialCharacter(String segment) {
+            for (int i = 0; i < segment.length(); i++) {
+                switch (segment.charAt(i)) {
+                case '\\':
+                case '[':
+                case ']':
+                case '{':
+                case '}':
+                case ':':
+                    return true;
+                default:
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Result match(CharSequence path) {
+            Objects.requireNonNull(path, "Parameter 'path' is null!");
+            String s = path.toString();
+            Map<String, String> params = paramCount == 0 ? null : new HashMap<>(paramCount);
+            int end = matchSegments(s, params);
+            if (end == s.length()) {
+                return new PositiveResult(params);
+            } else {
+                return NOT_MATCHED_RESULT;
+            }
+        }
+
+        @Override
+        public PrefixResult prefixMatch(CharSequence path) {
+            Objects.requireNonNull(path, "Parameter 'path' is null!");
+            String s = path.toString();
+            Map<String, String> params = paramCount == 0 ? null : new HashMap<>(paramCount);
+            int end = matchSegments(s, params);
+            if (end < 0) {
+                return NOT_MATCHED_RESULT;
+            } else if (end == s.length()) {
+                return new PositiveResult(params, "/");
+            } else if (end == s.length() - 1) {
+                // the same as the regular expression, a trailing slash is not a remaining part
+                return NOT_MATCHED_RESULT;
+            } else {
+                return new PositiveResult(params, s.substring(end));
+            }
+        }
+
+        /**
+         * Matches all the segments of the pattern against the beginning of the path.
+         *
+         * @param path   a path
+         * @param params a map to collect parameters to, may be {@code null}
+         * @return index of the end of the matched part, the rest starts with a slash; {@code -1} if not matched
+         */
+        private int matchSegments(String path, Map<String, String> params) {
+            int length = path.length();
+            int position = 0;
+            for (int i = 0; i < segments.length; i++) {
+                if (position >= length || path.charAt(position) != '/') {
+                    return -1;
+                }
+                int start = position + 1;
+                int end = path.indexOf('/', start);
+                if (end < 0) {
+                    end = length;
+                }
+                String literal = segments[i];
+                if (literal == null) {
+                    if (end == start) {
+                        return -1;
+                    }
+                    if (paramNames[i] != null) {
+                        params.put(paramNames[i], path.substring(start, end));
+                    }
+                } else if (literal.length() != end - start || !path.startsWith(literal, start)) {
+                    return -1;
+                }
+                position = end;
+            }
+            return position;
+        }
+
+        @Override
+        public String toString() {
+            return "SegmentPathMatcher{"
+                    + "pattern='" + pattern + '\''
+                    + '}';
+        }
+    }
+
     /**
      * Regular expression based matcher.
      */
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.DataChunkFactory;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+
+/**
+ * A {@link DataChunkFactory} creating {@link ByteBufDataChunk chunks} in direct buffers of the channel allocator,
+ * which is pooled unless configured otherwise. The chunks are written to the channel without a copy.
+ */
+final class PooledDataChunkFactory implements DataChunkFactory {
+
+    private final ByteBufAllocator allocator;
+
+    /**
+     * Creates a new factory.
+     *
+     * @param allocator allocator of the channel
+     */
+    PooledDataChunkFactory(ByteBufAllocator allocator) {
+        this.allocator = allocator;
+    }
+
+    @Override
+    public DataChunk create(byte[] bytes, int offset, int length) {
+        ByteBuf buffer = allocator.directBuffer(length);
+        buffer.writeBytes(bytes, offset, length);
+        return new ByteBufDataChunk(buffer);
+    }
+
+    @Override
+    public DataChunk create(CharSequence chars, Charset charset) {
+        ByteBuf buffer;
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            buffer = allocator.directBuffer(ByteBufUtil.utf8Bytes(chars));
+            ByteBufUtil.writeUtf8(buffer, chars);
+        } else if (StandardCharsets.US_ASCII.equals(charset) || StandardCharsets.ISO_8859_1.equals(charset)) {
+            buffer = allocator.directBuffer(chars.length());
+            buffer.writeCharSequence(chars, charset);
+        } else {
+            buffer = ByteBufUtil.encodeString(allocator, CharBuffer.wrap(chars), charset);
+        }
+        return new ByteBufDataChunk(buffer);
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.security.Principal;
+import java.util.Objects;
+import java.util.Optional;
+
+import io.helidon.config.Config;
+
+/**
+ * A rate limiting policy of {@link RateLimitSupport}: the requests matching the {@link #pathPattern() path pattern}
+ * are counted in a token bucket per {@link KeyExtractor key}. A bucket holds up to {@link #burst() burst} tokens
+ * and is refilled by {@link #limit() limit} tokens per {@link #periodMillis() period}, each request takes a token.
+ */
+public interface RateLimitPolicy {
+
+    /**
+     * Default length of the period the limit is refilled in.
+     */
+    long DEFAULT_PERIOD_MILLIS = 1000;
+
+    /**
+     * Path pattern of the requests limited by this policy, see {@link Routing.Rules#any(String, Handler...)},
+     * e.g. {@code /api/{+}} for all the paths under {@code /api}.
+     *
+     * @return path pattern or empty to limit all requests of the routing
+     */
+    Optional<String> pathPattern();
+
+    /**
+     * Number of requests allowed per period.
+     *
+     * @return number of tokens refilled per period
+     */
+    long limit();
+
+    /**
+     * Length of the period the limit is refilled in.
+     *
+     * @return period in milliseconds
+     */
+    long periodMillis();
+
+    /**
+     * Number of requests allowed at once after the bucket was not used for a while.
+     *
+     * @return capacity of a bucket
+     */
+    long burst();
+
+    /**
+     * Extracts the key of the bucket a request is counted in.
+     *
+     * @return key extractor
+     */
+    KeyExtractor keyExtractor();
+
+    /**
+     * Creates a policy from a configuration node.
+     * <p>
+     * Configuration keys: {@code path}, {@code limit}, {@code period-millis}, {@code burst} and {@code key} with
+     * the values {@code remote-address} (default), {@code header} with the header name in {@code header},
+     * or {@code principal}.
+     *
+     * @param config configuration node
+     * @return a new policy
+     */
+    static RateLimitPolicy create(Config config) {
+        return builder().config(config).build();
+    }
+
+    /**
+     * Creates a new fluent API builder.
+     *
+     * @return a new builder instance
+     */
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Extracts the key of the bucket a request is counted in.
+     */
+    @FunctionalInterface
+    interface KeyExtractor {
+
+        /**
+         * Extracts the key of a request.
+         *
+         * @param req the request
+         * @return key of the request or empty if the request has no key, such requests are counted by their
+         * remote address
+         */
+        Optional<String> key(ServerRequest req);
+
+        /**
+         * Counts the requests by the remote address of the client.
+         *
+         * @return key extractor
+         */
+        static KeyExtractor remoteAddress() {
+            return req -> Optional.ofNullable(req.remoteAddress());
+        }
+
+        /**
+         * Counts the requests by the value of a header, e.g. an API key.
+         *
+         * @param name name of the header
+         * @return key extractor
+         */
+        static KeyExtractor header(String name) {
+            Objects.requireNonNull(name, "Parameter 'name' is null!");
+            return req -> req.headers().first(name);
+        }
+
+        /**
+         * Counts the requests by the name of the authenticated user. The user is the {@link Principal} registered
+         * in the {@link ServerRequest#context() request context}, as the security integration does once the request
+         * is authorized, so the limit has to be registered after the security handler.
+         *
+         * @return key extractor
+         */
+        static KeyExtractor principal() {
+            return req -> req.context().get(Principal.class).map(Principal::getName);
+        }
+    }
+
+    /**
+     * Builder for {@link RateLimitPolicy}.
+     */
+    final class Builder implements io.helidon.common.Builder<RateLimitPolicy> {
+
+        private String pathPattern;
+        private long limit;
+        private long periodMillis = DEFAULT_PERIOD_MILLIS;
+        private long burst;
+        private KeyExtractor keyExtractor = KeyExtractor.remoteAddress();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the path pattern of the limited requests.
+         *
+         * @param pathPattern path pattern
+         * @return updated builder
+         */
+        public Builder pathPattern(String pathPattern) {
+            this.pathPattern = pathPattern;
+            return this;
+        }
+
+        /**
+         * Sets the number of requests allowed per period.
+         *
+         * @param limit number of tokens refilled per period
+         * @return updated builder
+         */
+        public Builder limit(long limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        /**
+         * Sets the length of the period.
+         *
+         * @param periodMillis period in milliseconds
+         * @return updated builder
+         */
+        public Builder periodMillis(long periodMillis) {
+            this.periodMillis = periodMillis;
+            return this;
+        }
+
+        /**
+         * Sets the number of requests allowed at once, defaults to the limit.
+         *
+         * @param burst capacity of a bucket
+         * @return updated builder
+         */
+        public Builder burst(long burst) {
+            this.burst = burst;
+            return this;
+        }
+
+        /**
+         * Sets the extractor of the bucket keys, defaults to {@link KeyExtractor#remoteAddress()}.
+         *
+         * @param keyExtractor key extractor
+         * @return updated builder
+         */
+        public Builder keyExtractor(KeyExtractor keyExtractor) {
+            this.keyExtractor = Objects.requireNonNull(keyExtractor, "Parameter 'keyExtractor' is null!");
+            return this;
+        }
+
+        /**
+         * Updates the builder from a configuration node.
+         *
+         * @param config configuration node
+         * @return updated builder
+         * @throws IllegalArgumentException if the key is not supported
+         */
+        public Builder config(Config config) {
+            config.get("path").asString().ifPresent(this::pathPattern);
+            config.get("limit").asLong().ifPresent(this::limit);
+            config.get("period-millis").asLong().ifPresent(this::periodMillis);
+            config.get("burst").asLong().ifPresent(this::burst);
+            config.get("key").asString().ifPresent(key -> {
+                switch (key) {
+                case "remote-address":
+                    keyExtractor(KeyExtractor.remoteAddress());
+                    break;
+                case "header":
+                    keyExtractor(KeyExtractor.header(config.get("header").asString().get()));
+                    break;
+                case "principal":
+                    keyExtractor(KeyExtractor.principal());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported rate limit key: " + key);
+                }
+            });
+            return this;
+        }
+
+        /**
+         * Builds the policy.
+         *
+         * @return a new policy
+         * @throws IllegalArgumentException if the limit, period or burst is not positive, or the limit is too high
+         *                                  to be counted in nanoseconds
+         */
+        @Override
+        public RateLimitPolicy build() {
+            long burst = (this.burst == 0) ? limit : this.burst;
+            if (limit <= 0 || periodMillis <= 0 || burst <= 0) {
+                throw new IllegalArgumentException("Limit, period and burst must be positive: " + limit + ", "
+                                                           + periodMillis + ", " + burst);
+            }
+            if (periodMillis * 1_000_000 / limit == 0) {
+                throw new IllegalArgumentException("Limit of " + limit + " per " + periodMillis + " ms is too high");
+            }
+            Optional<String> pathPattern = Optional.ofNullable(this.pathPattern);
+            long limit = this.limit;
+            long periodMillis = this.periodMillis;
+            KeyExtractor keyExtractor = this.keyExtractor;
+
+            return new RateLimitPolicy() {
+                @Override
+                public Optional<String> pathPattern() {
+                    return pathPattern;
+                }
+
+                @Override
+                public long limit() {
+                    return limit;
+                }
+
+                @Override
+                public long periodMillis() {
+                    return periodMillis;
+                }
+
+                @Override
+                public long burst() {
+                    return burst;
+                }
+
+                @Override
+                public KeyExtractor keyExtractor() {
+                    return keyExtractor;
+                }
+            };
+        }
+    }
+}
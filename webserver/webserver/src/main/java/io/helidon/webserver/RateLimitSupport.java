@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.helidon.common.CollectionsHelper;
+import io.helidon.common.http.Http;
+import io.helidon.config.Config;
+
+/**
+ * A {@link Service} limiting the rate of requests by the {@link RateLimitPolicy policies} it is created with.
+ * <pre>{@code
+ * Routing.builder()
+ *        .register(RateLimitSupport.builder()
+ *                          .addPolicy(RateLimitPolicy.builder()
+ *                                             .pathPattern("/api/{+}")
+ *                                             .limit(100)
+ *                                             .keyExtractor(RateLimitPolicy.KeyExtractor.header("X-Api-Key"))
+ *                                             .build())
+ *                          .build())
+ *        .build()
+ * }</pre>
+ * The allowed responses have the {@code RateLimit-Limit}, {@code RateLimit-Remaining} and {@code RateLimit-Reset}
+ * headers set. A request over the limit of a policy is forwarded to the error handling as {@link HttpException}
+ * with the {@code 429 Too Many Requests} status and the {@code Retry-After} header set.
+ * <p>
+ * A bucket is a single timestamp, the time the bucket is full again, updated by compare-and-set, so counting
+ * a request takes no lock. A full bucket does not differ from a missing one, so the full buckets are evicted,
+ * at most once per {@link Builder#evictionIntervalMillis(long) eviction interval} by the request finding the eviction
+ * due. Once a policy holds the {@link Builder#maxBuckets(int) maximal number of buckets}, the requests with a new
+ * key share a single bucket until the next eviction.
+ */
+public final class RateLimitSupport implements Service {
+
+    /**
+     * Default maximal number of buckets of a policy.
+     */
+    public static final int DEFAULT_MAX_BUCKETS = 100_000;
+
+    /**
+     * Default interval of the eviction of the full buckets.
+     */
+    public static final long DEFAULT_EVICTION_INTERVAL_MILLIS = 60_000;
+
+    private static final String LIMIT_HEADER = "RateLimit-Limit";
+    private static final String REMAINING_HEADER = "RateLimit-Remaining";
+    private static final String RESET_HEADER = "RateLimit-Reset";
+
+    private final List<Limiter> limiters = new ArrayList<>();
+    private final LongAdder rejections = new LongAdder();
+
+    private RateLimitSupport(Builder builder) {
+        long evictionNanos = TimeUnit.MILLISECONDS.toNanos(builder.evictionIntervalMillis);
+        for (RateLimitPolicy policy : builder.policies) {
+            limiters.add(new Limiter(policy, builder.maxBuckets, evictionNanos));
+        }
+    }
+
+    /**
+     * Creates a new instance from configuration, see {@link Builder#config(Config)}.
+     *
+     * @param config configuration node of the rate limit
+     * @return a new instance
+     */
+    public static RateLimitSupport create(Config config) {
+        return builder().config(config).build();
+    }
+
+    /**
+     * Creates a new fluent API builder.
+     *
+     * @return a new builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Registers a handler of each policy for any HTTP method and its path pattern.
+     *
+     * @param rules a routing configuration where the rate limit should be registered
+     */
+    @Override
+    public void update(Routing.Rules rules) {
+        for (Limiter limiter : limiters) {
+            if (limiter.policy.pathPattern().isPresent()) {
+                rules.any(limiter.policy.pathPattern().get(), limiter);
+            } else {
+                rules.any(limiter);
+            }
+        }
+    }
+
+    /**
+     * Total number of requests rejected by the policies.
+     *
+     * @return number of rejected requests
+     */
+    public long rejections() {
+        return rejections.sum();
+    }
+
+    /**
+     * Number of buckets currently held by the policies.
+     *
+     * @return number of buckets
+     */
+    public int buckets() {
+        return limiters.stream().mapToInt(limiter -> limiter.buckets.size()).sum();
+    }
+
+    private static long toSeconds(long nanos) {
+        // rounded up, the client must not come back before the token is available
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * Token buckets of a policy.
+     */
+    private final class Limiter implements Handler {
+
+        private final RateLimitPolicy policy;
+        private final int maxBuckets;
+        private final long evictionNanos;
+        private final String limit;
+        // a token is refilled per interval, a bucket is full once its timestamp is reached
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong overflow = new AtomicLong(System.nanoTime());
+        private final AtomicBoolean evicting = new AtomicBoolean();
+
+        private volatile long nextEviction;
+
+        private Limiter(RateLimitPolicy policy, int maxBuckets, long evictionNanos) {
+            this.policy = policy;
+            this.maxBuckets = maxBuckets;
+            this.evictionNanos = evictionNanos;
+            this.limit = String.valueOf(policy.burst());
+            this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(policy.periodMillis()) / policy.limit();
+            this.burstNanos = intervalNanos * policy.burst();
+            this.nextEviction = System.nanoTime() + evictionNanos;
+        }
+
+        @Override
+        public void accept(ServerRequest req, ServerResponse res) {
+            String key = policy.keyExtractor().key(req).orElseGet(req::remoteAddress);
+            long now = System.nanoTime();
+            if (now - nextEviction >= 0) {
+                evict(now);
+            }
+            AtomicLong bucket = bucket(key, now);
+
+            while (true) {
+                long full = bucket.get();
+                long next = ((full - now > 0) ? full : now) + intervalNanos;
+                long wait = next - now - burstNanos;
+                if (wait > 0) {
+                    reject(req, res, full - now, wait);
+                    return;
+                }
+                if (bucket.compareAndSet(full, next)) {
+                    res.headers().put(LIMIT_HEADER, limit);
+                    res.headers().put(REMAINING_HEADER, String.valueOf((burstNanos - (next - now)) / intervalNanos));
+                    res.headers().put(RESET_HEADER, String.valueOf(toSeconds(next - now)));
+                    req.next();
+                    return;
+                }
+            }
+        }
+
+        private AtomicLong bucket(String key, long now) {
+            if (key == null) {
+                return overflow;
+            }
+            AtomicLong bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= maxBuckets) {
+                    return overflow;
+                }
+                bucket = new AtomicLong(now);
+                AtomicLong existing = buckets.putIfAbsent(key, bucket);
+                if (existing != null) {
+                    bucket = existing;
+                }
+            }
+            return bucket;
+        }
+
+        private void reject(ServerRequest req, ServerResponse res, long resetNanos, long waitNanos) {
+            rejections.increment();
+            ServerStatistics statistics = req.webServer().statistics();
+            if (statistics instanceof NettyServerStatistics) {
+                ((NettyServerStatistics) statistics).requestRejected();
+            }
+            res.headers().put(LIMIT_HEADER, limit);
+            res.headers().put(REMAINING_HEADER, "0");
+            res.headers().put(RESET_HEADER, String.valueOf(toSeconds(resetNanos)));
+            res.headers().put(Http.Header.RETRY_AFTER, String.valueOf(toSeconds(waitNanos)));
+            req.next(new HttpException("Rate limit of " + policy.limit() + " requests per " + policy.periodMillis()
+                                               + " ms reached", Http.Status.TOO_MANY_REQUESTS_429));
+        }
+
+        private void evict(long now) {
+            if (!evicting.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                // a request taking a token concurrently may count in an evicted bucket, its key starts with a full one
+                for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+                    AtomicLong bucket = entry.getValue();
+                    if (bucket.get() - now <= 0) {
+                        buckets.remove(entry.getKey(), bucket);
+                    }
+                }
+                nextEviction = now + evictionNanos;
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link RateLimitSupport}.
+     */
+    public static final class Builder implements io.helidon.common.Builder<RateLimitSupport> {
+
+        private final List<RateLimitPolicy> policies = new ArrayList<>();
+        private int maxBuckets = DEFAULT_MAX_BUCKETS;
+        private long evictionIntervalMillis = DEFAULT_EVICTION_INTERVAL_MILLIS;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a policy, a request matching more policies is counted by each of them.
+         *
+         * @param policy rate limit policy
+         * @return updated builder
+         */
+        public Builder addPolicy(RateLimitPolicy policy) {
+            policies.add(Objects.requireNonNull(policy, "Parameter 'policy' is null!"));
+            return this;
+        }
+
+        /**
+         * Sets the maximal number of buckets of a policy.
+         *
+         * @param maxBuckets maximal number of buckets
+         * @return updated builder
+         */
+        public Builder maxBuckets(int maxBuckets) {
+            this.maxBuckets = maxBuckets;
+            return this;
+        }
+
+        /**
+         * Sets the interval of the eviction of the full buckets.
+         *
+         * @param evictionIntervalMillis eviction interval in milliseconds
+         * @return updated builder
+         */
+        public Builder evictionIntervalMillis(long evictionIntervalMillis) {
+            this.evictionIntervalMillis = evictionIntervalMillis;
+            return this;
+        }
+
+        /**
+         * Updates the builder from a configuration node.
+         * <p>
+         * Configuration keys: {@code max-buckets}, {@code eviction-interval-millis} and {@code policies}, a list
+         * of policies, see {@link RateLimitPolicy#create(Config)}.
+         *
+         * @param config configuration node
+         * @return updated builder
+         */
+        public Builder config(Config config) {
+            config.get("max-buckets").asInt().ifPresent(this::maxBuckets);
+            config.get("eviction-interval-millis").asLong().ifPresent(this::evictionIntervalMillis);
+            config.get("policies").asNodeList().orElse(CollectionsHelper.listOf())
+                    .forEach(policy -> addPolicy(RateLimitPolicy.create(policy)));
+            return this;
+        }
+
+        /**
+         * Builds the rate limit.
+         *
+         * @return a new instance
+         * @throws IllegalArgumentException if the maximal number of buckets or the eviction interval is not positive
+         */
+        @Override
+        public RateLimitSupport build() {
+            if (maxBuckets <= 0 || evictionIntervalMillis <= 0) {
+                throw new IllegalArgumentException("Maximal number of buckets and eviction interval must be positive: "
+                                                           + maxBuckets + ", " + evictionIntervalMillis);
+            }
+            return new RateLimitSupport(this);
+        }
+    }
+}
@@ -68,7 +68,7 @@ abstract class Request implements ServerRequest {
     private final BareRequest bareRequest;
     private final WebServer webServer;
     private final ContextualRegistry context;
-    private final Parameters queryParams;
+    private final QueryParams queryParams;
     private final RequestHeaders headers;
     private final Content content;
 
@@ -82,8 +82,10 @@ abstract class Request implements ServerRequest {
         this.bareRequest = req;
         this.webServer = webServer;
         this.context = ContextualRegistry.create(webServer.context());
-        this.queryParams = UriComponent.decodeQuery(req.uri().getRawQuery(), true);
-        this.headers = new HashRequestHeaders(bareRequest.headers());
+        this.queryParams = new QueryParams(req.uri().getRawQuery());
+        this.headers = (req instanceof BareRequestImpl)
+                ? new NettyRequestHeaders(((BareRequestImpl) req).nettyHeaders())
+                : new HashRequestHeaders(req.headers());
         this.content = new Content();
     }
 
@@ -147,7 +149,7 @@ abstract class Request implements ServerRequest {
 
     @Override
     public Parameters queryParams() {
-        return queryParams;
+        return queryParams.get();
     }
 
     @Override
@@ -195,12 +197,49 @@ abstract class Request implements ServerRequest {
         return bareRequest.requestId();
     }
 
+    /**
+     * Sets the maximal length of the request content, see {@link ContentLimitSupport}.
+     *
+     * @param maxContentLength maximal content length in bytes
+     */
+    void maxContentLength(long maxContentLength) {
+        if (bareRequest instanceof BareRequestImpl) {
+            ((BareRequestImpl) bareRequest).maxContentLength(maxContentLength);
+        }
+    }
+
     private static CompletableFuture failedFuture(Throwable t) {
         CompletableFuture result = new CompletableFuture<>();
         result.completeExceptionally(t);
         return result;
     }
 
+    /**
+     * Query parameters decoded on the first access and shared by all the clones of the request.
+     */
+    private static final class QueryParams {
+        private final String rawQuery;
+        private volatile Parameters parameters;
+
+        QueryParams(String rawQuery) {
+            this.rawQuery = rawQuery;
+        }
+
+        Parameters get() {
+            Parameters result = parameters;
+            if (result == null) {
+                synchronized (this) {
+                    result = parameters;
+                    if (result == null) {
+                        result = UriComponent.decodeQuery(rawQuery, true);
+                        parameters = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
     private static class InternalReader<T> implements Reader<T> {
 
         private final Predicate<Class<?>> predicate;
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.common.http.DataChunk;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Detects request chunks that were garbage collected without being {@link DataChunk#release() released}, in the spirit
+ * of the Netty {@code ResourceLeakDetector}.
+ * <p>
+ * Depending on the {@link ServerConfiguration.LeakDetection level}, none, a sample or all of the chunks are tracked
+ * with a phantom reference. Tracked chunks which are garbage collected are reported, counted in the
+ * {@link ServerStatistics#leakedRequestChunks() server statistics} and their buffers are released. The references are
+ * processed whenever a new chunk is tracked; chunks still tracked when the server shuts down are released.
+ * <p>
+ * The chunks delivered to the application and not released when their request completes are reported as well, but their
+ * buffers are not released, the application may still read them.
+ */
+final class RequestChunkLeakDetector {
+
+    private static final Logger LOGGER = Logger.getLogger(RequestChunkLeakDetector.class.getName());
+    private static final int SAMPLING_INTERVAL = 128;
+
+    private final ServerConfiguration.LeakDetection level;
+    private final NettyServerStatistics statistics;
+    private final AtomicBoolean reported = new AtomicBoolean();
+    private final AtomicBoolean unreleasedReported = new AtomicBoolean();
+    private final ReferenceHoldingQueue<DataChunk> queue = new ReferenceHoldingQueue<DataChunk>() {
+        @Override
+        protected void hookOnAutoRelease() {
+            leakDetected();
+        }
+    };
+
+    /**
+     * Creates a new detector.
+     *
+     * @param level      the leak detection level
+     * @param statistics statistics to count the detected leaks in
+     */
+    RequestChunkLeakDetector(ServerConfiguration.LeakDetection level, NettyServerStatistics statistics) {
+        this.level = level;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Starts tracking of the chunk if it is selected by the leak detection level.
+     *
+     * @param chunk   the request chunk
+     * @param byteBuf the buffer of the chunk, released if the chunk is garbage collected
+     * @return a reference to release together with the chunk or {@code null} if the chunk is not tracked
+     */
+    ReferenceHoldingQueue.ReleasableReference<DataChunk> track(DataChunk chunk, ByteBuf byteBuf) {
+        switch (level) {
+        case DISABLED:
+            return null;
+        case SAMPLED:
+            if (ThreadLocalRandom.current().nextInt(SAMPLING_INTERVAL) != 0) {
+                return null;
+            }
+            break;
+        default:
+            break;
+        }
+        queue.release();
+        return new ReferenceHoldingQueue.ReleasableReference<>(chunk, queue, byteBuf::release);
+    }
+
+    /**
+     * Reports the chunks of a completed request which were delivered to the application and not released. The buffers
+     * of the chunks are kept, as the application may still process the request content after the response was sent.
+     *
+     * @param requestId  id of the request
+     * @param unreleased number of chunks not released
+     */
+    void requestCompleted(long requestId, int unreleased) {
+        if (unreleased <= 0) {
+            return;
+        }
+        Level logLevel = (level != ServerConfiguration.LeakDetection.DISABLED
+                && unreleasedReported.compareAndSet(false, true)) ? Level.WARNING : Level.FINE;
+        LOGGER.log(logLevel, () -> "Request " + requestId + " completed with " + unreleased + " request chunks not "
+                + "released. Their buffers are held until the chunks are released; release all the request chunks "
+                + "explicitly once they are not needed.");
+    }
+
+    /**
+     * Releases all the chunks still tracked.
+     */
+    void shutdown() {
+        queue.release();
+        queue.shutdown();
+    }
+
+    private void leakDetected() {
+        statistics.requestChunkLeaked();
+        Level logLevel = reported.compareAndSet(false, true) ? Level.WARNING : Level.FINE;
+        LOGGER.log(logLevel, () -> "LEAK: DataChunk.release() was not called on a request chunk before it was garbage "
+                + "collected. The buffer of the chunk has been released by the leak detection; chunks which are not "
+                + "tracked are lost for the buffer pool. Release all the request chunks explicitly once they are not "
+                + "needed.");
+    }
+}
@@ -26,6 +26,8 @@ class RequestContext {
     private final HttpRequestScopedPublisher publisher;
     private final HttpRequest request;
     private volatile boolean responseCompleted;
+    private long contentLength;
+    private boolean contentRejected;
 
     RequestContext(HttpRequestScopedPublisher publisher, HttpRequest request) {
         this.publisher = publisher;
@@ -40,6 +42,26 @@ class RequestContext {
         return request;
     }
 
+    /**
+     * Counts received content of the request against the maximal content length of its route.
+     * Invoked by the event loop.
+     *
+     * @param bytes number of received bytes
+     * @return {@code true} if the received content exceeded the maximal content length, the content is rejected
+     */
+    boolean contentExceeded(int bytes) {
+        contentLength += bytes;
+        long maxContentLength = publisher.maxContentLength();
+        if (maxContentLength >= 0 && contentLength > maxContentLength) {
+            contentRejected = true;
+        }
+        return contentRejected;
+    }
+
+    boolean contentRejected() {
+        return contentRejected;
+    }
+
     public void responseCompleted(boolean responseCompleted) {
         this.responseCompleted = responseCompleted;
     }
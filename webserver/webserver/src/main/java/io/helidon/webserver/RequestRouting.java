@@ -16,6 +16,7 @@
 
 package io.helidon.webserver;
 
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -68,8 +69,9 @@ class RequestRouting implements Routing {
             WebServer webServer = bareRequest.webServer();
             RoutedResponse response = new RoutedResponse(webServer, bareResponse);
             // Jersey needs the raw path (not decoded) so we get that too
-            String path = canonicalize(bareRequest.uri().normalize().getPath());
-            String rawPath = canonicalize(bareRequest.uri().normalize().getRawPath());
+            URI uri = bareRequest.uri().normalize();
+            String path = canonicalize(uri.getPath());
+            String rawPath = canonicalize(uri.getRawPath());
 
             Crawler crawler = new Crawler(routes, path, rawPath, bareRequest.method());
             RoutedRequest nextRequests = new RoutedRequest(bareRequest, response, webServer, crawler, errorHandlers);
@@ -108,7 +110,8 @@ class RequestRouting implements Routing {
      */
     private static class Crawler {
 
-        private final List<Route> routes;
+        private final RouteList routes;
+        private final int[] candidates;
         private final Request.Path contextPath;
         private final String path;
         private final String rawPath;
@@ -126,9 +129,10 @@ class RequestRouting implements Routing {
          * @param rawPath     not decoded URI path to route.
          * @param method      an HTTP method to route.
          */
-        private Crawler(List<Route> routes, Request.Path contextPath, String path, String rawPath,
+        private Crawler(RouteList routes, Request.Path contextPath, String path, String rawPath,
                         Http.RequestMethod method) {
             this.routes = routes;
+            this.candidates = routes.candidates(path);
             this.path = path;
             this.rawPath = rawPath;
             this.contextPath = contextPath;
@@ -143,18 +147,19 @@ class RequestRouting implements Routing {
          * @param rawPath not decoded URI path to route.
          * @param method an HTTP method to route.
          */
-        Crawler(List<Route> routes, String path, String rawPath, Http.RequestMethod method) {
+        Crawler(RouteList routes, String path, String rawPath, Http.RequestMethod method) {
             this(routes, null, path, rawPath, method);
         }
 
         /**
          * Returns next {@link HandlerRoute} to execute or {@code null} if there are no more acceptable routes.
+         * Only the {@link RouteList#candidates(String) candidate routes} for the path are tested.
          * It is not synchronized.
          *
          * @return a next item.
          */
         public Item next() {
-            while ((subCrawler != null) || (++index < routes.size())) {
+            while ((subCrawler != null) || (++index < candidates.length)) {
                 if (subCrawler != null) {
                     Item result = subCrawler.next();
                     if (result != null) {
@@ -163,7 +168,7 @@ class RequestRouting implements Routing {
                         subCrawler = null;
                     }
                 } else {
-                    Route route = routes.get(index);
+                    Route route = routes.get(candidates[index]);
                     if (route.accepts(method)) {
                         if (route instanceof HandlerRoute) {
                             HandlerRoute hr = (HandlerRoute) route;
@@ -174,12 +179,15 @@ class RequestRouting implements Routing {
                         } else if (route instanceof RouteList) {
                             RouteList rl = (RouteList) route;
                             PathMatcher.PrefixResult prefixMatch = rl.prefixMatch(path);
-                            PathMatcher.PrefixResult rawPrefixMatch = rl.prefixMatch(rawPath);
                             if (prefixMatch.matches()) {
+                                // the raw path is only needed when the decoded one matches and differs
+                                String rawRemainingPart = path.equals(rawPath)
+                                        ? prefixMatch.remainingPart()
+                                        : rl.prefixMatch(rawPath).remainingPart();
                                 subCrawler = new Crawler(rl,
                                                          Request.Path.create(contextPath, path, rawPath, prefixMatch.params()),
                                                          prefixMatch.remainingPart(),
-                                                         rawPrefixMatch.remainingPart(),
+                                                         rawRemainingPart,
                                                          method);
                                 // do "continue" in order to not log the failure message bellow
                                 continue;
@@ -301,9 +309,14 @@ class RequestRouting implements Routing {
                         }
                     }
 
-                    nextItem.handlerRoute
-                            .handler()
-                            .accept(nextRequest, nextResponse);
+                    Object previousRoute = EventLoopWatchdog.routeStarted(nextItem.handlerRoute);
+                    try {
+                        nextItem.handlerRoute
+                                .handler()
+                                .accept(nextRequest, nextResponse);
+                    } finally {
+                        EventLoopWatchdog.routeFinished(previousRoute);
+                    }
                 } catch (RuntimeException re) {
                     nextNoCheck(re);
                 }
@@ -29,11 +29,14 @@ import java.util.ArrayList;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
 import io.helidon.common.OptionalHelper;
 import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.DataChunkFactory;
 import io.helidon.common.http.Http;
 import io.helidon.common.http.MediaType;
 import io.helidon.common.reactive.Flow;
@@ -156,7 +159,14 @@ abstract class Response implements ServerResponse {
         Span writeSpan = createWriteSpan(content);
         try {
             sendLockSupport.execute(() -> {
-                Flow.Publisher<DataChunk> publisher = createPublisherUsingWriter(content);
+                Flow.Publisher<DataChunk> publisher = createPublisherUsingRegisteredWriter(content);
+                if (publisher == null && sendFile(content, writeSpan)) {
+                    sendLockSupport.contentSend = true;
+                    return;
+                }
+                if (publisher == null) {
+                    publisher = createDefaultPublisher(content);
+                }
                 if (publisher == null) {
                     throw new IllegalArgumentException("Cannot write! No registered writer for '"
                                                                + content.getClass().toString() + "'.");
@@ -194,13 +204,53 @@ abstract class Response implements ServerResponse {
         }
     }
 
+    @Override
+    public CompletionStage<ServerResponse> sendEvents(Flow.Publisher<ServerSentEvent> events,
+                                                      SseConfiguration configuration) {
+        Objects.requireNonNull(events, "Parameter 'events' is null!");
+        if (!headers.contentType().isPresent()) {
+            headers.contentType(MediaType.TEXT_EVENT_STREAM.withCharset(StandardCharsets.UTF_8.name()));
+        }
+        headers.putIfAbsent(Http.Header.CACHE_CONTROL, "no-cache");
+        ScheduledExecutorService scheduler = bareResponse instanceof BareResponseImpl
+                ? ((BareResponseImpl) bareResponse).executor()
+                : null;
+        return send(new ServerSentEventPublisher(events, configuration, scheduler, contentChunkFactory()));
+    }
+
+    /**
+     * Claims this response for a protocol upgrade, no content may be sent by the response afterwards.
+     *
+     * @return the response of the connection to upgrade, {@code null} if the response was already sent or its
+     *         connection cannot be upgraded
+     */
+    BareResponseImpl upgrade() {
+        if (!(bareResponse instanceof BareResponseImpl)) {
+            return null;
+        }
+        BareResponseImpl response = (BareResponseImpl) bareResponse;
+        AtomicBoolean upgradeable = new AtomicBoolean();
+        sendLockSupport.execute(() -> {
+            if (response.upgradeable()) {
+                sendLockSupport.contentSend = true;
+                upgradeable.set(true);
+            }
+        }, true);
+        return upgradeable.get() ? response : null;
+    }
+
     @Override
     public CompletionStage<ServerResponse> send() {
         return send(null);
     }
 
-    @SuppressWarnings("unchecked")
     <T> Flow.Publisher<DataChunk> createPublisherUsingWriter(T content) {
+        Flow.Publisher<DataChunk> publisher = createPublisherUsingRegisteredWriter(content);
+        return publisher == null ? createDefaultPublisher(content) : publisher;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Flow.Publisher<DataChunk> createPublisherUsingRegisteredWriter(T content) {
         if (content == null) {
             return Single.empty();
         }
@@ -215,7 +265,50 @@ abstract class Response implements ServerResponse {
             }
         }
 
-        return createDefaultPublisher(content);
+        return null;
+    }
+
+    /**
+     * Sends a {@link File}, {@link Path} or {@link FileContent} content directly, bypassing the data chunk publisher.
+     * Only possible if there is no filter registered, as filters need to see the data.
+     *
+     * @param content the content to send
+     * @param span    write span or {@code null}
+     * @return {@code true} if the content was sent, {@code false} if it must be published
+     */
+    private boolean sendFile(Object content, Span span) {
+        if (!(content instanceof File || content instanceof Path || content instanceof FileContent)
+                || !filters.isEmpty()
+                || !(bareResponse instanceof BareResponseImpl)
+                || !((BareResponseImpl) bareResponse).fileTransferSupported()) {
+            return false;
+        }
+
+        FileContent fileContent = toFileContent(content);
+        headers.contentLength(fileContent.length());
+        headers.send();
+        try {
+            ((BareResponseImpl) bareResponse).sendFile(fileContent);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read a file!", e);
+        }
+        if (null != span) {
+            whenSent().whenComplete((response, throwable) -> span.finish());
+        }
+        return true;
+    }
+
+    private static FileContent toFileContent(Object content) {
+        if (content instanceof FileContent) {
+            return (FileContent) content;
+        }
+        Path path = (content instanceof File) ? ((File) content).toPath() : (Path) content;
+        checkFile(path);
+        try {
+            return FileContent.create(path);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read a file!", e);
+        }
     }
 
     private <T> Flow.Publisher<DataChunk> createDefaultPublisher(T content) {
@@ -224,12 +317,14 @@ abstract class Response implements ServerResponse {
             return toPublisher(((File) content).toPath());
         } else if (Path.class.isAssignableFrom(type)) {
             return toPublisher((Path) content);
+        } else if (FileContent.class.isAssignableFrom(type)) {
+            return toPublisher((FileContent) content);
         } else if (ReadableByteChannel.class.isAssignableFrom(type)) {
             return ContentWriters.byteChannelWriter().apply((ReadableByteChannel) content);
         } else if (CharSequence.class.isAssignableFrom(type)) {
             return toPublisher((CharSequence) content);
         } else if (byte[].class.isAssignableFrom(type)) {
-            return ContentWriters.byteArrayWriter(true).apply((byte[]) content);
+            return ContentWriters.byteArrayWriter(contentChunkFactory()).apply((byte[]) content);
         }
         return null;
     }
@@ -238,36 +333,49 @@ abstract class Response implements ServerResponse {
         MediaType mediaType = headers.contentType().orElse(MediaType.TEXT_PLAIN);
         String charset = mediaType.charset().orElse(StandardCharsets.UTF_8.name());
         headers.contentType(mediaType.withCharset(charset));
-        return ContentWriters.charSequenceWriter(Charset.forName(charset)).apply(s);
+        return ContentWriters.charSequenceWriter(Charset.forName(charset), contentChunkFactory()).apply(s);
     }
 
     private Flow.Publisher<DataChunk> toPublisher(Path path) {
-        // Set response length - if possible
+        checkFile(path);
         try {
-            // Is it existing and readable file
-            if (!Files.exists(path)) {
-                throw new IllegalArgumentException("File path argument doesn't exist!");
-            }
-            if (!Files.isRegularFile(path)) {
-                throw new IllegalArgumentException("File path argument isn't a file!");
-            }
-            if (!Files.isReadable(path)) {
-                throw new IllegalArgumentException("File path argument isn't readable!");
-            }
-            // Try to write length
+            FileChannel fc = FileChannel.open(path, StandardOpenOption.READ);
+            // Set response length - if possible
             try {
-                headers.contentLength(Files.size(path));
+                headers.contentLength(fc.size());
             } catch (Exception e) {
                 // Cannot get length or write length, not a big deal
             }
             // And write
-            FileChannel fc = FileChannel.open(path, StandardOpenOption.READ);
             return ContentWriters.byteChannelWriter().apply(fc);
         } catch (IOException e) {
             throw new IllegalArgumentException("Cannot read a file!", e);
         }
     }
 
+    private Flow.Publisher<DataChunk> toPublisher(FileContent content) {
+        try {
+            ReadableByteChannel channel = content.channel();
+            headers.contentLength(content.length());
+            return ContentWriters.byteChannelWriter().apply(channel);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read a file!", e);
+        }
+    }
+
+    private static void checkFile(Path path) {
+        // Is it existing and readable file
+        if (!Files.exists(path)) {
+            throw new IllegalArgumentException("File path argument doesn't exist!");
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalArgumentException("File path argument isn't a file!");
+        }
+        if (!Files.isReadable(path)) {
+            throw new IllegalArgumentException("File path argument isn't readable!");
+        }
+    }
+
     @Override
     public <T> Response registerWriter(Class<T> type, Function<T, Flow.Publisher<DataChunk>> function) {
         return registerWriter(type, null, function);
@@ -294,6 +402,45 @@ abstract class Response implements ServerResponse {
         return this;
     }
 
+    @Override
+    public DataChunkFactory dataChunkFactory() {
+        return bareResponse.dataChunkFactory();
+    }
+
+    /**
+     * Factory of the chunks created by the default writers. The chunks are only created by the factory of the server
+     * while there is no filter registered, a filter dropping or replacing the chunks may not release them.
+     *
+     * @return a factory of data chunks
+     */
+    private DataChunkFactory contentChunkFactory() {
+        return filters.isEmpty() ? dataChunkFactory() : DataChunkFactory.heap();
+    }
+
+    /**
+     * Overrides the compression configuration of the server socket for this response.
+     * Has no effect once the response headers were sent.
+     *
+     * @param compression compression configuration
+     */
+    void compression(CompressionConfiguration compression) {
+        if (bareResponse instanceof BareResponseImpl) {
+            ((BareResponseImpl) bareResponse).compression(compression);
+        }
+    }
+
+    /**
+     * Overrides the aggregation buffer size of the server socket for this response.
+     * Has no effect once the content is being written.
+     *
+     * @param aggregationBufferSize maximal size of the content aggregated to be sent with a known length
+     */
+    void aggregationBufferSize(int aggregationBufferSize) {
+        if (bareResponse instanceof BareResponseImpl) {
+            ((BareResponseImpl) bareResponse).aggregationBufferSize(aggregationBufferSize);
+        }
+    }
+
     @Override
     public Response registerFilter(Function<Flow.Publisher<DataChunk>, Flow.Publisher<DataChunk>> function) {
         Objects.requireNonNull(function, "Parameter 'function' is null!");
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size bounded in-memory store of the responses cached by {@link ResponseCacheSupport}.
+ * <p>
+ * An expired entry is removed by the first lookup finding it. When a new entry does not fit into the configured
+ * maximal size, the expired entries are removed first and then the least recently used ones.
+ * <p>
+ * The names of the request headers the responses of a path vary by are kept for as long as at least one response
+ * of that path is cached, so they are bounded by the store as well.
+ */
+final class ResponseCache {
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // only modified while holding the lock of this instance
+    private final ConcurrentMap<String, Variants> variants = new ConcurrentHashMap<>();
+    private final AtomicLong size = new AtomicLong();
+    private final AtomicLong clock = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final long maxSize;
+
+    /**
+     * Creates new instance.
+     *
+     * @param maxSize maximal size of all cached content in bytes
+     */
+    ResponseCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Cached entry or {@code null} if not cached or expired.
+     *
+     * @param key cache key
+     * @param now current {@link System#nanoTime() time}
+     * @return cached entry or {@code null}
+     */
+    Entry get(String key, long now) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expired(now)) {
+            remove(key, entry);
+            return null;
+        }
+        entry.lastAccess = clock.incrementAndGet();
+        return entry;
+    }
+
+    /**
+     * Names of the request headers the last cached response of a path varies by.
+     *
+     * @param base cache key of the path, without the values of the request headers
+     * @return header names, empty if no response of the path is cached
+     */
+    List<String> vary(String base) {
+        Variants current = variants.get(base);
+        return (current == null) ? Collections.emptyList() : current.vary;
+    }
+
+    /**
+     * Caches a new entry, evicting other entries if needed.
+     *
+     * @param entry the entry
+     */
+    synchronized void put(Entry entry) {
+        if (entry.size() > maxSize) {
+            return;
+        }
+        entry.lastAccess = clock.incrementAndGet();
+        Entry previous = entries.put(entry.key(), entry);
+        if (previous != null) {
+            removed(previous);
+        }
+        size.addAndGet(entry.size());
+        variants.compute(entry.base, (base, current) -> new Variants(entry.vary, (current == null) ? 1 : current.count + 1));
+        if (size.get() > maxSize) {
+            long now = System.nanoTime();
+            entries.forEach((candidateKey, candidate) -> {
+                if (candidate.expired(now)) {
+                    remove(candidateKey, candidate);
+                }
+            });
+        }
+        while (size.get() > maxSize) {
+            Map.Entry<String, Entry> victim = null;
+            long victimAccess = Long.MAX_VALUE;
+            for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+                if (candidate.getValue() != entry && candidate.getValue().lastAccess < victimAccess) {
+                    victim = candidate;
+                    victimAccess = candidate.getValue().lastAccess;
+                }
+            }
+            if (victim == null) {
+                return;
+            }
+            remove(victim.getKey(), victim.getValue());
+            evictions.increment();
+        }
+    }
+
+    private synchronized void remove(String key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            removed(entry);
+        }
+    }
+
+    private void removed(Entry entry) {
+        size.addAndGet(-entry.size());
+        variants.computeIfPresent(entry.base, (base, current) ->
+                (current.count == 1) ? null : new Variants(current.vary, current.count - 1));
+    }
+
+    /**
+     * Records a request served from the cache.
+     */
+    void hit() {
+        hits.increment();
+    }
+
+    /**
+     * Records a request that could not be served from the cache.
+     */
+    void miss() {
+        misses.increment();
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    long evictions() {
+        return evictions.sum();
+    }
+
+    long size() {
+        return size.get();
+    }
+
+    long entries() {
+        return entries.size();
+    }
+
+    int variants() {
+        return variants.size();
+    }
+
+    /**
+     * Vary header names of a path together with the number of its cached responses.
+     */
+    private static final class Variants {
+        private final List<String> vary;
+        private final int count;
+
+        private Variants(List<String> vary, int count) {
+            this.vary = vary;
+            this.count = count;
+        }
+    }
+
+    /**
+     * Cached response.
+     */
+    static final class Entry {
+        private final String base;
+        private final Map<String, List<String>> headers;
+        private final ByteBuffer content;
+        private final String etag;
+        private final List<String> vary;
+        private final String varyValues;
+        private final long created;
+        private final long expires;
+        private volatile long lastAccess;
+
+        /**
+         * Creates a new entry.
+         *
+         * @param base       cache key of the path, without the values of the request headers
+         * @param headers    response headers to be replayed
+         * @param content    response content
+         * @param etag       quoted entity tag
+         * @param vary       names of the request headers the response varies by
+         * @param varyValues values of the request headers the response varies by, as used in the key
+         * @param created    {@link System#nanoTime() time} the response was created
+         * @param maxAge     freshness lifetime in seconds
+         */
+        Entry(String base,
+              Map<String, List<String>> headers,
+              byte[] content,
+              String etag,
+              List<String> vary,
+              String varyValues,
+              long created,
+              long maxAge) {
+            this.base = base;
+            this.headers = headers;
+            this.content = ByteBuffer.wrap(content).asReadOnlyBuffer();
+            this.etag = etag;
+            this.vary = vary;
+            this.varyValues = varyValues;
+            this.created = created;
+            this.expires = created + TimeUnit.SECONDS.toNanos(maxAge);
+        }
+
+        Map<String, List<String>> headers() {
+            return headers;
+        }
+
+        /**
+         * A new read-only view of the content.
+         *
+         * @return content of the response
+         */
+        ByteBuffer content() {
+            return content.duplicate();
+        }
+
+        String etag() {
+            return etag;
+        }
+
+        List<String> vary() {
+            return vary;
+        }
+
+        String varyValues() {
+            return varyValues;
+        }
+
+        /**
+         * Cache key of the entry.
+         *
+         * @return cache key
+         */
+        String key() {
+            return base + varyValues;
+        }
+
+        /**
+         * Age of the response.
+         *
+         * @param now current {@link System#nanoTime() time}
+         * @return age in seconds
+         */
+        long age(long now) {
+            return TimeUnit.NANOSECONDS.toSeconds(now - created);
+        }
+
+        private boolean expired(long now) {
+            return now - expires >= 0;
+        }
+
+        private long size() {
+            return content.capacity();
+        }
+    }
+}
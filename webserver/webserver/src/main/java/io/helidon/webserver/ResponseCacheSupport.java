@@ -0,0 +1,530 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+import io.helidon.common.reactive.Flow;
+import io.helidon.common.reactive.Single;
+import io.helidon.config.Config;
+
+/**
+ * A {@link Service} and {@link Handler} caching the responses of the {@code GET} requests of the routes it is
+ * registered on, and serving the {@code GET} and {@code HEAD} requests from the cache.
+ * <pre>{@code
+ * Routing.builder()
+ *        .register("/api", ResponseCacheSupport.create())
+ *        .get("/api/prices", (req, res) -> {
+ *            res.headers().put(Http.Header.CACHE_CONTROL, "max-age=5");
+ *            res.send(prices());
+ *        })
+ *        .build()
+ * }</pre>
+ * A response is cached when its status is {@code 200 OK}, its {@code Cache-Control} header has a positive
+ * {@code s-maxage} or {@code max-age} and neither {@code no-store}, {@code no-cache} nor {@code private}, it sets
+ * no cookie, does not vary by all headers ({@code Vary: *}) and its content fits into the
+ * {@link Builder#maxEntrySize(long) maximal entry size}. The response is cached for its maximal age, under a key
+ * combining the path, the query with the parameters sorted by name and the values of the request headers named
+ * by its {@code Vary} header.
+ * <p>
+ * A cached response is served with its {@code ETag}, or an entity tag computed from its content, and the {@code Age}
+ * header; a request with a matching {@code If-None-Match} header is answered with {@code 304 Not Modified}.
+ * The requests with the {@code Authorization} header or {@code Cache-Control: no-store} are never served from
+ * nor stored into the cache, the requests with {@code Cache-Control: no-cache} are not served from the cache.
+ * <p>
+ * The requests missing the cache are coalesced: the first request of a key runs the handlers, while the others wait
+ * for its response and are served from the cache once it is stored. If the response turns out not to be cacheable
+ * when its headers are sent, the waiting requests run the handlers themselves.
+ */
+public final class ResponseCacheSupport implements Service, Handler {
+
+    /**
+     * Default maximal size of all cached content.
+     */
+    public static final long DEFAULT_MAX_SIZE = 10 * 1024 * 1024;
+
+    /**
+     * Default maximal size of the content of a cached response.
+     */
+    public static final long DEFAULT_MAX_ENTRY_SIZE = 1024 * 1024;
+
+    private static final List<String> NOT_REPLAYED_HEADERS = Collections.unmodifiableList(Arrays.asList(
+            Http.Header.CONTENT_LENGTH.toLowerCase(Locale.ROOT),
+            Http.Header.TRANSFER_ENCODING.toLowerCase(Locale.ROOT),
+            Http.Header.CONNECTION.toLowerCase(Locale.ROOT),
+            Http.Header.DATE.toLowerCase(Locale.ROOT),
+            Http.Header.AGE.toLowerCase(Locale.ROOT),
+            Http.Header.ETAG.toLowerCase(Locale.ROOT)));
+
+    private final ResponseCache cache;
+    private final long maxEntrySize;
+    private final ConcurrentMap<String, CompletableFuture<ResponseCache.Entry>> flights = new ConcurrentHashMap<>();
+
+    private ResponseCacheSupport(Builder builder) {
+        this.cache = new ResponseCache(builder.maxSize);
+        this.maxEntrySize = builder.maxEntrySize;
+    }
+
+    /**
+     * Creates a new instance with the default configuration.
+     *
+     * @return a new instance
+     */
+    public static ResponseCacheSupport create() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new instance from configuration, see {@link Builder#config(Config)}.
+     *
+     * @param config configuration node of the cache
+     * @return a new instance
+     */
+    public static ResponseCacheSupport create(Config config) {
+        return builder().config(config).build();
+    }
+
+    /**
+     * Creates a new fluent API builder.
+     *
+     * @return a new builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Registers this handler for any HTTP method, only the {@code GET} and {@code HEAD} requests are cached.
+     *
+     * @param rules a routing configuration where the cache should be registered
+     */
+    @Override
+    public void update(Routing.Rules rules) {
+        rules.any(this);
+    }
+
+    @Override
+    public void accept(ServerRequest req, ServerResponse res) {
+        Http.RequestMethod method = req.method();
+        if ((method != Http.Method.GET && method != Http.Method.HEAD)
+                || req.headers().first(Http.Header.AUTHORIZATION).isPresent()) {
+            req.next();
+            return;
+        }
+        List<String> directives = directives(req.headers().all(Http.Header.CACHE_CONTROL));
+        if (directives.contains("no-store")) {
+            req.next();
+            return;
+        }
+        String base = base(req);
+        String key = base + varyValues(req, cache.vary(base));
+        boolean revalidate = directives.contains("no-cache") || directives.contains("max-age=0");
+        if (!revalidate) {
+            ResponseCache.Entry entry = cache.get(key, System.nanoTime());
+            if (entry != null) {
+                serve(req, res, entry);
+                return;
+            }
+        }
+        if (method == Http.Method.HEAD) {
+            cache.miss();
+            req.next();
+            return;
+        }
+
+        CompletableFuture<ResponseCache.Entry> flight = new CompletableFuture<>();
+        CompletableFuture<ResponseCache.Entry> leader = flights.putIfAbsent(key, flight);
+        if (leader == null) {
+            cache.miss();
+            populate(req, res, base, key, flight);
+        } else if (revalidate) {
+            cache.miss();
+            req.next();
+        } else {
+            leader.whenComplete((entry, throwable) -> {
+                if (entry != null && entry.varyValues().equals(varyValues(req, entry.vary()))) {
+                    serve(req, res, entry);
+                } else {
+                    cache.miss();
+                    req.next();
+                }
+            });
+        }
+    }
+
+    /**
+     * Number of requests served from the cache.
+     *
+     * @return number of cache hits
+     */
+    public long hits() {
+        return cache.hits();
+    }
+
+    /**
+     * Number of requests that could not be served from the cache.
+     *
+     * @return number of cache misses
+     */
+    public long misses() {
+        return cache.misses();
+    }
+
+    /**
+     * Number of responses removed from the cache to free space for others.
+     *
+     * @return number of evictions
+     */
+    public long evictions() {
+        return cache.evictions();
+    }
+
+    /**
+     * Size of all cached content in bytes.
+     *
+     * @return cache size
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Number of cached responses.
+     *
+     * @return number of entries
+     */
+    public long entries() {
+        return cache.entries();
+    }
+
+    private void populate(ServerRequest req,
+                          ServerResponse res,
+                          String base,
+                          String key,
+                          CompletableFuture<ResponseCache.Entry> flight) {
+        res.headers().beforeSend(headers -> {
+            if (maxAge(res.status(), headers) <= 0) {
+                // release the coalesced requests right away, the response may be a long stream
+                land(key, flight, null);
+            }
+        });
+        res.registerFilter(publisher -> new CapturingPublisher(publisher, maxEntrySize, content -> {
+            ResponseCache.Entry entry = null;
+            long maxAge = maxAge(res.status(), res.headers());
+            if (content != null && maxAge > 0) {
+                entry = entry(req, base, res.headers(), content, maxAge);
+                cache.put(entry);
+            }
+            land(key, flight, entry);
+        }));
+        // the content may never be written, e.g. the connection was closed
+        res.whenSent().whenComplete((response, throwable) -> land(key, flight, null));
+        req.next();
+    }
+
+    private void land(String key, CompletableFuture<ResponseCache.Entry> flight, ResponseCache.Entry entry) {
+        if (flights.remove(key, flight)) {
+            flight.complete(entry);
+        }
+    }
+
+    private static ResponseCache.Entry entry(ServerRequest req,
+                                             String base,
+                                             ResponseHeaders headers,
+                                             byte[] content,
+                                             long maxAge) {
+        Map<String, List<String>> replayed = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.toMap().forEach((name, values) -> {
+            if (!NOT_REPLAYED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                replayed.put(name, new ArrayList<>(values));
+            }
+        });
+        List<String> vary = new ArrayList<>();
+        for (String value : headers.all(Http.Header.VARY)) {
+            for (String name : value.split(",")) {
+                name = name.trim().toLowerCase(Locale.ROOT);
+                if (!name.isEmpty() && !vary.contains(name)) {
+                    vary.add(name);
+                }
+            }
+        }
+        Collections.sort(vary);
+        String etag = headers.first(Http.Header.ETAG)
+                .orElseGet(() -> '"' + StaticContentCache.digest(content) + '"');
+        return new ResponseCache.Entry(base,
+                                       replayed,
+                                       content,
+                                       etag,
+                                       vary,
+                                       varyValues(req, vary),
+                                       System.nanoTime(),
+                                       maxAge);
+    }
+
+    private void serve(ServerRequest req, ServerResponse res, ResponseCache.Entry entry) {
+        cache.hit();
+        ResponseHeaders headers = res.headers();
+        entry.headers().forEach(headers::put);
+        headers.put(Http.Header.ETAG, entry.etag());
+        headers.put(Http.Header.AGE, String.valueOf(entry.age(System.nanoTime())));
+
+        if (notModified(req, entry.etag())) {
+            res.status(Http.Status.NOT_MODIFIED_304);
+            res.send();
+            return;
+        }
+        ByteBuffer content = entry.content();
+        headers.contentLength(content.remaining());
+        if (req.method() == Http.Method.HEAD) {
+            res.send();
+            return;
+        }
+        res.send(Single.just(DataChunk.create(false, content, true)));
+    }
+
+    private static boolean notModified(ServerRequest req, String etag) {
+        String tag = StaticContentHandler.unquoteETag(etag);
+        for (String value : req.headers().all(Http.Header.IF_NONE_MATCH)) {
+            for (String candidate : value.split(",")) {
+                candidate = StaticContentHandler.unquoteETag(candidate.trim());
+                if ("*".equals(candidate) || tag.equals(candidate)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Freshness lifetime of a response for a shared cache.
+     *
+     * @param status  response status
+     * @param headers response headers
+     * @return maximal age in seconds, {@code 0} if the response must not be cached
+     */
+    private static long maxAge(Http.ResponseStatus status, ResponseHeaders headers) {
+        if (status.code() != Http.Status.OK_200.code()
+                || headers.first(Http.Header.SET_COOKIE).isPresent()
+                || headers.all(Http.Header.VARY).stream().anyMatch(value -> value.trim().equals("*"))) {
+            return 0;
+        }
+        List<String> directives = directives(headers.all(Http.Header.CACHE_CONTROL));
+        long maxAge = 0;
+        for (String directive : directives) {
+            if (directive.equals("no-store") || directive.equals("no-cache") || directive.equals("private")) {
+                return 0;
+            }
+            if (directive.startsWith("s-maxage=")) {
+                return seconds(directive.substring("s-maxage=".length()));
+            }
+            if (directive.startsWith("max-age=")) {
+                maxAge = seconds(directive.substring("max-age=".length()));
+            }
+        }
+        return maxAge;
+    }
+
+    private static long seconds(String value) {
+        try {
+            return Long.parseLong(value.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static List<String> directives(List<String> cacheControl) {
+        List<String> result = new ArrayList<>();
+        for (String value : cacheControl) {
+            for (String directive : value.split(",")) {
+                directive = directive.trim().toLowerCase(Locale.ROOT);
+                if (!directive.isEmpty()) {
+                    result.add(directive);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String base(ServerRequest req) {
+        StringBuilder base = new StringBuilder(req.uri().getRawPath());
+        char separator = '?';
+        for (Map.Entry<String, List<String>> param : new TreeMap<>(req.queryParams().toMap()).entrySet()) {
+            for (String value : param.getValue()) {
+                base.append(separator).append(param.getKey()).append('=').append(value);
+                separator = '&';
+            }
+        }
+        return base.toString();
+    }
+
+    private static String varyValues(ServerRequest req, List<String> vary) {
+        if (vary.isEmpty()) {
+            return "";
+        }
+        StringBuilder values = new StringBuilder();
+        for (String name : vary) {
+            values.append('\n').append(name).append(':').append(String.join(",", req.headers().all(name)));
+        }
+        return values.toString();
+    }
+
+    /**
+     * Passes the content through, keeping a copy of it while it fits into the maximal entry size.
+     */
+    private static final class CapturingPublisher implements Flow.Publisher<DataChunk> {
+        private final Flow.Publisher<DataChunk> originalPublisher;
+        private final long maxSize;
+        private final Consumer<byte[]> consumer;
+
+        private CapturingPublisher(Flow.Publisher<DataChunk> originalPublisher,
+                                   long maxSize,
+                                   Consumer<byte[]> consumer) {
+            this.originalPublisher = originalPublisher;
+            this.maxSize = maxSize;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super DataChunk> subscriber) {
+            originalPublisher.subscribe(new CapturingSubscriber(subscriber, maxSize, consumer));
+        }
+    }
+
+    private static final class CapturingSubscriber implements Flow.Subscriber<DataChunk> {
+        private final Flow.Subscriber<? super DataChunk> subscriber;
+        private final long maxSize;
+        private final Consumer<byte[]> consumer;
+        private ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+        private CapturingSubscriber(Flow.Subscriber<? super DataChunk> subscriber,
+                                    long maxSize,
+                                    Consumer<byte[]> consumer) {
+            this.subscriber = subscriber;
+            this.maxSize = maxSize;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscriber.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(DataChunk item) {
+            if (content != null) {
+                ByteBuffer data = item.data().asReadOnlyBuffer();
+                if (content.size() + data.remaining() > maxSize) {
+                    content = null;
+                } else {
+                    byte[] bytes = new byte[data.remaining()];
+                    data.get(bytes);
+                    content.write(bytes, 0, bytes.length);
+                }
+            }
+            subscriber.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            content = null;
+            consumer.accept(null);
+            subscriber.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            consumer.accept(content == null ? null : content.toByteArray());
+            subscriber.onComplete();
+        }
+    }
+
+    /**
+     * Builder for {@link ResponseCacheSupport}.
+     */
+    public static final class Builder implements io.helidon.common.Builder<ResponseCacheSupport> {
+
+        private long maxSize = DEFAULT_MAX_SIZE;
+        private long maxEntrySize = DEFAULT_MAX_ENTRY_SIZE;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximal size of all cached content.
+         *
+         * @param maxSize maximal size in bytes
+         * @return updated builder
+         */
+        public Builder maxSize(long maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximal size of the content of a cached response, a larger response is not cached.
+         *
+         * @param maxEntrySize maximal size in bytes
+         * @return updated builder
+         */
+        public Builder maxEntrySize(long maxEntrySize) {
+            this.maxEntrySize = maxEntrySize;
+            return this;
+        }
+
+        /**
+         * Updates the builder from a configuration node.
+         * <p>
+         * Configuration keys: {@code max-size} and {@code max-entry-size}.
+         *
+         * @param config configuration node
+         * @return updated builder
+         */
+        public Builder config(Config config) {
+            config.get("max-size").asLong().ifPresent(this::maxSize);
+            config.get("max-entry-size").asLong().ifPresent(this::maxEntrySize);
+            return this;
+        }
+
+        /**
+         * Builds the cache.
+         *
+         * @return a new instance
+         * @throws IllegalArgumentException if the sizes are not positive
+         */
+        @Override
+        public ResponseCacheSupport build() {
+            if (maxSize <= 0 || maxEntrySize <= 0) {
+                throw new IllegalArgumentException("Maximal sizes must be positive: " + maxSize + ", " + maxEntrySize);
+            }
+            return new ResponseCacheSupport(this);
+        }
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.FileRegion;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * Ordered queue of the responses of the pipelined HTTP/1.1 requests of a single connection.
+ * <p>
+ * Each request gets a {@link Slot} in the order the requests were received. Only the response at the head of the
+ * queue writes to the channel, the messages of the other responses are buffered and written once all the preceding
+ * responses are completely written. A response with buffered messages reports itself as not writable once the
+ * buffered bytes reach the high water mark of the channel, so its publisher is paused as on a channel which is
+ * not writable.
+ * <p>
+ * All the methods may be invoked by any thread.
+ */
+final class ResponseQueue {
+
+    private final ChannelHandlerContext ctx;
+    private final NettyServerStatistics statistics;
+    private final ArrayDeque<Slot> slots = new ArrayDeque<>();
+
+    private boolean closed;
+    // writes scheduled on the event loop and not executed yet
+    private int scheduledWrites;
+
+    /**
+     * Creates a new queue.
+     *
+     * @param ctx        the channel handler context to write the responses to
+     * @param statistics statistics to record the pipelining in
+     */
+    ResponseQueue(ChannelHandlerContext ctx, NettyServerStatistics statistics) {
+        this.ctx = ctx;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Adds a slot for the response of a new request. The slot is at the head of the queue if there are no
+     * responses not completely written.
+     *
+     * @return a new slot
+     */
+    synchronized Slot add() {
+        Slot slot = new Slot(slots.isEmpty() || closed);
+        if (!closed) {
+            slots.add(slot);
+            statistics.requestPipelined(slots.size());
+        }
+        return slot;
+    }
+
+    /**
+     * Lets the response at the head of the queue know the channel became writable again.
+     */
+    void channelWritable() {
+        Slot head;
+        synchronized (this) {
+            head = slots.peek();
+        }
+        if (head != null) {
+            head.writable();
+        }
+    }
+
+    /**
+     * Discards the buffered messages once the channel is closed, the responses are never going to be written.
+     */
+    void close() {
+        List<Slot> discarded;
+        synchronized (this) {
+            closed = true;
+            discarded = new ArrayList<>(slots);
+            slots.clear();
+        }
+        for (Slot slot : discarded) {
+            slot.discard();
+        }
+    }
+
+    /**
+     * Removes the completely written head and promotes the following slots. The messages of the completed head
+     * and of all the promoted slots are flushed at once. Must be invoked while holding the lock.
+     *
+     * @return slots promoted to the head
+     */
+    private List<Slot> headCompleted() {
+        slots.poll();
+        List<Slot> promoted = null;
+        Slot next;
+        while ((next = slots.peek()) != null) {
+            next.promote();
+            if (promoted == null) {
+                promoted = new ArrayList<>(1);
+            }
+            promoted.add(next);
+            if (!next.completed) {
+                break;
+            }
+            slots.poll();
+        }
+        channelWrite(null, null, true);
+        return promoted == null ? Collections.emptyList() : promoted;
+    }
+
+    /**
+     * Writes a message to the channel. Must be invoked while holding the lock.
+     * <p>
+     * Writes invoked outside of the event loop are executed as event loop tasks, while a write invoked by the event loop
+     * is executed immediately. A write of the event loop must not overtake writes of the previous responses which
+     * were scheduled by other threads, so it is scheduled as well while there are scheduled writes pending.
+     *
+     * @param msg     the message or {@code null} to just flush the channel
+     * @param promise promise of the write
+     * @param flush   whether to flush the channel once the message is written
+     * @return the promise
+     */
+    private ChannelFuture channelWrite(Object msg, ChannelPromise promise, boolean flush) {
+        if (ctx.executor().inEventLoop() && scheduledWrites == 0) {
+            if (msg != null) {
+                ctx.write(msg, promise);
+            }
+            if (flush) {
+                ctx.flush();
+            }
+        } else {
+            scheduledWrites++;
+            ctx.executor().execute(() -> {
+                synchronized (this) {
+                    scheduledWrites--;
+                }
+                if (msg != null) {
+                    ctx.write(msg, promise);
+                }
+                if (flush) {
+                    ctx.flush();
+                }
+            });
+        }
+        return promise;
+    }
+
+    private static long size(Object msg) {
+        if (msg instanceof ByteBufHolder) {
+            return ((ByteBufHolder) msg).content().readableBytes();
+        }
+        if (msg instanceof ByteBuf) {
+            return ((ByteBuf) msg).readableBytes();
+        }
+        if (msg instanceof FileRegion) {
+            return ((FileRegion) msg).count();
+        }
+        return 0;
+    }
+
+    /**
+     * A place of a single response in the queue.
+     */
+    final class Slot {
+        private final List<Object> messages = new ArrayList<>(4);
+        private final List<ChannelPromise> promises = new ArrayList<>(4);
+
+        private boolean head;
+        private boolean completed;
+        private long bufferedBytes;
+        private long waitStart;
+        private Runnable writableListener;
+
+        private Slot(boolean head) {
+            this.head = head;
+        }
+
+        /**
+         * Registers a listener invoked once the response may continue writing, either the channel became writable
+         * or the slot became the head of the queue.
+         *
+         * @param listener writability listener
+         */
+        void writableListener(Runnable listener) {
+            this.writableListener = listener;
+        }
+
+        /**
+         * Writes or buffers a message of the response.
+         *
+         * @param msg   the message
+         * @param flush whether to flush the channel once the message is written
+         * @return a future of the message write
+         */
+        ChannelFuture write(Object msg, boolean flush) {
+            synchronized (ResponseQueue.this) {
+                if (head || closed) {
+                    return channelWrite(msg, ctx.newPromise(), flush);
+                }
+                if (waitStart == 0) {
+                    waitStart = System.nanoTime();
+                    statistics.responseWaiting();
+                }
+                ChannelPromise promise = ctx.newPromise();
+                messages.add(msg);
+                promises.add(promise);
+                bufferedBytes += size(msg);
+                return promise;
+            }
+        }
+
+        /**
+         * Writes or buffers the last message of the response. Once written, the next response in the queue
+         * becomes the head.
+         *
+         * @param msg the last message
+         * @return a future of the message write
+         */
+        ChannelFuture writeLast(Object msg) {
+            ChannelFuture future;
+            List<Slot> promoted;
+            synchronized (ResponseQueue.this) {
+                boolean headCompleted = head && slots.peek() == this;
+                // the completed head is flushed together with the promoted responses
+                future = write(msg, !headCompleted);
+                completed = true;
+                promoted = headCompleted ? headCompleted() : Collections.emptyList();
+            }
+            for (Slot slot : promoted) {
+                slot.writable();
+            }
+            return future;
+        }
+
+        /**
+         * Flushes the channel. The buffered messages are flushed once written anyway.
+         */
+        void flush() {
+            synchronized (ResponseQueue.this) {
+                if (head || closed) {
+                    channelWrite(null, null, true);
+                }
+            }
+        }
+
+        /**
+         * Whether the response is the head of the queue, all the responses before it were written.
+         *
+         * @return whether the response is the head
+         */
+        boolean isHead() {
+            synchronized (ResponseQueue.this) {
+                return head;
+            }
+        }
+
+        /**
+         * Whether the response may write more data. A response which is not the head of the queue may buffer
+         * up to the high water mark of the channel.
+         *
+         * @return whether the response may write
+         */
+        boolean isWritable() {
+            synchronized (ResponseQueue.this) {
+                if (head || closed) {
+                    return ctx.channel().isWritable();
+                }
+                return bufferedBytes < ctx.channel().config().getWriteBufferHighWaterMark();
+            }
+        }
+
+        private void promote() {
+            head = true;
+            if (waitStart != 0) {
+                statistics.responseWaited(System.nanoTime() - waitStart);
+                waitStart = 0;
+            }
+            // flushed by the completed head once all the promoted slots are written
+            for (int i = 0; i < messages.size(); i++) {
+                channelWrite(messages.get(i), promises.get(i), false);
+            }
+            messages.clear();
+            promises.clear();
+            bufferedBytes = 0;
+        }
+
+        private void writable() {
+            Runnable listener = writableListener;
+            if (listener != null && !completed) {
+                listener.run();
+            }
+        }
+
+        private void discard() {
+            List<Object> discardedMessages;
+            List<ChannelPromise> discardedPromises;
+            synchronized (ResponseQueue.this) {
+                if (waitStart != 0) {
+                    statistics.responseWaited(System.nanoTime() - waitStart);
+                    waitStart = 0;
+                }
+                discardedMessages = new ArrayList<>(messages);
+                discardedPromises = new ArrayList<>(promises);
+                messages.clear();
+                promises.clear();
+                bufferedBytes = 0;
+            }
+            ClosedChannelException cause = new ClosedChannelException();
+            for (int i = 0; i < discardedMessages.size(); i++) {
+                ReferenceCountUtil.release(discardedMessages.get(i));
+                discardedPromises.get(i).tryFailure(cause);
+            }
+        }
+    }
+}
@@ -35,6 +35,7 @@ class RouteList extends ArrayList<Route> implements Route {
     // must declare transient, as ArrayList is Serializable (and we are not)
     private final transient PathMatcher pathContext;
     private final transient HttpMethodPredicate methodPredicate;
+    private final transient RouteTrie trie;
 
     /**
      * Creates new instance.
@@ -66,6 +67,7 @@ class RouteList extends ArrayList<Route> implements Route {
             this.methodPredicate = null;
         }
         this.pathContext = pathContext;
+        this.trie = RouteTrie.create(this);
     }
 
     /**
@@ -103,6 +105,17 @@ class RouteList extends ArrayList<Route> implements Route {
         return pathContext == null ? EMPTY_PATH_MATCHER.prefixMatch(path) : pathContext.prefixMatch(path);
     }
 
+    /**
+     * Returns indexes of the routes which may match a path, in the registration order.
+     * Routes with other indexes cannot match the path.
+     *
+     * @param path resolved and normalized URI path relative to the path context of this list
+     * @return sorted indexes of the candidate routes
+     */
+    int[] candidates(String path) {
+        return trie.candidates(path);
+    }
+
     // ***********************************
     // ***    Make a list immutable.   ***
     // ***********************************
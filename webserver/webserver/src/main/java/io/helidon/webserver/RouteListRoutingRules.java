@@ -123,6 +123,18 @@ class RouteListRoutingRules implements Routing.Rules {
         return this;
     }
 
+    @Override
+    public RouteListRoutingRules websocket(String pathPattern, WebSocketEndpoint endpoint) {
+        return websocket(pathPattern, WebSocketConfiguration.defaults(), endpoint);
+    }
+
+    @Override
+    public RouteListRoutingRules websocket(String pathPattern,
+                                           WebSocketConfiguration configuration,
+                                           WebSocketEndpoint endpoint) {
+        return get(pathPattern, new WebSocketRouteHandler(configuration, endpoint));
+    }
+
     @Override
     public RouteListRoutingRules onNewWebServer(Consumer<WebServer> webServerConsumer) {
         if (webServerConsumer != null) {
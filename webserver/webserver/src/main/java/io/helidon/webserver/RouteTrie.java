@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A segment trie of the {@link Route routes} of a single {@link RouteList}, compiled when the routing is built.
+ * <p>
+ * Routes with a literal or a simple parameter path pattern (see {@link PathPattern#segments(PathMatcher)}) are
+ * indexed by their path segments, other routes (regular expressions, custom matchers, no path) are candidates
+ * for every path. The trie only selects candidates and keeps them in the registration order; the path matcher
+ * of a route remains the source of truth, so the {@code next()} semantics of the routing are not changed.
+ */
+final class RouteTrie {
+
+    private static final int[] NO_ROUTES = new int[0];
+
+    private final Node root = new Node();
+    private final int[] always;
+
+    private RouteTrie(List<Route> routes) {
+        int[] always = new int[routes.size()];
+        int alwaysCount = 0;
+        for (int i = 0; i < routes.size(); i++) {
+            Route route = routes.get(i);
+            if (route instanceof HandlerRoute) {
+                String[] segments = PathPattern.segments(((HandlerRoute) route).pathMatcher());
+                if (segments != null) {
+                    Node node = root.node(segments);
+                    node.exact = add(node.exact, i);
+                    continue;
+                }
+            } else if (route instanceof RouteList) {
+                PathMatcher pathContext = ((RouteList) route).pathContext();
+                String[] segments = pathContext == null ? null : PathPattern.segments(pathContext);
+                if (segments != null) {
+                    Node node = root.node(segments);
+                    node.prefix = add(node.prefix, i);
+                    continue;
+                }
+            }
+            always[alwaysCount++] = i;
+        }
+        this.always = Arrays.copyOf(always, alwaysCount);
+    }
+
+    /**
+     * Compiles a trie of the routes.
+     *
+     * @param routes routes in the registration order
+     * @return a new trie
+     */
+    static RouteTrie create(List<Route> routes) {
+        return new RouteTrie(routes);
+    }
+
+    /**
+     * Returns indexes of the routes which may match the path, in the registration order.
+     *
+     * @param path a canonical absolute path
+     * @return sorted indexes of the candidate routes
+     */
+    int[] candidates(String path) {
+        String[] segments = PathPattern.split(path);
+        Collector collector = new Collector(always);
+        root.collect(segments, 0, collector);
+        return collector.result();
+    }
+
+    private static int[] add(int[] indexes, int index) {
+        int[] result = Arrays.copyOf(indexes, indexes.length + 1);
+        result[indexes.length] = index;
+        return result;
+    }
+
+    /**
+     * A node of the trie, a single path segment.
+     */
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private Node param;
+        private int[] exact = NO_ROUTES;
+        private int[] prefix = NO_ROUTES;
+
+        private Node node(String[] segments) {
+            Node node = this;
+            for (String segment : segments) {
+                if (segment == null) {
+                    if (node.param == null) {
+                        node.param = new Node();
+                    }
+                    node = node.param;
+                } else {
+                    node = node.literals.computeIfAbsent(segment, s -> new Node());
+                }
+            }
+            return node;
+        }
+
+        private void collect(String[] segments, int depth, Collector collector) {
+            collector.add(prefix);
+            if (depth == segments.length) {
+                collector.add(exact);
+                return;
+            }
+            String segment = segments[depth];
+            Node literal = literals.get(segment);
+            if (literal != null) {
+                literal.collect(segments, depth + 1, collector);
+            }
+            // parameters never match an empty segment
+            if (param != null && !segment.isEmpty()) {
+                param.collect(segments, depth + 1, collector);
+            }
+        }
+    }
+
+    /**
+     * Collects route indexes found in the trie.
+     */
+    private static final class Collector {
+        private int[] indexes;
+        private int size;
+
+        private Collector(int[] always) {
+            this.indexes = Arrays.copyOf(always, always.length + 4);
+            this.size = always.length;
+        }
+
+        private void add(int[] found) {
+            if (found.length == 0) {
+                return;
+            }
+            if (size + found.length > indexes.length) {
+                indexes = Arrays.copyOf(indexes, Math.max(indexes.length * 2, size + found.length));
+            }
+            System.arraycopy(found, 0, indexes, size, found.length);
+            size += found.length;
+        }
+
+        private int[] result() {
+            int[] result = Arrays.copyOf(indexes, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+}
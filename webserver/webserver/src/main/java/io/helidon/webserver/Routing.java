@@ -385,6 +385,27 @@ public interface Routing {
          */
         Rules anyOf(Iterable<Http.RequestMethod> methods, PathMatcher pathMatcher, Handler... requestHandlers);
 
+        /**
+         * Routes WebSocket upgrade requests with corresponding path to provided endpoint, with the default
+         * {@link WebSocketConfiguration}. Other GET requests of the path continue to the next registered handler.
+         *
+         * @param pathPattern a URI path pattern. See {@link PathMatcher} for pattern syntax reference.
+         * @param endpoint    the WebSocket endpoint
+         * @return an updated routing configuration
+         */
+        Rules websocket(String pathPattern, WebSocketEndpoint endpoint);
+
+        /**
+         * Routes WebSocket upgrade requests with corresponding path to provided endpoint. Other GET requests
+         * of the path continue to the next registered handler.
+         *
+         * @param pathPattern   a URI path pattern. See {@link PathMatcher} for pattern syntax reference.
+         * @param configuration configuration of the endpoint
+         * @param endpoint      the WebSocket endpoint
+         * @return an updated routing configuration
+         */
+        Rules websocket(String pathPattern, WebSocketConfiguration configuration, WebSocketEndpoint endpoint);
+
         /**
          * Registers callback on created new {@link WebServer} instance with this routing.
          *
@@ -608,6 +629,18 @@ public interface Routing {
             return this;
         }
 
+        @Override
+        public Builder websocket(String pathPattern, WebSocketEndpoint endpoint) {
+            delegate.websocket(pathPattern, endpoint);
+            return this;
+        }
+
+        @Override
+        public Builder websocket(String pathPattern, WebSocketConfiguration configuration, WebSocketEndpoint endpoint) {
+            delegate.websocket(pathPattern, configuration, endpoint);
+            return this;
+        }
+
         @Override
         public Builder onNewWebServer(Consumer<WebServer> webServerConsumer) {
             delegate.onNewWebServer(webServerConsumer);
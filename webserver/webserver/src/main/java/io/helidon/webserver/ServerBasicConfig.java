@@ -21,6 +21,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 
 import javax.net.ssl.SSLContext;
 
@@ -39,6 +41,11 @@ class ServerBasicConfig implements ServerConfiguration {
     private final Map<String, SocketConfiguration> socketConfigs;
     private final ExperimentalConfiguration experimental;
     private final ContextualRegistry context;
+    private final boolean nativeTransport;
+    private final LeakDetection leakDetection;
+    private final long drainTimeoutMillis;
+    private final long eventLoopStallThresholdMillis;
+    private final Supplier<? extends ExecutorService> offloadExecutorService;
 
     /**
      * Creates new instance.
@@ -51,6 +58,11 @@ class ServerBasicConfig implements ServerConfiguration {
         this.tracer = builder.tracer();
         this.experimental = builder.experimental();
         this.context = builder.context();
+        this.nativeTransport = builder.nativeTransport();
+        this.leakDetection = builder.leakDetection();
+        this.drainTimeoutMillis = builder.drainTimeoutMillis();
+        this.eventLoopStallThresholdMillis = Math.max(0, builder.eventLoopStallThresholdMillis());
+        this.offloadExecutorService = builder.offloadExecutorService();
 
         HashMap<String, SocketConfiguration> map = new HashMap<>(builder.sockets());
         map.put(ServerConfiguration.DEFAULT_SOCKET_NAME, this.socketConfig);
@@ -97,6 +109,121 @@ class ServerBasicConfig implements ServerConfiguration {
         return socketConfig.receiveBufferSize();
     }
 
+    @Override
+    public int acceptors() {
+        return socketConfig.acceptors();
+    }
+
+    @Override
+    public boolean tcpNoDelay() {
+        return socketConfig.tcpNoDelay();
+    }
+
+    @Override
+    public int tcpFastOpen() {
+        return socketConfig.tcpFastOpen();
+    }
+
+    @Override
+    public int sendBufferSize() {
+        return socketConfig.sendBufferSize();
+    }
+
+    @Override
+    public int writeBufferLowWaterMark() {
+        return socketConfig.writeBufferLowWaterMark();
+    }
+
+    @Override
+    public int writeBufferHighWaterMark() {
+        return socketConfig.writeBufferHighWaterMark();
+    }
+
+    @Override
+    public CompressionConfiguration compression() {
+        return socketConfig.compression();
+    }
+
+    @Override
+    public TlsConfiguration tls() {
+        return socketConfig.tls();
+    }
+
+    @Override
+    public int maxPipelinedRequests() {
+        return socketConfig.maxPipelinedRequests();
+    }
+
+    @Override
+    public int maxConnections() {
+        return socketConfig.maxConnections();
+    }
+
+    @Override
+    public boolean queueConnections() {
+        return socketConfig.queueConnections();
+    }
+
+    @Override
+    public long idleTimeoutMillis() {
+        return socketConfig.idleTimeoutMillis();
+    }
+
+    @Override
+    public long readTimeoutMillis() {
+        return socketConfig.readTimeoutMillis();
+    }
+
+    @Override
+    public int maxInitialLineLength() {
+        return socketConfig.maxInitialLineLength();
+    }
+
+    @Override
+    public int maxHeaderSize() {
+        return socketConfig.maxHeaderSize();
+    }
+
+    @Override
+    public int dedicatedWorkers() {
+        return socketConfig.dedicatedWorkers();
+    }
+
+    @Override
+    public boolean dedicatedAcceptor() {
+        return socketConfig.dedicatedAcceptor();
+    }
+
+    @Override
+    public int aggregationBufferSize() {
+        return socketConfig.aggregationBufferSize();
+    }
+
+    @Override
+    public boolean nativeTransport() {
+        return nativeTransport;
+    }
+
+    @Override
+    public LeakDetection leakDetection() {
+        return leakDetection;
+    }
+
+    @Override
+    public long drainTimeoutMillis() {
+        return drainTimeoutMillis;
+    }
+
+    @Override
+    public long eventLoopStallThresholdMillis() {
+        return eventLoopStallThresholdMillis;
+    }
+
+    @Override
+    public Supplier<? extends ExecutorService> offloadExecutorService() {
+        return offloadExecutorService;
+    }
+
     @Override
     public Tracer tracer() {
         return tracer;
@@ -126,38 +253,64 @@ class ServerBasicConfig implements ServerConfiguration {
         private final int receiveBufferSize;
         private final SSLContext sslContext;
         private final Set<String> enabledSslProtocols;
+        private final int acceptors;
+        private final boolean tcpNoDelay;
+        private final int tcpFastOpen;
+        private final int sendBufferSize;
+        private final int writeBufferLowWaterMark;
+        private final int writeBufferHighWaterMark;
+        private final CompressionConfiguration compression;
+        private final TlsConfiguration tls;
+        private final int maxPipelinedRequests;
+        private final int maxConnections;
+        private final boolean queueConnections;
+        private final long idleTimeoutMillis;
+        private final long readTimeoutMillis;
+        private final int maxInitialLineLength;
+        private final int maxHeaderSize;
+        private final int dedicatedWorkers;
+        private final boolean dedicatedAcceptor;
+        private final int aggregationBufferSize;
 
         /**
          * Creates new instance.
          *
-         * @param port              a server port - ff port is {@code 0} or less then any available ephemeral port will be used
-         * @param bindAddress       an address to bind the server or {@code null} for all local addresses
-         * @param sslContext        the ssl context to associate with this socket configuration
-         * @param backlog           a maximum length of the queue of incoming connections
-         * @param timeoutMillis     a socket timeout in milliseconds or {@code 0} for infinite
-         * @param receiveBufferSize proposed TCP receive window size in bytes
-         */
-        SocketConfig(int port,
-                     InetAddress bindAddress,
-                     SSLContext sslContext,
-                     Set<String> sslProtocols,
-                     int backlog,
-                     int timeoutMillis,
-                     int receiveBufferSize) {
-            this.port = port <= 0 ? 0 : port;
-            this.bindAddress = bindAddress;
-            this.backlog = backlog <= 0 ? DEFAULT_BACKLOG_SIZE : backlog;
-            this.timeoutMillis = timeoutMillis <= 0 ? 0 : timeoutMillis;
-            this.receiveBufferSize = receiveBufferSize <= 0 ? 0 : receiveBufferSize;
-            this.sslContext = sslContext;
-            this.enabledSslProtocols = sslProtocols;
-        }
-
-        /**
-         * Creates default values instance.
+         * @param builder socket configuration builder
          */
-        SocketConfig() {
-            this(0, null, null, null, 0, 0, 0);
+        SocketConfig(SocketConfiguration.Builder builder) {
+            this.port = builder.port() <= 0 ? 0 : builder.port();
+            this.bindAddress = builder.bindAddress();
+            this.backlog = builder.backlog() <= 0 ? DEFAULT_BACKLOG_SIZE : builder.backlog();
+            this.timeoutMillis = builder.timeoutMillis() <= 0 ? 0 : builder.timeoutMillis();
+            this.receiveBufferSize = builder.receiveBufferSize() <= 0 ? 0 : builder.receiveBufferSize();
+            this.sslContext = builder.ssl();
+            this.enabledSslProtocols = builder.enabledSslProtocols();
+            this.acceptors = builder.acceptors() <= 0 ? 1 : builder.acceptors();
+            this.tcpNoDelay = builder.tcpNoDelay();
+            this.tcpFastOpen = builder.tcpFastOpen() <= 0 ? 0 : builder.tcpFastOpen();
+            this.sendBufferSize = builder.sendBufferSize() <= 0 ? 0 : builder.sendBufferSize();
+            this.writeBufferLowWaterMark = builder.writeBufferLowWaterMark() <= 0 ? 0 : builder.writeBufferLowWaterMark();
+            this.writeBufferHighWaterMark = builder.writeBufferHighWaterMark() <= 0 ? 0 : builder.writeBufferHighWaterMark();
+            this.compression = builder.compression();
+            this.tls = builder.tls();
+            this.maxPipelinedRequests = builder.maxPipelinedRequests() <= 0 ? 1 : builder.maxPipelinedRequests();
+            this.maxConnections = builder.maxConnections() <= 0 ? 0 : builder.maxConnections();
+            this.queueConnections = builder.queueConnections();
+            this.idleTimeoutMillis = builder.idleTimeoutMillis() <= 0 ? 0 : builder.idleTimeoutMillis();
+            this.readTimeoutMillis = builder.readTimeoutMillis() <= 0 ? 0 : builder.readTimeoutMillis();
+            this.maxInitialLineLength = builder.maxInitialLineLength() <= 0
+                    ? DEFAULT_MAX_INITIAL_LINE_LENGTH
+                    : builder.maxInitialLineLength();
+            this.maxHeaderSize = builder.maxHeaderSize() <= 0 ? DEFAULT_MAX_HEADER_SIZE : builder.maxHeaderSize();
+            this.dedicatedWorkers = builder.dedicatedWorkers() <= 0 ? 0 : builder.dedicatedWorkers();
+            this.dedicatedAcceptor = builder.dedicatedAcceptor();
+            this.aggregationBufferSize = builder.aggregationBufferSize() <= 0 ? 0 : builder.aggregationBufferSize();
+            if (writeBufferLowWaterMark > 0 && writeBufferHighWaterMark > 0
+                    && writeBufferLowWaterMark > writeBufferHighWaterMark) {
+                throw new IllegalArgumentException("Write buffer low water mark (" + writeBufferLowWaterMark
+                                                           + ") must not be greater than high water mark ("
+                                                           + writeBufferHighWaterMark + ")");
+            }
         }
 
         @Override
@@ -194,5 +347,95 @@ class ServerBasicConfig implements ServerConfiguration {
         public Set<String> enabledSslProtocols() {
             return enabledSslProtocols;
         }
+
+        @Override
+        public int acceptors() {
+            return acceptors;
+        }
+
+        @Override
+        public boolean tcpNoDelay() {
+            return tcpNoDelay;
+        }
+
+        @Override
+        public int tcpFastOpen() {
+            return tcpFastOpen;
+        }
+
+        @Override
+        public int sendBufferSize() {
+            return sendBufferSize;
+        }
+
+        @Override
+        public int writeBufferLowWaterMark() {
+            return writeBufferLowWaterMark;
+        }
+
+        @Override
+        public int writeBufferHighWaterMark() {
+            return writeBufferHighWaterMark;
+        }
+
+        @Override
+        public CompressionConfiguration compression() {
+            return compression;
+        }
+
+        @Override
+        public TlsConfiguration tls() {
+            return tls;
+        }
+
+        @Override
+        public int maxPipelinedRequests() {
+            return maxPipelinedRequests;
+        }
+
+        @Override
+        public int maxConnections() {
+            return maxConnections;
+        }
+
+        @Override
+        public boolean queueConnections() {
+            return queueConnections;
+        }
+
+        @Override
+        public long idleTimeoutMillis() {
+            return idleTimeoutMillis;
+        }
+
+        @Override
+        public long readTimeoutMillis() {
+            return readTimeoutMillis;
+        }
+
+        @Override
+        public int maxInitialLineLength() {
+            return maxInitialLineLength;
+        }
+
+        @Override
+        public int maxHeaderSize() {
+            return maxHeaderSize;
+        }
+
+        @Override
+        public int dedicatedWorkers() {
+            return dedicatedWorkers;
+        }
+
+        @Override
+        public boolean dedicatedAcceptor() {
+            return dedicatedAcceptor;
+        }
+
+        @Override
+        public int aggregationBufferSize() {
+            return aggregationBufferSize;
+        }
     }
 }
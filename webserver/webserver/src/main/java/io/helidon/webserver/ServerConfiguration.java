@@ -20,15 +20,18 @@ import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import javax.net.ssl.SSLContext;
 
 import io.helidon.common.CollectionsHelper;
+import io.helidon.common.configurable.ServerThreadPoolSupplier;
 import io.helidon.common.context.Context;
 import io.helidon.common.http.ContextualRegistry;
 import io.helidon.config.Config;
@@ -52,6 +55,11 @@ public interface ServerConfiguration extends SocketConfiguration {
      */
     String DEFAULT_SOCKET_NAME = "@default";
 
+    /**
+     * Default maximal time in milliseconds the shutdown waits for the requests in flight.
+     */
+    long DEFAULT_DRAIN_TIMEOUT_MILLIS = 10_000;
+
     /**
      * Returns the count of threads in the pool used to process HTTP requests.
      * <p>
@@ -61,6 +69,72 @@ public interface ServerConfiguration extends SocketConfiguration {
      */
     int workersCount();
 
+    /**
+     * Returns whether the native (Linux epoll) transport should be used for the server sockets.
+     * If the native transport is not available on the current platform, the server silently
+     * falls back to the NIO transport.
+     * <p>
+     * Default value is {@code false}.
+     *
+     * @return whether to use the native transport when available
+     */
+    default boolean nativeTransport() {
+        return false;
+    }
+
+    /**
+     * Returns the level of leak detection of the request content chunks. Chunks are released deterministically,
+     * when consumed by the application, the chunks never delivered to the application when the request completes;
+     * the leak detection reports and releases chunks that were garbage collected without being released.
+     * <p>
+     * Default value is {@link LeakDetection#DISABLED}.
+     *
+     * @return the leak detection level
+     */
+    default LeakDetection leakDetection() {
+        return LeakDetection.DISABLED;
+    }
+
+    /**
+     * Returns the maximal time in milliseconds the shutdown waits for the requests in flight. Once the server sockets
+     * stop accepting, idle connections are closed, the next response of each keep-alive connection is sent with
+     * {@code Connection: close} and HTTP/2 connections are sent {@code GOAWAY}. The connections still open when the
+     * timeout elapses are closed.
+     * <p>
+     * Default value is {@value #DEFAULT_DRAIN_TIMEOUT_MILLIS}, {@code 0} closes the connections immediately.
+     *
+     * @return drain timeout in milliseconds
+     */
+    default long drainTimeoutMillis() {
+        return DEFAULT_DRAIN_TIMEOUT_MILLIS;
+    }
+
+    /**
+     * Returns the time after which a worker event loop which did not run a probe task is reported as stalled.
+     * The event loops are probed by a watchdog thread; the lag of each probe is recorded
+     * (see {@link ServerStatistics#eventLoopLagListener(java.util.function.LongConsumer)}) and a stalled event loop
+     * is logged with the stack of its thread and the route handled by it.
+     * <p>
+     * Default value is {@code 0}, the watchdog is disabled.
+     *
+     * @return stall threshold in milliseconds or {@code 0}
+     */
+    default long eventLoopStallThresholdMillis() {
+        return 0;
+    }
+
+    /**
+     * Returns the supplier of the thread pool the {@link Handler#offload(Handler) offloaded handlers} run on.
+     * The thread pool is obtained when the server starts and shut down together with the server.
+     * <p>
+     * Default value is a {@link ServerThreadPoolSupplier} named {@code offload} which does not prestart its threads.
+     *
+     * @return supplier of the offload thread pool
+     */
+    default Supplier<? extends ExecutorService> offloadExecutorService() {
+        return OffloadHandler.executorServiceBuilder().build();
+    }
+
     /**
      * Returns a server port to listen on with the default server socket. If port is
      * {@code 0} then any available ephemeral port will be used.
@@ -221,6 +295,25 @@ public interface ServerConfiguration extends SocketConfiguration {
         return new Builder().config(config);
     }
 
+    /**
+     * Level of the leak detection of request content chunks, see {@link #leakDetection()}.
+     */
+    enum LeakDetection {
+        /**
+         * Chunks are not tracked.
+         */
+        DISABLED,
+        /**
+         * A sample of the chunks (one in 128 on average) is tracked with a phantom reference. Suitable
+         * for production.
+         */
+        SAMPLED,
+        /**
+         * Every chunk is tracked with a phantom reference. Puts a load on the garbage collector, meant for tests.
+         */
+        PARANOID
+    }
+
     /**
      * A {@link ServerConfiguration} builder.
      */
@@ -229,6 +322,11 @@ public interface ServerConfiguration extends SocketConfiguration {
         private final SocketConfiguration.Builder defaultSocketBuilder = SocketConfiguration.builder();
         private final Map<String, SocketConfiguration> sockets = new HashMap<>();
         private int workers;
+        private boolean nativeTransport;
+        private LeakDetection leakDetection = LeakDetection.DISABLED;
+        private long drainTimeoutMillis = DEFAULT_DRAIN_TIMEOUT_MILLIS;
+        private long eventLoopStallThresholdMillis = 0;
+        private Supplier<? extends ExecutorService> offloadExecutorService;
         private Tracer tracer;
         private ExperimentalConfiguration experimental;
         private ContextualRegistry context;
@@ -324,6 +422,241 @@ public interface ServerConfiguration extends SocketConfiguration {
             return this;
         }
 
+        /**
+         * Sets a number of accept loops bound to the port of the default server socket using {@code SO_REUSEPORT}.
+         * Honored only with the native transport.
+         * <p>
+         * Configuration key: {@code acceptors}
+         *
+         * @param acceptors a number of accept loops
+         * @return an updated builder
+         */
+        public Builder acceptors(int acceptors) {
+            this.defaultSocketBuilder.acceptors(acceptors);
+            return this;
+        }
+
+        /**
+         * Sets whether {@code TCP_NODELAY} is set on connections accepted by the default server socket.
+         * Default value is {@code true}.
+         * <p>
+         * Configuration key: {@code tcp-no-delay}
+         *
+         * @param tcpNoDelay whether to disable Nagle's algorithm
+         * @return an updated builder
+         */
+        public Builder tcpNoDelay(boolean tcpNoDelay) {
+            this.defaultSocketBuilder.tcpNoDelay(tcpNoDelay);
+            return this;
+        }
+
+        /**
+         * Sets a length of the {@code TCP_FASTOPEN} queue of the default server socket or {@code 0} to disable it.
+         * Honored only with the native transport.
+         * <p>
+         * Configuration key: {@code tcp-fast-open}
+         *
+         * @param queueLength a {@code TCP_FASTOPEN} queue length or {@code 0}
+         * @return an updated builder
+         */
+        public Builder tcpFastOpen(int queueLength) {
+            this.defaultSocketBuilder.tcpFastOpen(queueLength);
+            return this;
+        }
+
+        /**
+         * Propose size of the TCP send buffer of accepted connections.
+         * If {@code 0} then implementation default is used.
+         * <p>
+         * Configuration key: {@code send-buffer}
+         *
+         * @param bytes a buffer size in bytes or {@code 0}
+         * @return an updated builder
+         */
+        public Builder sendBufferSize(int bytes) {
+            this.defaultSocketBuilder.sendBufferSize(bytes);
+            return this;
+        }
+
+        /**
+         * Sets the write buffer water marks of connections accepted by the default server socket.
+         * If {@code 0} then implementation default is used.
+         * <p>
+         * Configuration keys: {@code write-buffer-low-water-mark}, {@code write-buffer-high-water-mark}
+         *
+         * @param lowWaterMark  a low water mark in bytes or {@code 0}
+         * @param highWaterMark a high water mark in bytes or {@code 0}
+         * @return an updated builder
+         */
+        public Builder writeBufferWaterMark(int lowWaterMark, int highWaterMark) {
+            this.defaultSocketBuilder.writeBufferLowWaterMark(lowWaterMark)
+                    .writeBufferHighWaterMark(highWaterMark);
+            return this;
+        }
+
+        /**
+         * Configures compression of responses sent by the default server socket.
+         * <p>
+         * Configuration key: {@code compression}
+         *
+         * @param compression compression configuration
+         * @return an updated builder
+         */
+        public Builder compression(CompressionConfiguration compression) {
+            this.defaultSocketBuilder.compression(compression);
+            return this;
+        }
+
+        /**
+         * Configures the TLS settings of the default server socket used if the SSL context is configured.
+         * <p>
+         * Configuration key: {@code ssl}, see {@link TlsConfiguration#create(Config)}
+         *
+         * @param tls TLS settings
+         * @return an updated builder
+         */
+        public Builder tls(TlsConfiguration tls) {
+            this.defaultSocketBuilder.tls(tls);
+            return this;
+        }
+
+        /**
+         * Sets the maximal number of HTTP/1.1 requests of a connection accepted by the default server socket
+         * which are processed concurrently (pipelining). Responses are sent in the order of the requests.
+         * <p>
+         * Configuration key: {@code max-pipelined-requests}
+         *
+         * @param maxPipelinedRequests maximal number of requests processed concurrently on a connection
+         * @return an updated builder
+         */
+        public Builder maxPipelinedRequests(int maxPipelinedRequests) {
+            this.defaultSocketBuilder.maxPipelinedRequests(maxPipelinedRequests);
+            return this;
+        }
+
+        /**
+         * Sets the maximal number of connections open on the default server socket at the same time.
+         * If {@code 0}, the number of connections is not limited.
+         * <p>
+         * Configuration key: {@code max-connections}
+         *
+         * @param maxConnections maximal number of open connections or {@code 0}
+         * @return an updated builder
+         */
+        public Builder maxConnections(int maxConnections) {
+            this.defaultSocketBuilder.maxConnections(maxConnections);
+            return this;
+        }
+
+        /**
+         * Sets whether the default server socket stops accepting connections once the maximal number of connections
+         * is reached, instead of closing the connections over the limit.
+         * <p>
+         * Configuration key: {@code queue-connections}
+         *
+         * @param queueConnections whether to queue the connections over the limit
+         * @return an updated builder
+         */
+        public Builder queueConnections(boolean queueConnections) {
+            this.defaultSocketBuilder.queueConnections(queueConnections);
+            return this;
+        }
+
+        /**
+         * Sets the time after which a connection of the default server socket with no request in flight is closed
+         * if nothing is read from or written to it. If {@code 0}, idle connections are not closed.
+         * <p>
+         * Configuration key: {@code idle-timeout-millis}
+         *
+         * @param idleTimeoutMillis idle timeout in milliseconds or {@code 0}
+         * @return an updated builder
+         */
+        public Builder idleTimeoutMillis(long idleTimeoutMillis) {
+            this.defaultSocketBuilder.idleTimeoutMillis(idleTimeoutMillis);
+            return this;
+        }
+
+        /**
+         * Sets the time after which a connection of the default server socket is closed if nothing is read from it
+         * while a request is expected. If {@code 0}, there is no read timeout.
+         * <p>
+         * Configuration key: {@code read-timeout-millis}
+         *
+         * @param readTimeoutMillis read timeout in milliseconds or {@code 0}
+         * @return an updated builder
+         */
+        public Builder readTimeoutMillis(long readTimeoutMillis) {
+            this.defaultSocketBuilder.readTimeoutMillis(readTimeoutMillis);
+            return this;
+        }
+
+        /**
+         * Sets the maximal length of the initial line of a HTTP request received by the default server socket.
+         * <p>
+         * Configuration key: {@code max-initial-line-length}
+         *
+         * @param maxInitialLineLength maximal initial line length in bytes
+         * @return an updated builder
+         */
+        public Builder maxInitialLineLength(int maxInitialLineLength) {
+            this.defaultSocketBuilder.maxInitialLineLength(maxInitialLineLength);
+            return this;
+        }
+
+        /**
+         * Sets the maximal size of the headers of a HTTP request received by the default server socket.
+         * <p>
+         * Configuration key: {@code max-header-size}
+         *
+         * @param maxHeaderSize maximal header size in bytes
+         * @return an updated builder
+         */
+        public Builder maxHeaderSize(int maxHeaderSize) {
+            this.defaultSocketBuilder.maxHeaderSize(maxHeaderSize);
+            return this;
+        }
+
+        /**
+         * Sets a number of worker threads of an event loop group dedicated to the default server socket.
+         * If set to {@code 0} or less, the default socket uses the workers shared by all the sockets.
+         * <p>
+         * Configuration key: {@code dedicated-workers}
+         *
+         * @param dedicatedWorkers number of dedicated worker threads or {@code 0}
+         * @return an updated builder
+         */
+        public Builder dedicatedWorkers(int dedicatedWorkers) {
+            this.defaultSocketBuilder.dedicatedWorkers(dedicatedWorkers);
+            return this;
+        }
+
+        /**
+         * Sets whether the connections of the default server socket are accepted by a dedicated event loop group.
+         * <p>
+         * Configuration key: {@code dedicated-acceptor}
+         *
+         * @param dedicatedAcceptor whether to use a dedicated acceptor group
+         * @return an updated builder
+         */
+        public Builder dedicatedAcceptor(boolean dedicatedAcceptor) {
+            this.defaultSocketBuilder.dedicatedAcceptor(dedicatedAcceptor);
+            return this;
+        }
+
+        /**
+         * Sets the maximal size of the response content aggregated by the default server socket to be sent with
+         * a known length.
+         * <p>
+         * Configuration key: {@code aggregation-buffer-size}
+         *
+         * @param aggregationBufferSize maximal aggregated content size in bytes, {@code 0} to disable aggregation
+         * @return an updated builder
+         */
+        public Builder aggregationBufferSize(int aggregationBufferSize) {
+            this.defaultSocketBuilder.aggregationBufferSize(aggregationBufferSize);
+            return this;
+        }
+
         /**
          * Adds an additional named server socket configuration. As a result, the server will listen
          * on multiple ports.
@@ -392,6 +725,79 @@ public interface ServerConfiguration extends SocketConfiguration {
             return this;
         }
 
+        /**
+         * Sets whether the native (Linux epoll) transport should be used when available.
+         * The server falls back to the NIO transport if the native transport cannot be loaded.
+         * <p>
+         * Configuration key: {@code native-transport}
+         *
+         * @param nativeTransport whether to use the native transport
+         * @return an updated builder
+         */
+        public Builder nativeTransport(boolean nativeTransport) {
+            this.nativeTransport = nativeTransport;
+            return this;
+        }
+
+        /**
+         * Sets the level of leak detection of the request content chunks. (Default is {@link LeakDetection#DISABLED}.)
+         * <p>
+         * Configuration key: {@code leak-detection}
+         *
+         * @param leakDetection the leak detection level
+         * @return an updated builder
+         */
+        public Builder leakDetection(LeakDetection leakDetection) {
+            this.leakDetection = Objects.requireNonNull(leakDetection, "Parameter 'leakDetection' must not be null!");
+            return this;
+        }
+
+        /**
+         * Sets the maximal time the shutdown waits for the requests in flight.
+         * (Default is {@value ServerConfiguration#DEFAULT_DRAIN_TIMEOUT_MILLIS}.)
+         * <p>
+         * Configuration key: {@code drain-timeout-millis}
+         *
+         * @param drainTimeoutMillis drain timeout in milliseconds, {@code 0} to close the connections immediately
+         * @return an updated builder
+         * @see ServerConfiguration#drainTimeoutMillis()
+         */
+        public Builder drainTimeoutMillis(long drainTimeoutMillis) {
+            this.drainTimeoutMillis = drainTimeoutMillis;
+            return this;
+        }
+
+        /**
+         * Sets the time after which a worker event loop is reported as stalled, enables the event loop watchdog.
+         * (Default is {@code 0}, the watchdog is disabled.)
+         * <p>
+         * Configuration key: {@code event-loop-stall-threshold-millis}
+         *
+         * @param eventLoopStallThresholdMillis stall threshold in milliseconds, {@code 0} to disable the watchdog
+         * @return an updated builder
+         * @see ServerConfiguration#eventLoopStallThresholdMillis()
+         */
+        public Builder eventLoopStallThresholdMillis(long eventLoopStallThresholdMillis) {
+            this.eventLoopStallThresholdMillis = eventLoopStallThresholdMillis;
+            return this;
+        }
+
+        /**
+         * Sets the supplier of the thread pool the {@link Handler#offload(Handler) offloaded handlers} run on.
+         * The thread pool is obtained when the server starts and shut down together with the server.
+         * <p>
+         * Configuration key: {@code offload-executor-service}, see {@link ServerThreadPoolSupplier}
+         *
+         * @param offloadExecutorService supplier of the offload thread pool
+         * @return an updated builder
+         * @see ServerConfiguration#offloadExecutorService()
+         */
+        public Builder offloadExecutorService(Supplier<? extends ExecutorService> offloadExecutorService) {
+            this.offloadExecutorService = Objects.requireNonNull(offloadExecutorService,
+                                                                 "Parameter 'offloadExecutorService' must not be null!");
+            return this;
+        }
+
         /**
          * Sets an <a href="http://opentracing.io">opentracing.io</a> tracer. (Default is {@link GlobalTracer}.)
          *
@@ -486,6 +892,16 @@ public interface ServerConfiguration extends SocketConfiguration {
             configureSocket(config, defaultSocketBuilder);
 
             config.get("workers").asInt().ifPresent(this::workersCount);
+            config.get("native-transport").asBoolean().ifPresent(this::nativeTransport);
+            config.get("leak-detection").asString()
+                    .map(level -> LeakDetection.valueOf(level.toUpperCase(Locale.ROOT)))
+                    .ifPresent(this::leakDetection);
+            config.get("drain-timeout-millis").asLong().ifPresent(this::drainTimeoutMillis);
+            config.get("event-loop-stall-threshold-millis").asLong().ifPresent(this::eventLoopStallThresholdMillis);
+            Config offloadConfig = config.get("offload-executor-service");
+            if (offloadConfig.exists()) {
+                offloadExecutorService(OffloadHandler.executorServiceBuilder().config(offloadConfig).build());
+            }
 
             // sockets
             Config socketsConfig = config.get("sockets");
@@ -505,6 +921,10 @@ public interface ServerConfiguration extends SocketConfiguration {
                     Http2Configuration.Builder http2Builder = new Http2Configuration.Builder();
                     http2Config.get("enable").asBoolean().ifPresent(http2Builder::enable);
                     http2Config.get("max-content-length").asInt().ifPresent(http2Builder::maxContentLength);
+                    http2Config.get("max-concurrent-streams").asLong().ifPresent(http2Builder::maxConcurrentStreams);
+                    http2Config.get("initial-window-size").asInt().ifPresent(http2Builder::initialWindowSize);
+                    http2Config.get("max-frame-size").asInt().ifPresent(http2Builder::maxFrameSize);
+                    http2Config.get("header-table-size").asLong().ifPresent(http2Builder::headerTableSize);
                     experimentalBuilder.http2(http2Builder.build());
                 }
                 experimental = experimentalBuilder.build();
@@ -523,14 +943,36 @@ public interface ServerConfiguration extends SocketConfiguration {
             config.get("backlog").asInt().ifPresent(soConfigBuilder::backlog);
             config.get("timeout").asInt().ifPresent(soConfigBuilder::timeoutMillis);
             config.get("receive-buffer").asInt().ifPresent(soConfigBuilder::receiveBufferSize);
+            config.get("acceptors").asInt().ifPresent(soConfigBuilder::acceptors);
+            config.get("tcp-no-delay").asBoolean().ifPresent(soConfigBuilder::tcpNoDelay);
+            config.get("tcp-fast-open").asInt().ifPresent(soConfigBuilder::tcpFastOpen);
+            config.get("send-buffer").asInt().ifPresent(soConfigBuilder::sendBufferSize);
+            config.get("write-buffer-low-water-mark").asInt().ifPresent(soConfigBuilder::writeBufferLowWaterMark);
+            config.get("write-buffer-high-water-mark").asInt().ifPresent(soConfigBuilder::writeBufferHighWaterMark);
             config.get("ssl-protocols").asList(String.class).ifPresent(soConfigBuilder::enabledSSlProtocols);
+            config.get("max-pipelined-requests").asInt().ifPresent(soConfigBuilder::maxPipelinedRequests);
+            config.get("max-connections").asInt().ifPresent(soConfigBuilder::maxConnections);
+            config.get("queue-connections").asBoolean().ifPresent(soConfigBuilder::queueConnections);
+            config.get("idle-timeout-millis").asLong().ifPresent(soConfigBuilder::idleTimeoutMillis);
+            config.get("read-timeout-millis").asLong().ifPresent(soConfigBuilder::readTimeoutMillis);
+            config.get("max-initial-line-length").asInt().ifPresent(soConfigBuilder::maxInitialLineLength);
+            config.get("max-header-size").asInt().ifPresent(soConfigBuilder::maxHeaderSize);
+            config.get("dedicated-workers").asInt().ifPresent(soConfigBuilder::dedicatedWorkers);
+            config.get("dedicated-acceptor").asBoolean().ifPresent(soConfigBuilder::dedicatedAcceptor);
+            config.get("aggregation-buffer-size").asInt().ifPresent(soConfigBuilder::aggregationBufferSize);
+
+            Config compressionConfig = config.get("compression");
+            if (compressionConfig.exists()) {
+                soConfigBuilder.compression(CompressionConfiguration.create(compressionConfig));
+            }
 
             // ssl
             Config sslConfig = config.get("ssl");
             if (sslConfig.exists()) {
                 try {
                     soConfigBuilder.ssl(SSLContextBuilder.create(sslConfig));
-                } catch (IllegalStateException e) {
+                    soConfigBuilder.tls(TlsConfiguration.create(sslConfig));
+                } catch (IllegalStateException | IllegalArgumentException e) {
                     throw new ConfigException("Cannot load SSL configuration.", e);
                 }
             }
@@ -587,6 +1029,29 @@ public interface ServerConfiguration extends SocketConfiguration {
             return workers;
         }
 
+        boolean nativeTransport() {
+            return nativeTransport;
+        }
+
+        LeakDetection leakDetection() {
+            return leakDetection;
+        }
+
+        long drainTimeoutMillis() {
+            return drainTimeoutMillis;
+        }
+
+        long eventLoopStallThresholdMillis() {
+            return eventLoopStallThresholdMillis;
+        }
+
+        Supplier<? extends ExecutorService> offloadExecutorService() {
+            if (offloadExecutorService == null) {
+                offloadExecutorService = OffloadHandler.executorServiceBuilder().build();
+            }
+            return offloadExecutorService;
+        }
+
         Tracer tracer() {
             return tracer;
         }
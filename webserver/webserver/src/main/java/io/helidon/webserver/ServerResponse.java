@@ -23,6 +23,7 @@ import java.util.function.Predicate;
 
 import io.helidon.common.http.AlreadyCompletedException;
 import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.DataChunkFactory;
 import io.helidon.common.http.Http;
 import io.helidon.common.http.MediaType;
 import io.helidon.common.reactive.Flow;
@@ -131,6 +132,32 @@ public interface ServerResponse {
      */
     CompletionStage<ServerResponse> send(Flow.Publisher<DataChunk> content);
 
+    /**
+     * Streams Server-Sent Events with the {@link SseConfiguration#defaults() default configuration}.
+     *
+     * @param events a publisher of the events
+     * @return a completion stage of the response - completed when the events publisher completes
+     * @throws IllegalStateException if any {@code send(...)} method was already called
+     * @see #sendEvents(Flow.Publisher, SseConfiguration)
+     */
+    default CompletionStage<ServerResponse> sendEvents(Flow.Publisher<ServerSentEvent> events) {
+        return sendEvents(events, SseConfiguration.defaults());
+    }
+
+    /**
+     * Streams Server-Sent Events. The response has the {@code text/event-stream} content type and is not cached.
+     * <p>
+     * The events are requested as fast as the client reads them. Events published within the
+     * {@link SseConfiguration#flushWindowMillis() flush window} are flushed at once and keep-alive comments are sent
+     * while no event is published. The subscription to the events is cancelled once the client disconnects.
+     *
+     * @param events        a publisher of the events
+     * @param configuration configuration of the event stream
+     * @return a completion stage of the response - completed when the events publisher completes
+     * @throws IllegalStateException if any {@code send(...)} method was already called
+     */
+    CompletionStage<ServerResponse> sendEvents(Flow.Publisher<ServerSentEvent> events, SseConfiguration configuration);
+
     /**
      * Sends an empty response. Do nothing if response was already send.
      *
@@ -233,6 +260,18 @@ public interface ServerResponse {
      */
     CompletionStage<ServerResponse> whenSent();
 
+    /**
+     * Returns a factory of data chunks backed by memory of the server, e.g. pooled direct buffers handed to the network
+     * without a copy. Writers (see {@link #registerWriter(Class, Function)}) can encode the content straight into
+     * the chunks. Chunks created by the factory must be either sent by this response or released, including the chunks
+     * dropped or replaced by a {@link #registerFilter(Function) filter}.
+     *
+     * @return a factory of data chunks
+     */
+    default DataChunkFactory dataChunkFactory() {
+        return DataChunkFactory.heap();
+    }
+
     /**
      * A unique correlation ID that is associated with this response and its associated request.
      *
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * A Server-Sent Event, see {@link ServerResponse#sendEvents(io.helidon.common.reactive.Flow.Publisher)}.
+ * <p>
+ * The event is encoded in the {@code text/event-stream} format: each line of the data is sent as a {@code data}
+ * field, a comment is sent as lines starting with a colon.
+ */
+public final class ServerSentEvent {
+
+    private static final Pattern LINE_BREAK = Pattern.compile("\r\n|\r|\n");
+
+    private final String id;
+    private final String name;
+    private final String data;
+    private final long retryMillis;
+    private final String comment;
+
+    private ServerSentEvent(Builder builder) {
+        this.id = builder.id;
+        this.name = builder.name;
+        this.data = builder.data;
+        this.retryMillis = builder.retryMillis;
+        this.comment = builder.comment;
+    }
+
+    /**
+     * Creates an event of the default {@code message} type.
+     *
+     * @param data event data, may have multiple lines
+     * @return a new event
+     */
+    public static ServerSentEvent create(String data) {
+        return builder().data(data).build();
+    }
+
+    /**
+     * Creates a new fluent API builder.
+     *
+     * @return a new builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Identifier of the event, sent back by the client in the {@code Last-Event-ID} header when it reconnects.
+     *
+     * @return event identifier
+     */
+    public Optional<String> id() {
+        return Optional.ofNullable(id);
+    }
+
+    /**
+     * Type of the event, the client handles the event as {@code message} if not set.
+     *
+     * @return event type
+     */
+    public Optional<String> name() {
+        return Optional.ofNullable(name);
+    }
+
+    /**
+     * Data of the event.
+     *
+     * @return event data
+     */
+    public Optional<String> data() {
+        return Optional.ofNullable(data);
+    }
+
+    /**
+     * Time the client waits before it reconnects, {@code 0} if not set.
+     *
+     * @return reconnection time in milliseconds
+     */
+    public long retryMillis() {
+        return retryMillis;
+    }
+
+    /**
+     * Comment ignored by the client.
+     *
+     * @return comment
+     */
+    public Optional<String> comment() {
+        return Optional.ofNullable(comment);
+    }
+
+    /**
+     * Appends the event in the {@code text/event-stream} format, terminated by an empty line.
+     *
+     * @param out the output
+     * @return the output
+     */
+    StringBuilder encode(StringBuilder out) {
+        if (comment != null) {
+            for (String line : LINE_BREAK.split(comment, -1)) {
+                out.append(": ").append(line).append('\n');
+            }
+        }
+        if (id != null) {
+            out.append("id: ").append(id).append('\n');
+        }
+        if (name != null) {
+            out.append("event: ").append(name).append('\n');
+        }
+        if (retryMillis > 0) {
+            out.append("retry: ").append(retryMillis).append('\n');
+        }
+        if (data != null) {
+            for (String line : LINE_BREAK.split(data, -1)) {
+                out.append("data: ").append(line).append('\n');
+            }
+        }
+        return out.append('\n');
+    }
+
+    @Override
+    public String toString() {
+        return encode(new StringBuilder()).toString();
+    }
+
+    /**
+     * Builder for {@link ServerSentEvent}.
+     */
+    public static final class Builder implements io.helidon.common.Builder<ServerSentEvent> {
+
+        private String id;
+        private String name;
+        private String data;
+        private long retryMillis;
+        private String comment;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the identifier of the event.
+         *
+         * @param id event identifier
+         * @return updated builder
+         * @throws IllegalArgumentException if the identifier contains a line break
+         */
+        public Builder id(String id) {
+            this.id = singleLine("id", id);
+            return this;
+        }
+
+        /**
+         * Sets the type of the event.
+         *
+         * @param name event type
+         * @return updated builder
+         * @throws IllegalArgumentException if the type contains a line break
+         */
+        public Builder name(String name) {
+            this.name = singleLine("name", name);
+            return this;
+        }
+
+        /**
+         * Sets the data of the event.
+         *
+         * @param data event data, may have multiple lines
+         * @return updated builder
+         */
+        public Builder data(String data) {
+            this.data = Objects.requireNonNull(data, "Parameter 'data' is null!");
+            return this;
+        }
+
+        /**
+         * Sets the time the client waits before it reconnects.
+         *
+         * @param retryMillis reconnection time in milliseconds
+         * @return updated builder
+         */
+        public Builder retryMillis(long retryMillis) {
+            this.retryMillis = Math.max(0, retryMillis);
+            return this;
+        }
+
+        /**
+         * Sets a comment ignored by the client.
+         *
+         * @param comment comment, may have multiple lines
+         * @return updated builder
+         */
+        public Builder comment(String comment) {
+            this.comment = Objects.requireNonNull(comment, "Parameter 'comment' is null!");
+            return this;
+        }
+
+        @Override
+        public ServerSentEvent build() {
+            return new ServerSentEvent(this);
+        }
+
+        private static String singleLine(String field, String value) {
+            Objects.requireNonNull(value, "Parameter '" + field + "' is null!");
+            if (value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                throw new IllegalArgumentException("Event " + field + " must not contain a line break: " + value);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.DataChunkFactory;
+import io.helidon.common.reactive.Flow;
+
+/**
+ * Publishes Server-Sent Events encoded in the {@code text/event-stream} format.
+ * <p>
+ * Each event is published as a single chunk, followed by a flush chunk once the flush window of the first
+ * unflushed event elapsed. The events are requested from the event publisher only as fast as the chunks are
+ * requested by the response, so a slow client slows down the event publisher rather than filling up the memory.
+ * The events, flushes and keep-alive comments are scheduled on the event loop of the connection; without a scheduler
+ * each event is flushed and no keep-alive comments are sent.
+ */
+final class ServerSentEventPublisher implements Flow.Publisher<DataChunk> {
+
+    private static final String KEEP_ALIVE = ": keep-alive\n\n";
+
+    private final Flow.Publisher<ServerSentEvent> events;
+    private final SseConfiguration configuration;
+    private final ScheduledExecutorService scheduler;
+    private final DataChunkFactory chunkFactory;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * Creates a new publisher.
+     *
+     * @param events        publisher of the events
+     * @param configuration configuration of the stream
+     * @param scheduler     scheduler of the flushes and keep-alive comments, may be {@code null}
+     * @param chunkFactory  factory of the chunks
+     */
+    ServerSentEventPublisher(Flow.Publisher<ServerSentEvent> events,
+                             SseConfiguration configuration,
+                             ScheduledExecutorService scheduler,
+                             DataChunkFactory chunkFactory) {
+        this.events = Objects.requireNonNull(events, "Parameter 'events' is null!");
+        this.configuration = Objects.requireNonNull(configuration, "Parameter 'configuration' is null!");
+        this.scheduler = scheduler;
+        this.chunkFactory = chunkFactory;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super DataChunk> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onError(new IllegalStateException("Only single subscriber is allowed!"));
+            return;
+        }
+        EventSubscription subscription = new EventSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        events.subscribe(subscription);
+    }
+
+    /**
+     * Subscription of the response, subscribed to the events.
+     */
+    private final class EventSubscription implements Flow.Subscription, Flow.Subscriber<ServerSentEvent> {
+
+        private final Flow.Subscriber<? super DataChunk> downstream;
+        private final AtomicInteger wip = new AtomicInteger();
+        // guarded by this
+        private final Queue<DataChunk> queue = new ArrayDeque<>();
+        private long requested;
+        private long upstreamRequested;
+        private boolean upstreamDone;
+        private boolean terminated;
+        private boolean written;
+        private ScheduledFuture<?> flushTask;
+        private ScheduledFuture<?> keepAliveTask;
+        private Flow.Subscription upstream;
+
+        private volatile boolean cancelled;
+
+        private EventSubscription(Flow.Subscriber<? super DataChunk> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                downstream.onError(new IllegalArgumentException("Requested number of chunks must be positive: " + n));
+                return;
+            }
+            synchronized (this) {
+                requested = requested + n < 0 ? Long.MAX_VALUE : requested + n;
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            Flow.Subscription s;
+            synchronized (this) {
+                stopTimers();
+                s = upstream;
+                queue.forEach(DataChunk::release);
+                queue.clear();
+            }
+            if (s != null) {
+                s.cancel();
+            }
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            synchronized (this) {
+                if (upstream != null) {
+                    subscription.cancel();
+                    return;
+                }
+                upstream = subscription;
+                long keepAlive = configuration.keepAliveMillis();
+                if (!cancelled && scheduler != null && keepAlive > 0) {
+                    keepAliveTask = schedule(() -> scheduler.scheduleAtFixedRate(this::keepAlive,
+                                                                                 keepAlive,
+                                                                                 keepAlive,
+                                                                                 TimeUnit.MILLISECONDS));
+                }
+            }
+            if (cancelled) {
+                subscription.cancel();
+                return;
+            }
+            drain();
+        }
+
+        @Override
+        public void onNext(ServerSentEvent event) {
+            DataChunk chunk = chunkFactory.create(event.encode(new StringBuilder()), StandardCharsets.UTF_8);
+            synchronized (this) {
+                if (cancelled || upstreamDone) {
+                    chunk.release();
+                    return;
+                }
+                upstreamRequested--;
+                queue.add(chunk);
+                written = true;
+                long window = configuration.flushWindowMillis();
+                if (scheduler == null || window == 0) {
+                    queue.add(flushChunk());
+                } else if (flushTask == null) {
+                    flushTask = schedule(() -> scheduler.schedule(this::flushWindow, window, TimeUnit.MILLISECONDS));
+                    if (flushTask == null) {
+                        queue.add(flushChunk());
+                    }
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            synchronized (this) {
+                if (upstreamDone) {
+                    return;
+                }
+                upstreamDone = true;
+                terminated = true;
+                stopTimers();
+                queue.forEach(DataChunk::release);
+                queue.clear();
+            }
+            if (!cancelled) {
+                downstream.onError(throwable);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                upstreamDone = true;
+            }
+            drain();
+        }
+
+        private void flushWindow() {
+            synchronized (this) {
+                flushTask = null;
+                if (cancelled || terminated) {
+                    return;
+                }
+                queue.add(flushChunk());
+            }
+            drain();
+        }
+
+        private void keepAlive() {
+            synchronized (this) {
+                if (cancelled || terminated) {
+                    return;
+                }
+                if (written) {
+                    // an event was sent within the interval
+                    written = false;
+                    return;
+                }
+                queue.add(chunkFactory.create(KEEP_ALIVE, StandardCharsets.UTF_8));
+                queue.add(flushChunk());
+            }
+            drain();
+        }
+
+        /**
+         * Emits the queued chunks as requested, completes the response once all events were emitted and requests
+         * the events to fill the remaining demand. Not reentrant, a drain requested during the drain loops again.
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (true) {
+                    DataChunk chunk;
+                    synchronized (this) {
+                        if (cancelled || terminated || requested == 0 || queue.isEmpty()) {
+                            break;
+                        }
+                        requested--;
+                        chunk = queue.poll();
+                    }
+                    downstream.onNext(chunk);
+                }
+
+                boolean complete = false;
+                long toRequest = 0;
+                Flow.Subscription s;
+                synchronized (this) {
+                    s = upstream;
+                    if (cancelled || terminated) {
+                        s = null;
+                    } else if (upstreamDone) {
+                        if (queue.isEmpty()) {
+                            terminated = true;
+                            complete = true;
+                            stopTimers();
+                        }
+                    } else if (s != null) {
+                        // each event takes a chunk, its flush may take another one
+                        toRequest = requested - queue.size() - upstreamRequested;
+                        if (toRequest > 0) {
+                            upstreamRequested += toRequest;
+                        }
+                    }
+                }
+                if (complete) {
+                    downstream.onComplete();
+                } else if (toRequest > 0) {
+                    s.request(toRequest);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private ScheduledFuture<?> schedule(Supplier<ScheduledFuture<?>> task) {
+            try {
+                return task.get();
+            } catch (RejectedExecutionException e) {
+                // the event loop is shutting down
+                return null;
+            }
+        }
+
+        private void stopTimers() {
+            if (flushTask != null) {
+                flushTask.cancel(false);
+                flushTask = null;
+            }
+            if (keepAliveTask != null) {
+                keepAliveTask.cancel(false);
+                keepAliveTask = null;
+            }
+        }
+    }
+
+    private static DataChunk flushChunk() {
+        return DataChunk.create(true, ByteBuffer.allocate(0));
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Runtime statistics of a {@link WebServer}.
+ * <p>
+ * The values are computed when requested and reflect the state of the server at that time. An implementation
+ * that does not track a statistic returns {@code 0}.
+ *
+ * @see WebServer#statistics()
+ */
+public interface ServerStatistics {
+
+    /**
+     * Number of currently open connections over all server sockets.
+     *
+     * @return number of open connections
+     */
+    default long connections() {
+        return 0;
+    }
+
+    /**
+     * Number of requests currently processed over all connections, from the request received until its response
+     * is completely written. Once the server is shut down, the connections are drained until there are no requests
+     * in flight, or until the {@link ServerConfiguration#drainTimeoutMillis() drain timeout} elapses.
+     *
+     * @return number of requests in flight
+     */
+    default long inFlightRequests() {
+        return 0;
+    }
+
+    /**
+     * Number of bytes written by the server and waiting in the outbound buffers of all connections
+     * to be sent to the clients.
+     *
+     * @return pending outbound bytes of all connections
+     */
+    default long pendingOutboundBytes() {
+        return 0;
+    }
+
+    /**
+     * The highest number of pending outbound bytes of a single connection.
+     *
+     * @return pending outbound bytes of the connection with the fullest outbound buffer
+     */
+    default long maxPendingOutboundBytes() {
+        return 0;
+    }
+
+    /**
+     * Number of connections that are currently not writable, e.g. their outbound buffer is over the
+     * {@link SocketConfiguration#writeBufferHighWaterMark() high water mark}. Responses on such connections
+     * do not request more data until the buffer drains below the low water mark.
+     *
+     * @return number of connections not writable
+     */
+    default long nonWritableConnections() {
+        return 0;
+    }
+
+    /**
+     * Total number of times a connection stopped being writable since the server started.
+     *
+     * @return number of writability pauses
+     */
+    default long writabilityPauses() {
+        return 0;
+    }
+
+    /**
+     * Number of responses of pipelined requests currently waiting for the responses of the preceding requests
+     * of their connection to be sent, see {@link SocketConfiguration#maxPipelinedRequests()}.
+     *
+     * @return number of waiting pipelined responses
+     */
+    default long pipelinedResponses() {
+        return 0;
+    }
+
+    /**
+     * The highest number of requests processed concurrently on a single connection since the server started.
+     *
+     * @return maximal pipeline depth
+     */
+    default long maxPipelineDepth() {
+        return 0;
+    }
+
+    /**
+     * Total number of pipelined responses that had to wait for the responses of the preceding requests
+     * since the server started (head-of-line blocking).
+     *
+     * @return number of head-of-line waits
+     */
+    default long headOfLineWaits() {
+        return 0;
+    }
+
+    /**
+     * Total time in milliseconds the pipelined responses spent waiting for the responses of the preceding requests
+     * since the server started.
+     *
+     * @return head-of-line wait time in milliseconds
+     */
+    default long headOfLineWaitTime() {
+        return 0;
+    }
+
+    /**
+     * Total number of request content chunks that were garbage collected without being released since the server
+     * started. Only the chunks tracked by the {@link ServerConfiguration#leakDetection() leak detection} are counted.
+     *
+     * @return number of detected leaks of request chunks
+     */
+    default long leakedRequestChunks() {
+        return 0;
+    }
+
+    /**
+     * Total number of connections closed right after they were accepted since the server started, because
+     * the {@link SocketConfiguration#maxConnections() maximal number of connections} of their socket was reached.
+     *
+     * @return number of rejected connections
+     */
+    default long rejectedConnections() {
+        return 0;
+    }
+
+    /**
+     * Total number of times a socket stopped accepting connections since the server started, because
+     * the {@link SocketConfiguration#maxConnections() maximal number of connections} was reached and
+     * the {@link SocketConfiguration#queueConnections() connections are queued}.
+     *
+     * @return number of paused accepts
+     */
+    default long acceptPauses() {
+        return 0;
+    }
+
+    /**
+     * Total number of connections closed since the server started, because they reached the
+     * {@link SocketConfiguration#idleTimeoutMillis() idle timeout} or the
+     * {@link SocketConfiguration#readTimeoutMillis() read timeout}.
+     *
+     * @return number of timed out connections
+     */
+    default long timedOutConnections() {
+        return 0;
+    }
+
+    /**
+     * Total number of requests rejected since the server started, because their initial line, headers or content
+     * exceeded the configured limits.
+     *
+     * @return number of rejected requests
+     */
+    default long rejectedRequests() {
+        return 0;
+    }
+
+    /**
+     * Number of requests of {@link Handler#offload(Handler) offloaded handlers} currently waiting for a thread.
+     *
+     * @return number of waiting offloaded requests
+     */
+    default long offloadQueueDepth() {
+        return 0;
+    }
+
+    /**
+     * Total number of requests of {@link Handler#offload(Handler) offloaded handlers} which started running on
+     * a thread since the server started.
+     *
+     * @return number of offloaded requests
+     */
+    default long offloadedRequests() {
+        return 0;
+    }
+
+    /**
+     * Total time in milliseconds the requests of {@link Handler#offload(Handler) offloaded handlers} waited for a thread
+     * since the server started.
+     *
+     * @return offload wait time in milliseconds
+     */
+    default long offloadWaitTime() {
+        return 0;
+    }
+
+    /**
+     * Total number of requests of {@link Handler#offload(Handler) offloaded handlers} rejected by the executor
+     * since the server started.
+     *
+     * @return number of rejected offloaded requests
+     */
+    default long offloadRejections() {
+        return 0;
+    }
+
+    /**
+     * Utilization of the worker event loops serving the connections of a socket, the CPU time consumed by the event
+     * loop threads relative to the elapsed time, sampled at most once a second. Sockets without
+     * {@link SocketConfiguration#dedicatedWorkers() dedicated workers} report the utilization of the shared workers.
+     *
+     * @param socketName name of the socket, see {@link ServerConfiguration#sockets()}
+     * @return utilization in percents
+     */
+    default long eventLoopUtilization(String socketName) {
+        return 0;
+    }
+
+    /**
+     * Number of tasks waiting in the queues of the worker event loops serving the connections of a socket.
+     *
+     * @param socketName name of the socket, see {@link ServerConfiguration#sockets()}
+     * @return number of pending event loop tasks
+     */
+    default long eventLoopPendingTasks(String socketName) {
+        return 0;
+    }
+
+    /**
+     * Number of the started worker event loop threads serving the connections of a socket.
+     *
+     * @param socketName name of the socket, see {@link ServerConfiguration#sockets()}
+     * @return number of event loop threads
+     */
+    default long eventLoopThreads(String socketName) {
+        return 0;
+    }
+
+    /**
+     * Total number of event loop probes which waited longer than the stall threshold since the server started,
+     * see {@link ServerConfiguration#eventLoopStallThresholdMillis()}.
+     *
+     * @return number of event loop stalls
+     */
+    default long eventLoopStalls() {
+        return 0;
+    }
+
+    /**
+     * The longest time an event loop probe waited to be executed since the server started.
+     *
+     * @return maximal event loop lag in milliseconds
+     */
+    default long eventLoopMaxLag() {
+        return 0;
+    }
+
+    /**
+     * Number of WebSocket sessions currently open.
+     *
+     * @return number of open WebSocket sessions
+     */
+    default long webSocketSessions() {
+        return 0;
+    }
+
+    /**
+     * Total number of WebSocket sessions opened since the server started.
+     *
+     * @return number of opened WebSocket sessions
+     */
+    default long webSocketSessionsOpened() {
+        return 0;
+    }
+
+    /**
+     * Total number of WebSocket messages received from the clients since the server started.
+     *
+     * @return number of received WebSocket messages
+     */
+    default long webSocketMessagesReceived() {
+        return 0;
+    }
+
+    /**
+     * Total number of WebSocket messages sent to the clients since the server started.
+     *
+     * @return number of sent WebSocket messages
+     */
+    default long webSocketMessagesSent() {
+        return 0;
+    }
+
+    /**
+     * Sum of the current limits of the {@link ConcurrencyLimitSupport concurrency limits} of the server.
+     *
+     * @return current concurrency limit
+     */
+    default long concurrencyLimit() {
+        return 0;
+    }
+
+    /**
+     * Number of the requests admitted by the {@link ConcurrencyLimitSupport concurrency limits} of the server
+     * whose responses were not sent yet.
+     *
+     * @return number of limited requests in flight
+     */
+    default long concurrencyLimitInFlight() {
+        return 0;
+    }
+
+    /**
+     * Total number of requests rejected by the {@link ConcurrencyLimitSupport concurrency limits} of the server.
+     *
+     * @return number of requests rejected over the concurrency limit
+     */
+    default long concurrencyLimitRejections() {
+        return 0;
+    }
+
+    /**
+     * Registers a listener notified with the lag of each event loop probe in microseconds, e.g. to record
+     * the lags in a histogram. The event loops are probed only if the watchdog is enabled, see
+     * {@link ServerConfiguration#eventLoopStallThresholdMillis()}. The listener is invoked by the watched event loop
+     * threads and must not block.
+     *
+     * @param listener listener of the event loop lags
+     */
+    default void eventLoopLagListener(LongConsumer listener) {
+    }
+}
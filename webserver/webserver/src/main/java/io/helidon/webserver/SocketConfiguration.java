@@ -39,6 +39,22 @@ public interface SocketConfiguration {
      */
     int DEFAULT_BACKLOG_SIZE = 1024;
 
+    /**
+     * The default maximal length of the initial line of a HTTP request.
+     */
+    int DEFAULT_MAX_INITIAL_LINE_LENGTH = 4096;
+
+    /**
+     * The default maximal size of the headers of a HTTP request.
+     */
+    int DEFAULT_MAX_HEADER_SIZE = 8192;
+
+    /**
+     * The default maximal size of the response content aggregated to be sent with a known length, aggregation
+     * is disabled by default.
+     */
+    int DEFAULT_AGGREGATION_BUFFER_SIZE = 0;
+
     /**
      * Returns a server port to listen on with the server socket. If port is
      * {@code 0} then any available ephemeral port will be used.
@@ -97,6 +113,220 @@ public interface SocketConfiguration {
      */
     Set<String> enabledSslProtocols();
 
+    /**
+     * Returns the TLS settings used if the {@link #ssl() SSL context} is configured, e.g. the TLS provider,
+     * client authentication or session cache.
+     *
+     * @return TLS settings
+     */
+    default TlsConfiguration tls() {
+        return TlsConfiguration.defaults();
+    }
+
+    /**
+     * Returns a number of accept loops (server channels) bound to the port of this socket.
+     * Values greater than {@code 1} bind the port using {@code SO_REUSEPORT} and are honored
+     * only with the native transport (see {@link ServerConfiguration#nativeTransport()}),
+     * otherwise a single accept loop is used.
+     * <p>
+     * Default value is {@code 1}.
+     *
+     * @return a number of accept loops of the server socket
+     */
+    default int acceptors() {
+        return 1;
+    }
+
+    /**
+     * Returns whether {@code TCP_NODELAY} (Nagle's algorithm disabled) is set on accepted connections.
+     * <p>
+     * Default value is {@code true}.
+     *
+     * @return whether {@code TCP_NODELAY} is set on accepted connections
+     */
+    default boolean tcpNoDelay() {
+        return true;
+    }
+
+    /**
+     * Returns a length of the {@code TCP_FASTOPEN} pending connections queue of the server socket
+     * or {@code 0} if TCP fast open is disabled. Honored only with the native transport.
+     *
+     * @return a {@code TCP_FASTOPEN} queue length or {@code 0}
+     */
+    default int tcpFastOpen() {
+        return 0;
+    }
+
+    /**
+     * Returns proposed size of the TCP send buffer of accepted connections.
+     * <p>
+     * If {@code 0} then use implementation default.
+     *
+     * @return a buffer size in bytes or {@code 0}
+     */
+    default int sendBufferSize() {
+        return 0;
+    }
+
+    /**
+     * Returns a number of bytes queued for writing on a connection below which the connection
+     * becomes writable again.
+     * <p>
+     * If {@code 0} then use implementation default.
+     *
+     * @return a low water mark in bytes or {@code 0}
+     */
+    default int writeBufferLowWaterMark() {
+        return 0;
+    }
+
+    /**
+     * Returns a number of bytes queued for writing on a connection above which the connection
+     * becomes non-writable.
+     * <p>
+     * If {@code 0} then use implementation default.
+     *
+     * @return a high water mark in bytes or {@code 0}
+     */
+    default int writeBufferHighWaterMark() {
+        return 0;
+    }
+
+    /**
+     * Returns the compression configuration of responses sent by this socket.
+     * The configuration may be overridden for a route using {@link CompressionSupport}.
+     * <p>
+     * Compression is disabled by default.
+     *
+     * @return compression configuration
+     */
+    default CompressionConfiguration compression() {
+        return CompressionConfiguration.disabled();
+    }
+
+    /**
+     * Returns the maximal number of HTTP/1.1 requests of a single connection which are processed concurrently
+     * (pipelining). Responses of the pipelined requests are buffered and sent in the order of the requests.
+     * <p>
+     * Default value is {@code 1}, the requests of a connection are processed one after another.
+     *
+     * @return maximal number of requests processed concurrently on a connection
+     */
+    default int maxPipelinedRequests() {
+        return 1;
+    }
+
+    /**
+     * Returns the maximal number of connections open on this socket at the same time. A connection accepted
+     * over the limit is closed immediately, unless {@link #queueConnections() queueing} is enabled.
+     * <p>
+     * Default value is {@code 0}, the number of connections is not limited.
+     *
+     * @return maximal number of open connections or {@code 0}
+     */
+    default int maxConnections() {
+        return 0;
+    }
+
+    /**
+     * Returns whether the socket stops accepting connections once the {@link #maxConnections() maximal number of
+     * connections} is reached. New connections wait in the backlog of the server socket until a connection is closed,
+     * instead of being accepted and closed immediately. Connections accepted together with the last one admitted
+     * are not closed, so the number of open connections may briefly exceed the limit.
+     *
+     * @return whether to queue the connections over the limit
+     */
+    default boolean queueConnections() {
+        return false;
+    }
+
+    /**
+     * Returns the time after which a connection with no request in flight is closed if nothing is read from or written
+     * to it.
+     * <p>
+     * Default value is {@code 0}, idle connections are not closed.
+     *
+     * @return idle timeout in milliseconds or {@code 0}
+     */
+    default long idleTimeoutMillis() {
+        return 0;
+    }
+
+    /**
+     * Returns the time after which a connection is closed if nothing is read from it while a request is expected,
+     * either the initial line and headers of the next request or the content of the current one.
+     * <p>
+     * Default value is {@code 0}, there is no read timeout.
+     *
+     * @return read timeout in milliseconds or {@code 0}
+     */
+    default long readTimeoutMillis() {
+        return 0;
+    }
+
+    /**
+     * Returns the maximal length of the initial line of a HTTP request. A request with a longer initial line
+     * is rejected with {@code 414 Request-URI Too Long}.
+     *
+     * @return maximal initial line length in bytes
+     */
+    default int maxInitialLineLength() {
+        return DEFAULT_MAX_INITIAL_LINE_LENGTH;
+    }
+
+    /**
+     * Returns the maximal size of the headers of a HTTP request. A request with larger headers is rejected
+     * with {@code 431 Request Header Fields Too Large}.
+     *
+     * @return maximal header size in bytes
+     */
+    default int maxHeaderSize() {
+        return DEFAULT_MAX_HEADER_SIZE;
+    }
+
+    /**
+     * Returns a number of worker threads of an event loop group dedicated to the connections of this socket.
+     * A socket with dedicated workers is isolated from the load of the other sockets, e.g. an admin socket
+     * serving health checks and metrics keeps responding while the public socket is saturated.
+     * <p>
+     * Default value is {@code 0}, the connections are served by the workers shared by all the sockets
+     * (see {@link ServerConfiguration#workersCount()}).
+     *
+     * @return number of dedicated worker threads or {@code 0}
+     */
+    default int dedicatedWorkers() {
+        return 0;
+    }
+
+    /**
+     * Returns whether the connections of this socket are accepted by a dedicated event loop group, not shared
+     * with the other sockets. The group has a thread per accept loop (see {@link #acceptors()}).
+     * <p>
+     * Default value is {@code false}.
+     *
+     * @return whether this socket has a dedicated acceptor group
+     */
+    default boolean dedicatedAcceptor() {
+        return false;
+    }
+
+    /**
+     * Returns the maximal size of the response content aggregated before it is written. The chunks of a response
+     * without the content length set are aggregated in a single buffer until the content is complete, so a response
+     * up to this size is sent with the exact {@code Content-Length} and flushed once. A larger response, or a chunk
+     * requested to be flushed, switches the response to the chunked transfer encoding.
+     * The size may be overridden for a route using {@link AggregationSupport}.
+     * <p>
+     * Default value is {@value #DEFAULT_AGGREGATION_BUFFER_SIZE}, which disables the aggregation and only sends
+     * the responses with a single chunk with a known length.
+     *
+     * @return maximal aggregated content size in bytes
+     */
+    default int aggregationBufferSize() {
+        return DEFAULT_AGGREGATION_BUFFER_SIZE;
+    }
+
     /**
      * Creates a builder of {@link SocketConfiguration} class.
      *
@@ -116,6 +346,24 @@ public interface SocketConfiguration {
         private int backlog = 0;
         private int timeoutMillis = 0;
         private int receiveBufferSize = 0;
+        private int acceptors = 1;
+        private boolean tcpNoDelay = true;
+        private int tcpFastOpen = 0;
+        private int sendBufferSize = 0;
+        private int writeBufferLowWaterMark = 0;
+        private int writeBufferHighWaterMark = 0;
+        private CompressionConfiguration compression = CompressionConfiguration.disabled();
+        private TlsConfiguration tls = TlsConfiguration.defaults();
+        private int maxPipelinedRequests = 1;
+        private int maxConnections = 0;
+        private boolean queueConnections = false;
+        private long idleTimeoutMillis = 0;
+        private long readTimeoutMillis = 0;
+        private int maxInitialLineLength = DEFAULT_MAX_INITIAL_LINE_LENGTH;
+        private int maxHeaderSize = DEFAULT_MAX_HEADER_SIZE;
+        private int dedicatedWorkers = 0;
+        private boolean dedicatedAcceptor = false;
+        private int aggregationBufferSize = DEFAULT_AGGREGATION_BUFFER_SIZE;
 
         private Builder() {
         }
@@ -207,6 +455,17 @@ public interface SocketConfiguration {
             return ssl(sslContextBuilder != null ? sslContextBuilder.get() : null);
         }
 
+        /**
+         * Configures the TLS settings used if the SSL context is configured.
+         *
+         * @param tls TLS settings
+         * @return this builder
+         */
+        public Builder tls(TlsConfiguration tls) {
+            this.tls = (tls == null) ? TlsConfiguration.defaults() : tls;
+            return this;
+        }
+
         /**
          * Configures the SSL protocols to enable with the server socket.
          * @param protocols protocols to enable, if {@code null} enables the
@@ -231,11 +490,313 @@ public interface SocketConfiguration {
             return this;
         }
 
+        /**
+         * Configures a number of accept loops (server channels) bound to the port of this socket.
+         * Values greater than {@code 1} bind the port using {@code SO_REUSEPORT} and are honored
+         * only with the native transport.
+         *
+         * @param acceptors a number of accept loops
+         * @return this builder
+         */
+        public Builder acceptors(int acceptors) {
+            this.acceptors = acceptors;
+            return this;
+        }
+
+        /**
+         * Configures whether {@code TCP_NODELAY} is set on accepted connections.
+         *
+         * @param tcpNoDelay whether to disable Nagle's algorithm
+         * @return this builder
+         */
+        public Builder tcpNoDelay(boolean tcpNoDelay) {
+            this.tcpNoDelay = tcpNoDelay;
+            return this;
+        }
+
+        /**
+         * Configures a length of the {@code TCP_FASTOPEN} pending connections queue or {@code 0}
+         * to disable TCP fast open. Honored only with the native transport.
+         *
+         * @param queueLength a {@code TCP_FASTOPEN} queue length or {@code 0}
+         * @return this builder
+         */
+        public Builder tcpFastOpen(int queueLength) {
+            this.tcpFastOpen = queueLength;
+            return this;
+        }
+
+        /**
+         * Configures proposed size of the TCP send buffer of accepted connections.
+         * <p>
+         * If {@code 0} then use implementation default.
+         *
+         * @param sendBufferSize a buffer size in bytes or {@code 0}
+         * @return this builder
+         */
+        public Builder sendBufferSize(int sendBufferSize) {
+            this.sendBufferSize = sendBufferSize;
+            return this;
+        }
+
+        /**
+         * Configures a number of bytes queued for writing on a connection below which the connection
+         * becomes writable again.
+         * <p>
+         * If {@code 0} then use implementation default.
+         *
+         * @param bytes a low water mark in bytes or {@code 0}
+         * @return this builder
+         */
+        public Builder writeBufferLowWaterMark(int bytes) {
+            this.writeBufferLowWaterMark = bytes;
+            return this;
+        }
+
+        /**
+         * Configures a number of bytes queued for writing on a connection above which the connection
+         * becomes non-writable.
+         * <p>
+         * If {@code 0} then use implementation default.
+         *
+         * @param bytes a high water mark in bytes or {@code 0}
+         * @return this builder
+         */
+        public Builder writeBufferHighWaterMark(int bytes) {
+            this.writeBufferHighWaterMark = bytes;
+            return this;
+        }
+
+        /**
+         * Configures compression of responses sent by this socket.
+         *
+         * @param compression compression configuration
+         * @return this builder
+         */
+        public Builder compression(CompressionConfiguration compression) {
+            this.compression = (compression == null) ? CompressionConfiguration.disabled() : compression;
+            return this;
+        }
+
+        /**
+         * Configures the maximal number of HTTP/1.1 requests of a single connection which are processed
+         * concurrently (pipelining). If {@code 1}, requests of a connection are processed one after another.
+         *
+         * @param maxPipelinedRequests maximal number of requests processed concurrently on a connection
+         * @return this builder
+         */
+        public Builder maxPipelinedRequests(int maxPipelinedRequests) {
+            this.maxPipelinedRequests = maxPipelinedRequests;
+            return this;
+        }
+
+        /**
+         * Configures the maximal number of connections open on this socket at the same time.
+         * If {@code 0}, the number of connections is not limited.
+         *
+         * @param maxConnections maximal number of open connections or {@code 0}
+         * @return this builder
+         */
+        public Builder maxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        /**
+         * Configures whether the socket stops accepting connections once the maximal number of connections is reached,
+         * instead of closing the connections over the limit.
+         *
+         * @param queueConnections whether to queue the connections over the limit
+         * @return this builder
+         */
+        public Builder queueConnections(boolean queueConnections) {
+            this.queueConnections = queueConnections;
+            return this;
+        }
+
+        /**
+         * Configures the time after which a connection with no request in flight is closed if nothing is read from
+         * or written to it. If {@code 0}, idle connections are not closed.
+         *
+         * @param idleTimeoutMillis idle timeout in milliseconds or {@code 0}
+         * @return this builder
+         */
+        public Builder idleTimeoutMillis(long idleTimeoutMillis) {
+            this.idleTimeoutMillis = idleTimeoutMillis;
+            return this;
+        }
+
+        /**
+         * Configures the time after which a connection is closed if nothing is read from it while a request
+         * is expected. If {@code 0}, there is no read timeout.
+         *
+         * @param readTimeoutMillis read timeout in milliseconds or {@code 0}
+         * @return this builder
+         */
+        public Builder readTimeoutMillis(long readTimeoutMillis) {
+            this.readTimeoutMillis = readTimeoutMillis;
+            return this;
+        }
+
+        /**
+         * Configures the maximal length of the initial line of a HTTP request.
+         *
+         * @param maxInitialLineLength maximal initial line length in bytes
+         * @return this builder
+         */
+        public Builder maxInitialLineLength(int maxInitialLineLength) {
+            this.maxInitialLineLength = maxInitialLineLength;
+            return this;
+        }
+
+        /**
+         * Configures the maximal size of the headers of a HTTP request.
+         *
+         * @param maxHeaderSize maximal header size in bytes
+         * @return this builder
+         */
+        public Builder maxHeaderSize(int maxHeaderSize) {
+            this.maxHeaderSize = maxHeaderSize;
+            return this;
+        }
+
+        /**
+         * Configures a number of worker threads of an event loop group dedicated to this socket.
+         * If set to {@code 0} or less, the socket uses the workers shared by all the sockets.
+         *
+         * @param dedicatedWorkers number of dedicated worker threads or {@code 0}
+         * @return this builder
+         */
+        public Builder dedicatedWorkers(int dedicatedWorkers) {
+            this.dedicatedWorkers = dedicatedWorkers;
+            return this;
+        }
+
+        /**
+         * Configures whether the connections of this socket are accepted by a dedicated event loop group.
+         *
+         * @param dedicatedAcceptor whether to use a dedicated acceptor group
+         * @return this builder
+         */
+        public Builder dedicatedAcceptor(boolean dedicatedAcceptor) {
+            this.dedicatedAcceptor = dedicatedAcceptor;
+            return this;
+        }
+
+        /**
+         * Configures the maximal size of the response content aggregated to be sent with a known length.
+         *
+         * @param aggregationBufferSize maximal aggregated content size in bytes, {@code 0} to disable aggregation
+         * @return this builder
+         */
+        public Builder aggregationBufferSize(int aggregationBufferSize) {
+            this.aggregationBufferSize = aggregationBufferSize;
+            return this;
+        }
+
         @Override
         public SocketConfiguration build() {
-            return new ServerBasicConfig.SocketConfig(port, bindAddress,
-                    sslContext, enabledSslProtocols, backlog, timeoutMillis,
-                    receiveBufferSize);
+            return new ServerBasicConfig.SocketConfig(this);
+        }
+
+        int port() {
+            return port;
+        }
+
+        InetAddress bindAddress() {
+            return bindAddress;
+        }
+
+        SSLContext ssl() {
+            return sslContext;
+        }
+
+        Set<String> enabledSslProtocols() {
+            return enabledSslProtocols;
+        }
+
+        TlsConfiguration tls() {
+            return tls;
+        }
+
+        int backlog() {
+            return backlog;
+        }
+
+        int timeoutMillis() {
+            return timeoutMillis;
+        }
+
+        int receiveBufferSize() {
+            return receiveBufferSize;
+        }
+
+        int acceptors() {
+            return acceptors;
+        }
+
+        boolean tcpNoDelay() {
+            return tcpNoDelay;
+        }
+
+        int tcpFastOpen() {
+            return tcpFastOpen;
+        }
+
+        int sendBufferSize() {
+            return sendBufferSize;
+        }
+
+        int writeBufferLowWaterMark() {
+            return writeBufferLowWaterMark;
+        }
+
+        int writeBufferHighWaterMark() {
+            return writeBufferHighWaterMark;
+        }
+
+        CompressionConfiguration compression() {
+            return compression;
+        }
+
+        int maxPipelinedRequests() {
+            return maxPipelinedRequests;
+        }
+
+        int maxConnections() {
+            return maxConnections;
+        }
+
+        boolean queueConnections() {
+            return queueConnections;
+        }
+
+        long idleTimeoutMillis() {
+            return idleTimeoutMillis;
+        }
+
+        long readTimeoutMillis() {
+            return readTimeoutMillis;
+        }
+
+        int maxInitialLineLength() {
+            return maxInitialLineLength;
+        }
+
+        int maxHeaderSize() {
+            return maxHeaderSize;
+        }
+
+        int dedicatedWorkers() {
+            return dedicatedWorkers;
+        }
+
+        boolean dedicatedAcceptor() {
+            return dedicatedAcceptor;
+        }
+
+        int aggregationBufferSize() {
+            return aggregationBufferSize;
         }
     }
 }
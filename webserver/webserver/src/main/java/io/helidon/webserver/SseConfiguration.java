@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import io.helidon.config.Config;
+
+/**
+ * Configuration of a Server-Sent Events stream, see
+ * {@link ServerResponse#sendEvents(io.helidon.common.reactive.Flow.Publisher, SseConfiguration)}.
+ * <p>
+ * Events published within the {@link #flushWindowMillis() flush window} are written to the connection with a single
+ * flush. A {@link #keepAliveMillis() keep-alive} comment is sent when no event was sent for a while, so that proxies
+ * do not close an idle stream and a disconnected client is detected.
+ */
+public interface SseConfiguration {
+
+    /**
+     * Default interval of the keep-alive comments.
+     */
+    long DEFAULT_KEEP_ALIVE_MILLIS = 15_000;
+
+    /**
+     * Time the events are collected before they are flushed, {@code 0} to flush each event.
+     *
+     * @return flush window in milliseconds
+     */
+    long flushWindowMillis();
+
+    /**
+     * Interval of the keep-alive comments sent when no event was sent within the interval, {@code 0} to disable.
+     *
+     * @return keep-alive interval in milliseconds
+     */
+    long keepAliveMillis();
+
+    /**
+     * Default configuration, each event is flushed and keep-alive comments are sent every
+     * {@value #DEFAULT_KEEP_ALIVE_MILLIS} milliseconds.
+     *
+     * @return default configuration
+     */
+    static SseConfiguration defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a configuration from a configuration node.
+     * <p>
+     * Configuration keys: {@code flush-window-millis} and {@code keep-alive-millis}.
+     *
+     * @param config configuration node
+     * @return a new configuration
+     */
+    static SseConfiguration create(Config config) {
+        return builder().config(config).build();
+    }
+
+    /**
+     * Creates a new fluent API builder.
+     *
+     * @return a new builder instance
+     */
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link SseConfiguration}.
+     */
+    final class Builder implements io.helidon.common.Builder<SseConfiguration> {
+
+        private long flushWindowMillis = 0;
+        private long keepAliveMillis = DEFAULT_KEEP_ALIVE_MILLIS;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the time the events are collected before they are flushed.
+         *
+         * @param flushWindowMillis flush window in milliseconds, {@code 0} to flush each event
+         * @return updated builder
+         */
+        public Builder flushWindowMillis(long flushWindowMillis) {
+            this.flushWindowMillis = Math.max(0, flushWindowMillis);
+            return this;
+        }
+
+        /**
+         * Sets the interval of the keep-alive comments.
+         *
+         * @param keepAliveMillis keep-alive interval in milliseconds, {@code 0} to disable
+         * @return updated builder
+         */
+        public Builder keepAliveMillis(long keepAliveMillis) {
+            this.keepAliveMillis = Math.max(0, keepAliveMillis);
+            return this;
+        }
+
+        /**
+         * Updates the builder from a configuration node.
+         *
+         * @param config configuration node
+         * @return updated builder
+         */
+        public Builder config(Config config) {
+            config.get("flush-window-millis").asLong().ifPresent(this::flushWindowMillis);
+            config.get("keep-alive-millis").asLong().ifPresent(this::keepAliveMillis);
+            return this;
+        }
+
+        @Override
+        public SseConfiguration build() {
+            long flushWindowMillis = this.flushWindowMillis;
+            long keepAliveMillis = this.keepAliveMillis;
+
+            return new SseConfiguration() {
+                @Override
+                public long flushWindowMillis() {
+                    return flushWindowMillis;
+                }
+
+                @Override
+                public long keepAliveMillis() {
+                    return keepAliveMillis;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLSessionContext;
+
+import io.helidon.common.pki.KeyConfig;
+
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.IdentityCipherSuiteFilter;
+import io.netty.handler.ssl.JdkSslContext;
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.OpenSslSessionContext;
+import io.netty.handler.ssl.OpenSslSessionTicketKey;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslProvider;
+import io.netty.handler.ssl.SupportedCipherSuiteFilter;
+
+/**
+ * Creates the Netty SSL context of a server socket according to its {@link TlsConfiguration}.
+ */
+final class SslContextFactory {
+
+    private static final Logger LOGGER = Logger.getLogger(SslContextFactory.class.getName());
+
+    private SslContextFactory() {
+    }
+
+    /**
+     * Creates the SSL context of a socket with an {@link SocketConfiguration#ssl() SSL context} configured.
+     *
+     * @param name     name of the socket
+     * @param soConfig socket configuration
+     * @param http2    whether to negotiate HTTP/2 using ALPN
+     * @return a new SSL context
+     * @throws IllegalStateException if the OpenSSL context cannot be created
+     */
+    static SslContext create(String name, SocketConfiguration soConfig, boolean http2) {
+        TlsConfiguration tls = soConfig.tls();
+        String[] protocols = soConfig.enabledSslProtocols().isEmpty()
+                ? null
+                : soConfig.enabledSslProtocols().toArray(new String[0]);
+
+        // Enable ALPN for application protocol negotiation with HTTP/2
+        // Needs JDK >= 9 or Jetty’s ALPN boot library with the JDK provider
+        ApplicationProtocolConfig appProtocolConfig = null;
+        if (http2) {
+            appProtocolConfig = new ApplicationProtocolConfig(
+                    ApplicationProtocolConfig.Protocol.ALPN,
+                    ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+                    ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+                    ApplicationProtocolNames.HTTP_2,
+                    ApplicationProtocolNames.HTTP_1_1);
+        }
+
+        if (tls.provider() == TlsConfiguration.Provider.OPENSSL) {
+            Optional<PrivateKey> privateKey = tls.privateKey().flatMap(KeyConfig::privateKey);
+            if (!OpenSsl.isAvailable()) {
+                LOGGER.info(() -> "Channel '" + name + "': OpenSSL is not available, the JDK TLS provider is used: "
+                        + OpenSsl.unavailabilityCause());
+            } else if (!privateKey.isPresent()) {
+                LOGGER.warning(() -> "Channel '" + name + "': OpenSSL requires the private key of the TLS configuration, "
+                        + "the JDK TLS provider is used.");
+            } else {
+                LOGGER.fine(() -> "Channel '" + name + "': TLS provider " + OpenSsl.versionString());
+                return openSslContext(tls, privateKey.get(), protocols, appProtocolConfig);
+            }
+        }
+
+        JdkSslContext sslContext = new JdkSslContext(
+                soConfig.ssl(), false,
+                tls.ciphers().isEmpty() ? null : tls.ciphers(),
+                tls.ciphers().isEmpty() ? IdentityCipherSuiteFilter.INSTANCE : SupportedCipherSuiteFilter.INSTANCE,
+                appProtocolConfig, clientAuth(tls), protocols, false);
+        SSLSessionContext sessionContext = sslContext.sessionContext();
+        if (tls.sessionCacheSize() > 0) {
+            sessionContext.setSessionCacheSize((int) Math.min(tls.sessionCacheSize(), Integer.MAX_VALUE));
+        }
+        if (tls.sessionTimeoutSeconds() > 0) {
+            sessionContext.setSessionTimeout((int) Math.min(tls.sessionTimeoutSeconds(), Integer.MAX_VALUE));
+        }
+        return sslContext;
+    }
+
+    private static SslContext openSslContext(TlsConfiguration tls,
+                                             PrivateKey privateKey,
+                                             String[] protocols,
+                                             ApplicationProtocolConfig appProtocolConfig) {
+        List<X509Certificate> certChain = tls.privateKey()
+                .map(KeyConfig::certChain)
+                .orElseGet(Collections::emptyList);
+        SslContextBuilder builder = SslContextBuilder.forServer(privateKey, certChain.toArray(new X509Certificate[0]))
+                .sslProvider(SslProvider.OPENSSL)
+                .protocols(protocols)
+                .clientAuth(clientAuth(tls))
+                .applicationProtocolConfig(appProtocolConfig)
+                .sessionCacheSize(tls.sessionCacheSize())
+                .sessionTimeout(tls.sessionTimeoutSeconds());
+        if (!tls.ciphers().isEmpty()) {
+            builder.ciphers(tls.ciphers(), SupportedCipherSuiteFilter.INSTANCE);
+        }
+        List<X509Certificate> trusted = tls.trust().map(KeyConfig::certs).orElseGet(Collections::emptyList);
+        if (!trusted.isEmpty()) {
+            builder.trustManager(trusted.toArray(new X509Certificate[0]));
+        }
+
+        SslContext sslContext;
+        try {
+            sslContext = builder.build();
+        } catch (SSLException e) {
+            throw new IllegalStateException("Unable to create the OpenSSL context", e);
+        }
+
+        if (!tls.sessionTicketKeys().isEmpty() && sslContext.sessionContext() instanceof OpenSslSessionContext) {
+            OpenSslSessionTicketKey[] keys = tls.sessionTicketKeys()
+                    .stream()
+                    .map(key -> new OpenSslSessionTicketKey(Arrays.copyOfRange(key, 0, 16),
+                                                            Arrays.copyOfRange(key, 16, 32),
+                                                            Arrays.copyOfRange(key, 32, 48)))
+                    .toArray(OpenSslSessionTicketKey[]::new);
+            ((OpenSslSessionContext) sslContext.sessionContext()).setTicketKeys(keys);
+        }
+        return sslContext;
+    }
+
+    private static ClientAuth clientAuth(TlsConfiguration tls) {
+        switch (tls.clientAuth()) {
+        case OPTIONAL:
+            return ClientAuth.OPTIONAL;
+        case REQUIRE:
+            return ClientAuth.REQUIRE;
+        default:
+            return ClientAuth.NONE;
+        }
+    }
+}
@@ -0,0 +1,388 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Size bounded in-memory cache of static content.
+ * <p>
+ * Content of each entry is kept in a direct buffer and served as a read-only view, so a cache hit neither touches
+ * the class-loader nor copies the bytes. A gzip variant of an entry is created lazily by the first request that accepts
+ * it; precompressed variants (e.g. {@code .br} resources built with the application) can be provided when the entry
+ * is created.
+ * <p>
+ * Eviction is done when a new entry (or variant) does not fit into the configured maximal size, removing entries
+ * one by one according to the configured {@link StaticContentSupport.CacheEviction eviction policy}.
+ */
+final class StaticContentCache implements StaticContentSupport.CacheStatistics {
+    static final String GZIP = "gzip";
+    static final String BROTLI = "br";
+
+    private static final ByteBuffer NOT_COMPRESSIBLE = ByteBuffer.allocate(0);
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong size = new AtomicLong();
+    private final AtomicLong clock = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final long maxSize;
+    private final StaticContentSupport.CacheEviction eviction;
+
+    /**
+     * Creates new instance.
+     *
+     * @param maxSize  maximal size of all cached content (including variants) in bytes
+     * @param eviction eviction policy
+     */
+    StaticContentCache(long maxSize, StaticContentSupport.CacheEviction eviction) {
+        this.maxSize = maxSize;
+        this.eviction = eviction;
+    }
+
+    /**
+     * Cached entry or {@code null} if not cached. A non-null result is recorded as a cache hit.
+     *
+     * @param resource name of the resource
+     * @return cached entry or {@code null}
+     */
+    Entry get(String resource) {
+        Entry entry = entries.get(resource);
+        if (entry != null) {
+            hits.increment();
+            entry.accessed(clock.incrementAndGet());
+        }
+        return entry;
+    }
+
+    /**
+     * Records a cache miss.
+     */
+    void miss() {
+        misses.increment();
+    }
+
+    /**
+     * Whether content of the provided size can be cached at all.
+     *
+     * @param length content length in bytes
+     * @return {@code true} if content fits into the cache
+     */
+    boolean fits(long length) {
+        return length <= maxSize;
+    }
+
+    /**
+     * Maximal size of cached content in bytes.
+     *
+     * @return maximal size
+     */
+    long maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Creates and caches a new entry, evicting other entries if needed.
+     *
+     * @param resource     name of the resource
+     * @param fileName     file name used to determine content type
+     * @param lastModified last modification time or {@code null} if not known
+     * @param content      content of the resource
+     * @param brotli       brotli compressed content or {@code null}
+     * @param gzip         gzip compressed content or {@code null} if should be created on demand
+     * @return the cached entry, or {@code null} if the content is too big to be cached
+     */
+    Entry put(String resource, String fileName, Instant lastModified, byte[] content, byte[] brotli, byte[] gzip) {
+        long length = content.length + (brotli == null ? 0 : brotli.length) + (gzip == null ? 0 : gzip.length);
+        if (!fits(length)) {
+            return null;
+        }
+        Entry entry = new Entry(this, resource, fileName, lastModified, content, brotli, gzip);
+        entry.accessed(clock.incrementAndGet());
+        synchronized (this) {
+            Entry previous = entries.put(resource, entry);
+            if (previous != null) {
+                size.addAndGet(-previous.size());
+            }
+            size.addAndGet(entry.size());
+            evict(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    synchronized void clear() {
+        entries.clear();
+        size.set(0);
+    }
+
+    @Override
+    public long hits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long misses() {
+        return misses.sum();
+    }
+
+    @Override
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public long size() {
+        return size.get();
+    }
+
+    @Override
+    public long entries() {
+        return entries.size();
+    }
+
+    private synchronized void addGzip(Entry entry, ByteBuffer gzip) {
+        entry.gzip = gzip;
+        if (entries.get(entry.resource) == entry) {
+            size.addAndGet(gzip.capacity());
+            evict(entry);
+        }
+    }
+
+    // always called while holding the lock of this instance; the entry that just grew is evicted last
+    private void evict(Entry grown) {
+        while (size.get() > maxSize) {
+            Entry victim = null;
+            for (Entry candidate : entries.values()) {
+                if (candidate == grown && entries.size() > 1) {
+                    continue;
+                }
+                if (victim == null || evictBefore(candidate, victim)) {
+                    victim = candidate;
+                }
+            }
+            if (victim == null) {
+                return;
+            }
+            entries.remove(victim.resource);
+            size.addAndGet(-victim.size());
+            evictions.increment();
+        }
+    }
+
+    private boolean evictBefore(Entry candidate, Entry current) {
+        if (eviction == StaticContentSupport.CacheEviction.LFU) {
+            long candidateHits = candidate.hits();
+            long currentHits = current.hits();
+            if (candidateHits != currentHits) {
+                return candidateHits < currentHits;
+            }
+        }
+        return candidate.lastAccess() < current.lastAccess();
+    }
+
+    static byte[] readAll(InputStream in, long limit) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            if (out.size() > limit) {
+                return null;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static ByteBuffer direct(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        buffer.flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Strong entity tag of the content.
+     *
+     * @param content the content
+     * @return hex encoded digest of the content
+     */
+    static String digest(byte[] content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder result = new StringBuilder(32);
+            // 128 bits are more than enough for an entity tag
+            for (int i = 0; i < 16; i++) {
+                result.append(Character.forDigit((hash[i] >> 4) & 0xF, 16))
+                        .append(Character.forDigit(hash[i] & 0xF, 16));
+            }
+            return result.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Cached resource.
+     */
+    static final class Entry {
+        private final StaticContentCache cache;
+        private final String resource;
+        private final String fileName;
+        private final Instant lastModified;
+        private final String etag;
+        private final ByteBuffer content;
+        private final ByteBuffer brotli;
+        private final LongAdder hits = new LongAdder();
+        private volatile ByteBuffer gzip;
+        private volatile long lastAccess;
+
+        private Entry(StaticContentCache cache,
+                      String resource,
+                      String fileName,
+                      Instant lastModified,
+                      byte[] content,
+                      byte[] brotli,
+                      byte[] gzip) {
+            this.cache = cache;
+            this.resource = resource;
+            this.fileName = fileName;
+            this.lastModified = lastModified;
+            this.etag = digest(content);
+            this.content = direct(content);
+            this.brotli = (brotli == null) ? null : direct(brotli);
+            this.gzip = (gzip == null) ? null : direct(gzip);
+        }
+
+        String fileName() {
+            return fileName;
+        }
+
+        Instant lastModified() {
+            return lastModified;
+        }
+
+        /**
+         * Strong entity tag of the selected variant.
+         *
+         * @param coding content coding of the variant, {@code null} for identity
+         * @return entity tag
+         */
+        String etag(String coding) {
+            return (coding == null) ? etag : etag + "-" + coding;
+        }
+
+        /**
+         * Selects the best variant for the provided {@code Accept-Encoding} header values.
+         *
+         * @param acceptEncoding values of the {@code Accept-Encoding} header
+         * @return content coding of the variant, {@code null} for identity
+         */
+        String coding(List<String> acceptEncoding) {
+            if (acceptEncoding.isEmpty()) {
+                return null;
+            }
+            if (brotli != null && ContentCompressor.accepts(acceptEncoding, BROTLI)) {
+                return BROTLI;
+            }
+            if (ContentCompressor.accepts(acceptEncoding, GZIP) && gzip() != NOT_COMPRESSIBLE) {
+                return GZIP;
+            }
+            return null;
+        }
+
+        /**
+         * A new read-only view of the content of the variant.
+         *
+         * @param coding content coding as returned from {@link #coding(List)}
+         * @return content of the variant
+         */
+        ByteBuffer content(String coding) {
+            if (coding == null) {
+                return content.duplicate();
+            }
+            return (BROTLI.equals(coding) ? brotli : gzip).duplicate();
+        }
+
+        private ByteBuffer gzip() {
+            ByteBuffer result = gzip;
+            if (result == null) {
+                synchronized (this) {
+                    result = gzip;
+                    if (result == null) {
+                        result = compress();
+                        cache.addGzip(this, result);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private ByteBuffer compress() {
+            ByteBuffer source = content.duplicate();
+            byte[] bytes = new byte[source.remaining()];
+            source.get(bytes);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 32);
+            try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+                gzipOut.write(bytes);
+            } catch (IOException e) {
+                return NOT_COMPRESSIBLE;
+            }
+            byte[] compressed = out.toByteArray();
+            // compressed variant is only kept if it saves something
+            if (compressed.length >= bytes.length || !cache.fits(size() + compressed.length)) {
+                return NOT_COMPRESSIBLE;
+            }
+            return direct(compressed);
+        }
+
+        private void accessed(long tick) {
+            hits.increment();
+            lastAccess = tick;
+        }
+
+        private long size() {
+            ByteBuffer gzipContent = gzip;
+            return content.capacity()
+                    + (brotli == null ? 0 : brotli.capacity())
+                    + (gzipContent == null ? 0 : gzipContent.capacity());
+        }
+
+        long lastAccess() {
+            return lastAccess;
+        }
+
+        long hits() {
+            return hits.sum();
+        }
+    }
+}
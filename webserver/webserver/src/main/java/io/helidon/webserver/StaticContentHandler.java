@@ -18,11 +18,15 @@ package io.helidon.webserver;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.time.ZonedDateTime;
 import java.time.chrono.ChronoZonedDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 
 import io.helidon.common.http.Http;
 import io.helidon.common.http.MediaType;
@@ -31,6 +35,9 @@ import io.helidon.common.http.MediaType;
  * Request {@link Handler} processing a static content.
  */
 abstract class StaticContentHandler {
+    // more ranges in a single request are ignored and the whole file is sent
+    private static final int MAX_RANGES = 16;
+    private static final String BYTES_UNIT = "bytes";
 
     private final String welcomeFilename;
     private final ContentTypeSelector contentTypeSelector;
@@ -52,6 +59,15 @@ abstract class StaticContentHandler {
     void releaseCache() {
     }
 
+    /**
+     * Statistics of the content cache (if any exists).
+     *
+     * @return cache statistics or empty
+     */
+    Optional<StaticContentSupport.CacheStatistics> cacheStatistics() {
+        return Optional.empty();
+    }
+
     /**
      * Do handle for GET and HEAD HTTP methods. It is filtering implementation, prefers {@code response.next()} before NOT_FOUND.
      *
@@ -147,7 +163,13 @@ abstract class StaticContentHandler {
         }
     }
 
-    private static String unquoteETag(String etag) {
+    /**
+     * Removes the weak validator prefix and the quotes of an entity tag.
+     *
+     * @param etag entity tag as sent in a header
+     * @return the opaque tag
+     */
+    static String unquoteETag(String etag) {
         if (etag == null || etag.isEmpty()) {
             return etag;
         }
@@ -191,6 +213,93 @@ abstract class StaticContentHandler {
         }
     }
 
+    /**
+     * Sends the file, or the ranges of it requested by the {@code Range} header as a partial content.
+     * The {@code Accept-Ranges} header is always added.
+     * <p>
+     * Must be invoked once the {@code ETag}, {@code Last-Modified} and {@code Content-Type} headers are processed,
+     * as they are used to validate the {@code If-Range} header and to create {@code multipart/byteranges} content.
+     *
+     * @param method   GET or HEAD HTTP method
+     * @param path     the file to send
+     * @param request  an HTTP request
+     * @param response an HTTP response
+     * @throws IOException   if the file size cannot be determined
+     * @throws HttpException if none of the requested ranges is satisfiable
+     */
+    static void sendFile(Http.RequestMethod method, Path path, ServerRequest request, ServerResponse response)
+            throws IOException {
+        ResponseHeaders headers = response.headers();
+        headers.put(Http.Header.ACCEPT_RANGES, BYTES_UNIT);
+        if (method == Http.Method.HEAD) {
+            response.send();
+            return;
+        }
+
+        long length = Files.size(path);
+        List<ByteRange> ranges = processRanges(length, request.headers(), headers);
+        if (ranges == null) {
+            response.send(path);
+        } else if (ranges.size() == 1) {
+            ByteRange range = ranges.get(0);
+            response.status(Http.Status.PARTIAL_CONTENT_206);
+            headers.put(Http.Header.CONTENT_RANGE, range.contentRange(length));
+            response.send(FileContent.create(path, range.first(), range.length()));
+        } else {
+            String contentType = headers.contentType().map(MediaType::toString).orElse(null);
+            String boundary = Long.toHexString(ThreadLocalRandom.current().nextLong());
+            response.status(Http.Status.PARTIAL_CONTENT_206);
+            headers.contentType(MediaType.parse("multipart/byteranges; boundary=" + boundary));
+            response.send(FileContent.createMultipart(path, ranges, length, contentType, boundary));
+        }
+    }
+
+    /**
+     * Validates {@code Range} and {@code If-Range} headers and returns the requested ranges.
+     *
+     * @param length          length of the content
+     * @param requestHeaders  an HTTP request headers
+     * @param responseHeaders an HTTP response headers
+     * @return the requested ranges or {@code null} if the whole content should be sent
+     * @throws HttpException if none of the ranges is satisfiable
+     */
+    static List<ByteRange> processRanges(long length, RequestHeaders requestHeaders, ResponseHeaders responseHeaders) {
+        Optional<String> range = requestHeaders.first(Http.Header.RANGE);
+        if (!range.isPresent()) {
+            return null;
+        }
+        Optional<String> ifRange = requestHeaders.first(Http.Header.IF_RANGE);
+        if (ifRange.isPresent() && !ifRangeMatches(ifRange.get().trim(), responseHeaders)) {
+            // the content has changed, send it whole
+            return null;
+        }
+        List<ByteRange> ranges = ByteRange.parse(range.get(), length, MAX_RANGES);
+        if (ranges != null && ranges.isEmpty()) {
+            responseHeaders.put(Http.Header.CONTENT_RANGE, BYTES_UNIT + " */" + length);
+            throw new HttpException("Requested range not satisfiable!", Http.Status.REQUESTED_RANGE_NOT_SATISFIABLE_416);
+        }
+        return ranges;
+    }
+
+    private static boolean ifRangeMatches(String ifRange, ResponseHeaders responseHeaders) {
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // entity tag, weak tags never match
+            return responseHeaders.first(Http.Header.ETAG)
+                    .map(ifRange::equals)
+                    .orElse(false);
+        }
+        // HTTP date, must be exactly the last modification time
+        Optional<ZonedDateTime> lastModified = responseHeaders.lastModified();
+        if (!lastModified.isPresent()) {
+            return false;
+        }
+        try {
+            return Http.DateTime.parse(ifRange).toInstant().equals(lastModified.get().toInstant());
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
     /**
      * If provided {@code condition} is {@code true} then throws not found {@link HttpException}.
      *
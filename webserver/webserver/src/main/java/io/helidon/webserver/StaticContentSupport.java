@@ -19,6 +19,7 @@ package io.helidon.webserver;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.TreeMap;
 import java.util.function.Consumer;
 
@@ -77,6 +78,16 @@ public class StaticContentSupport implements Service {
         }
     }
 
+    /**
+     * Statistics of the in-memory cache of class-path content, if configured using
+     * {@link Builder#cacheMaxSize(long)}.
+     *
+     * @return cache statistics or empty if content is not cached
+     */
+    public Optional<CacheStatistics> cacheStatistics() {
+        return handler.cacheStatistics();
+    }
+
     /**
      * Creates new builder with defined static content root as a class-loader resource. Builder provides ability to define
      * more advanced configuration.
@@ -166,6 +177,8 @@ public class StaticContentSupport implements Service {
 
         private final Map<String, MediaType> specificContentTypes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
         private String welcomeFileName;
+        private long cacheMaxSize;
+        private CacheEviction cacheEviction = CacheEviction.LRU;
 
         Builder(Path fsRoot) {
             Objects.requireNonNull(fsRoot, "Attribute fsRoot is null!");
@@ -218,6 +231,40 @@ public class StaticContentSupport implements Service {
             return this;
         }
 
+        /**
+         * Enables in-memory cache of class-path content with the provided maximal size. Cached resources are served
+         * without accessing the class-loader, with strong entity tags and with compressed variants for clients
+         * accepting {@code gzip} (created on first use) or {@code br} (if a precompressed {@code .br} resource exists
+         * next to the original one). Requests for byte ranges are always served directly.
+         * <p>
+         * The cache is not used for static content served from the file system. Default is {@code 0} - no caching.
+         *
+         * @param maxSize maximal size of all cached content in bytes, {@code 0} to disable the cache
+         * @return updated builder
+         * @throws IllegalArgumentException if {@code maxSize} is negative
+         */
+        public Builder cacheMaxSize(long maxSize) {
+            if (maxSize < 0) {
+                throw new IllegalArgumentException("Parameter 'maxSize' cannot be negative!");
+            }
+            this.cacheMaxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Sets the policy used to choose cached resources to drop when the cache is full.
+         * Default is {@link CacheEviction#LRU}.
+         *
+         * @param eviction eviction policy
+         * @return updated builder
+         * @throws NullPointerException if {@code eviction} is {@code null}
+         */
+        public Builder cacheEviction(CacheEviction eviction) {
+            Objects.requireNonNull(eviction, "Parameter 'eviction' is null!");
+            this.cacheEviction = eviction;
+            return this;
+        }
+
         /**
          * Builds new {@link StaticContentSupport} instance.
          *
@@ -230,7 +277,8 @@ public class StaticContentSupport implements Service {
             if (fsRoot != null) {
                 handler = FileSystemContentHandler.create(welcomeFileName, selector, fsRoot);
             } else if (clRoot != null) {
-                handler = ClassPathContentHandler.create(welcomeFileName, selector, clRoot, classLoader);
+                StaticContentCache cache = (cacheMaxSize > 0) ? new StaticContentCache(cacheMaxSize, cacheEviction) : null;
+                handler = ClassPathContentHandler.create(welcomeFileName, selector, clRoot, classLoader, cache);
             } else {
                 throw new IllegalArgumentException("Builder was created without specified static content root!");
             }
@@ -238,4 +286,58 @@ public class StaticContentSupport implements Service {
         }
 
     }
+
+    /**
+     * Policy of the static content cache eviction.
+     */
+    public enum CacheEviction {
+        /**
+         * Least recently used resource is evicted first.
+         */
+        LRU,
+        /**
+         * Least frequently used resource is evicted first; the least recently used one of equally used resources.
+         */
+        LFU
+    }
+
+    /**
+     * Statistics of the static content cache.
+     */
+    public interface CacheStatistics {
+        /**
+         * Number of requests served from the cache.
+         *
+         * @return number of cache hits
+         */
+        long hits();
+
+        /**
+         * Number of requests that could not be served from the cache.
+         *
+         * @return number of cache misses
+         */
+        long misses();
+
+        /**
+         * Number of resources removed from the cache to free space for others.
+         *
+         * @return number of evictions
+         */
+        long evictions();
+
+        /**
+         * Size of all cached content including compressed variants in bytes.
+         *
+         * @return cache size
+         */
+        long size();
+
+        /**
+         * Number of cached resources.
+         *
+         * @return number of entries
+         */
+        long entries();
+    }
 }
@@ -0,0 +1,373 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+import io.helidon.common.CollectionsHelper;
+import io.helidon.common.pki.KeyConfig;
+import io.helidon.config.Config;
+
+/**
+ * TLS settings of a {@link SocketConfiguration#tls() server socket} which has an {@link SocketConfiguration#ssl() SSL
+ * context} configured.
+ * <p>
+ * The connections are secured by the JDK provider using the SSL context of the socket, or by OpenSSL
+ * ({@code netty-tcnative}) if {@link Provider#OPENSSL requested} and available on the class-path. OpenSSL needs
+ * the {@link #privateKey() private key} of the server as it does not use the SSL context; if OpenSSL is not available
+ * or the private key is not configured, the JDK provider is used.
+ */
+public interface TlsConfiguration {
+
+    /**
+     * Length of a session ticket key in bytes: 16 bytes of the key name, 16 bytes of the HMAC secret and 16 bytes
+     * of the AES key.
+     */
+    int SESSION_TICKET_KEY_LENGTH = 48;
+
+    /**
+     * Provider of the TLS implementation.
+     */
+    enum Provider {
+        /**
+         * The JDK provider, uses the SSL context of the socket.
+         */
+        JDK,
+        /**
+         * OpenSSL provider of {@code netty-tcnative}, falls back to the JDK provider if not available.
+         */
+        OPENSSL
+    }
+
+    /**
+     * Authentication of the clients by their certificates.
+     */
+    enum ClientAuth {
+        /**
+         * Client certificates are not requested.
+         */
+        NONE,
+        /**
+         * Client certificates are requested, a client without a certificate is accepted.
+         */
+        OPTIONAL,
+        /**
+         * Client certificates are required, a client without a trusted certificate is rejected (mutual TLS).
+         */
+        REQUIRE
+    }
+
+    /**
+     * The requested TLS provider.
+     *
+     * @return TLS provider
+     */
+    Provider provider();
+
+    /**
+     * Authentication of the clients. The client certificates are verified against the trusted certificates
+     * of the SSL context or of the {@link #trust()} when OpenSSL is used.
+     *
+     * @return client authentication
+     */
+    ClientAuth clientAuth();
+
+    /**
+     * Enabled cipher suites in order of preference, the provider defaults are used if empty. Unsupported cipher suites
+     * are ignored.
+     *
+     * @return cipher suites
+     */
+    List<String> ciphers();
+
+    /**
+     * Maximal number of cached sessions to resume, {@code 0} to use the provider default.
+     *
+     * @return session cache size
+     */
+    long sessionCacheSize();
+
+    /**
+     * Time after which a cached session can no longer be resumed, {@code 0} to use the provider default.
+     *
+     * @return session timeout in seconds
+     */
+    long sessionTimeoutSeconds();
+
+    /**
+     * Keys to encrypt and decrypt the session tickets with, the first key encrypts new tickets. Servers sharing
+     * the keys resume the sessions of each other. Used only with OpenSSL, which generates a random key if none is
+     * configured; session tickets of the JDK provider are controlled by the JVM.
+     *
+     * @return session ticket keys of {@value #SESSION_TICKET_KEY_LENGTH} bytes
+     */
+    List<byte[]> sessionTicketKeys();
+
+    /**
+     * Private key and certificate chain of the server used by OpenSSL.
+     *
+     * @return private key configuration
+     */
+    Optional<KeyConfig> privateKey();
+
+    /**
+     * Certificates trusted to authenticate the clients when OpenSSL is used.
+     *
+     * @return trust configuration
+     */
+    Optional<KeyConfig> trust();
+
+    /**
+     * Default settings, the JDK provider without client authentication.
+     *
+     * @return default TLS settings
+     */
+    static TlsConfiguration defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates TLS settings from the {@code ssl} configuration node of a socket.
+     * <p>
+     * Configuration keys: {@code provider} ({@code jdk} or {@code openssl}), {@code client-auth} ({@code none},
+     * {@code optional} or {@code require}), {@code ciphers}, {@code session-cache-size}, {@code session-timeout}
+     * (seconds), {@code session-ticket-keys} (base64 encoded), {@code private-key} and {@code trust}.
+     *
+     * @param config {@code ssl} configuration node of the socket
+     * @return a new configuration
+     */
+    static TlsConfiguration create(Config config) {
+        return builder().config(config).build();
+    }
+
+    /**
+     * Creates a new fluent API builder.
+     *
+     * @return a new builder instance
+     */
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link TlsConfiguration}.
+     */
+    final class Builder implements io.helidon.common.Builder<TlsConfiguration> {
+
+        private Provider provider = Provider.JDK;
+        private ClientAuth clientAuth = ClientAuth.NONE;
+        private List<String> ciphers = CollectionsHelper.listOf();
+        private long sessionCacheSize = 0;
+        private long sessionTimeoutSeconds = 0;
+        private List<byte[]> sessionTicketKeys = CollectionsHelper.listOf();
+        private KeyConfig privateKey;
+        private KeyConfig trust;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the TLS provider.
+         *
+         * @param provider TLS provider
+         * @return updated builder
+         */
+        public Builder provider(Provider provider) {
+            this.provider = Objects.requireNonNull(provider, "Parameter 'provider' is null!");
+            return this;
+        }
+
+        /**
+         * Sets the authentication of the clients.
+         *
+         * @param clientAuth client authentication
+         * @return updated builder
+         */
+        public Builder clientAuth(ClientAuth clientAuth) {
+            this.clientAuth = Objects.requireNonNull(clientAuth, "Parameter 'clientAuth' is null!");
+            return this;
+        }
+
+        /**
+         * Sets the enabled cipher suites in order of preference.
+         *
+         * @param ciphers cipher suites
+         * @return updated builder
+         */
+        public Builder ciphers(List<String> ciphers) {
+            Objects.requireNonNull(ciphers, "Parameter 'ciphers' is null!");
+            this.ciphers = Collections.unmodifiableList(new ArrayList<>(ciphers));
+            return this;
+        }
+
+        /**
+         * Sets the maximal number of cached sessions.
+         *
+         * @param sessionCacheSize session cache size, {@code 0} for the provider default
+         * @return updated builder
+         */
+        public Builder sessionCacheSize(long sessionCacheSize) {
+            this.sessionCacheSize = Math.max(0, sessionCacheSize);
+            return this;
+        }
+
+        /**
+         * Sets the time after which a cached session can no longer be resumed.
+         *
+         * @param sessionTimeoutSeconds session timeout in seconds, {@code 0} for the provider default
+         * @return updated builder
+         */
+        public Builder sessionTimeoutSeconds(long sessionTimeoutSeconds) {
+            this.sessionTimeoutSeconds = Math.max(0, sessionTimeoutSeconds);
+            return this;
+        }
+
+        /**
+         * Sets the keys of the session tickets, the first key encrypts new tickets.
+         *
+         * @param sessionTicketKeys keys of {@value #SESSION_TICKET_KEY_LENGTH} bytes
+         * @return updated builder
+         * @throws IllegalArgumentException if a key does not have {@value #SESSION_TICKET_KEY_LENGTH} bytes
+         */
+        public Builder sessionTicketKeys(List<byte[]> sessionTicketKeys) {
+            List<byte[]> result = new ArrayList<>(sessionTicketKeys.size());
+            for (byte[] key : sessionTicketKeys) {
+                if (key.length != SESSION_TICKET_KEY_LENGTH) {
+                    throw new IllegalArgumentException("Session ticket key must have " + SESSION_TICKET_KEY_LENGTH
+                                                               + " bytes, but has " + key.length);
+                }
+                result.add(key.clone());
+            }
+            this.sessionTicketKeys = Collections.unmodifiableList(result);
+            return this;
+        }
+
+        /**
+         * Sets the private key and certificate chain of the server used by OpenSSL.
+         *
+         * @param privateKey private key configuration
+         * @return updated builder
+         */
+        public Builder privateKey(KeyConfig privateKey) {
+            this.privateKey = privateKey;
+            return this;
+        }
+
+        /**
+         * Sets the certificates trusted to authenticate the clients when OpenSSL is used.
+         *
+         * @param trust trust configuration
+         * @return updated builder
+         */
+        public Builder trust(KeyConfig trust) {
+            this.trust = trust;
+            return this;
+        }
+
+        /**
+         * Updates the builder from the {@code ssl} configuration node of a socket.
+         *
+         * @param config {@code ssl} configuration node
+         * @return updated builder
+         */
+        public Builder config(Config config) {
+            config.get("provider").asString()
+                    .map(value -> Provider.valueOf(value.toUpperCase(Locale.ROOT)))
+                    .ifPresent(this::provider);
+            config.get("client-auth").asString()
+                    .map(value -> ClientAuth.valueOf(value.toUpperCase(Locale.ROOT)))
+                    .ifPresent(this::clientAuth);
+            config.get("ciphers").asList(String.class).ifPresent(this::ciphers);
+            config.get("session-cache-size").asLong().ifPresent(this::sessionCacheSize);
+            config.get("session-timeout").asLong().ifPresent(this::sessionTimeoutSeconds);
+            config.get("session-ticket-keys").asList(String.class).ifPresent(keys -> {
+                List<byte[]> result = new ArrayList<>(keys.size());
+                keys.forEach(key -> result.add(Base64.getDecoder().decode(key)));
+                sessionTicketKeys(result);
+            });
+            Config privateKeyConfig = config.get("private-key");
+            if (privateKeyConfig.exists()) {
+                privateKey(KeyConfig.create(privateKeyConfig));
+            }
+            Config trustConfig = config.get("trust");
+            if (trustConfig.exists()) {
+                trust(KeyConfig.create(trustConfig));
+            }
+            return this;
+        }
+
+        @Override
+        public TlsConfiguration build() {
+            Provider provider = this.provider;
+            ClientAuth clientAuth = this.clientAuth;
+            List<String> ciphers = this.ciphers;
+            long sessionCacheSize = this.sessionCacheSize;
+            long sessionTimeoutSeconds = this.sessionTimeoutSeconds;
+            List<byte[]> sessionTicketKeys = this.sessionTicketKeys;
+            Optional<KeyConfig> privateKey = Optional.ofNullable(this.privateKey);
+            Optional<KeyConfig> trust = Optional.ofNullable(this.trust);
+
+            return new TlsConfiguration() {
+                @Override
+                public Provider provider() {
+                    return provider;
+                }
+
+                @Override
+                public ClientAuth clientAuth() {
+                    return clientAuth;
+                }
+
+                @Override
+                public List<String> ciphers() {
+                    return ciphers;
+                }
+
+                @Override
+                public long sessionCacheSize() {
+                    return sessionCacheSize;
+                }
+
+                @Override
+                public long sessionTimeoutSeconds() {
+                    return sessionTimeoutSeconds;
+                }
+
+                @Override
+                public List<byte[]> sessionTicketKeys() {
+                    return sessionTicketKeys;
+                }
+
+                @Override
+                public Optional<KeyConfig> privateKey() {
+                    return privateKey;
+                }
+
+                @Override
+                public Optional<KeyConfig> trust() {
+                    return trust;
+                }
+            };
+        }
+    }
+}
@@ -103,6 +103,16 @@ public interface WebServer {
      */
     int port(String socketName);
 
+    /**
+     * Returns runtime statistics of this server, such as the number of open connections or the amount
+     * of data waiting to be written to the clients.
+     *
+     * @return server statistics
+     */
+    default ServerStatistics statistics() {
+        return new ServerStatistics() { };
+    }
+
     /**
      * Creates a new instance from a provided configuration and a routing.
      *
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import io.helidon.config.Config;
+
+/**
+ * Configuration of a WebSocket endpoint, see
+ * {@link Routing.Rules#websocket(String, WebSocketConfiguration, WebSocketEndpoint)}.
+ * <p>
+ * A frame longer than the {@link #maxFramePayloadLength() frame limit} fails the connection, a message longer than
+ * the {@link #maxMessageSize() message limit} closes the session with {@link WebSocketSession#MESSAGE_TOO_BIG}.
+ * The message limit applies to the message after it was inflated by the {@code permessage-deflate} extension.
+ */
+public interface WebSocketConfiguration {
+
+    /**
+     * Default maximal payload length of a single frame.
+     */
+    int DEFAULT_MAX_FRAME_PAYLOAD_LENGTH = 64 * 1024;
+
+    /**
+     * Default maximal size of an aggregated message.
+     */
+    int DEFAULT_MAX_MESSAGE_SIZE = 1024 * 1024;
+
+    /**
+     * Maximal payload length of a single frame.
+     *
+     * @return maximal frame payload length in bytes
+     */
+    int maxFramePayloadLength();
+
+    /**
+     * Maximal size of a message aggregated from its frames.
+     *
+     * @return maximal message size in bytes
+     */
+    int maxMessageSize();
+
+    /**
+     * Whether the {@code permessage-deflate} extension is accepted when the client offers it.
+     *
+     * @return whether the messages may be compressed
+     */
+    boolean perMessageDeflate();
+
+    /**
+     * Default configuration, with {@code permessage-deflate} accepted.
+     *
+     * @return default configuration
+     */
+    static WebSocketConfiguration defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a configuration from a configuration node.
+     * <p>
+     * Configuration keys: {@code max-frame-payload-length}, {@code max-message-size} and
+     * {@code per-message-deflate}.
+     *
+     * @param config configuration node
+     * @return a new configuration
+     */
+    static WebSocketConfiguration create(Config config) {
+        return builder().config(config).build();
+    }
+
+    /**
+     * Creates a new fluent API builder.
+     *
+     * @return a new builder instance
+     */
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link WebSocketConfiguration}.
+     */
+    final class Builder implements io.helidon.common.Builder<WebSocketConfiguration> {
+
+        private int maxFramePayloadLength = DEFAULT_MAX_FRAME_PAYLOAD_LENGTH;
+        private int maxMessageSize = DEFAULT_MAX_MESSAGE_SIZE;
+        private boolean perMessageDeflate = true;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximal payload length of a single frame.
+         *
+         * @param maxFramePayloadLength maximal frame payload length in bytes
+         * @return updated builder
+         * @throws IllegalArgumentException if the length is not positive
+         */
+        public Builder maxFramePayloadLength(int maxFramePayloadLength) {
+            this.maxFramePayloadLength = positive("maxFramePayloadLength", maxFramePayloadLength);
+            return this;
+        }
+
+        /**
+         * Sets the maximal size of a message aggregated from its frames.
+         *
+         * @param maxMessageSize maximal message size in bytes
+         * @return updated builder
+         * @throws IllegalArgumentException if the size is not positive
+         */
+        public Builder maxMessageSize(int maxMessageSize) {
+            this.maxMessageSize = positive("maxMessageSize", maxMessageSize);
+            return this;
+        }
+
+        /**
+         * Sets whether the {@code permessage-deflate} extension is accepted.
+         *
+         * @param perMessageDeflate whether the messages may be compressed
+         * @return updated builder
+         */
+        public Builder perMessageDeflate(boolean perMessageDeflate) {
+            this.perMessageDeflate = perMessageDeflate;
+            return this;
+        }
+
+        /**
+         * Updates the builder from a configuration node.
+         *
+         * @param config configuration node
+         * @return updated builder
+         */
+        public Builder config(Config config) {
+            config.get("max-frame-payload-length").asInt().ifPresent(this::maxFramePayloadLength);
+            config.get("max-message-size").asInt().ifPresent(this::maxMessageSize);
+            config.get("per-message-deflate").asBoolean().ifPresent(this::perMessageDeflate);
+            return this;
+        }
+
+        @Override
+        public WebSocketConfiguration build() {
+            int maxFramePayloadLength = this.maxFramePayloadLength;
+            int maxMessageSize = this.maxMessageSize;
+            boolean perMessageDeflate = this.perMessageDeflate;
+
+            return new WebSocketConfiguration() {
+                @Override
+                public int maxFramePayloadLength() {
+                    return maxFramePayloadLength;
+                }
+
+                @Override
+                public int maxMessageSize() {
+                    return maxMessageSize;
+                }
+
+                @Override
+                public boolean perMessageDeflate() {
+                    return perMessageDeflate;
+                }
+            };
+        }
+
+        private static int positive(String name, int value) {
+            if (value <= 0) {
+                throw new IllegalArgumentException(name + " must be positive: " + value);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,547 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.common.reactive.Flow;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PingWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PongWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrameAggregator;
+import io.netty.handler.codec.http.websocketx.WebSocketServerHandshaker;
+import io.netty.handler.codec.http.websocketx.WebSocketServerHandshakerFactory;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionData;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionUtil;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtension;
+import io.netty.handler.codec.http.websocketx.extensions.compression.PerMessageDeflateServerExtensionHandshaker;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.timeout.IdleState;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * The last handler of a connection upgraded to WebSocket, replaces the {@link ForwardingHandler}.
+ * <p>
+ * The received messages are read from the connection only as they are requested by the subscriber of
+ * {@link #messages()}, the messages of the endpoint are requested only while the connection is writable.
+ * The control frames are handled by this handler: a ping is answered with a pong and a close frame is answered with
+ * a close frame, then the connection is closed. The inbound state is accessed only by the event loop.
+ */
+final class WebSocketConnection extends ChannelInboundHandlerAdapter implements WebSocketSession {
+
+    private static final Logger LOGGER = Logger.getLogger(WebSocketConnection.class.getName());
+
+    private final ServerRequest request;
+    private final WebSocketConfiguration configuration;
+    private final WebSocketEndpoint endpoint;
+    private final NettyServerStatistics statistics;
+    private final CompletableFuture<WebSocketSession> closed = new CompletableFuture<>();
+    private final AtomicBoolean closeSent = new AtomicBoolean();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final AtomicLong demand = new AtomicLong();
+    private final Outbound outbound = new Outbound();
+
+    // accessed by the event loop
+    private final Queue<WebSocketMessage> received = new ArrayDeque<>();
+    private Flow.Subscriber<? super WebSocketMessage> subscriber;
+    private boolean opened;
+    private boolean closeReceived;
+    private boolean inboundDone;
+    private boolean terminated;
+    private boolean cancelled;
+    private boolean reading;
+    private boolean draining;
+    private boolean redrain;
+
+    private volatile ChannelHandlerContext ctx;
+
+    private WebSocketConnection(ServerRequest request,
+                                WebSocketConfiguration configuration,
+                                WebSocketEndpoint endpoint,
+                                NettyServerStatistics statistics) {
+        this.request = request;
+        this.configuration = configuration;
+        this.endpoint = endpoint;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Upgrades the connection of the response. The response is completed without being written, the HTTP/1.1
+     * handlers are replaced with the WebSocket handlers and the endpoint is opened once the handshake response
+     * is written. Executed on the event loop.
+     *
+     * @param request       the upgrade request
+     * @param response      the response claimed for the upgrade
+     * @param configuration configuration of the endpoint
+     * @param endpoint      the endpoint
+     * @param statistics    statistics of the server
+     */
+    static void open(ServerRequest request,
+                     BareResponseImpl response,
+                     WebSocketConfiguration configuration,
+                     WebSocketEndpoint endpoint,
+                     NettyServerStatistics statistics) {
+        ChannelHandlerContext forwardingContext = response.context();
+        Channel channel = forwardingContext.channel();
+        ChannelPipeline pipeline = forwardingContext.pipeline();
+        HttpHeaders requestHeaders = response.requestHeaders();
+
+        WebSocketServerExtension extension = configuration.perMessageDeflate()
+                ? deflateExtension(requestHeaders.get(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS))
+                : null;
+        HttpHeaders responseHeaders = new DefaultHttpHeaders();
+        if (extension != null) {
+            responseHeaders.set(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS, extensionHeader(extension.newReponseData()));
+        }
+
+        String scheme = (pipeline.get(SslHandler.class) == null) ? "ws" : "wss";
+        String host = requestHeaders.get(HttpHeaderNames.HOST, "localhost");
+        String uri = request.uri().toString();
+        FullHttpRequest handshakeRequest = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1,
+                                                                      HttpMethod.GET,
+                                                                      uri,
+                                                                      Unpooled.EMPTY_BUFFER,
+                                                                      requestHeaders,
+                                                                      EmptyHttpHeaders.INSTANCE);
+        WebSocketServerHandshaker handshaker = new WebSocketServerHandshakerFactory(scheme + "://" + host + uri,
+                                                                                    null,
+                                                                                    extension != null,
+                                                                                    configuration.maxFramePayloadLength())
+                .newHandshaker(handshakeRequest);
+        if (handshaker == null) {
+            // the version was checked by the route handler
+            response.upgraded();
+            WebSocketServerHandshakerFactory.sendUnsupportedVersionResponse(channel);
+            return;
+        }
+
+        WebSocketConnection connection = new WebSocketConnection(request, configuration, endpoint, statistics);
+        // completes the exchange of the forwarding handler before it is removed, the connection disables auto-read
+        response.upgraded();
+        pipeline.remove(forwardingContext.name());
+        if (extension != null) {
+            pipeline.addLast(extension.newExtensionDecoder(), extension.newExtensionEncoder());
+        }
+        pipeline.addLast(new WebSocketFrameAggregator(configuration.maxMessageSize()), connection);
+
+        handshaker.handshake(channel, handshakeRequest, responseHeaders, channel.newPromise())
+                .addListener(future -> {
+                    if (future.isSuccess()) {
+                        connection.opened();
+                    } else {
+                        LOGGER.log(Level.FINE, future.cause(), () -> "WebSocket handshake failed");
+                        channel.close();
+                    }
+                });
+    }
+
+    @Override
+    public ServerRequest request() {
+        return request;
+    }
+
+    @Override
+    public Flow.Publisher<WebSocketMessage> messages() {
+        return this::subscribe;
+    }
+
+    @Override
+    public void close(int statusCode, String reason) {
+        if (closeSent.compareAndSet(false, true)) {
+            LOGGER.finest(() -> "Closing WebSocket session with status " + statusCode);
+            ctx.writeAndFlush(new CloseWebSocketFrame(statusCode, reason)).addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+
+    @Override
+    public CompletionStage<WebSocketSession> whenClosed() {
+        return closed;
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        this.ctx = ctx;
+        ctx.channel().config().setAutoRead(false);
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        if (msg instanceof TextWebSocketFrame || msg instanceof BinaryWebSocketFrame) {
+            message((WebSocketFrame) msg);
+        } else if (msg instanceof PingWebSocketFrame) {
+            ctx.writeAndFlush(new PongWebSocketFrame(((PingWebSocketFrame) msg).content()));
+        } else if (msg instanceof CloseWebSocketFrame) {
+            closeFrame((CloseWebSocketFrame) msg);
+        } else {
+            // pong frames and the empty last content of the upgrade request
+            ReferenceCountUtil.release(msg);
+        }
+    }
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) {
+        reading = false;
+        drain();
+        ctx.fireChannelReadComplete();
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (ctx.channel().isWritable()) {
+            outbound.writable();
+        } else {
+            statistics.writabilityPaused();
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
+        if (evt == ForwardingHandler.DrainEvent.INSTANCE) {
+            close(GOING_AWAY, "Server is shutting down");
+        } else if (evt instanceof IdleStateEvent) {
+            if (((IdleStateEvent) evt).state() == IdleState.ALL_IDLE) {
+                statistics.connectionTimedOut();
+                close(GOING_AWAY, "Idle timeout");
+            }
+        } else {
+            ctx.fireUserEventTriggered(evt);
+        }
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        if (cause instanceof TooLongFrameException) {
+            // a fragmented message over the maximal message size
+            close(MESSAGE_TOO_BIG, "Message too big");
+        } else if (cause instanceof CorruptedFrameException || cause instanceof IOException) {
+            // the frame decoder sent the close frame already, or the connection was reset
+            LOGGER.log(Level.FINEST, cause, () -> "WebSocket connection failed");
+            ctx.close();
+        } else {
+            LOGGER.log(Level.WARNING, cause, () -> "WebSocket connection failed");
+            close(INTERNAL_ERROR, null);
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+        inboundDone = true;
+        drain();
+        outbound.cancel();
+        if (opened) {
+            statistics.webSocketClosed();
+        }
+        closed.complete(this);
+        ctx.fireChannelInactive();
+    }
+
+    private void opened() {
+        if (!ctx.channel().isActive()) {
+            return;
+        }
+        // the forwarding handler may have enabled auto-read once it completed the upgrade request
+        ctx.channel().config().setAutoRead(false);
+        opened = true;
+        statistics.webSocketOpened();
+        Flow.Publisher<WebSocketMessage> messages;
+        try {
+            messages = endpoint.open(this);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, e, () -> "WebSocket endpoint failed to open the session " + request.path());
+            close(INTERNAL_ERROR, null);
+            return;
+        }
+        if (messages == null) {
+            LOGGER.warning(() -> "WebSocket endpoint returned no messages publisher " + request.path());
+            close(INTERNAL_ERROR, null);
+            return;
+        }
+        messages.subscribe(outbound);
+    }
+
+    private void message(WebSocketFrame frame) {
+        try {
+            ByteBuf content = frame.content();
+            if (content.readableBytes() > configuration.maxMessageSize()) {
+                // a single frame, possibly inflated over the maximal message size
+                close(MESSAGE_TOO_BIG, "Message too big");
+                return;
+            }
+            if (closeSent.get()) {
+                return;
+            }
+            statistics.webSocketMessageReceived();
+            if (!cancelled) {
+                received.add(frame instanceof TextWebSocketFrame
+                                     ? WebSocketMessage.text(((TextWebSocketFrame) frame).text())
+                                     : WebSocketMessage.binary(ByteBufUtil.getBytes(content)));
+            }
+        } finally {
+            frame.release();
+        }
+        drain();
+    }
+
+    private void closeFrame(CloseWebSocketFrame frame) {
+        try {
+            closeReceived = true;
+            inboundDone = true;
+            if (closeSent.compareAndSet(false, true)) {
+                int statusCode = frame.statusCode();
+                CloseWebSocketFrame reply = (statusCode < 0)
+                        ? new CloseWebSocketFrame()
+                        : new CloseWebSocketFrame(statusCode, null);
+                ctx.writeAndFlush(reply).addListener(ChannelFutureListener.CLOSE);
+            } else {
+                // the reply to the close frame of the server
+                ctx.close();
+            }
+        } finally {
+            frame.release();
+        }
+        drain();
+    }
+
+    private void subscribe(Flow.Subscriber<? super WebSocketMessage> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onError(new IllegalStateException("Only single subscriber is allowed!"));
+            return;
+        }
+        execute(() -> {
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    if (n <= 0) {
+                        execute(() -> {
+                            cancel();
+                            if (!terminated) {
+                                terminated = true;
+                                subscriber.onError(new IllegalArgumentException(
+                                        "Requested number of messages must be positive: " + n));
+                            }
+                        });
+                        return;
+                    }
+                    demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+                    execute(WebSocketConnection.this::drain);
+                }
+
+                @Override
+                public void cancel() {
+                    // the messages are discarded, the control frames are still read
+                    execute(() -> {
+                        cancelled = true;
+                        received.clear();
+                        drain();
+                    });
+                }
+            });
+            drain();
+        });
+    }
+
+    /**
+     * Emits the received messages as requested, completes the subscriber once the close frame was received and
+     * reads the connection while there is unfulfilled demand. Executed on the event loop, a drain requested during
+     * the drain loops again.
+     */
+    private void drain() {
+        if (draining) {
+            redrain = true;
+            return;
+        }
+        draining = true;
+        try {
+            do {
+                redrain = false;
+                if (subscriber == null || terminated) {
+                    break;
+                }
+                while (!cancelled && !received.isEmpty() && demand.get() > 0) {
+                    demand.decrementAndGet();
+                    subscriber.onNext(received.poll());
+                }
+                if (inboundDone && received.isEmpty() && !cancelled) {
+                    terminated = true;
+                    if (closeReceived || closeSent.get()) {
+                        subscriber.onComplete();
+                    } else {
+                        subscriber.onError(new SocketClosedException("WebSocket connection closed without a close frame"));
+                    }
+                }
+            } while (redrain);
+        } finally {
+            draining = false;
+        }
+        if (!inboundDone && !reading && received.isEmpty() && (cancelled || demand.get() > 0)) {
+            reading = true;
+            ctx.read();
+        }
+    }
+
+    private void execute(Runnable task) {
+        if (ctx.executor().inEventLoop()) {
+            task.run();
+        } else {
+            ctx.executor().execute(task);
+        }
+    }
+
+    private static WebSocketServerExtension deflateExtension(String offered) {
+        if (offered == null) {
+            return null;
+        }
+        PerMessageDeflateServerExtensionHandshaker handshaker = new PerMessageDeflateServerExtensionHandshaker();
+        for (WebSocketExtensionData data : WebSocketExtensionUtil.extractExtensions(offered)) {
+            WebSocketServerExtension extension = handshaker.handshakeExtension(data);
+            if (extension != null) {
+                return extension;
+            }
+        }
+        return null;
+    }
+
+    private static String extensionHeader(WebSocketExtensionData data) {
+        StringBuilder header = new StringBuilder(data.name());
+        data.parameters().forEach((name, value) -> {
+            header.append("; ").append(name);
+            if (value != null) {
+                header.append('=').append(value);
+            }
+        });
+        return header.toString();
+    }
+
+    /**
+     * Subscriber of the messages of the endpoint, writes each message as a single frame and requests the next one
+     * only while the connection is writable.
+     */
+    private final class Outbound implements Flow.Subscriber<WebSocketMessage> {
+
+        private final AtomicBoolean pending = new AtomicBoolean();
+        private final AtomicInteger requesting = new AtomicInteger();
+
+        private volatile Flow.Subscription subscription;
+        private volatile boolean done;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (this.subscription != null || done) {
+                subscription.cancel();
+                return;
+            }
+            this.subscription = subscription;
+            requestNext();
+        }
+
+        @Override
+        public void onNext(WebSocketMessage message) {
+            if (done || closeSent.get()) {
+                return;
+            }
+            WebSocketFrame frame = message.isText()
+                    ? new TextWebSocketFrame(message.asText())
+                    : new BinaryWebSocketFrame(Unpooled.wrappedBuffer(message.asBytes()));
+            statistics.webSocketMessageSent();
+            ctx.writeAndFlush(frame).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+            requestNext();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (!done) {
+                done = true;
+                LOGGER.log(Level.WARNING, throwable, () -> "WebSocket endpoint failed " + request.path());
+                close(INTERNAL_ERROR, null);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (!done) {
+                done = true;
+                close(NORMAL_CLOSURE, null);
+            }
+        }
+
+        private void requestNext() {
+            pending.set(true);
+            writable();
+        }
+
+        /**
+         * Requests the next message if requested and the channel is writable. Not reentrant, the next message
+         * requested from within {@link #onNext(WebSocketMessage)} of a synchronous publisher is requested once
+         * the outer request returns, so the stack does not grow with the number of messages.
+         */
+        private void writable() {
+            if (requesting.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                Flow.Subscription s = subscription;
+                if (s != null && !done && ctx.channel().isWritable() && pending.compareAndSet(true, false)) {
+                    s.request(1);
+                }
+                missed = requesting.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void cancel() {
+            done = true;
+            Flow.Subscription s = subscription;
+            if (s != null) {
+                s.cancel();
+            }
+        }
+    }
+}
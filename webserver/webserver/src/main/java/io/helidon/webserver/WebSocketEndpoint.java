@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import io.helidon.common.reactive.Flow;
+
+/**
+ * The WebSocket endpoint, registered by {@link Routing.Rules#websocket(String, WebSocketEndpoint)}.
+ * <p>
+ * The endpoint is called once the connection was upgraded and returns the messages sent to the client, for example
+ * an echo endpoint is {@code session -> session.messages()}. The messages are requested only as fast as the
+ * connection accepts them. The session is closed normally once the returned publisher completes, and with
+ * {@link WebSocketSession#INTERNAL_ERROR} if it fails.
+ */
+@FunctionalInterface
+public interface WebSocketEndpoint {
+
+    /**
+     * Opens the session.
+     *
+     * @param session the open session
+     * @return publisher of the messages sent to the client
+     */
+    Flow.Publisher<WebSocketMessage> open(WebSocketSession session);
+}
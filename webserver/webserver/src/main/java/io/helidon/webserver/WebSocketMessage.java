@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * A complete WebSocket message, either text or binary, see {@link WebSocketEndpoint}.
+ * <p>
+ * Fragmented messages are aggregated by the server, so a message is always delivered as a whole.
+ */
+public final class WebSocketMessage {
+
+    private final String text;
+    private final byte[] bytes;
+
+    private WebSocketMessage(String text, byte[] bytes) {
+        this.text = text;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Creates a text message.
+     *
+     * @param text message text
+     * @return a new message
+     */
+    public static WebSocketMessage text(String text) {
+        return new WebSocketMessage(Objects.requireNonNull(text, "Parameter 'text' is null!"), null);
+    }
+
+    /**
+     * Creates a binary message.
+     *
+     * @param bytes message bytes, not copied
+     * @return a new message
+     */
+    public static WebSocketMessage binary(byte[] bytes) {
+        return new WebSocketMessage(null, Objects.requireNonNull(bytes, "Parameter 'bytes' is null!"));
+    }
+
+    /**
+     * Whether this is a text message.
+     *
+     * @return {@code true} for a text message, {@code false} for a binary message
+     */
+    public boolean isText() {
+        return text != null;
+    }
+
+    /**
+     * Text of the message, the bytes of a binary message decoded as {@code UTF-8}.
+     *
+     * @return message text
+     */
+    public String asText() {
+        return text != null ? text : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Bytes of the message, the text of a text message encoded as {@code UTF-8}.
+     *
+     * @return message bytes
+     */
+    public byte[] asBytes() {
+        return bytes != null ? bytes : text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return isText() ? "WebSocketMessage{text, length=" + text.length() + "}"
+                : "WebSocketMessage{binary, length=" + bytes.length + "}";
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Objects;
+
+import io.helidon.common.http.Http;
+
+import io.netty.util.concurrent.EventExecutor;
+
+/**
+ * Upgrades the connection of a WebSocket upgrade request to a {@link WebSocketConnection}, see
+ * {@link Routing.Rules#websocket(String, WebSocketConfiguration, WebSocketEndpoint)}.
+ * <p>
+ * Requests which are not WebSocket upgrade requests continue to the next handler. Only a HTTP/1.1 connection
+ * can be upgraded, an upgrade request of a HTTP/2 stream is rejected.
+ */
+final class WebSocketRouteHandler implements Handler {
+
+    private static final String WEBSOCKET = "websocket";
+    private static final String VERSION = "13";
+    private static final String SEC_WEBSOCKET_KEY = "Sec-WebSocket-Key";
+    private static final String SEC_WEBSOCKET_VERSION = "Sec-WebSocket-Version";
+    private static final Http.ResponseStatus SWITCHING_PROTOCOLS = Http.ResponseStatus.create(101, "Switching Protocols");
+    private static final Http.ResponseStatus UPGRADE_REQUIRED = Http.ResponseStatus.create(426, "Upgrade Required");
+
+    private final WebSocketConfiguration configuration;
+    private final WebSocketEndpoint endpoint;
+
+    /**
+     * Creates a new handler.
+     *
+     * @param configuration configuration of the endpoint
+     * @param endpoint      the endpoint
+     */
+    WebSocketRouteHandler(WebSocketConfiguration configuration, WebSocketEndpoint endpoint) {
+        this.configuration = Objects.requireNonNull(configuration, "Parameter 'configuration' is null!");
+        this.endpoint = Objects.requireNonNull(endpoint, "Parameter 'endpoint' is null!");
+    }
+
+    @Override
+    public void accept(ServerRequest req, ServerResponse res) {
+        RequestHeaders headers = req.headers();
+        if (!headers.first(Http.Header.UPGRADE).filter(WEBSOCKET::equalsIgnoreCase).isPresent()) {
+            req.next();
+            return;
+        }
+        if (!headers.first(SEC_WEBSOCKET_VERSION).filter(VERSION::equals).isPresent()) {
+            res.status(UPGRADE_REQUIRED);
+            res.headers().put(SEC_WEBSOCKET_VERSION, VERSION);
+            res.send();
+            return;
+        }
+        if (!headers.first(SEC_WEBSOCKET_KEY).isPresent()) {
+            res.status(Http.Status.BAD_REQUEST_400).send("Missing " + SEC_WEBSOCKET_KEY + " header");
+            return;
+        }
+
+        BareResponseImpl response = (res instanceof Response) ? ((Response) res).upgrade() : null;
+        if (response == null) {
+            res.status(Http.Status.BAD_REQUEST_400).send("The connection cannot be upgraded to WebSocket");
+            return;
+        }
+        // the handshake writes its own response, the status is only reported, e.g. in the access log
+        res.status(SWITCHING_PROTOCOLS);
+
+        NettyServerStatistics statistics = ((NettyWebServer) req.webServer()).statistics();
+        EventExecutor executor = response.context().executor();
+        if (executor.inEventLoop()) {
+            WebSocketConnection.open(req, response, configuration, endpoint, statistics);
+        } else {
+            executor.execute(() -> WebSocketConnection.open(req, response, configuration, endpoint, statistics));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.concurrent.CompletionStage;
+
+import io.helidon.common.reactive.Flow;
+
+/**
+ * An open WebSocket connection, see {@link WebSocketEndpoint}.
+ */
+public interface WebSocketSession {
+
+    /**
+     * Status code of a normal closure.
+     */
+    int NORMAL_CLOSURE = 1000;
+
+    /**
+     * Status code sent when the server goes away, the connection was idle or the server is shutting down.
+     */
+    int GOING_AWAY = 1001;
+
+    /**
+     * Status code sent when a message exceeds the {@link WebSocketConfiguration#maxMessageSize() maximal size}.
+     */
+    int MESSAGE_TOO_BIG = 1009;
+
+    /**
+     * Status code sent when the endpoint failed.
+     */
+    int INTERNAL_ERROR = 1011;
+
+    /**
+     * The request upgraded to this session, gives access to its path, parameters and headers.
+     *
+     * @return upgrade request
+     */
+    ServerRequest request();
+
+    /**
+     * Messages received from the client.
+     * <p>
+     * Only a single subscriber is allowed. The messages are read from the connection only as they are requested,
+     * so a slow subscriber slows down the client rather than filling up the memory. The publisher completes once the
+     * client closed the session.
+     *
+     * @return publisher of the received messages
+     */
+    Flow.Publisher<WebSocketMessage> messages();
+
+    /**
+     * Closes the session with the status code and reason sent to the client.
+     *
+     * @param statusCode close status code
+     * @param reason     close reason, may be {@code null}
+     */
+    void close(int statusCode, String reason);
+
+    /**
+     * A completion stage completed once the connection was closed.
+     *
+     * @return completion stage of the closure
+     */
+    CompletionStage<WebSocketSession> whenClosed();
+}
@@ -24,11 +24,13 @@ module io.helidon.webserver {
     requires transitive io.helidon.common.pki;
     requires transitive io.helidon.common.reactive;
     requires transitive io.helidon.common.context;
+    requires io.helidon.common.configurable;
     requires transitive io.helidon.config;
     requires transitive io.helidon.tracing.config;
     requires transitive opentracing.util;
 
     requires java.logging;
+    requires java.management;
     requires opentracing.api;
     requires opentracing.noop;
     requires io.netty.handler;
@@ -38,6 +40,7 @@ module io.helidon.webserver {
     requires io.netty.common;
     requires io.netty.buffer;
     requires io.netty.codec.http2;
+    requires static io.netty.transport.epoll;
 
     exports io.helidon.webserver;
 }
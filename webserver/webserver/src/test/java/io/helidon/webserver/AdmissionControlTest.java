@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+/**
+ * Tests the connection limit, the idle and read timeouts and the request size limits.
+ */
+public class AdmissionControlTest {
+
+    private static final String GET_FAST = "GET /fast HTTP/1.1\r\nHost: localhost\r\n\r\n";
+    private static final String GET_SLOW = "GET /slow HTTP/1.1\r\nHost: localhost\r\n\r\n";
+
+    private final CompletableFuture<Void> release = new CompletableFuture<>();
+
+    private WebServer webServer;
+
+    @AfterEach
+    public void stopServer() throws Exception {
+        release.complete(null);
+        if (webServer != null) {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void connectionOverLimitRejected() throws Exception {
+        startServer(builder -> builder.maxConnections(1));
+        try (Socket first = connect()) {
+            send(first, GET_FAST);
+            assertThat(readResponse(first), containsString("200 OK"));
+
+            try (Socket second = connect()) {
+                assertThat(second.getInputStream().read(), is(-1));
+            }
+            assertThat(webServer.statistics().rejectedConnections(), is(1L));
+        }
+        assertAccepted();
+    }
+
+    @Test
+    public void connectionOverLimitQueued() throws Exception {
+        startServer(builder -> builder.maxConnections(1).queueConnections(true));
+        Socket first = connect();
+        send(first, GET_FAST);
+        assertThat(readResponse(first), containsString("200 OK"));
+        try (Socket second = connect()) {
+            send(second, GET_FAST);
+            second.setSoTimeout(300);
+            Assertions.assertThrows(SocketTimeoutException.class, () -> second.getInputStream().read());
+
+            // the queued connection is accepted once the first one is closed
+            first.close();
+            second.setSoTimeout(10_000);
+            assertThat(readResponse(second), containsString("200 OK"));
+        }
+        assertThat(webServer.statistics().acceptPauses(), greaterThanOrEqualTo(1L));
+        assertThat(webServer.statistics().rejectedConnections(), is(0L));
+    }
+
+    @Test
+    public void idleConnectionClosed() throws Exception {
+        startServer(builder -> builder.idleTimeoutMillis(200));
+        try (Socket socket = connect()) {
+            send(socket, GET_FAST);
+            assertThat(readResponse(socket), containsString("200 OK"));
+            assertThat(socket.getInputStream().read(), is(-1));
+        }
+        assertThat(webServer.statistics().timedOutConnections(), is(1L));
+    }
+
+    @Test
+    public void incompleteHeadersClosed() throws Exception {
+        startServer(builder -> builder.readTimeoutMillis(200));
+        try (Socket socket = connect()) {
+            send(socket, "GET /fast HTTP/1.1\r\nHost: local");
+            assertThat(readUntilClosed(socket), is(""));
+        }
+        assertThat(webServer.statistics().timedOutConnections(), is(1L));
+    }
+
+    @Test
+    public void readTimeoutNotAppliedToRequestInFlight() throws Exception {
+        startServer(builder -> builder.readTimeoutMillis(200).idleTimeoutMillis(200));
+        try (Socket socket = connect()) {
+            send(socket, GET_SLOW);
+            Thread.sleep(600);
+            release.complete(null);
+            String response = readResponse(socket);
+            assertThat(response, containsString("200 OK"));
+            assertThat(response, containsString("slow"));
+        }
+        assertThat(webServer.statistics().timedOutConnections(), is(0L));
+    }
+
+    @Test
+    public void initialLineTooLong() throws Exception {
+        startServer(builder -> builder.maxInitialLineLength(256));
+        try (Socket socket = connect()) {
+            send(socket, "GET /fast?q=" + repeat('a', 512) + " HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            assertThat(readUntilClosed(socket), containsString("414"));
+        }
+        assertThat(webServer.statistics().rejectedRequests(), is(1L));
+    }
+
+    @Test
+    public void headersTooLarge() throws Exception {
+        startServer(builder -> builder.maxHeaderSize(1024));
+        try (Socket socket = connect()) {
+            send(socket, "GET /fast HTTP/1.1\r\nHost: localhost\r\nX-Large: " + repeat('a', 2048) + "\r\n\r\n");
+            assertThat(readUntilClosed(socket), containsString("431"));
+        }
+        assertThat(webServer.statistics().rejectedRequests(), is(1L));
+    }
+
+    @Test
+    public void limitsWithHttp2Enabled() throws Exception {
+        // the cleartext upgrade to HTTP/2 uses another decoder
+        startServer(builder -> builder.maxInitialLineLength(256)
+                .maxHeaderSize(1024)
+                .experimental(ExperimentalConfiguration.builder()
+                                      .http2(Http2Configuration.builder().enable(true).build())
+                                      .build()));
+        try (Socket socket = connect()) {
+            send(socket, "GET /fast?q=" + repeat('a', 512) + " HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            assertThat(readUntilClosed(socket), containsString("414"));
+        }
+        try (Socket socket = connect()) {
+            send(socket, "GET /fast HTTP/1.1\r\nHost: localhost\r\nX-Large: " + repeat('a', 2048) + "\r\n\r\n");
+            assertThat(readUntilClosed(socket), containsString("431"));
+        }
+        assertThat(webServer.statistics().rejectedRequests(), is(2L));
+    }
+
+    @Test
+    public void contentLengthOverRouteLimit() throws Exception {
+        startServer(builder -> { });
+        try (Socket socket = connect()) {
+            send(socket, "POST /upload HTTP/1.1\r\nHost: localhost\r\nContent-Length: 100\r\n\r\n");
+            assertThat(readResponse(socket), containsString("413"));
+        }
+        assertThat(webServer.statistics().rejectedRequests(), is(1L));
+    }
+
+    @Test
+    public void chunkedContentOverRouteLimit() throws Exception {
+        startServer(builder -> { });
+        try (Socket socket = connect()) {
+            send(socket, "POST /upload HTTP/1.1\r\nHost: localhost\r\nTransfer-Encoding: chunked\r\n\r\n"
+                    + "14\r\n" + repeat('a', 20) + "\r\n");
+            String response = readUntilClosed(socket);
+            assertThat(response, containsString("413"));
+            assertThat(response.toLowerCase(), containsString("connection: close"));
+        }
+        assertThat(webServer.statistics().rejectedRequests(), is(1L));
+    }
+
+    @Test
+    public void contentWithinRouteLimit() throws Exception {
+        startServer(builder -> { });
+        try (Socket socket = connect()) {
+            send(socket, "POST /upload HTTP/1.1\r\nHost: localhost\r\nContent-Length: 5\r\n\r\nhello");
+            String response = readResponse(socket);
+            assertThat(response, containsString("200 OK"));
+            assertThat(response, containsString("hello"));
+        }
+        assertThat(webServer.statistics().rejectedRequests(), is(0L));
+    }
+
+    private void startServer(Consumer<ServerConfiguration.Builder> configuration) throws Exception {
+        Routing routing = Routing.builder()
+                .get("/fast", (req, res) -> res.send("fast"))
+                .get("/slow", (req, res) -> release.thenRun(() -> res.send("slow")))
+                .post("/upload", ContentLimitSupport.create(10), (req, res) -> req.content()
+                        .as(String.class)
+                        .thenAccept(res::send)
+                        .exceptionally(throwable -> {
+                            req.next(throwable);
+                            return null;
+                        }))
+                .build();
+
+        ServerConfiguration.Builder builder = ServerConfiguration.builder();
+        configuration.accept(builder);
+        webServer = WebServer.create(builder.build(), routing)
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    private void assertAccepted() throws Exception {
+        // the connection is released asynchronously once closed
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (webServer.statistics().connections() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        try (Socket socket = connect()) {
+            send(socket, GET_FAST);
+            assertThat(readResponse(socket), containsString("200 OK"));
+        }
+    }
+
+    private Socket connect() throws Exception {
+        Socket socket = new Socket("localhost", webServer.port());
+        socket.setSoTimeout(10_000);
+        return socket;
+    }
+
+    private static void send(Socket socket, String request) throws Exception {
+        OutputStream out = socket.getOutputStream();
+        out.write(request.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private static String readResponse(Socket socket) throws Exception {
+        byte[] buffer = new byte[4096];
+        int read = socket.getInputStream().read(buffer);
+        return (read < 0) ? "" : new String(buffer, 0, read, StandardCharsets.US_ASCII);
+    }
+
+    private static String readUntilClosed(Socket socket) throws Exception {
+        InputStream in = socket.getInputStream();
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            received.write(buffer, 0, read);
+        }
+        return received.toString("US-ASCII");
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
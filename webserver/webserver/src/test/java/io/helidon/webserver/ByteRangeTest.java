@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link ByteRange}.
+ */
+public class ByteRangeTest {
+
+    @Test
+    public void singleRanges() {
+        assertThat(parse("bytes=0-499", 1000), is("[0-499]"));
+        assertThat(parse("bytes=500-", 1000), is("[500-999]"));
+        assertThat(parse("bytes=-200", 1000), is("[800-999]"));
+        assertThat(parse("bytes=-2000", 1000), is("[0-999]"));
+        assertThat(parse("bytes=900-1999", 1000), is("[900-999]"));
+        assertThat(parse("Bytes= 0 - 0 ", 1000), is("[0-0]"));
+    }
+
+    @Test
+    public void multipleRanges() {
+        assertThat(parse("bytes=0-9,20-29, -10", 1000), is("[0-9, 20-29, 990-999]"));
+        // unsatisfiable ranges are skipped
+        assertThat(parse("bytes=0-9,2000-2999", 1000), is("[0-9]"));
+    }
+
+    @Test
+    public void notSatisfiable() {
+        assertThat(parse("bytes=1000-", 1000), is("[]"));
+        assertThat(parse("bytes=-0", 1000), is("[]"));
+        assertThat(parse("bytes=0-", 0), is("[]"));
+    }
+
+    @Test
+    public void ignored() {
+        assertThat(ByteRange.parse("items=0-9", 1000, 16), is(nullValue()));
+        assertThat(ByteRange.parse("bytes=9-0", 1000, 16), is(nullValue()));
+        assertThat(ByteRange.parse("bytes=a-9", 1000, 16), is(nullValue()));
+        assertThat(ByteRange.parse("bytes=10", 1000, 16), is(nullValue()));
+        assertThat(ByteRange.parse("bytes=-", 1000, 16), is(nullValue()));
+        assertThat(ByteRange.parse("bytes=0-1,2-3,4-5", 1000, 2), is(nullValue()));
+        // overlapping ranges longer than the content
+        assertThat(ByteRange.parse("bytes=0-,0-", 1000, 16), is(nullValue()));
+    }
+
+    private static String parse(String header, long length) {
+        List<ByteRange> ranges = ByteRange.parse(header, length, 16);
+        return String.valueOf(ranges);
+    }
+}
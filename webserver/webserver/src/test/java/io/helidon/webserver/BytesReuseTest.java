@@ -54,9 +54,8 @@ import static org.junit.jupiter.api.Assertions.fail;
 /**
  * The BytesReuseTest verifies whether the {@link DataChunk} instances get released properly.
  * <p>
- * Note that with {@link DataChunk#finalize()} which calls {@link DataChunk#release()},
- * we no longer experience {@link OutOfMemoryError} exceptions in case the chunks aren't freed
- * as long as no references to the {@link DataChunk} instances are kept.
+ * Note that the request chunks must be released explicitly, the chunks which are garbage collected are released only
+ * if tracked by the {@link ServerConfiguration#leakDetection() leak detection}.
  */
 public class BytesReuseTest {
 
@@ -287,9 +286,8 @@ public class BytesReuseTest {
      * {@link DataChunk} instances.
      * It takes several seconds which is why it's disabled by default.
      * <p>
-     * Note that since {@link ByteBufRequestChunk} releases the underlying {@link io.netty.buffer.ByteBuf} on
-     * {@link Object#finalize()} call, the {@link OutOfMemoryError} never occurs in case that the
-     * {@link #chunkReference} doesn't get filled.
+     * Note that the {@link OutOfMemoryError} occurs even if the {@link #chunkReference} doesn't get filled, unless
+     * all the chunks are tracked by the {@link ServerConfiguration.LeakDetection#PARANOID leak detection}.
      *
      * @throws Exception in case of an error
      */
@@ -308,7 +306,7 @@ public class BytesReuseTest {
 
     /**
      * This test shows that even when the {@link DataChunk#release()} isn't called, we don't get
-     * {@link OutOfMemoryError} thanks to {@link DataChunk#finalize()} that calls
+     * {@link OutOfMemoryError} if the chunks are tracked by the leak detection which calls
      * {@link DataChunk#release()} automatically. This test needs at least 1GB of heap.
      * <p>
      * This feature is not guarantied though.
@@ -350,9 +348,8 @@ public class BytesReuseTest {
     }
 
     /**
-     * This test shows that in case that {@link ByteBufRequestChunk#finalize()} is disabled, there would
-     * remain unreleased {@link io.netty.buffer.ByteBuf} instances that the {@link HttpInitializer} should
-     * take care of.
+     * This test shows that in case the leak detection is disabled, there would
+     * remain unreleased {@link io.netty.buffer.ByteBuf} instances.
      *
      * @throws Exception in case of an error
      */
@@ -367,7 +364,7 @@ public class BytesReuseTest {
     /**
      * This test shows that with a WebServer shutdown, no memory leak occurs.
      *
-     * If {@link ReferenceHoldingQueue#shutdown()} is not called, the {@code DEFAULT} pool arena
+     * If {@link RequestChunkLeakDetector#shutdown()} is not called, the {@code DEFAULT} pool arena
      * of the {@link io.netty.buffer.PooledByteBufAllocator} would grow without any limits.
      *
      * @throws Exception in case of an error
@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.MediaType;
+import io.helidon.common.reactive.Multi;
+import io.helidon.config.Config;
+import io.helidon.config.ConfigSources;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests compression of the responses.
+ */
+public class CompressionTest {
+
+    private static String content;
+    private static Path file;
+    private static WebServer webServer;
+    private static Client client;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            sb.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"name\":\"item ").append(i).append("\"}");
+        }
+        content = sb.append("]").toString();
+        file = Files.createTempFile("helidon-compression", ".json");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+
+        Routing routing = Routing.builder()
+                .any("/plain/{+}", CompressionSupport.create(CompressionConfiguration.disabled()))
+                .any("/any-size/{+}", CompressionSupport.create(CompressionConfiguration.builder().minSize(0).build()))
+                .get("/{type}/json", (req, res) -> {
+                    res.headers().contentType(MediaType.APPLICATION_JSON);
+                    res.send(content);
+                })
+                .get("/{type}/empty", (req, res) -> {
+                    res.headers().contentType(MediaType.APPLICATION_JSON);
+                    res.send();
+                })
+                .get("/{type}/small", (req, res) -> {
+                    res.headers().contentType(MediaType.APPLICATION_JSON);
+                    res.send("{}");
+                })
+                .head("/{type}/length", (req, res) -> {
+                    res.headers().contentType(MediaType.APPLICATION_JSON);
+                    res.headers().contentLength(content.getBytes(StandardCharsets.UTF_8).length);
+                    res.send();
+                })
+                .get("/{type}/length", (req, res) -> {
+                    byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+                    res.headers().contentType(MediaType.APPLICATION_JSON);
+                    res.headers().contentLength(bytes.length);
+                    res.send(bytes);
+                })
+                .get("/{type}/stream", (req, res) -> {
+                    res.headers().contentType(MediaType.TEXT_PLAIN);
+                    res.send(Multi.just(chunk(content.substring(0, 5000)),
+                                        chunk(content.substring(5000, 10000)),
+                                        chunk(content.substring(10000))));
+                })
+                .get("/{type}/aggregated", AggregationSupport.create(64 * 1024), (req, res) -> {
+                    res.headers().contentType(MediaType.TEXT_PLAIN);
+                    res.send(Multi.just(chunk(content.substring(0, 5000)),
+                                        chunk(content.substring(5000))));
+                })
+                .get("/{type}/binary", (req, res) -> {
+                    res.headers().contentType(MediaType.APPLICATION_OCTET_STREAM);
+                    res.send(content);
+                })
+                .get("/{type}/file", (req, res) -> {
+                    res.headers().contentType(MediaType.APPLICATION_JSON);
+                    res.send(file);
+                })
+                .build();
+
+        webServer = WebServer.builder(routing)
+                .config(ServerConfiguration.builder()
+                                .compression(CompressionConfiguration.builder().minSize(100).build()))
+                .build()
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+
+        client = ClientBuilder.newClient();
+    }
+
+    @AfterAll
+    public static void stopServer() throws Exception {
+        if (webServer != null) {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+        if (client != null) {
+            client.close();
+        }
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void singleChunk() throws IOException {
+        Response response = get("/compressed/json", "gzip");
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getHeaderString("Content-Encoding"), is("gzip"));
+        assertThat(response.getHeaderString("Vary"), is("Accept-Encoding"));
+        byte[] body = response.readEntity(byte[].class);
+        // the whole content is compressed at once, the length is known
+        assertThat(response.getHeaderString("Content-Length"), is(String.valueOf(body.length)));
+        assertThat(gunzip(body), is(content));
+    }
+
+    @Test
+    public void knownLength() throws IOException {
+        Response response = get("/compressed/length", "gzip");
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getHeaderString("Content-Encoding"), is("gzip"));
+        byte[] body = response.readEntity(byte[].class);
+        // the original length is replaced by the compressed one
+        assertThat(response.getHeaderString("Content-Length"), is(String.valueOf(body.length)));
+        assertThat(gunzip(body), is(content));
+    }
+
+    @Test
+    public void streaming() throws IOException {
+        Response response = get("/compressed/stream", "gzip");
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getHeaderString("Content-Encoding"), is("gzip"));
+        assertThat(response.getHeaderString("Transfer-Encoding"), is("chunked"));
+        assertThat(gunzip(response.readEntity(byte[].class)), is(content));
+    }
+
+    @Test
+    public void aggregated() throws IOException {
+        Response response = get("/compressed/aggregated", "gzip");
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getHeaderString("Content-Encoding"), is("gzip"));
+        byte[] body = response.readEntity(byte[].class);
+        // the chunks fit into the aggregation buffer, so they are compressed at once
+        assertThat(response.getHeaderString("Content-Length"), is(String.valueOf(body.length)));
+        assertThat(gunzip(body), is(content));
+    }
+
+    @Test
+    public void emptyNotCompressed() {
+        Response response = get("/any-size/empty", "gzip");
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getHeaderString("Content-Encoding"), nullValue());
+        assertThat(response.readEntity(String.class), is(""));
+    }
+
+    @Test
+    public void file() throws IOException {
+        Response response = get("/compressed/file", "gzip");
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getHeaderString("Content-Encoding"), is("gzip"));
+        assertThat(gunzip(response.readEntity(byte[].class)), is(content));
+    }
+
+    @Test
+    public void deflate() {
+        Response response = get("/compressed/json", "deflate");
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getHeaderString("Content-Encoding"), is("deflate"));
+        response.close();
+    }
+
+    @Test
+    public void notCompressed() {
+        assertIdentity(get("/compressed/small", "gzip"), "{}");
+        assertIdentity(get("/compressed/binary", "gzip"), content);
+        assertIdentity(get("/compressed/json", null), content);
+        assertIdentity(get("/compressed/json", "gzip;q=0"), content);
+        assertIdentity(get("/plain/json", "gzip"), content);
+    }
+
+    @Test
+    public void head() {
+        Response response = client.target("http://localhost:" + webServer.port())
+                .path("/compressed/length")
+                .request()
+                .header("Accept-Encoding", "gzip")
+                .head();
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getHeaderString("Content-Encoding"), nullValue());
+        response.close();
+    }
+
+    @Test
+    public void config() {
+        Config config = Config.builder()
+                .sources(ConfigSources.create(compressionConfig()))
+                .disableEnvironmentVariablesSource()
+                .disableSystemPropertiesSource()
+                .build();
+        ServerConfiguration serverConfig = ServerConfiguration.create(config.get("server"));
+        CompressionConfiguration compression = serverConfig.compression();
+        assertThat(compression.enabled(), is(true));
+        assertThat(compression.level(), is(9));
+        assertThat(compression.minSize(), is(2048));
+        assertThat(compression.encodings().get(0), is("deflate"));
+        assertThat(compression.compressible(MediaType.APPLICATION_JSON), is(true));
+        assertThat(compression.compressible(MediaType.TEXT_HTML), is(false));
+        assertThat(ServerConfiguration.create(Config.empty()).compression().enabled(), is(false));
+    }
+
+    private static Map<String, String> compressionConfig() {
+        Map<String, String> map = new HashMap<>();
+        map.put("server.compression.level", "9");
+        map.put("server.compression.min-size", "2048");
+        map.put("server.compression.encodings.0", "deflate");
+        map.put("server.compression.encodings.1", "gzip");
+        map.put("server.compression.media-types.0", "application/json");
+        return map;
+    }
+
+    private static Response get(String path, String acceptEncoding) {
+        WebTarget target = client.target("http://localhost:" + webServer.port()).path(path);
+        return (acceptEncoding == null)
+                ? target.request().get()
+                : target.request().header("Accept-Encoding", acceptEncoding).get();
+    }
+
+    private static void assertIdentity(Response response, String expected) {
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getHeaderString("Content-Encoding"), nullValue());
+        assertThat(response.getHeaderString("Content-Length"), notNullValue());
+        assertThat(response.readEntity(String.class), is(expected));
+    }
+
+    private static DataChunk chunk(String data) {
+        return DataChunk.create(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String gunzip(byte[] data) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return new String(StaticContentCache.readAll(in, Long.MAX_VALUE), StandardCharsets.UTF_8);
+        }
+    }
+}
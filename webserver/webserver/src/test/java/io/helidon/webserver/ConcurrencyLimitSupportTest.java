@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Tests {@link ConcurrencyLimitSupport}.
+ */
+public class ConcurrencyLimitSupportTest {
+
+    private final List<ServerResponse> pending = new CopyOnWriteArrayList<>();
+    private final CountDownLatch blocked = new CountDownLatch(1);
+
+    private WebServer server;
+    private WebTarget target;
+
+    @AfterEach
+    public void stopServer() throws Exception {
+        release();
+        if (server != null) {
+            server.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void rejectedWith503AndRetryAfter() throws Exception {
+        ConcurrencyLimitSupport limit = ConcurrencyLimitSupport.create(fixed(1));
+        startServer(Routing.builder()
+                            .register(limit)
+                            .get("/slow", this::hold));
+
+        Future<Response> first = target.path("/slow").request().async().get();
+        assertThat(blocked.await(10, TimeUnit.SECONDS), is(true));
+
+        Response rejected = target.path("/slow").request().get();
+        assertThat(rejected.getStatus(), is(503));
+        assertThat(rejected.getHeaderString("Retry-After"), is("1"));
+        assertThat(limit.inFlight(), is(1));
+        assertThat(server.statistics().concurrencyLimitRejections(), is(1L));
+        assertThat(server.statistics().concurrencyLimit(), is(1L));
+
+        release();
+        assertThat(first.get(10, TimeUnit.SECONDS).getStatus(), is(200));
+    }
+
+    @Test
+    public void lowPriorityShedFirst() throws Exception {
+        ConcurrencyLimitSupport limit = ConcurrencyLimitSupport.create(fixed(2));
+        startServer(Routing.builder()
+                            .get("/low", limit.handler(ConcurrencyLimitSupport.Priority.LOW))
+                            .get("/high", limit.handler(ConcurrencyLimitSupport.Priority.HIGH))
+                            .register(limit)
+                            .get("/low", this::hold)
+                            .get("/high", (req, res) -> res.send("high")));
+
+        Future<Response> first = target.path("/low").request().async().get();
+        assertThat(blocked.await(10, TimeUnit.SECONDS), is(true));
+
+        // half of the limit is taken by the first request
+        assertThat(target.path("/low").request().get().getStatus(), is(503));
+        assertThat(target.path("/high").request().get().getStatus(), is(200));
+        // admitted once, although the service handler is reached as well; released once the response is written
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (limit.inFlight() > 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(limit.inFlight(), is(1));
+
+        release();
+        assertThat(first.get(10, TimeUnit.SECONDS).getStatus(), is(200));
+    }
+
+    @Test
+    public void limitFollowsLatency() {
+        ConcurrencyLimitSupport limit = ConcurrencyLimitSupport.create(ConcurrencyLimitConfiguration.builder()
+                                                                               .initialLimit(100)
+                                                                               .smoothing(1)
+                                                                               .build());
+        long millis = TimeUnit.MILLISECONDS.toNanos(1);
+
+        // stable latency with the limit used grows the limit by its square root
+        limit.update(10 * millis, 100);
+        assertThat(limit.limit(), is(110));
+
+        // the limit not used does not grow
+        limit.update(10 * millis, 20);
+        assertThat(limit.limit(), is(110));
+
+        // the latency grown over the tolerance shrinks the limit, at most to half
+        limit.update(40 * millis, 110);
+        assertThat(limit.limit(), greaterThan(55));
+        assertThat(limit.limit(), lessThan(110));
+    }
+
+    private void hold(ServerRequest req, ServerResponse res) {
+        pending.add(res);
+        blocked.countDown();
+    }
+
+    private void release() {
+        pending.forEach(res -> res.send("released"));
+        pending.clear();
+    }
+
+    private void startServer(Routing.Builder routing) throws Exception {
+        server = routing.createServer();
+        server.start().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        target = ClientBuilder.newClient().target("http://localhost:" + server.port());
+    }
+
+    private static ConcurrencyLimitConfiguration fixed(int limit) {
+        return ConcurrencyLimitConfiguration.builder()
+                .initialLimit(limit)
+                .minLimit(limit)
+                .maxLimit(limit)
+                .build();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import io.helidon.common.CollectionsHelper;
+import io.helidon.common.http.MediaType;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link ContentCompressor} and {@link CompressionConfiguration}.
+ */
+public class ContentCompressorTest {
+
+    private static final String TEXT = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. ";
+
+    @Test
+    public void gzip() throws IOException {
+        ContentCompressor compressor = ContentCompressor.create(CompressionConfiguration.builder().build(),
+                                                                Collections.singletonList("gzip, deflate"));
+        assertThat(compressor, notNullValue());
+        assertThat(compressor.encoding(), is("gzip"));
+        assertThat(inflate(new GZIPInputStream(new ByteArrayInputStream(compress(compressor)))), is(expected()));
+    }
+
+    @Test
+    public void deflate() throws IOException {
+        ContentCompressor compressor = ContentCompressor.create(CompressionConfiguration.builder().build(),
+                                                                Collections.singletonList("deflate"));
+        assertThat(compressor, notNullValue());
+        assertThat(compressor.encoding(), is("deflate"));
+        assertThat(inflate(new InflaterInputStream(new ByteArrayInputStream(compress(compressor)))), is(expected()));
+    }
+
+    @Test
+    public void notAccepted() {
+        CompressionConfiguration config = CompressionConfiguration.builder()
+                .encodings(CollectionsHelper.listOf("deflate"))
+                .build();
+        assertThat(ContentCompressor.create(config, Collections.singletonList("gzip")), nullValue());
+        assertThat(ContentCompressor.create(config, Collections.emptyList()), nullValue());
+        assertThat(ContentCompressor.create(CompressionConfiguration.disabled(), Collections.singletonList("deflate")),
+                   nullValue());
+    }
+
+    @Test
+    public void acceptEncoding() {
+        assertThat(ContentCompressor.accepts(Collections.singletonList("gzip"), "gzip"), is(true));
+        assertThat(ContentCompressor.accepts(Collections.singletonList("GZIP;q=0.5"), "gzip"), is(true));
+        assertThat(ContentCompressor.accepts(Collections.singletonList("gzip;q=0"), "gzip"), is(false));
+        assertThat(ContentCompressor.accepts(Collections.singletonList("*"), "br"), is(true));
+        assertThat(ContentCompressor.accepts(Collections.singletonList("gzip;q=0, *"), "gzip"), is(false));
+        assertThat(ContentCompressor.accepts(Collections.singletonList("deflate"), "gzip"), is(false));
+    }
+
+    @Test
+    public void compressibleMediaTypes() {
+        CompressionConfiguration config = CompressionConfiguration.builder().build();
+        assertThat(config.compressible(MediaType.parse("text/html; charset=UTF-8")), is(true));
+        assertThat(config.compressible(MediaType.APPLICATION_JSON), is(true));
+        assertThat(config.compressible(MediaType.parse("image/png")), is(false));
+        assertThat(config.compressible(null), is(false));
+
+        config = CompressionConfiguration.builder()
+                .mediaTypes(CollectionsHelper.listOf(MediaType.APPLICATION_JSON))
+                .addMediaType(MediaType.parse("application/x-ndjson"))
+                .build();
+        assertThat(config.compressible(MediaType.TEXT_PLAIN), is(false));
+        assertThat(config.compressible(MediaType.parse("application/x-ndjson")), is(true));
+    }
+
+    private static byte[] compress(ContentCompressor compressor) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteBufAllocator alloc = ByteBufAllocator.DEFAULT;
+        for (int i = 0; i < 100; i++) {
+            ByteBuffer chunk = ByteBuffer.allocateDirect(TEXT.length());
+            chunk.put(TEXT.getBytes(StandardCharsets.UTF_8)).flip();
+            write(compressor.compress(chunk, alloc), out);
+            assertThat(chunk.remaining(), is(TEXT.length()));
+        }
+        write(compressor.finish(alloc), out);
+        return out.toByteArray();
+    }
+
+    private static void write(ByteBuf buf, ByteArrayOutputStream out) {
+        byte[] bytes = new byte[buf.readableBytes()];
+        buf.readBytes(bytes);
+        buf.release();
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static byte[] expected() {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            result.append(TEXT);
+        }
+        return result.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] inflate(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            return StaticContentCache.readAll(stream, Long.MAX_VALUE);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Tests draining of the connections on shutdown, see {@link ServerConfiguration#drainTimeoutMillis()}.
+ */
+public class DrainShutdownTest {
+
+    private static final String GET_SLOW = "GET /slow HTTP/1.1\r\nHost: localhost\r\n\r\n";
+    private static final String GET_FAST = "GET /fast HTTP/1.1\r\nHost: localhost\r\n\r\n";
+
+    private final CountDownLatch slowRouted = new CountDownLatch(1);
+    private final CompletableFuture<Void> release = new CompletableFuture<>();
+
+    private WebServer webServer;
+
+    @AfterEach
+    public void stopServer() throws Exception {
+        release.complete(null);
+        if (webServer != null) {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void inFlightRequestCompleted() throws Exception {
+        startServer(10_000);
+        try (Socket socket = new Socket("localhost", webServer.port())) {
+            socket.setSoTimeout(10_000);
+            send(socket, GET_SLOW);
+            assertThat(slowRouted.await(10, TimeUnit.SECONDS), is(true));
+            assertThat(webServer.statistics().inFlightRequests(), is(1L));
+
+            CompletionStage<WebServer> shutdown = webServer.shutdown();
+            // the request in flight holds the shutdown
+            Thread.sleep(200);
+            assertThat(shutdown.toCompletableFuture().isDone(), is(false));
+
+            release.complete(null);
+            String response = readUntilClosed(socket);
+            assertThat(response, containsString("200 OK"));
+            assertThat(response.toLowerCase(), containsString("connection: close"));
+            assertThat(response, containsString("slow"));
+
+            shutdown.toCompletableFuture().get(10, TimeUnit.SECONDS);
+            assertThat(webServer.statistics().inFlightRequests(), is(0L));
+        }
+    }
+
+    @Test
+    public void idleConnectionClosed() throws Exception {
+        startServer(10_000);
+        try (Socket socket = new Socket("localhost", webServer.port())) {
+            socket.setSoTimeout(10_000);
+            send(socket, GET_FAST);
+            byte[] buffer = new byte[1024];
+            assertThat(new String(buffer, 0, socket.getInputStream().read(buffer), StandardCharsets.US_ASCII),
+                       containsString("keep-alive"));
+
+            long start = System.nanoTime();
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(5_000L));
+            assertThat(socket.getInputStream().read(), is(-1));
+        }
+    }
+
+    @Test
+    public void drainTimeout() throws Exception {
+        startServer(300);
+        try (Socket socket = new Socket("localhost", webServer.port())) {
+            socket.setSoTimeout(10_000);
+            send(socket, GET_SLOW);
+            assertThat(slowRouted.await(10, TimeUnit.SECONDS), is(true));
+
+            // the request is never completed, the connection is closed once the timeout elapses
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+            assertThat(readUntilClosed(socket), is(""));
+        }
+    }
+
+    private void startServer(long drainTimeoutMillis) throws Exception {
+        Routing routing = Routing.builder()
+                .get("/slow", (req, res) -> {
+                    slowRouted.countDown();
+                    release.thenRun(() -> res.send("slow"));
+                })
+                .get("/fast", (req, res) -> res.send("fast"))
+                .build();
+
+        webServer = WebServer.create(ServerConfiguration.builder()
+                                             .drainTimeoutMillis(drainTimeoutMillis)
+                                             .build(),
+                                     routing)
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    private static void send(Socket socket, String request) throws Exception {
+        OutputStream out = socket.getOutputStream();
+        out.write(request.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private static String readUntilClosed(Socket socket) throws Exception {
+        InputStream in = socket.getInputStream();
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            received.write(buffer, 0, read);
+        }
+        return received.toString("US-ASCII");
+    }
+}
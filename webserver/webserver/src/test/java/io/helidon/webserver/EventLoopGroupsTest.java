@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+/**
+ * Tests the event loop groups dedicated to a socket, see {@link SocketConfiguration#dedicatedWorkers()}.
+ */
+public class EventLoopGroupsTest {
+
+    private static final String ADMIN = "admin";
+
+    private final CountDownLatch blocking = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private WebServer webServer;
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        Routing routing = Routing.builder()
+                .get("/block", (req, res) -> {
+                    // blocks the only shared worker thread
+                    blocking.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    res.send("unblocked");
+                })
+                .get("/thread", (req, res) -> res.send(Thread.currentThread().getName()))
+                .build();
+        Routing adminRouting = Routing.builder()
+                .get("/thread", (req, res) -> res.send(Thread.currentThread().getName()))
+                .build();
+
+        webServer = WebServer.builder(routing)
+                .config(ServerConfiguration.builder()
+                                .workersCount(1)
+                                .addSocket(ADMIN, SocketConfiguration.builder()
+                                        .dedicatedWorkers(1)
+                                        .dedicatedAcceptor(true)))
+                .addNamedRouting(ADMIN, adminRouting)
+                .build()
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    public void stopServer() throws Exception {
+        release.countDown();
+        if (webServer != null) {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void socketWorkers() throws Exception {
+        assertThat(get(webServer.port(), "/thread"), containsString("server-worker-"));
+        assertThat(get(webServer.port(ADMIN), "/thread"), containsString("server-admin-worker-"));
+
+        ServerStatistics statistics = webServer.statistics();
+        assertThat(statistics.eventLoopThreads(ServerConfiguration.DEFAULT_SOCKET_NAME), is(1L));
+        assertThat(statistics.eventLoopThreads(ADMIN), is(1L));
+        assertThat(statistics.eventLoopUtilization(ADMIN), is(allOf(greaterThanOrEqualTo(0L), lessThanOrEqualTo(100L))));
+        assertThat(statistics.eventLoopPendingTasks(ADMIN), is(greaterThanOrEqualTo(0L)));
+    }
+
+    @Test
+    public void adminServedWhileSharedWorkersBlocked() throws Exception {
+        try (Socket blocked = new Socket("localhost", webServer.port())) {
+            blocked.setSoTimeout(10_000);
+            send(blocked, "/block");
+            assertThat(blocking.await(10, TimeUnit.SECONDS), is(true));
+
+            // the admin socket has its own event loops
+            assertThat(get(webServer.port(ADMIN), "/thread"), containsString("200 OK"));
+
+            release.countDown();
+            byte[] buffer = new byte[1024];
+            assertThat(new String(buffer, 0, blocked.getInputStream().read(buffer), StandardCharsets.US_ASCII),
+                       containsString("200 OK"));
+        }
+    }
+
+    private static String get(int port, String path) throws Exception {
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setSoTimeout(10_000);
+            send(socket, path);
+            InputStream in = socket.getInputStream();
+            ByteArrayOutputStream received = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                received.write(buffer, 0, read);
+            }
+            return received.toString("US-ASCII");
+        }
+    }
+
+    private static void send(Socket socket, String path) throws Exception {
+        OutputStream out = socket.getOutputStream();
+        String request = "GET " + path + " HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n";
+        out.write(request.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+
+/**
+ * Tests the event loop watchdog, see {@link ServerConfiguration#eventLoopStallThresholdMillis()}.
+ */
+public class EventLoopWatchdogTest {
+
+    private static final Logger WATCHDOG_LOGGER = Logger.getLogger(EventLoopWatchdog.class.getName());
+
+    private final List<LogRecord> records = new CopyOnWriteArrayList<>();
+    private final List<Long> lags = new CopyOnWriteArrayList<>();
+    private final Handler logHandler = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            records.add(record);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private WebServer webServer;
+
+    @BeforeEach
+    public void addLogHandler() {
+        WATCHDOG_LOGGER.addHandler(logHandler);
+    }
+
+    @AfterEach
+    public void stopServer() throws Exception {
+        WATCHDOG_LOGGER.removeHandler(logHandler);
+        if (webServer != null) {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void stallReported() throws Exception {
+        startServer(100);
+        // starts the event loop thread
+        assertThat(get("/"), containsString("200 OK"));
+        Thread.sleep(200);
+        assertThat(get("/block"), containsString("200 OK"));
+
+        ServerStatistics statistics = webServer.statistics();
+        // the probe queued behind the blocking handler runs once the response is sent
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (statistics.eventLoopStalls() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(statistics.eventLoopStalls(), is(greaterThanOrEqualTo(1L)));
+        assertThat(statistics.eventLoopMaxLag(), is(greaterThanOrEqualTo(100L)));
+        assertThat(lags, hasItem(greaterThanOrEqualTo(100_000L)));
+
+        // the start of the server may stall the event loop as well, e.g. by class loading
+        LogRecord record = records.stream()
+                .filter(r -> r.getLevel() == Level.WARNING)
+                .filter(r -> r.getThrown() != null)
+                .filter(r -> Arrays.toString(r.getThrown().getStackTrace()).contains("Thread.sleep"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No stall reported: " + records));
+        @SuppressWarnings("unchecked")
+        Map<String, String> event = (Map<String, String>) record.getParameters()[0];
+        assertThat(event.get("event"), is("event-loop-stall"));
+        assertThat(event.get("thread"), containsString("server-worker-"));
+        assertThat(event.get("handler.class"), containsString(EventLoopWatchdogTest.class.getName()));
+    }
+
+    @Test
+    public void disabledByDefault() throws Exception {
+        startServer(0);
+        assertThat(get("/block"), containsString("200 OK"));
+
+        assertThat(webServer.statistics().eventLoopStalls(), is(0L));
+        assertThat(lags, is(empty()));
+        assertThat(records, is(empty()));
+    }
+
+    private void startServer(long stallThresholdMillis) throws Exception {
+        Routing routing = Routing.builder()
+                .get("/", (req, res) -> res.send("ok"))
+                .get("/block", (req, res) -> {
+                    try {
+                        // blocks the event loop
+                        Thread.sleep(600);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    res.send("blocked");
+                })
+                .build();
+
+        webServer = WebServer.create(ServerConfiguration.builder()
+                                             .workersCount(1)
+                                             .eventLoopStallThresholdMillis(stallThresholdMillis)
+                                             .build(),
+                                     routing)
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+        webServer.statistics().eventLoopLagListener(lags::add);
+    }
+
+    private String get(String path) throws Exception {
+        try (Socket socket = new Socket("localhost", webServer.port())) {
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            String request = "GET " + path + " HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n";
+            out.write(request.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            InputStream in = socket.getInputStream();
+            StringBuilder received = new StringBuilder();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                received.append(new String(buffer, 0, read, StandardCharsets.US_ASCII));
+            }
+            return received.toString();
+        }
+    }
+}
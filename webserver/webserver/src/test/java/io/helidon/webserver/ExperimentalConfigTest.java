@@ -19,6 +19,7 @@ package io.helidon.webserver;
 import io.helidon.config.Config;
 import io.helidon.config.ConfigSources;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -34,6 +35,10 @@ public class ExperimentalConfigTest {
         Http2Configuration http2 = new Http2Configuration.Builder().build();
         assertThat(http2.enable(), is(false));
         assertThat(http2.maxContentLength(), is(Http2Configuration.DEFAULT_MAX_CONTENT_LENGTH));
+        assertThat(http2.maxConcurrentStreams(), is(Http2Configuration.DEFAULT_MAX_CONCURRENT_STREAMS));
+        assertThat(http2.initialWindowSize(), is(Http2Configuration.DEFAULT_INITIAL_WINDOW_SIZE));
+        assertThat(http2.maxFrameSize(), is(Http2Configuration.DEFAULT_MAX_FRAME_SIZE));
+        assertThat(http2.headerTableSize(), is(Http2Configuration.DEFAULT_HEADER_TABLE_SIZE));
     }
 
     @Test
@@ -57,4 +62,25 @@ public class ExperimentalConfigTest {
         assertThat(http2.get("enable").asBoolean().get(), is(true));
         assertThat((int) http2.get("max-content-length").asInt().get(), is(16 * 1024));
     }
+
+    @Test
+    public void flowControlFromConfig() {
+        Config config = Config.create(ConfigSources.classpath("experimental/application.yaml")).get("webserver");
+        Http2Configuration http2 = ServerConfiguration.create(config).experimental().http2();
+        assertThat(http2.enable(), is(true));
+        assertThat(http2.maxConcurrentStreams(), is(250L));
+        assertThat(http2.initialWindowSize(), is(1048576));
+        assertThat(http2.maxFrameSize(), is(32768));
+        assertThat(http2.headerTableSize(), is(8192L));
+    }
+
+    @Test
+    public void invalidFlowControl() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> Http2Configuration.builder().maxFrameSize(1024));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> Http2Configuration.builder().initialWindowSize(-1));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> Http2Configuration.builder().maxConcurrentStreams(1L << 32));
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+
+import io.helidon.common.configurable.Resource;
+import io.helidon.common.pki.KeyConfig;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests files sent directly from the file system (file region on a plain socket, chunked file on a TLS socket).
+ */
+public class FileTransferTest {
+
+    private static final String SECURED = "secured";
+
+    private static byte[] content;
+    private static Path file;
+    private static Path emptyFile;
+    private static WebServer webServer;
+    private static Client client;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        content = new byte[1024 * 1024 + 17];
+        new Random(42).nextBytes(content);
+        file = Files.createTempFile("helidon-file-transfer", ".bin");
+        Files.write(file, content);
+        emptyFile = Files.createTempFile("helidon-file-transfer", ".empty");
+
+        SSLContext sslContext = SSLContextBuilder.create(KeyConfig.pemBuilder()
+                                                                 .key(Resource.create("ssl/key.pkcs8.pem"))
+                                                                 .certChain(Resource.create("ssl/certificate.pem"))
+                                                                 .build())
+                .build();
+
+        Routing routing = Routing.builder()
+                .get("/file", (req, res) -> res.send(file))
+                .get("/io-file", (req, res) -> res.send(file.toFile()))
+                .get("/empty", (req, res) -> res.send(emptyFile))
+                .get("/filtered", (req, res) -> {
+                    // filters see the data chunks, the file is published
+                    res.registerFilter(publisher -> publisher);
+                    res.send(file);
+                })
+                .build();
+
+        webServer = WebServer.builder(routing)
+                .config(ServerConfiguration.builder()
+                                .addSocket(SECURED, SocketConfiguration.builder().ssl(sslContext)))
+                .addNamedRouting(SECURED, routing)
+                .build()
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+
+        client = ClientBuilder.newBuilder()
+                .sslContext(SslTest.clientSslContextTrustAll())
+                .hostnameVerifier((s, sslSession) -> true)
+                .build();
+    }
+
+    @AfterAll
+    public static void stopServer() throws Exception {
+        if (webServer != null) {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+        if (client != null) {
+            client.close();
+        }
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(emptyFile);
+    }
+
+    @Test
+    public void plainFile() {
+        WebTarget target = client.target("http://localhost:" + webServer.port());
+        assertContent(target.path("/file").request().get(), content);
+        // keep-alive connection is reused
+        assertContent(target.path("/io-file").request().get(), content);
+        assertContent(target.path("/empty").request().get(), new byte[0]);
+        assertContent(target.path("/filtered").request().get(), content);
+    }
+
+    @Test
+    public void securedFile() {
+        WebTarget target = client.target("https://localhost:" + webServer.port(SECURED));
+        assertContent(target.path("/file").request().get(), content);
+        assertContent(target.path("/io-file").request().get(), content);
+        assertContent(target.path("/empty").request().get(), new byte[0]);
+        assertContent(target.path("/filtered").request().get(), content);
+    }
+
+    private static void assertContent(Response response, byte[] expected) {
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getHeaderString("Content-Length"), is(String.valueOf(expected.length)));
+        assertThat(response.readEntity(byte[].class), is(expected));
+    }
+}
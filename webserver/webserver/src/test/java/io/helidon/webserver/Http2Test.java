@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.SSLContext;
+
+import io.helidon.common.configurable.Resource;
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+import io.helidon.common.pki.KeyConfig;
+import io.helidon.common.reactive.Flow;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.codec.http2.Http2StreamChannelBootstrap;
+import io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.SslProvider;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+/**
+ * Tests HTTP/2 streams routed as independent requests.
+ */
+public class Http2Test {
+
+    private static final String SECURED = "secured";
+    private static final int BODY_SIZE = 1024 * 1024;
+
+    private final CountDownLatch fastSent = new CountDownLatch(1);
+    private final AtomicInteger echoChunks = new AtomicInteger();
+
+    private WebServer webServer;
+    private EventLoopGroup clientGroup;
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        SSLContext sslContext = SSLContextBuilder.create(KeyConfig.pemBuilder()
+                                                                 .key(Resource.create("ssl/key.pkcs8.pem"))
+                                                                 .certChain(Resource.create("ssl/certificate.pem"))
+                                                                 .build())
+                .build();
+
+        Routing routing = Routing.builder()
+                .get("/slow", (req, res) -> {
+                    // completed once a stream opened later on the same connection is completed
+                    CompletableFuture.runAsync(() -> {
+                        try {
+                            res.send(fastSent.await(5, TimeUnit.SECONDS) ? "slow" : "blocked");
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            res.send("interrupted");
+                        }
+                    });
+                })
+                .get("/fast", (req, res) -> res.send("fast").thenRun(fastSent::countDown))
+                .post("/echo", (req, res) -> req.content().subscribe(new Flow.Subscriber<DataChunk>() {
+                    private long length;
+
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        subscription.request(Long.MAX_VALUE);
+                    }
+
+                    @Override
+                    public void onNext(DataChunk item) {
+                        echoChunks.incrementAndGet();
+                        length += item.data().remaining();
+                        item.release();
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        res.status(Http.Status.INTERNAL_SERVER_ERROR_500).send();
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        res.send(String.valueOf(length));
+                    }
+                }))
+                .build();
+
+        webServer = WebServer.create(ServerConfiguration.builder()
+                                             .experimental(ExperimentalConfiguration.builder()
+                                                                   .http2(Http2Configuration.builder()
+                                                                                  .enable(true)
+                                                                                  .maxContentLength(16 * 1024)
+                                                                                  .initialWindowSize(16 * 1024)
+                                                                                  .build())
+                                                                   .build())
+                                             .addSocket(SECURED, SocketConfiguration.builder().ssl(sslContext))
+                                             .build(),
+                                     routing)
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+        clientGroup = new NioEventLoopGroup(1);
+    }
+
+    @AfterEach
+    public void stopServer() throws Exception {
+        clientGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+        webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void priorKnowledgeMultiplexedStreams() throws Exception {
+        Channel channel = connect(webServer.port(), null);
+
+        CompletableFuture<String> slow = request(channel, get("/slow"));
+        CompletableFuture<String> fast = request(channel, get("/fast"));
+
+        // the fast stream is not blocked by the slow one
+        assertThat(fast.get(10, TimeUnit.SECONDS), is("fast"));
+        assertThat(slow.get(10, TimeUnit.SECONDS), is("slow"));
+    }
+
+    @Test
+    public void goAwayOnShutdown() throws Exception {
+        Channel channel = connect(webServer.port(), null);
+        CompletableFuture<String> slow = request(channel, get("/slow"));
+        // the stream is opened once the request is written
+        Thread.sleep(200);
+
+        CompletionStage<WebServer> shutdown = webServer.shutdown();
+        fastSent.countDown();
+        // the active stream is completed before the connection is closed
+        assertThat(slow.get(10, TimeUnit.SECONDS), is("slow"));
+        assertThat(channel.closeFuture().await(10, TimeUnit.SECONDS), is(true));
+        shutdown.toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void streamedRequestContent() throws Exception {
+        Channel channel = connect(webServer.port(), null);
+
+        byte[] body = new byte[BODY_SIZE];
+        Arrays.fill(body, (byte) 'a');
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/echo",
+                                                             Unpooled.wrappedBuffer(body));
+        request.headers().set(HttpHeaderNames.HOST, "localhost");
+
+        // larger than both the max content length and the window, the content is not aggregated
+        assertThat(request(channel, request).get(10, TimeUnit.SECONDS), is(String.valueOf(BODY_SIZE)));
+        assertThat(echoChunks.get(), greaterThan(1));
+    }
+
+    @Test
+    public void alpn() throws Exception {
+        SslContext sslContext = SslContextBuilder.forClient()
+                .sslProvider(SslProvider.JDK)
+                .trustManager(InsecureTrustManagerFactory.INSTANCE)
+                .applicationProtocolConfig(new ApplicationProtocolConfig(
+                        ApplicationProtocolConfig.Protocol.ALPN,
+                        ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+                        ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+                        ApplicationProtocolNames.HTTP_2,
+                        ApplicationProtocolNames.HTTP_1_1))
+                .build();
+        Channel channel = connect(webServer.port(SECURED), sslContext);
+
+        CompletableFuture<String> slow = request(channel, get("/slow"));
+        assertThat(request(channel, get("/fast")).get(10, TimeUnit.SECONDS), is("fast"));
+        assertThat(slow.get(10, TimeUnit.SECONDS), is("slow"));
+        assertThat(channel.pipeline().get(SslHandler.class).applicationProtocol(), is(ApplicationProtocolNames.HTTP_2));
+    }
+
+    @Test
+    public void cleartextUpgrade() throws Exception {
+        try (Socket socket = new Socket("localhost", webServer.port())) {
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /fast HTTP/1.1\r\n"
+                    + "Host: localhost\r\n"
+                    + "Connection: Upgrade, HTTP2-Settings\r\n"
+                    + "Upgrade: h2c\r\n"
+                    + "HTTP2-Settings: AAMAAABkAAQAAP__\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            InputStream in = socket.getInputStream();
+            byte[] buffer = new byte[1024];
+            int read = in.read(buffer);
+            assertThat(new String(buffer, 0, read, StandardCharsets.US_ASCII), startsWith("HTTP/1.1 101 Switching Protocols"));
+        }
+    }
+
+    @Test
+    public void http1WithHttp2Enabled() throws Exception {
+        try (Socket socket = new Socket("localhost", webServer.port())) {
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            out.write("GET /fast HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            InputStream in = socket.getInputStream();
+            StringBuilder response = new StringBuilder();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                response.append(new String(buffer, 0, read, StandardCharsets.US_ASCII));
+            }
+            assertThat(response.toString(), startsWith("HTTP/1.1 200 OK"));
+            assertThat(response.toString().endsWith("fast"), is(true));
+        }
+    }
+
+    private Channel connect(int port, SslContext sslContext) throws InterruptedException {
+        return new Bootstrap()
+                .group(clientGroup)
+                .channel(NioSocketChannel.class)
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        if (sslContext != null) {
+                            ch.pipeline().addLast(sslContext.newHandler(ch.alloc(), "localhost", port));
+                        }
+                        ch.pipeline().addLast(Http2FrameCodecBuilder.forClient().build(),
+                                              new Http2MultiplexHandler(new SimpleChannelInboundHandler<Object>() {
+                                                  @Override
+                                                  protected void channelRead0(ChannelHandlerContext ctx, Object msg) {
+                                                  }
+                                              }));
+                    }
+                })
+                .connect("localhost", port)
+                .sync()
+                .channel();
+    }
+
+    private static CompletableFuture<String> request(Channel channel, FullHttpRequest request) throws InterruptedException {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        Http2StreamChannel stream = new Http2StreamChannelBootstrap(channel)
+                .handler(new ChannelInitializer<Http2StreamChannel>() {
+                    @Override
+                    protected void initChannel(Http2StreamChannel ch) {
+                        ch.pipeline().addLast(new Http2StreamFrameToHttpObjectCodec(false),
+                                              new HttpObjectAggregator(BODY_SIZE),
+                                              new SimpleChannelInboundHandler<FullHttpResponse>() {
+                                                  @Override
+                                                  protected void channelRead0(ChannelHandlerContext ctx,
+                                                                              FullHttpResponse msg) {
+                                                      result.complete(msg.content().toString(StandardCharsets.UTF_8));
+                                                  }
+
+                                                  @Override
+                                                  public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+                                                      result.completeExceptionally(cause);
+                                                  }
+                                              });
+                    }
+                })
+                .open()
+                .sync()
+                .getNow();
+        stream.writeAndFlush(request);
+        return result;
+    }
+
+    private static FullHttpRequest get(String path) {
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, path);
+        request.headers().set(HttpHeaderNames.HOST, "localhost");
+        return request;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.Http;
+import io.helidon.webserver.utils.SocketHttpClient;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests the native transport selection and {@code SO_REUSEPORT} accept loops.
+ */
+public class NativeTransportTest {
+
+    @Test
+    public void nioByDefault() {
+        NettyTransport transport = NettyTransport.create(ServerConfiguration.builder().acceptors(4).build());
+        assertThat(transport.isNative(), is(false));
+        assertThat(transport.acceptors(SocketConfiguration.builder().acceptors(4).build()), is(1));
+    }
+
+    @Test
+    public void nativeWhenAvailable() {
+        NettyTransport transport = NettyTransport.create(ServerConfiguration.builder().nativeTransport(true).build());
+        assertThat(transport.isNative(), is(NettyTransport.isNativeAvailable()));
+    }
+
+    @Test
+    public void multipleAcceptors() throws Exception {
+        assumeTrue(NettyTransport.isNativeAvailable(), "Native transport is not available");
+
+        WebServer webServer = WebServer.create(
+                ServerConfiguration.builder()
+                        .nativeTransport(true)
+                        .acceptors(3)
+                        .tcpFastOpen(16)
+                        .tcpNoDelay(false)
+                        .sendBufferSize(32 * 1024)
+                        .writeBufferWaterMark(8 * 1024, 32 * 1024)
+                        .addSocket("other", SocketConfiguration.builder().acceptors(2))
+                        .build(),
+                Routing.builder()
+                        .get("/", (req, res) -> res.send("It works!"))
+                        .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+        try {
+            for (int i = 0; i < 10; i++) {
+                String s = SocketHttpClient.sendAndReceive("/", Http.Method.GET, null, webServer);
+                assertThat(s, containsString("It works!"));
+            }
+            String s = SocketHttpClient.sendAndReceive("/", Http.Method.GET, null, webServer);
+            assertThat(s, containsString("200 OK"));
+        } finally {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+}
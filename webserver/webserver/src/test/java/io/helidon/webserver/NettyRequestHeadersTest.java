@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.List;
+import java.util.Map;
+
+import io.helidon.common.http.MediaType;
+
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link NettyRequestHeaders}.
+ */
+public class NettyRequestHeadersTest {
+
+    private static NettyRequestHeaders headers() {
+        HttpHeaders headers = new DefaultHttpHeaders();
+        headers.add("Content-Type", "application/json");
+        headers.add("Content-Length", "42");
+        headers.add("Accept", "text/plain;q=0.5, application/json");
+        headers.add("Cookie", "a=1; b=2");
+        headers.add("X-Value", "one");
+        headers.add("x-value", "two");
+        return new NettyRequestHeaders(headers);
+    }
+
+    @Test
+    public void caseInsensitive() {
+        NettyRequestHeaders headers = headers();
+        assertThat(headers.first("content-type").orElse(null), is("application/json"));
+        assertThat(headers.all("X-VALUE"), contains("one", "two"));
+        assertThat(headers.all("missing").isEmpty(), is(true));
+        assertThat(headers.first("missing").isPresent(), is(false));
+    }
+
+    @Test
+    public void requestHeaders() {
+        NettyRequestHeaders headers = headers();
+        assertThat(headers.contentType().orElse(null), is(MediaType.APPLICATION_JSON));
+        assertThat(headers.contentLength().getAsLong(), is(42L));
+        assertThat(headers.bestAccepted(MediaType.TEXT_PLAIN, MediaType.APPLICATION_JSON).orElse(null),
+                   is(MediaType.APPLICATION_JSON));
+        assertThat(headers.cookies().first("b").orElse(null), is("2"));
+    }
+
+    @Test
+    public void readOnly() {
+        NettyRequestHeaders headers = headers();
+        assertThrows(UnsupportedOperationException.class, () -> headers.add("X-Value", "three"));
+        assertThrows(UnsupportedOperationException.class, () -> headers.remove("X-Value"));
+        assertThrows(UnsupportedOperationException.class, () -> headers.all("X-Value").add("three"));
+    }
+
+    @Test
+    public void toMap() {
+        Map<String, List<String>> map = headers().toMap();
+        assertThat(map.size(), is(5));
+        assertThat(map.get("X-VALUE"), contains("one", "two"));
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+
+import io.helidon.common.context.Contexts;
+import io.helidon.config.Config;
+import io.helidon.config.ConfigSources;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+/**
+ * Tests the handlers offloaded from the event loop, see {@link Handler#offload(Handler)}.
+ */
+public class OffloadHandlerTest {
+
+    private final CountDownLatch blocked = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    // a single thread and no queue, the second concurrent request is rejected
+    private final ExecutorService singleThread = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                                                                        new SynchronousQueue<>());
+
+    private WebServer server;
+    private WebTarget target;
+
+    @BeforeEach
+    public void createAndStartServer() throws Exception {
+        this.server = Routing.builder()
+                .get("/thread", Handler.offload((req, res) -> {
+                    String context = Contexts.context().map(ctx -> ctx.id()).orElse("none");
+                    res.send(Thread.currentThread().getName() + " " + context.equals(req.context().id()));
+                }))
+                .get("/blocking", Handler.offload(singleThread, (req, res) -> {
+                    blocked.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    res.send("released");
+                }))
+                .get("/failing", Handler.offload((req, res) -> {
+                    throw new IllegalStateException("Failing handler");
+                }))
+                .createServer();
+        this.server.start().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        this.target = ClientBuilder.newClient().target("http://localhost:" + server.port());
+    }
+
+    @AfterEach
+    public void stopServer() throws Exception {
+        release.countDown();
+        singleThread.shutdown();
+        this.server.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void handlerRunsOffEventLoopInRequestContext() {
+        String response = target.path("/thread").request().get(String.class);
+        // threads of the offload pool, not an event loop thread
+        assertThat(response, startsWith("helidon-"));
+        assertThat(response.endsWith(" true"), is(true));
+        assertThat(server.statistics().offloadedRequests(), greaterThanOrEqualTo(1L));
+        assertThat(server.statistics().offloadQueueDepth(), is(0L));
+    }
+
+    @Test
+    public void rejectedWith503() throws Exception {
+        ClientBuilder.newClient()
+                .target("http://localhost:" + server.port())
+                .path("/blocking")
+                .request()
+                .async()
+                .get();
+        assertThat(blocked.await(10, TimeUnit.SECONDS), is(true));
+
+        Response response = target.path("/blocking").request().get();
+        assertThat(response.getStatus(), is(503));
+        assertThat(server.statistics().offloadRejections(), is(1L));
+        assertThat(server.statistics().offloadQueueDepth(), is(0L));
+    }
+
+    @Test
+    public void failureForwardedToErrorHandling() {
+        Response response = target.path("/failing").request().get();
+        assertThat(response.getStatus(), is(500));
+    }
+
+    @Test
+    public void serverPoolFromConfigShutDownWithServer() throws Exception {
+        Config config = Config.builder()
+                .sources(ConfigSources.create(Collections.singletonMap("server.offload-executor-service.thread-name-prefix",
+                                                                       "configured-offload-")))
+                .disableEnvironmentVariablesSource()
+                .disableSystemPropertiesSource()
+                .build();
+        WebServer configured = Routing.builder()
+                .get("/thread", Handler.offload((req, res) -> res.send(Thread.currentThread().getName())))
+                .createServer(ServerConfiguration.create(config.get("server")));
+        configured.start().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        ExecutorService offloadExecutor = ((NettyWebServer) configured).offloadExecutor();
+        try {
+            String response = ClientBuilder.newClient()
+                    .target("http://localhost:" + configured.port())
+                    .path("/thread")
+                    .request()
+                    .get(String.class);
+            assertThat(response, startsWith("configured-offload-"));
+            assertThat(offloadExecutor.isShutdown(), is(false));
+        } finally {
+            configured.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+        assertThat(offloadExecutor.isShutdown(), is(true));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Multi;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+/**
+ * Tests pipelining of HTTP/1.1 requests, see {@link SocketConfiguration#maxPipelinedRequests()}.
+ */
+public class PipeliningTest {
+
+    private static final String REQUESTS = "GET /slow HTTP/1.1\r\nHost: localhost\r\n\r\n"
+            + "POST /echo HTTP/1.1\r\nHost: localhost\r\nContent-Length: 4\r\n\r\necho"
+            + "GET /stream HTTP/1.1\r\nHost: localhost\r\n\r\n";
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final CountDownLatch othersRouted = new CountDownLatch(2);
+
+    private WebServer webServer;
+
+    @AfterEach
+    public void stopServer() throws Exception {
+        if (webServer != null) {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void responsesInRequestOrder() throws Exception {
+        startServer(4);
+        String responses = send(REQUESTS, "third");
+
+        int slow = responses.indexOf("\r\n\r\nslow");
+        int echo = responses.indexOf("\r\n\r\necho");
+        int stream = responses.indexOf("first-");
+        assertThat(responses, slow > 0, is(true));
+        assertThat(responses, echo > slow, is(true));
+        assertThat(responses, stream > echo, is(true));
+        // the other requests were routed while the slow one was still being processed
+        assertThat(maxActive.get(), greaterThan(1));
+
+        ServerStatistics statistics = webServer.statistics();
+        assertThat(statistics.maxPipelineDepth(), greaterThanOrEqualTo(2L));
+        assertThat(statistics.headOfLineWaits(), greaterThanOrEqualTo(1L));
+        assertThat(statistics.pipelinedResponses(), is(0L));
+    }
+
+    @Test
+    public void limitedDepth() throws Exception {
+        startServer(2);
+        String responses = send(REQUESTS, "third");
+
+        assertThat(responses.indexOf("\r\n\r\nslow") < responses.indexOf("\r\n\r\necho"), is(true));
+        assertThat(responses.indexOf("\r\n\r\necho") < responses.indexOf("first-"), is(true));
+        // the stream request waits for the slow one
+        assertThat(maxActive.get(), is(2));
+        assertThat(webServer.statistics().maxPipelineDepth(), is(2L));
+    }
+
+    private void startServer(int maxPipelinedRequests) throws Exception {
+        Routing routing = Routing.builder()
+                .any((req, res) -> {
+                    maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    res.whenSent().thenRun(active::decrementAndGet);
+                    req.next();
+                })
+                .get("/slow", (req, res) -> {
+                    // wait for the other requests, or give up after a while if they are not pipelined
+                    CompletableFuture.runAsync(() -> {
+                        try {
+                            othersRouted.await(500, TimeUnit.MILLISECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        res.send("slow");
+                    });
+                })
+                .post("/echo", (req, res) -> {
+                    othersRouted.countDown();
+                    req.content().as(String.class).thenAccept(res::send);
+                })
+                .get("/stream", (req, res) -> {
+                    othersRouted.countDown();
+                    res.send(Multi.just(chunk("first-"), chunk("second-"), chunk("third")));
+                })
+                .build();
+
+        webServer = WebServer.create(ServerConfiguration.builder()
+                                             .maxPipelinedRequests(maxPipelinedRequests)
+                                             .build(),
+                                     routing)
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    private String send(String requests, String lastContent) throws Exception {
+        try (Socket socket = new Socket("localhost", webServer.port())) {
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            out.write(requests.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            InputStream in = socket.getInputStream();
+            ByteArrayOutputStream received = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            while (!received.toString("US-ASCII").contains(lastContent)) {
+                int read = in.read(buffer);
+                if (read < 0) {
+                    break;
+                }
+                received.write(buffer, 0, read);
+            }
+            return received.toString("US-ASCII");
+        }
+    }
+
+    private static DataChunk chunk(String data) {
+        return DataChunk.create(data.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import io.helidon.common.http.DataChunk;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link PooledDataChunkFactory} and {@link ByteBufDataChunk}.
+ */
+public class PooledDataChunkFactoryTest {
+
+    private final PooledDataChunkFactory factory = new PooledDataChunkFactory(PooledByteBufAllocator.DEFAULT);
+
+    @Test
+    public void encode() {
+        assertEncoded("Hello Žluťoučký kůň 😀", StandardCharsets.UTF_8);
+        assertEncoded("Hello World!", StandardCharsets.US_ASCII);
+        assertEncoded("Hello Wörld!", StandardCharsets.ISO_8859_1);
+        assertEncoded("Hello Wörld!", StandardCharsets.UTF_16BE);
+        assertEncoded("", StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void copyBytes() {
+        byte[] bytes = "0123456789".getBytes(StandardCharsets.US_ASCII);
+        DataChunk chunk = factory.create(bytes, 2, 5);
+        bytes[3] = 'x';
+        assertThat(new String(chunk.bytes(), StandardCharsets.US_ASCII), is("23456"));
+        assertThat(chunk.data().isDirect(), is(true));
+        chunk.release();
+    }
+
+    @Test
+    public void releaseAndContent() {
+        ByteBufDataChunk chunk = (ByteBufDataChunk) factory.create("Hello World!", StandardCharsets.UTF_8);
+        chunk.data().position(6);
+        ByteBuf content = chunk.retainedContent();
+        assertThat(content.toString(StandardCharsets.UTF_8), is("World!"));
+        ByteBuf buffer = content.unwrap();
+        assertThat(buffer.refCnt(), is(2));
+
+        // written content is released by the channel, the chunk by the response
+        content.release();
+        assertThat(buffer.refCnt(), is(1));
+        chunk.release();
+        chunk.release();
+        assertThat(chunk.isReleased(), is(true));
+        assertThat(buffer.refCnt(), is(0));
+    }
+
+    private void assertEncoded(String text, Charset charset) {
+        DataChunk chunk = factory.create(text, charset);
+        assertThat(chunk.bytes(), is(text.getBytes(charset)));
+        assertThat(chunk.isReadOnly(), is(true));
+        assertThat(chunk.data().isReadOnly(), is(true));
+        chunk.release();
+        assertThat(chunk.isReleased(), is(true));
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+
+import io.helidon.config.Config;
+import io.helidon.config.ConfigSources;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link RateLimitSupport}.
+ */
+public class RateLimitSupportTest {
+
+    private WebServer server;
+    private WebTarget target;
+
+    @AfterEach
+    public void stopServer() throws Exception {
+        if (server != null) {
+            server.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void rejectedWith429AndHeaders() throws Exception {
+        RateLimitSupport rateLimit = RateLimitSupport.builder()
+                .addPolicy(RateLimitPolicy.builder()
+                                   .limit(2)
+                                   .periodMillis(60_000)
+                                   .keyExtractor(RateLimitPolicy.KeyExtractor.header("X-Api-Key"))
+                                   .build())
+                .build();
+        startServer(Routing.builder()
+                            .register(rateLimit)
+                            .get("/", (req, res) -> res.send("ok")));
+
+        Response first = get("/", "X-Api-Key", "a");
+        assertThat(first.getStatus(), is(200));
+        assertThat(first.getHeaderString("RateLimit-Limit"), is("2"));
+        assertThat(first.getHeaderString("RateLimit-Remaining"), is("1"));
+        assertThat(first.getHeaderString("RateLimit-Reset"), is("30"));
+        assertThat(get("/", "X-Api-Key", "a").getHeaderString("RateLimit-Remaining"), is("0"));
+
+        Response rejected = get("/", "X-Api-Key", "a");
+        assertThat(rejected.getStatus(), is(429));
+        assertThat(rejected.getHeaderString("RateLimit-Remaining"), is("0"));
+        assertThat(rejected.getHeaderString("Retry-After"), is("30"));
+        assertThat(rateLimit.rejections(), is(1L));
+
+        // another key has its own bucket
+        assertThat(get("/", "X-Api-Key", "b").getStatus(), is(200));
+        assertThat(rateLimit.buckets(), is(2));
+    }
+
+    @Test
+    public void principalKey() throws Exception {
+        RateLimitSupport rateLimit = RateLimitSupport.builder()
+                .addPolicy(RateLimitPolicy.builder()
+                                   .limit(1)
+                                   .periodMillis(60_000)
+                                   .keyExtractor(RateLimitPolicy.KeyExtractor.principal())
+                                   .build())
+                .build();
+        startServer(Routing.builder()
+                            // registers the principal as the security integration does
+                            .any((req, res) -> {
+                                req.headers().first("X-User")
+                                        .ifPresent(user -> req.context().register((Principal) () -> user));
+                                req.next();
+                            })
+                            .register(rateLimit)
+                            .get("/", (req, res) -> res.send("ok")));
+
+        assertThat(get("/", "X-User", "jack").getStatus(), is(200));
+        assertThat(get("/", "X-User", "jack").getStatus(), is(429));
+        assertThat(get("/", "X-User", "jill").getStatus(), is(200));
+        // the requests without the principal are counted by the remote address
+        assertThat(target.path("/").request().get().getStatus(), is(200));
+        assertThat(target.path("/").request().get().getStatus(), is(429));
+    }
+
+    @Test
+    public void policiesFromConfig() throws Exception {
+        Map<String, String> map = new HashMap<>();
+        map.put("rate-limit.eviction-interval-millis", "1");
+        map.put("rate-limit.policies.0.path", "/limited");
+        map.put("rate-limit.policies.0.limit", "1");
+        map.put("rate-limit.policies.0.period-millis", "10");
+        map.put("rate-limit.policies.0.key", "header");
+        map.put("rate-limit.policies.0.header", "X-Api-Key");
+        Config config = Config.builder()
+                .sources(ConfigSources.create(map))
+                .disableEnvironmentVariablesSource()
+                .disableSystemPropertiesSource()
+                .build();
+        RateLimitSupport rateLimit = RateLimitSupport.create(config.get("rate-limit"));
+        startServer(Routing.builder()
+                            .register(rateLimit)
+                            .get("/limited", (req, res) -> res.send("limited"))
+                            .get("/free", (req, res) -> res.send("free")));
+
+        assertThat(get("/limited", "X-Api-Key", "a").getStatus(), is(200));
+        assertThat(get("/free", "X-Api-Key", "a").getHeaderString("RateLimit-Limit"), is((String) null));
+        assertThat(rateLimit.buckets(), is(1));
+
+        // the bucket of the first key is full again and evicted by a later request
+        Thread.sleep(50);
+        assertThat(get("/limited", "X-Api-Key", "b").getStatus(), is(200));
+        assertThat(rateLimit.buckets(), is(1));
+    }
+
+    @Test
+    public void pathScopedPolicies() throws Exception {
+        Map<String, String> map = new HashMap<>();
+        map.put("rate-limit.policies.0.path", "/admin/{+}");
+        map.put("rate-limit.policies.0.limit", "1");
+        map.put("rate-limit.policies.0.period-millis", "60000");
+        Config config = Config.builder()
+                .sources(ConfigSources.create(map))
+                .disableEnvironmentVariablesSource()
+                .disableSystemPropertiesSource()
+                .build();
+        RateLimitSupport rateLimit = RateLimitSupport.builder()
+                .config(config.get("rate-limit"))
+                .addPolicy(RateLimitPolicy.builder()
+                                   .pathPattern("/api/{+}")
+                                   .limit(1)
+                                   .periodMillis(60_000)
+                                   .build())
+                .build();
+        startServer(Routing.builder()
+                            .register(rateLimit)
+                            .get("/api/{+}", (req, res) -> res.send("api"))
+                            .get("/admin/{+}", (req, res) -> res.send("admin"))
+                            .get("/free", (req, res) -> res.send("free")));
+
+        // the paths under a pattern share the bucket of the policy
+        assertThat(get("/api/a/b", "X-Test", "1").getStatus(), is(200));
+        assertThat(get("/api/c", "X-Test", "1").getStatus(), is(429));
+        assertThat(get("/admin/a", "X-Test", "1").getStatus(), is(200));
+        assertThat(get("/admin/b", "X-Test", "1").getStatus(), is(429));
+
+        Response free = get("/free", "X-Test", "1");
+        assertThat(free.getStatus(), is(200));
+        assertThat(free.getHeaderString("RateLimit-Limit"), is((String) null));
+        assertThat(rateLimit.rejections(), is(2L));
+    }
+
+    private Response get(String path, String header, String value) {
+        Response response = target.path(path).request().header(header, value).get();
+        response.close();
+        return response;
+    }
+
+    private void startServer(Routing.Builder routing) throws Exception {
+        server = routing.createServer();
+        server.start().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        target = ClientBuilder.newClient().target("http://localhost:" + server.port());
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.charset.StandardCharsets;
+
+import io.helidon.common.http.DataChunk;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link RequestChunkLeakDetector} and the release of {@link ByteBufRequestChunk}.
+ */
+public class RequestChunkLeakDetectorTest {
+
+    private final NettyServerStatistics statistics = new NettyServerStatistics();
+
+    @Test
+    public void releaseOnce() {
+        HttpRequestScopedPublisher publisher = publisher(ServerConfiguration.LeakDetection.DISABLED);
+        ByteBuf buffer = buffer();
+        DataChunk chunk = publisher.wrap(buffer);
+        assertThat(buffer.refCnt(), is(2));
+        assertThat(publisher.unreleasedChunks(), is(1));
+        assertThat(new String(chunk.bytes(), StandardCharsets.UTF_8), is("chunk"));
+
+        chunk.release();
+        chunk.release();
+        assertThat(chunk.isReleased(), is(true));
+        assertThat(buffer.refCnt(), is(1));
+        assertThat(publisher.unreleasedChunks(), is(0));
+    }
+
+    @Test
+    public void trackingByLevel() {
+        RequestChunkLeakDetector detector = new RequestChunkLeakDetector(ServerConfiguration.LeakDetection.DISABLED,
+                                                                         statistics);
+        assertThat(detector.track(DataChunk.create(new byte[0]), buffer()), nullValue());
+
+        RequestChunkLeakDetector paranoid = new RequestChunkLeakDetector(ServerConfiguration.LeakDetection.PARANOID,
+                                                                         statistics);
+        assertThat(paranoid.track(DataChunk.create(new byte[0]), buffer()), notNullValue());
+    }
+
+    @Test
+    public void paranoidTracksAndReleasesOnShutdown() {
+        RequestChunkLeakDetector detector = new RequestChunkLeakDetector(ServerConfiguration.LeakDetection.PARANOID,
+                                                                         statistics);
+        HttpRequestScopedPublisher publisher = new HttpRequestScopedPublisher(null, detector);
+        ByteBuf released = buffer();
+        publisher.wrap(released).release();
+        assertThat(released.refCnt(), is(1));
+
+        ByteBuf notReleased = buffer();
+        DataChunk chunk = publisher.wrap(notReleased);
+        assertThat(notReleased.refCnt(), is(2));
+        detector.shutdown();
+        // the reference of the chunk is released by the shutdown
+        assertThat(notReleased.refCnt(), is(1));
+        assertThat(publisher.unreleasedChunks(), is(1));
+        chunk.release();
+        assertThat(notReleased.refCnt(), is(1));
+    }
+
+    @Test
+    public void deliveredChunkNotReleasedOnRequestCompletion() {
+        RequestChunkLeakDetector detector = new RequestChunkLeakDetector(ServerConfiguration.LeakDetection.SAMPLED,
+                                                                         statistics);
+        HttpRequestScopedPublisher publisher = new HttpRequestScopedPublisher(null, detector);
+        ByteBuf buffer = buffer();
+        DataChunk chunk = publisher.wrap(buffer);
+
+        detector.requestCompleted(1, publisher.unreleasedChunks());
+        // the application may still read the chunk
+        assertThat(buffer.refCnt(), is(2));
+        assertThat(new String(chunk.bytes(), StandardCharsets.UTF_8), is("chunk"));
+
+        chunk.release();
+        assertThat(buffer.refCnt(), is(1));
+        assertThat(publisher.unreleasedChunks(), is(0));
+    }
+
+    @Test
+    public void leakDetected() throws InterruptedException {
+        RequestChunkLeakDetector detector = new RequestChunkLeakDetector(ServerConfiguration.LeakDetection.PARANOID,
+                                                                         statistics);
+        HttpRequestScopedPublisher publisher = new HttpRequestScopedPublisher(null, detector);
+        ByteBuf leaked = buffer();
+        publisher.wrap(leaked);
+
+        for (int i = 0; i < 50 && statistics.leakedRequestChunks() == 0; i++) {
+            System.gc();
+            Thread.sleep(20);
+            // references are processed when a new chunk is tracked
+            publisher.wrap(buffer()).release();
+        }
+        assertThat(statistics.leakedRequestChunks(), is(1L));
+        assertThat(leaked.refCnt(), is(1));
+    }
+
+    private HttpRequestScopedPublisher publisher(ServerConfiguration.LeakDetection level) {
+        return new HttpRequestScopedPublisher(null, new RequestChunkLeakDetector(level, statistics));
+    }
+
+    private static ByteBuf buffer() {
+        return Unpooled.copiedBuffer("chunk", StandardCharsets.UTF_8);
+    }
+}
@@ -23,6 +23,7 @@ import io.helidon.common.CollectionsHelper;
 import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
 import static org.hamcrest.collection.IsMapContaining.hasEntry;
@@ -90,5 +91,7 @@ public class RequestTest {
         assertThat(request.queryParams().toMap(), hasEntry(is("e"), hasItems("f", "g")));
         assertThat(request.queryParams().toMap(), hasEntry(is("h"), hasItem("xc#e<")));
         assertThat(request.queryParams().toMap(), hasEntry(is("a"), hasItem("b&c=d")));
+        // decoded once, on the first access
+        assertThat(request.queryParams(), sameInstance(request.queryParams()));
     }
 }
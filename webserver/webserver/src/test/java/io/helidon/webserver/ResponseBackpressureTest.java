@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Tests that a response does not request more data than the client is able to receive.
+ */
+public class ResponseBackpressureTest {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int CHUNKS = 512;
+    private static final AtomicInteger EMITTED = new AtomicInteger();
+
+    private static WebServer webServer;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        webServer = WebServer.create(
+                ServerConfiguration.builder()
+                        .sendBufferSize(CHUNK_SIZE)
+                        .writeBufferWaterMark(CHUNK_SIZE / 2, CHUNK_SIZE)
+                        .build(),
+                Routing.builder()
+                        .get("/", (req, res) -> res.send(new ChunksPublisher()))
+                        .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    public static void stopServer() throws Exception {
+        if (webServer != null) {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void slowClient() throws Exception {
+        try (Socket socket = new Socket()) {
+            socket.setReceiveBufferSize(4096);
+            socket.connect(new InetSocketAddress("localhost", webServer.port()));
+            OutputStream out = socket.getOutputStream();
+            out.write("GET / HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            // the client does not read, the server must stop requesting data
+            waitForStall();
+            assertThat(EMITTED.get(), lessThan(CHUNKS / 2));
+            assertThat(webServer.statistics().writabilityPauses(), greaterThan(0L));
+            assertThat(webServer.statistics().connections(), greaterThanOrEqualTo(1L));
+
+            long read = 0;
+            byte[] buffer = new byte[CHUNK_SIZE];
+            InputStream in = socket.getInputStream();
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                read += n;
+            }
+            assertThat(EMITTED.get(), is(CHUNKS));
+            assertThat(read, greaterThan((long) CHUNKS * CHUNK_SIZE));
+        }
+    }
+
+    private static void waitForStall() throws InterruptedException {
+        int last = -1;
+        for (int i = 0; i < 50; i++) {
+            TimeUnit.MILLISECONDS.sleep(100);
+            int current = EMITTED.get();
+            if (current > 0 && current == last) {
+                return;
+            }
+            last = current;
+        }
+    }
+
+    /**
+     * Publishes {@link #CHUNKS} chunks, strictly honoring the demand of the subscriber.
+     */
+    private static final class ChunksPublisher implements Flow.Publisher<DataChunk> {
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super DataChunk> subscriber) {
+            AtomicLong requested = new AtomicLong();
+            AtomicInteger wip = new AtomicInteger();
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    requested.addAndGet(n);
+                    if (wip.getAndIncrement() != 0) {
+                        return;
+                    }
+                    do {
+                        while (requested.get() > 0 && EMITTED.get() < CHUNKS) {
+                            requested.decrementAndGet();
+                            EMITTED.incrementAndGet();
+                            subscriber.onNext(DataChunk.create(new byte[CHUNK_SIZE]));
+                        }
+                        if (EMITTED.get() == CHUNKS && requested.get() >= 0) {
+                            requested.set(Long.MIN_VALUE);
+                            subscriber.onComplete();
+                        }
+                    } while (wip.decrementAndGet() != 0);
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+        }
+    }
+}
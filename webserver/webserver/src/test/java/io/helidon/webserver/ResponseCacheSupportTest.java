@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+
+import io.helidon.common.http.Http;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link ResponseCacheSupport}.
+ */
+public class ResponseCacheSupportTest {
+
+    private final AtomicInteger invocations = new AtomicInteger();
+    private final List<ServerResponse> pending = new CopyOnWriteArrayList<>();
+    private final CountDownLatch blocked = new CountDownLatch(1);
+
+    private ResponseCacheSupport cache;
+    private WebServer server;
+    private WebTarget target;
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        cache = ResponseCacheSupport.create();
+        server = Routing.builder()
+                .register(cache)
+                .get("/cached", (req, res) -> {
+                    invocations.incrementAndGet();
+                    res.headers().put(Http.Header.CACHE_CONTROL, "public, max-age=60");
+                    res.send("hello " + req.queryParams().first("name").orElse("world"));
+                })
+                .get("/uncached", (req, res) -> {
+                    invocations.incrementAndGet();
+                    res.send("hello");
+                })
+                .get("/language", (req, res) -> {
+                    invocations.incrementAndGet();
+                    res.headers().put(Http.Header.CACHE_CONTROL, "max-age=60");
+                    res.headers().put(Http.Header.VARY, "Accept-Language");
+                    res.send(req.headers().first("Accept-Language").orElse("none"));
+                })
+                .get("/slow", (req, res) -> {
+                    invocations.incrementAndGet();
+                    res.headers().put(Http.Header.CACHE_CONTROL, "max-age=60");
+                    pending.add(res);
+                    blocked.countDown();
+                })
+                .createServer();
+        server.start().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        target = ClientBuilder.newClient().target("http://localhost:" + server.port());
+    }
+
+    @AfterEach
+    public void stopServer() throws Exception {
+        pending.forEach(res -> res.send("released"));
+        server.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void servedFromCacheWithEtag() {
+        assertThat(get("/cached", null).readEntity(String.class), is("hello world"));
+
+        Response cached = get("/cached", null);
+        assertThat(cached.getStatus(), is(200));
+        assertThat(cached.readEntity(String.class), is("hello world"));
+        assertThat(cached.getHeaderString("Cache-Control"), is("public, max-age=60"));
+        assertThat(cached.getHeaderString("Age"), notNullValue());
+        String etag = cached.getHeaderString("ETag");
+        assertThat(etag, notNullValue());
+
+        Response notModified = target.path("/cached").request().header("If-None-Match", etag).get();
+        assertThat(notModified.getStatus(), is(304));
+        notModified.close();
+
+        Response head = target.path("/cached").request().head();
+        assertThat(head.getStatus(), is(200));
+        assertThat(head.getHeaderString("Content-Length"), is("11"));
+        head.close();
+
+        assertThat(invocations.get(), is(1));
+        assertThat(cache.hits(), is(3L));
+        assertThat(cache.entries(), is(1L));
+        assertThat(cache.size(), is(11L));
+    }
+
+    @Test
+    public void keyCombinesQueryAndVary() {
+        assertThat(target.path("/cached").queryParam("name", "a").queryParam("x", "1").request().get(String.class),
+                   is("hello a"));
+        // the parameters are sorted
+        assertThat(target.path("/cached").queryParam("x", "1").queryParam("name", "a").request().get(String.class),
+                   is("hello a"));
+        assertThat(target.path("/cached").queryParam("name", "b").request().get(String.class), is("hello b"));
+        assertThat(invocations.get(), is(2));
+
+        assertThat(language("en"), is("en"));
+        assertThat(language("de"), is("de"));
+        assertThat(language("en"), is("en"));
+        assertThat(language("de"), is("de"));
+        assertThat(invocations.get(), is(4));
+    }
+
+    @Test
+    public void notCacheable() {
+        get("/uncached", null).close();
+        get("/uncached", null).close();
+        // requested not to be served from the cache
+        get("/cached", null).close();
+        get("/cached", "no-cache").close();
+        assertThat(invocations.get(), is(4));
+    }
+
+    @Test
+    public void concurrentMissesCoalesced() throws Exception {
+        List<Future<Response>> responses = new ArrayList<>();
+        responses.add(target.path("/slow").request().async().get());
+        assertThat(blocked.await(10, TimeUnit.SECONDS), is(true));
+        for (int i = 0; i < 3; i++) {
+            responses.add(target.path("/slow").request().async().get());
+        }
+        // let the other requests reach the cache
+        Thread.sleep(200);
+
+        pending.forEach(res -> res.send("slow"));
+        pending.clear();
+        for (Future<Response> response : responses) {
+            assertThat(response.get(10, TimeUnit.SECONDS).readEntity(String.class), is("slow"));
+        }
+        assertThat(invocations.get(), is(1));
+    }
+
+    private String language(String language) {
+        return target.path("/language").request().header("Accept-Language", language).get(String.class);
+    }
+
+    private Response get(String path, String cacheControl) {
+        return (cacheControl == null)
+                ? target.path(path).request().get()
+                : target.path(path).request().header("Cache-Control", cacheControl).get();
+    }
+
+    @Test
+    public void varyNamesBoundedByStore() {
+        ResponseCache cache = new ResponseCache(30);
+        List<String> vary = Collections.singletonList("accept");
+        long now = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            cache.put(entry("/path" + i + "?", vary, "|text/plain", now, 60));
+        }
+        assertThat(cache.entries(), is(3L));
+        assertThat(cache.variants(), is(3));
+        assertThat(cache.vary("/path99?"), is(vary));
+        assertThat(cache.vary("/path0?"), is(Collections.emptyList()));
+
+        cache.put(entry("/path99?", vary, "|text/html", now, 60));
+        assertThat(cache.variants(), is(2));
+
+
+        cache = new ResponseCache(30);
+        cache.put(entry("/expired?", vary, "", now - TimeUnit.SECONDS.toNanos(2), 1));
+        assertThat(cache.vary("/expired?"), is(vary));
+        assertThat(cache.get("/expired?", System.nanoTime()), nullValue());
+        assertThat(cache.vary("/expired?"), is(Collections.emptyList()));
+        assertThat(cache.variants(), is(0));
+    }
+
+    private static ResponseCache.Entry entry(String base, List<String> vary, String varyValues, long created, long maxAge) {
+        return new ResponseCache.Entry(base, Collections.emptyMap(), new byte[10], "\"etag\"", vary, varyValues, created, maxAge);
+    }
+}
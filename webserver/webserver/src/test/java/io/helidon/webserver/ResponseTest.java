@@ -25,10 +25,13 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.DataChunkFactory;
 import io.helidon.common.http.Http;
 import io.helidon.common.http.MediaType;
 import io.helidon.common.reactive.Flow;
+import io.helidon.common.reactive.Multi;
 
+import io.netty.buffer.PooledByteBufAllocator;
 import io.opentracing.SpanContext;
 import org.junit.jupiter.api.Test;
 
@@ -233,6 +236,36 @@ public class ResponseTest {
         assertThat(sb.toString(), is("ABC"));
     }
 
+    @Test
+    public void pooledChunksNotLeakedByFilters() {
+        PooledByteBufAllocator allocator = uncachedAllocator();
+        Response response = new ResponseImpl(null, new PooledBareResponse(allocator, false));
+        // a filter replacing the chunks without releasing them
+        response.registerFilter(p -> Multi.from(p).map(chunk -> DataChunk.create(chunk.bytes())));
+        response.send("hello");
+        assertThat(activeAllocations(allocator), is(0L));
+    }
+
+    @Test
+    public void pooledChunksNotLeakedByCancel() {
+        PooledByteBufAllocator allocator = uncachedAllocator();
+        new ResponseImpl(null, new PooledBareResponse(allocator, true)).send("hello");
+        assertThat(activeAllocations(allocator), is(0L));
+
+        new ResponseImpl(null, new PooledBareResponse(allocator, false)).send("hello".getBytes());
+        assertThat(allocator.metric().directArenas().get(0).numAllocations(), is(1L));
+        assertThat(activeAllocations(allocator), is(0L));
+    }
+
+    private static PooledByteBufAllocator uncachedAllocator() {
+        // without thread caches, so the buffers are returned straight to the arena
+        return new PooledByteBufAllocator(true, 0, 1, 8192, 11, 0, 0, 0, false);
+    }
+
+    private static long activeAllocations(PooledByteBufAllocator allocator) {
+        return allocator.metric().directArenas().get(0).numActiveAllocations();
+    }
+
     static class ResponseImpl extends Response {
 
         public ResponseImpl(WebServer webServer, BareResponse bareResponse) {
@@ -295,4 +328,40 @@ public class ResponseTest {
             return 0;
         }
     }
+
+    /**
+     * Creates the chunks in the provided allocator and releases them once consumed, as the Netty response does.
+     */
+    static class PooledBareResponse extends NoOpBareResponse {
+
+        private final DataChunkFactory factory;
+        private final boolean cancel;
+
+        PooledBareResponse(PooledByteBufAllocator allocator, boolean cancel) {
+            super(null);
+            this.factory = new PooledDataChunkFactory(allocator);
+            this.cancel = cancel;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (cancel) {
+                // e.g. the connection was closed
+                subscription.cancel();
+            } else {
+                super.onSubscribe(subscription);
+            }
+        }
+
+        @Override
+        public void onNext(DataChunk data) {
+            super.onNext(data);
+            data.release();
+        }
+
+        @Override
+        public DataChunkFactory dataChunkFactory() {
+            return factory;
+        }
+    }
 }
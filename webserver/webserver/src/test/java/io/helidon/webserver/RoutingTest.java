@@ -112,6 +112,47 @@ public class RoutingTest {
         assertThat(checker.handlersInvoked(), is("createUser"));
     }
 
+    @Test
+    public void mixedPatternsKeepOrder() {
+        final RoutingChecker checker = new RoutingChecker();
+        Routing routing = Routing.builder()
+                .get("/user/{name}", (req, res) -> {
+                    checker.handlerInvoked("param:" + req.path().param("name"));
+                    req.next();
+                })
+                .get("/user/{+rest}", (req, res) -> {
+                    checker.handlerInvoked("greedy:" + req.path().param("rest"));
+                    req.next();
+                })
+                .any((req, res) -> {
+                    checker.handlerInvoked("any");
+                    req.next();
+                })
+                .register("/user/{name}", rules -> rules.get("/orders", (req, res) -> {
+                    checker.handlerInvoked("orders:" + req.path().absolute().param("name"));
+                    req.next();
+                }))
+                .get("/user/john", (req, res) -> {
+                    checker.handlerInvoked("literal");
+                    req.next();
+                })
+                .get("/user/{name}/orders", (req, res) -> {
+                    checker.handlerInvoked("last");
+                })
+                .build();
+
+        routing.route(mockRequest("/user/john", Http.Method.GET), mockResponse());
+        assertThat(checker.handlersInvoked(), is("param:john,greedy:john,any,literal"));
+
+        checker.reset();
+        routing.route(mockRequest("/user/john/orders", Http.Method.GET), mockResponse());
+        assertThat(checker.handlersInvoked(), is("greedy:john/orders,any,orders:john,last"));
+
+        checker.reset();
+        routing.route(mockRequest("/user/john", Http.Method.POST), mockResponse());
+        assertThat(checker.handlersInvoked(), is("any"));
+    }
+
     static BareRequest mockRequest(String path, Http.Method method) {
         BareRequest bareRequestMock = Mockito.mock(BareRequest.class);
         Mockito.doReturn(URI.create("http://0.0.0.0:1234/" + path)).when(bareRequestMock).uri();
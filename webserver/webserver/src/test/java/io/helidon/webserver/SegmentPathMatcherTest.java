@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link PathPattern.SegmentPathMatcher} against the equivalent {@link PathPattern.RegexpPathMatcher}.
+ */
+public class SegmentPathMatcherTest {
+
+    private static final String[] PATHS = {
+            "/", "/foo", "/foo/bar", "/foo/bar/baz", "/foo/bar/baz/qux", "/foo//baz", "/foo/bar/", "/bar/foo",
+            "/foo/b%20r", "/foo/bar/baz/"
+    };
+
+    @Test
+    public void testCompile() {
+        assertThat(PathPattern.compile("/foo/{id}"), instanceOf(PathPattern.SegmentPathMatcher.class));
+        assertThat(PathPattern.compile("/{a}/{ b }/{}"), instanceOf(PathPattern.SegmentPathMatcher.class));
+        assertThat(PathPattern.compile("/foo/{+id}"), instanceOf(PathPattern.RegexpPathMatcher.class));
+        assertThat(PathPattern.compile("/foo/{id:\\d+}"), instanceOf(PathPattern.RegexpPathMatcher.class));
+        assertThat(PathPattern.compile("/foo/b{id}"), instanceOf(PathPattern.RegexpPathMatcher.class));
+        assertThat(PathPattern.compile("/foo[/{id}]"), instanceOf(PathPattern.RegexpPathMatcher.class));
+        assertThat(PathPattern.compile("{id}"), instanceOf(PathPattern.RegexpPathMatcher.class));
+    }
+
+    @Test
+    public void testSameAsRegexp() {
+        assertSameAsRegexp("/foo/{id}", "/foo/(?<p0>[^/]+)", "id");
+        assertSameAsRegexp("/{a}/bar", "/(?<p0>[^/]+)/bar", "a");
+        assertSameAsRegexp("/{a}/{b}/baz", "/(?<p0>[^/]+)/(?<p1>[^/]+)/baz", "a", "b");
+        assertSameAsRegexp("/foo/{}", "/foo/([^/]+)");
+        assertSameAsRegexp("/{a}", "/(?<p0>[^/]+)", "a");
+    }
+
+    @Test
+    public void testSegments() {
+        assertThat(PathPattern.segments(PathPattern.compile("/")).length, is(0));
+        assertThat(PathPattern.segments(PathPattern.compile("/foo/bar")), is(new String[] {"foo", "bar"}));
+        assertThat(PathPattern.segments(PathPattern.compile("/foo/{id}")), is(new String[] {"foo", null}));
+        assertThat(PathPattern.segments(PathPattern.compile("/foo/{+id}")), nullValue());
+        assertThat(PathPattern.segments(Route.EMPTY_PATH_MATCHER), nullValue());
+        assertThat(PathPattern.split("/foo//bar"), is(new String[] {"foo", "", "bar"}));
+    }
+
+    private static void assertSameAsRegexp(String pattern, String regexp, String... params) {
+        Map<String, String> groups = new HashMap<>();
+        for (int i = 0; i < params.length; i++) {
+            groups.put(params[i], "p" + i);
+        }
+        PathMatcher expected = new PathPattern.RegexpPathMatcher(regexp, groups);
+        PathMatcher actual = PathPattern.compile(pattern);
+        assertThat(actual, instanceOf(PathPattern.SegmentPathMatcher.class));
+        for (String path : PATHS) {
+            String description = pattern + " ~ " + path;
+            PathMatcher.Result expectedMatch = expected.match(path);
+            PathMatcher.Result actualMatch = actual.match(path);
+            assertThat(description, actualMatch.matches(), is(expectedMatch.matches()));
+            assertThat(description, actualMatch.params(), is(expectedMatch.params()));
+
+            PathMatcher.PrefixResult expectedPrefix = expected.prefixMatch(path);
+            PathMatcher.PrefixResult actualPrefix = actual.prefixMatch(path);
+            assertThat(description, actualPrefix.matches(), is(expectedPrefix.matches()));
+            assertThat(description, actualPrefix.params(), is(expectedPrefix.params()));
+            assertThat(description, actualPrefix.remainingPart(), is(expectedPrefix.remainingPart()));
+        }
+    }
+}
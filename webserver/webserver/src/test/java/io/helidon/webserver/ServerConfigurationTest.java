@@ -18,11 +18,13 @@ package io.helidon.webserver;
 
 import java.net.InetAddress;
 
+import io.helidon.common.pki.KeyConfig;
 import io.helidon.config.Config;
 import io.helidon.config.ConfigSources;
 
 import io.opentracing.util.GlobalTracer;
 import org.hamcrest.core.IsInstanceOf;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -62,6 +64,22 @@ public class ServerConfigurationTest {
         assertThat(config.workersCount() > 0, is(true));
         assertThat(config.tracer(), IsInstanceOf.instanceOf(GlobalTracer.class));
         assertThat(config.bindAddress(), nullValue());
+        assertThat(config.nativeTransport(), is(false));
+        assertThat(config.leakDetection(), is(ServerConfiguration.LeakDetection.DISABLED));
+        assertThat(config.maxPipelinedRequests(), is(1));
+        assertThat(config.drainTimeoutMillis(), is(ServerConfiguration.DEFAULT_DRAIN_TIMEOUT_MILLIS));
+        assertThat(config.maxConnections(), is(0));
+        assertThat(config.queueConnections(), is(false));
+        assertThat(config.idleTimeoutMillis(), is(0L));
+        assertThat(config.readTimeoutMillis(), is(0L));
+        assertThat(config.maxInitialLineLength(), is(SocketConfiguration.DEFAULT_MAX_INITIAL_LINE_LENGTH));
+        assertThat(config.maxHeaderSize(), is(SocketConfiguration.DEFAULT_MAX_HEADER_SIZE));
+        assertThat(config.acceptors(), is(1));
+        assertThat(config.tcpNoDelay(), is(true));
+        assertThat(config.tcpFastOpen(), is(0));
+        assertThat(config.sendBufferSize(), is(0));
+        assertThat(config.writeBufferLowWaterMark(), is(0));
+        assertThat(config.writeBufferHighWaterMark(), is(0));
     }
 
     @Test
@@ -114,6 +132,51 @@ public class ServerConfigurationTest {
         assertThat(sc.socket("other").ssl(), nullValue());
     }
 
+    @Test
+    public void transportFromConfig() throws Exception {
+        Config config = Config.builder().sources(ConfigSources.classpath("config-transport.conf")).build();
+        ServerConfiguration sc = config.get("webserver").as(ServerConfiguration::create).get();
+        assertThat(sc.nativeTransport(), is(true));
+        assertThat(sc.acceptors(), is(4));
+        assertThat(sc.tcpNoDelay(), is(false));
+        assertThat(sc.tcpFastOpen(), is(256));
+        assertThat(sc.sendBufferSize(), is(65536));
+        assertThat(sc.writeBufferLowWaterMark(), is(16384));
+        assertThat(sc.writeBufferHighWaterMark(), is(131072));
+        assertThat(sc.leakDetection(), is(ServerConfiguration.LeakDetection.SAMPLED));
+        assertThat(sc.maxPipelinedRequests(), is(8));
+        assertThat(sc.drainTimeoutMillis(), is(30000L));
+        assertThat(sc.eventLoopStallThresholdMillis(), is(200L));
+        assertThat(sc.maxConnections(), is(1000));
+        assertThat(sc.queueConnections(), is(true));
+        assertThat(sc.idleTimeoutMillis(), is(60000L));
+        assertThat(sc.readTimeoutMillis(), is(5000L));
+        assertThat(sc.maxInitialLineLength(), is(2048));
+        assertThat(sc.maxHeaderSize(), is(16384));
+        assertThat(sc.dedicatedWorkers(), is(0));
+        assertThat(sc.dedicatedAcceptor(), is(false));
+
+        SocketConfiguration admin = sc.socket("admin");
+        assertThat(admin.acceptors(), is(1));
+        assertThat(admin.tcpNoDelay(), is(true));
+        assertThat(admin.writeBufferHighWaterMark(), is(0));
+        assertThat(admin.maxPipelinedRequests(), is(1));
+        assertThat(admin.maxConnections(), is(10));
+        assertThat(admin.queueConnections(), is(false));
+        assertThat(admin.idleTimeoutMillis(), is(0L));
+        assertThat(admin.dedicatedWorkers(), is(2));
+        assertThat(admin.dedicatedAcceptor(), is(true));
+    }
+
+    @Test
+    public void invalidWaterMarks() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> SocketConfiguration.builder()
+                                        .writeBufferLowWaterMark(1024)
+                                        .writeBufferHighWaterMark(512)
+                                        .build());
+    }
+
     @Test
     public void sslFromConfig() throws Exception {
         Config config = Config.builder().sources(ConfigSources.classpath("config-with-ssl.conf")).build();
@@ -125,5 +188,17 @@ public class ServerConfigurationTest {
         assertThat(sc.socket("secure").port(), is(11));
         assertThat(sc.socket("secure").enabledSslProtocols(), contains("TLSv1.2"));
         assertThat(sc.socket("secure").ssl(), notNullValue());
+
+        assertThat(sc.tls().provider(), is(TlsConfiguration.Provider.JDK));
+        assertThat(sc.tls().clientAuth(), is(TlsConfiguration.ClientAuth.NONE));
+        TlsConfiguration tls = sc.socket("secure").tls();
+        assertThat(tls.provider(), is(TlsConfiguration.Provider.OPENSSL));
+        assertThat(tls.clientAuth(), is(TlsConfiguration.ClientAuth.OPTIONAL));
+        assertThat(tls.ciphers(), contains("TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256"));
+        assertThat(tls.sessionCacheSize(), is(1024L));
+        assertThat(tls.sessionTimeoutSeconds(), is(600L));
+        assertThat(tls.sessionTicketKeys().size(), is(1));
+        assertThat(tls.sessionTicketKeys().get(0).length, is(TlsConfiguration.SESSION_TICKET_KEY_LENGTH));
+        assertThat(tls.privateKey().flatMap(KeyConfig::privateKey).isPresent(), is(true));
     }
 }
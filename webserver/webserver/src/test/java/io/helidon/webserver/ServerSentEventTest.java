@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.DataChunkFactory;
+import io.helidon.common.reactive.Flow;
+import io.helidon.common.reactive.Multi;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+/**
+ * Tests {@link ServerResponse#sendEvents(Flow.Publisher, SseConfiguration)}.
+ */
+public class ServerSentEventTest {
+
+    private static final String FLUSH = "<flush>";
+
+    private WebServer webServer;
+    private ScheduledExecutorService scheduler;
+
+    @AfterEach
+    public void stop() throws Exception {
+        if (webServer != null) {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void encoding() {
+        ServerSentEvent event = ServerSentEvent.builder()
+                .comment("note")
+                .id("7")
+                .name("tick")
+                .retryMillis(1000)
+                .data("first\nsecond\r\nthird")
+                .build();
+
+        assertThat(event.toString(), is(": note\nid: 7\nevent: tick\nretry: 1000\n"
+                                                + "data: first\ndata: second\ndata: third\n\n"));
+        assertThat(ServerSentEvent.create("").toString(), is("data: \n\n"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ServerSentEvent.builder().id("1\n2"));
+    }
+
+    @Test
+    public void eachEventFlushed() {
+        List<String> chunks = publish(SseConfiguration.defaults(), null);
+
+        assertThat(chunks, contains("data: a\n\n", FLUSH, "data: b\n\n", FLUSH));
+    }
+
+    @Test
+    public void flushesBatched() throws Exception {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        List<String> chunks = publish(SseConfiguration.builder()
+                                              .flushWindowMillis(200)
+                                              .keepAliveMillis(0)
+                                              .build(),
+                                      scheduler);
+
+        assertThat(chunks, contains("data: a\n\n", "data: b\n\n"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (chunks.size() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(chunks, contains("data: a\n\n", "data: b\n\n", FLUSH));
+    }
+
+    @Test
+    public void streamWithKeepAlive() throws Exception {
+        OpenStream events = new OpenStream(ServerSentEvent.create("hello"));
+        startServer((req, res) -> res.sendEvents(events,
+                                                 SseConfiguration.builder().keepAliveMillis(100).build()));
+
+        try (Socket socket = new Socket("localhost", webServer.port())) {
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            out.write("GET /events HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            String received = readUntil(socket.getInputStream(), ": keep-alive\n\n");
+            assertThat(received, containsString("Content-Type: text/event-stream"));
+            assertThat(received, containsString("Cache-Control: no-cache"));
+            assertThat(received, containsString("data: hello\n\n"));
+        }
+
+        // the client disconnected
+        assertThat(events.cancelled.await(10, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    public void streamCompleted() throws Exception {
+        startServer((req, res) -> res.sendEvents(Multi.just(ServerSentEvent.create("one"),
+                                                            ServerSentEvent.create("two"))));
+
+        try (Socket socket = new Socket("localhost", webServer.port())) {
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            out.write("GET /events HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n"
+                              .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            String received = readUntil(socket.getInputStream(), null);
+            assertThat(received, containsString("data: one\n\n"));
+            assertThat(received, containsString("data: two\n\n"));
+        }
+    }
+
+    private List<String> publish(SseConfiguration configuration, ScheduledExecutorService scheduler) {
+        List<String> chunks = new CopyOnWriteArrayList<>();
+        new ServerSentEventPublisher(new OpenStream(ServerSentEvent.create("a"), ServerSentEvent.create("b")),
+                                     configuration,
+                                     scheduler,
+                                     DataChunkFactory.heap())
+                .subscribe(new Flow.Subscriber<DataChunk>() {
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        subscription.request(Long.MAX_VALUE);
+                    }
+
+                    @Override
+                    public void onNext(DataChunk item) {
+                        chunks.add(item.isFlushChunk() ? FLUSH : new String(item.bytes(), StandardCharsets.UTF_8));
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        chunks.add(throwable.toString());
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        chunks.add("<complete>");
+                    }
+                });
+        return chunks;
+    }
+
+    private void startServer(Handler handler) throws Exception {
+        webServer = WebServer.create(ServerConfiguration.builder().build(),
+                                     Routing.builder().get("/events", handler))
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Publishes the events and stays open until cancelled.
+     */
+    private static final class OpenStream implements Flow.Publisher<ServerSentEvent> {
+        private final List<ServerSentEvent> events;
+        private final CountDownLatch cancelled = new CountDownLatch(1);
+
+        private OpenStream(ServerSentEvent... events) {
+            this.events = Arrays.asList(events);
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super ServerSentEvent> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                private int next;
+
+                @Override
+                public void request(long n) {
+                    for (long i = 0; i < n && next < events.size(); i++) {
+                        subscriber.onNext(events.get(next++));
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled.countDown();
+                }
+            });
+        }
+    }
+
+    private static String readUntil(InputStream in, String expected) throws Exception {
+        StringBuilder received = new StringBuilder();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            received.append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+            if (expected != null && received.indexOf(expected) >= 0) {
+                break;
+            }
+        }
+        return received.toString();
+    }
+}
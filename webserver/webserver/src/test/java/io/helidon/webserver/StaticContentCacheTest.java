@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link StaticContentCache} and cached class-path static content.
+ */
+public class StaticContentCacheTest {
+
+    private static StaticContentSupport support;
+    private static WebServer webServer;
+    private static Client client;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        support = StaticContentSupport.builder("/static-cache")
+                .welcomeFileName("index.html")
+                .cacheMaxSize(1024 * 1024)
+                .build();
+
+        webServer = WebServer.create(Routing.builder()
+                                             .register("/static", support)
+                                             .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+
+        client = ClientBuilder.newClient();
+    }
+
+    @AfterAll
+    public static void stopServer() throws Exception {
+        if (webServer != null) {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @Test
+    public void lruEviction() {
+        StaticContentCache cache = new StaticContentCache(30, StaticContentSupport.CacheEviction.LRU);
+        cache.put("a", "a.txt", null, new byte[10], null, null);
+        cache.put("b", "b.txt", null, new byte[10], null, null);
+        cache.put("c", "c.txt", null, new byte[10], null, null);
+        assertThat(cache.get("a"), notNullValue());
+
+        cache.put("d", "d.txt", null, new byte[10], null, null);
+
+        assertThat(cache.get("b"), nullValue());
+        assertThat(cache.get("a"), notNullValue());
+        assertThat(cache.get("d"), notNullValue());
+        assertThat(cache.evictions(), is(1L));
+        assertThat(cache.size(), is(30L));
+        assertThat(cache.entries(), is(3L));
+    }
+
+    @Test
+    public void lfuEviction() {
+        StaticContentCache cache = new StaticContentCache(30, StaticContentSupport.CacheEviction.LFU);
+        cache.put("a", "a.txt", null, new byte[10], null, null);
+        cache.put("b", "b.txt", null, new byte[10], null, null);
+        cache.put("c", "c.txt", null, new byte[10], null, null);
+        cache.get("a");
+        cache.get("a");
+        cache.get("c");
+        cache.get("b");
+        cache.get("b");
+
+        cache.put("d", "d.txt", null, new byte[10], null, null);
+
+        assertThat(cache.get("c"), nullValue());
+        assertThat(cache.get("d"), notNullValue());
+        assertThat(cache.evictions(), is(1L));
+    }
+
+    @Test
+    public void tooBig() {
+        StaticContentCache cache = new StaticContentCache(10, StaticContentSupport.CacheEviction.LRU);
+        assertThat(cache.put("a", "a.txt", null, new byte[11], null, null), nullValue());
+        assertThat(cache.entries(), is(0L));
+        assertThat(cache.size(), is(0L));
+    }
+
+    @Test
+    public void variants() throws IOException {
+        byte[] content = new byte[1000];
+        Arrays.fill(content, (byte) 'x');
+        StaticContentCache cache = new StaticContentCache(2000, StaticContentSupport.CacheEviction.LRU);
+        StaticContentCache.Entry entry = cache.put("a", "a.txt", null, content, "brotli".getBytes(), null);
+
+        assertThat(entry.coding(Collections.emptyList()), nullValue());
+        assertThat(entry.coding(Collections.singletonList("gzip, deflate, br")), is("br"));
+        // gzip variant is created on first use
+        assertThat(cache.size(), is(1006L));
+        assertThat(entry.coding(Collections.singletonList("gzip, br;q=0")), is("gzip"));
+        assertThat(entry.coding(Collections.singletonList("*;q=0, identity")), nullValue());
+
+        ByteBuffer gzip = entry.content("gzip");
+        assertThat(cache.size(), is(1006L + gzip.remaining()));
+        assertThat(gunzip(gzip), is(content));
+        assertThat(entry.etag("gzip"), is(entry.etag(null) + "-gzip"));
+    }
+
+    @Test
+    public void notCompressible() {
+        StaticContentCache cache = new StaticContentCache(2000, StaticContentSupport.CacheEviction.LRU);
+        StaticContentCache.Entry entry = cache.put("a", "a.txt", null, "abc".getBytes(), null, null);
+        assertThat(entry.coding(Collections.singletonList("gzip")), nullValue());
+        assertThat(cache.size(), is(3L));
+    }
+
+    @Test
+    public void cachedContent() throws IOException {
+        byte[] expected = resource("static-cache/index.html");
+        WebTarget target = client.target("http://localhost:" + webServer.port()).path("/static/index.html");
+
+        Response response = target.request().get();
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getHeaderString("Content-Type"), startsWith("text/html"));
+        assertThat(response.getHeaderString("Content-Length"), is(String.valueOf(expected.length)));
+        assertThat(response.getHeaderString("Vary"), is("Accept-Encoding"));
+        String etag = response.getHeaderString("ETag");
+        assertThat(etag, notNullValue());
+        assertThat(response.readEntity(byte[].class), is(expected));
+
+        long hits = support.cacheStatistics().get().hits();
+        response = target.request().header("If-None-Match", etag).get();
+        assertThat(response.getStatus(), is(304));
+        response.close();
+        assertThat(support.cacheStatistics().get().hits(), is(hits + 1));
+
+        response = target.request().header("Accept-Encoding", "gzip").get();
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getHeaderString("Content-Encoding"), is("gzip"));
+        assertThat(gunzip(ByteBuffer.wrap(response.readEntity(byte[].class))), is(expected));
+
+        response = target.request().header("Range", "bytes=0-9").get();
+        assertThat(response.getStatus(), is(206));
+        assertThat(response.readEntity(byte[].class), is(Arrays.copyOf(expected, 10)));
+    }
+
+    @Test
+    public void precompressed() throws IOException {
+        WebTarget target = client.target("http://localhost:" + webServer.port()).path("/static/app.js");
+
+        Response response = target.request().header("Accept-Encoding", "gzip, br").get();
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getHeaderString("Content-Encoding"), is("br"));
+        assertThat(response.readEntity(byte[].class), is(resource("static-cache/app.js.br")));
+
+        response = target.request().get();
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getHeaderString("Content-Encoding"), nullValue());
+        assertThat(response.readEntity(byte[].class), is(resource("static-cache/app.js")));
+    }
+
+    @Test
+    public void welcomeFile() throws IOException {
+        WebTarget target = client.target("http://localhost:" + webServer.port()).path("/static/docs/");
+        for (int i = 0; i < 2; i++) {
+            Response response = target.request().get();
+            assertThat(response.getStatus(), is(200));
+            assertThat(response.readEntity(byte[].class), is(resource("static-cache/docs/index.html")));
+        }
+        assertThat(support.cacheStatistics().get().misses() > 0, is(true));
+    }
+
+    private static byte[] resource(String name) throws IOException {
+        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(name)) {
+            return StaticContentCache.readAll(in, Long.MAX_VALUE);
+        }
+    }
+
+    private static byte[] gunzip(ByteBuffer buffer) throws IOException {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return StaticContentCache.readAll(in, Long.MAX_VALUE);
+        }
+    }
+}
@@ -21,6 +21,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.ZonedDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -32,6 +33,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -96,6 +98,49 @@ public class StaticContentHandlerTest {
         verify(res).put(Http.Header.ETAG, "\"aaa\"");
     }
 
+    @Test
+    public void range_NotRequested() {
+        RequestHeaders req = mock(RequestHeaders.class);
+        when(req.first(Http.Header.RANGE)).thenReturn(Optional.empty());
+        ResponseHeaders res = mock(ResponseHeaders.class);
+        assertThat(StaticContentHandler.processRanges(100, req, res), is(nullValue()));
+    }
+
+    @Test
+    public void range_Satisfiable() {
+        RequestHeaders req = mock(RequestHeaders.class);
+        when(req.first(Http.Header.RANGE)).thenReturn(Optional.of("bytes=10-19"));
+        when(req.first(Http.Header.IF_RANGE)).thenReturn(Optional.of("\"aaa\""));
+        ResponseHeaders res = mock(ResponseHeaders.class);
+        when(res.first(Http.Header.ETAG)).thenReturn(Optional.of("\"aaa\""));
+        List<ByteRange> ranges = StaticContentHandler.processRanges(100, req, res);
+        assertThat(ranges.size(), is(1));
+        assertThat(ranges.get(0).contentRange(100), is("bytes 10-19/100"));
+    }
+
+    @Test
+    public void range_IfRangeChanged() {
+        ZonedDateTime modified = ZonedDateTime.now();
+        RequestHeaders req = mock(RequestHeaders.class);
+        when(req.first(Http.Header.RANGE)).thenReturn(Optional.of("bytes=10-19"));
+        when(req.first(Http.Header.IF_RANGE))
+                .thenReturn(Optional.of(modified.minusSeconds(60).format(Http.DateTime.RFC_1123_DATE_TIME)));
+        ResponseHeaders res = mock(ResponseHeaders.class);
+        Mockito.doReturn(Optional.of(modified)).when(res).lastModified();
+        assertThat(StaticContentHandler.processRanges(100, req, res), is(nullValue()));
+    }
+
+    @Test
+    public void range_NotSatisfiable() {
+        RequestHeaders req = mock(RequestHeaders.class);
+        when(req.first(Http.Header.RANGE)).thenReturn(Optional.of("bytes=100-"));
+        when(req.first(Http.Header.IF_RANGE)).thenReturn(Optional.empty());
+        ResponseHeaders res = mock(ResponseHeaders.class);
+        assertHttpException(() -> StaticContentHandler.processRanges(100, req, res),
+                            Http.Status.REQUESTED_RANGE_NOT_SATISFIABLE_416);
+        verify(res).put(Http.Header.CONTENT_RANGE, "bytes */100");
+    }
+
     @Test
     public void ifModifySince_Accept() throws Exception {
         ZonedDateTime modified = ZonedDateTime.now();
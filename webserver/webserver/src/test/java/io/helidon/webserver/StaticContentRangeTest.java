@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+
+import io.helidon.common.configurable.Resource;
+import io.helidon.common.pki.KeyConfig;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@code Range} requests of the static content.
+ */
+public class StaticContentRangeTest {
+
+    private static final String SECURED = "secured";
+
+    private static byte[] content;
+    private static Path root;
+    private static WebServer webServer;
+    private static Client client;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        content = new byte[100 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) ('a' + i % 26);
+        }
+        root = Files.createTempDirectory("helidon-static-range");
+        Files.write(root.resolve("data.txt"), content);
+
+        SSLContext sslContext = SSLContextBuilder.create(KeyConfig.pemBuilder()
+                                                                 .key(Resource.create("ssl/key.pkcs8.pem"))
+                                                                 .certChain(Resource.create("ssl/certificate.pem"))
+                                                                 .build())
+                .build();
+
+        Routing routing = Routing.builder()
+                .any("/filtered/*", (req, res) -> {
+                    // filters see the data chunks, the ranges are published
+                    res.registerFilter(publisher -> publisher);
+                    req.next();
+                })
+                .register("/filtered", StaticContentSupport.create(root))
+                .register("/static", StaticContentSupport.create(root))
+                .build();
+
+        webServer = WebServer.builder(routing)
+                .config(ServerConfiguration.builder()
+                                .addSocket(SECURED, SocketConfiguration.builder().ssl(sslContext)))
+                .addNamedRouting(SECURED, routing)
+                .build()
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+
+        client = ClientBuilder.newBuilder()
+                .sslContext(SslTest.clientSslContextTrustAll())
+                .hostnameVerifier((s, sslSession) -> true)
+                .build();
+    }
+
+    @AfterAll
+    public static void stopServer() throws Exception {
+        if (webServer != null) {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+        if (client != null) {
+            client.close();
+        }
+        Files.deleteIfExists(root.resolve("data.txt"));
+        Files.deleteIfExists(root);
+    }
+
+    @Test
+    public void plain() {
+        assertRanges(client.target("http://localhost:" + webServer.port()).path("/static/data.txt"));
+    }
+
+    @Test
+    public void secured() {
+        assertRanges(client.target("https://localhost:" + webServer.port(SECURED)).path("/static/data.txt"));
+    }
+
+    @Test
+    public void published() {
+        assertRanges(client.target("http://localhost:" + webServer.port()).path("/filtered/data.txt"));
+    }
+
+    private static void assertRanges(WebTarget target) {
+        Response response = target.request().get();
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getHeaderString("Accept-Ranges"), is("bytes"));
+        assertThat(response.readEntity(byte[].class), is(content));
+
+        response = target.request().header("Range", "bytes=100-199").get();
+        assertThat(response.getStatus(), is(206));
+        assertThat(response.getHeaderString("Content-Range"), is("bytes 100-199/" + content.length));
+        assertThat(response.readEntity(byte[].class), is(Arrays.copyOfRange(content, 100, 200)));
+
+        response = target.request().header("Range", "bytes=-10").get();
+        assertThat(response.getStatus(), is(206));
+        assertThat(response.readEntity(byte[].class), is(Arrays.copyOfRange(content, content.length - 10, content.length)));
+
+        response = target.request().header("Range", "bytes=0-2,50000-50002").get();
+        assertThat(response.getStatus(), is(206));
+        String contentType = response.getHeaderString("Content-Type");
+        assertThat(contentType, startsWith("multipart/byteranges;"));
+        String boundary = contentType.substring(contentType.indexOf('=') + 1);
+        String body = new String(response.readEntity(byte[].class), StandardCharsets.US_ASCII);
+        assertThat(body, containsString("--" + boundary + "\r\n"));
+        assertThat(body, containsString("Content-Range: bytes 0-2/" + content.length + "\r\n\r\nabc\r\n"));
+        assertThat(body, containsString("Content-Range: bytes 50000-50002/" + content.length + "\r\n\r\n"
+                + new String(content, 50000, 3, StandardCharsets.US_ASCII) + "\r\n--" + boundary + "--\r\n"));
+
+        response = target.request().header("Range", "bytes=" + content.length + "-").get();
+        assertThat(response.getStatus(), is(416));
+        assertThat(response.getHeaderString("Content-Range"), is("bytes */" + content.length));
+        response.close();
+
+        // the file has changed since the client's copy, send it whole
+        response = target.request()
+                .header("Range", "bytes=100-199")
+                .header("If-Range", "\"not-the-etag\"")
+                .get();
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.readEntity(byte[].class), is(content));
+
+        String etag = target.request().head().getHeaderString("ETag");
+        response = target.request()
+                .header("Range", "bytes=100-199")
+                .header("If-Range", etag)
+                .get();
+        assertThat(response.getStatus(), is(206));
+        assertThat(response.readEntity(byte[].class), is(Arrays.copyOfRange(content, 100, 200)));
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+import io.helidon.common.CollectionsHelper;
+import io.helidon.common.configurable.Resource;
+import io.helidon.common.pki.KeyConfig;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests the {@link TlsConfiguration} of a server socket.
+ */
+public class TlsConfigurationTest {
+
+    private static final KeyConfig KEYS = KeyConfig.pemBuilder()
+            .key(Resource.create("ssl/key.pkcs8.pem"))
+            .certChain(Resource.create("ssl/certificate.pem"))
+            .build();
+    private static final KeyConfig TRUST = KeyConfig.fullBuilder()
+            .addCert(KEYS.certChain().get(0))
+            .build();
+    private static final String CIPHER = "TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256";
+
+    private WebServer webServer;
+
+    @AfterEach
+    public void stopServer() throws Exception {
+        if (webServer != null) {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void clientCertificateRequired() throws Exception {
+        startServer(TlsConfiguration.builder()
+                            .clientAuth(TlsConfiguration.ClientAuth.REQUIRE)
+                            .build());
+
+        assertThat(get(clientContext(true)), containsString("It works!"));
+        Assertions.assertThrows(IOException.class, () -> get(clientContext(false)));
+    }
+
+    @Test
+    public void clientCertificateOptional() throws Exception {
+        startServer(TlsConfiguration.builder()
+                            .clientAuth(TlsConfiguration.ClientAuth.OPTIONAL)
+                            .build());
+
+        assertThat(get(clientContext(true)), containsString("It works!"));
+        assertThat(get(clientContext(false)), containsString("It works!"));
+    }
+
+    @Test
+    public void ciphers() throws Exception {
+        startServer(TlsConfiguration.builder()
+                            .ciphers(CollectionsHelper.listOf("TLS_UNKNOWN_CIPHER", CIPHER))
+                            .build());
+
+        try (SSLSocket socket = (SSLSocket) clientContext(false).getSocketFactory().createSocket("localhost",
+                                                                                               webServer.port())) {
+            socket.setEnabledProtocols(new String[] {"TLSv1.2"});
+            socket.startHandshake();
+            assertThat(socket.getSession().getCipherSuite(), is(CIPHER));
+        }
+    }
+
+    @Test
+    public void openSslFallback() throws Exception {
+        // uses OpenSSL if netty-tcnative is on the class-path, the JDK provider otherwise
+        startServer(TlsConfiguration.builder()
+                            .provider(TlsConfiguration.Provider.OPENSSL)
+                            .privateKey(KEYS)
+                            .trust(TRUST)
+                            .sessionCacheSize(16)
+                            .sessionTimeoutSeconds(60)
+                            .build());
+
+        assertThat(get(clientContext(false)), containsString("It works!"));
+    }
+
+    @Test
+    public void invalidSessionTicketKey() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> TlsConfiguration.builder().sessionTicketKeys(CollectionsHelper.listOf(new byte[16])));
+    }
+
+    private void startServer(TlsConfiguration tls) throws Exception {
+        webServer = WebServer.create(ServerConfiguration.builder()
+                                             .ssl(SSLContextBuilder.create(KEYS).trustConfig(TRUST))
+                                             .tls(tls),
+                                     Routing.builder()
+                                             .any((req, res) -> res.send("It works!")))
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    private String get(SSLContext clientContext) throws IOException {
+        try (SSLSocket socket = (SSLSocket) clientContext.getSocketFactory().createSocket("localhost", webServer.port())) {
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            out.write("GET / HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            InputStream in = socket.getInputStream();
+            StringBuilder received = new StringBuilder();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                received.append(new String(buffer, 0, read, StandardCharsets.US_ASCII));
+            }
+            return received.toString();
+        }
+    }
+
+    private static SSLContext clientContext(boolean withCertificate) throws Exception {
+        KeyManager[] keyManagers = null;
+        if (withCertificate) {
+            char[] password = "password".toCharArray();
+            KeyStore keyStore = KeyStore.getInstance("JKS");
+            keyStore.load(null, null);
+            keyStore.setKeyEntry("client",
+                                 KEYS.privateKey().orElseThrow(IllegalStateException::new),
+                                 password,
+                                 KEYS.certChain().toArray(new Certificate[0]));
+            KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            kmf.init(keyStore, password);
+            keyManagers = kmf.getKeyManagers();
+        }
+
+        TrustManager[] trustAll = new TrustManager[] {
+                new X509TrustManager() {
+                    public X509Certificate[] getAcceptedIssuers() {
+                        return new X509Certificate[0];
+                    }
+
+                    public void checkClientTrusted(X509Certificate[] certs, String authType) {
+                    }
+
+                    public void checkServerTrusted(X509Certificate[] certs, String authType) {
+                    }
+                }
+        };
+
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(keyManagers, trustAll, null);
+        return context;
+    }
+}
@@ -16,14 +16,22 @@
 
 package io.helidon.webserver;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
+import io.helidon.common.http.DataChunk;
 import io.helidon.common.http.Http;
+import io.helidon.common.reactive.Flow;
+import io.helidon.common.reactive.Multi;
 import io.helidon.webserver.utils.SocketHttpClient;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -69,6 +77,10 @@ public class TransferEncodingTest {
                             String payload = "It works!";
                             res.send(payload);
                         })
+                        .get("/aggregated", AggregationSupport.create(64 * 1024), (req, res) -> {
+                            res.send(chunks("It ", "works", "!"));
+                        })
+                        .get("/not-aggregated", (req, res) -> res.send(chunks("It ", "works", "!")))
                         .build())
                 .start()
                 .toCompletableFuture()
@@ -116,6 +128,83 @@ public class TransferEncodingTest {
         assertThat(headers, hasEntry("content-length", "9"));
     }
 
+    /**
+     * Test the chunks aggregated to be sent with the content length.
+     *
+     * @throws Exception If an error occurs.
+     */
+    @Test
+    public void testAggregated() throws Exception {
+        String s = SocketHttpClient.sendAndReceive("/aggregated", Http.Method.GET, null, webServer);
+        assertThat(cutPayloadAndCheckHeadersFormat(s), is("It works!"));
+        Map<String, String> headers = cutHeaders(s);
+        assertThat(headers, hasEntry("content-length", "9"));
+        assertThat(headers.containsKey("transfer-encoding"), is(false));
+    }
+
+    /**
+     * Test the chunks sent with chunked encoding when the aggregation is not enabled.
+     *
+     * @throws Exception If an error occurs.
+     */
+    @Test
+    public void testNotAggregated() throws Exception {
+        String s = SocketHttpClient.sendAndReceive("/not-aggregated", Http.Method.GET, null, webServer);
+        assertThat(cutPayloadAndCheckHeadersFormat(s), is("3\nIt \n5\nworks\n1\n!\n0\n\n"));
+        Map<String, String> headers = cutHeaders(s);
+        assertThat(headers, hasEntry("transfer-encoding", "chunked"));
+    }
+
+    /**
+     * Test the held first chunk released when the connection is closed before the content completes.
+     *
+     * @throws Exception If an error occurs.
+     */
+    @Test
+    public void testHeldChunkReleasedWhenClosed() throws Exception {
+        ByteBuf content = Unpooled.directBuffer().writeBytes("held".getBytes(StandardCharsets.UTF_8));
+        CountDownLatch held = new CountDownLatch(1);
+        WebServer server = WebServer.create(
+                ServerConfiguration.builder().drainTimeoutMillis(0).build(),
+                Routing.builder()
+                        .get("/held", (req, res) -> res.send((Flow.Subscriber<? super DataChunk> subscriber) -> {
+                            // the first chunk is held to send its length, the content never completes
+                            subscriber.onSubscribe(new Flow.Subscription() {
+                                @Override
+                                public void request(long n) {
+                                    if (held.getCount() > 0) {
+                                        subscriber.onNext(new ByteBufDataChunk(content));
+                                        held.countDown();
+                                    }
+                                }
+
+                                @Override
+                                public void cancel() {
+                                }
+                            });
+                        }))
+                        .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+        try (SocketHttpClient client = new SocketHttpClient(server)) {
+            client.request(Http.Method.GET, "/held", null);
+            assertThat(held.await(10, TimeUnit.SECONDS), is(true));
+            assertThat(content.refCnt(), is(1));
+            // the connection with the response in flight is closed by the shutdown
+            server.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+        assertThat(content.refCnt(), is(0));
+    }
+
+    private static Multi<DataChunk> chunks(String... data) {
+        DataChunk[] chunks = new DataChunk[data.length];
+        for (int i = 0; i < data.length; i++) {
+            chunks[i] = DataChunk.create(data[i].getBytes(StandardCharsets.UTF_8));
+        }
+        return Multi.just(chunks);
+    }
+
     private Map<String, String> cutHeaders(String response) {
         assertThat(response, notNullValue());
         int index = response.indexOf("\n\n");
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.reactive.Flow;
+import io.helidon.common.reactive.Multi;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+/**
+ * Tests {@link Routing.Rules#websocket(String, WebSocketConfiguration, WebSocketEndpoint)}.
+ */
+public class WebSocketTest {
+
+    private static final int TEXT = 0x1;
+    private static final int CLOSE = 0x8;
+    private static final int PING = 0x9;
+    private static final int PONG = 0xA;
+    private static final int MANY = 50_000;
+
+    private static WebServer webServer;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        webServer = WebServer.create(ServerConfiguration.builder().build(),
+                                     Routing.builder()
+                                             .websocket("/echo", WebSocketSession::messages)
+                                             .get("/echo", (req, res) -> res.send("plain"))
+                                             .websocket("/small",
+                                                        WebSocketConfiguration.builder()
+                                                                .maxMessageSize(16)
+                                                                .perMessageDeflate(false)
+                                                                .build(),
+                                                        WebSocketSession::messages)
+                                             .websocket("/greeting",
+                                                        session -> Multi.just(WebSocketMessage.text("hello"),
+                                                                              WebSocketMessage.text("bye")))
+                                             .websocket("/many", session -> manyMessages()))
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    public static void stopServer() throws Exception {
+        if (webServer != null) {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void echo() throws Exception {
+        long received = webServer.statistics().webSocketMessagesReceived();
+        try (Socket socket = connect("/echo", null)) {
+            OutputStream out = socket.getOutputStream();
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+
+            writeFrame(out, TEXT, "hello");
+            assertFrame(in, TEXT, "hello");
+            writeFrame(out, PING, "ping");
+            assertFrame(in, PONG, "ping");
+            writeFrame(out, TEXT, "again");
+            assertFrame(in, TEXT, "again");
+
+            writeFrame(out, CLOSE, new byte[] {0x03, (byte) 0xE8});
+            Frame close = readFrame(in);
+            assertThat(close.opcode, is(CLOSE));
+            assertThat(close.statusCode(), is(WebSocketSession.NORMAL_CLOSURE));
+            assertThat(in.read(), is(-1));
+        }
+        assertThat(webServer.statistics().webSocketMessagesReceived() - received, is(2L));
+        assertThat(webServer.statistics().webSocketSessionsOpened(), greaterThanOrEqualTo(1L));
+    }
+
+    @Test
+    public void plainRequestContinues() throws Exception {
+        try (Socket socket = new Socket("localhost", webServer.port())) {
+            socket.setSoTimeout(10_000);
+            socket.getOutputStream().write("GET /echo HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n"
+                                                   .getBytes(StandardCharsets.US_ASCII));
+            String response = new String(readAll(socket.getInputStream()), StandardCharsets.UTF_8);
+            assertThat(response, containsString("200 OK"));
+            assertThat(response, containsString("plain"));
+        }
+    }
+
+    @Test
+    public void endpointCompletes() throws Exception {
+        try (Socket socket = connect("/greeting", null)) {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            assertFrame(in, TEXT, "hello");
+            assertFrame(in, TEXT, "bye");
+            Frame close = readFrame(in);
+            assertThat(close.opcode, is(CLOSE));
+            assertThat(close.statusCode(), is(WebSocketSession.NORMAL_CLOSURE));
+        }
+    }
+
+    @Test
+    public void synchronousPublisherOfManyMessages() throws Exception {
+        try (Socket socket = connect("/many", null)) {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            for (int i = 0; i < MANY; i++) {
+                assertFrame(in, TEXT, String.valueOf(i));
+            }
+            Frame close = readFrame(in);
+            assertThat(close.opcode, is(CLOSE));
+            assertThat(close.statusCode(), is(WebSocketSession.NORMAL_CLOSURE));
+        }
+    }
+
+    /**
+     * A publisher emitting the requested messages from within {@link Flow.Subscription#request(long)}.
+     *
+     * @return publisher of {@link #MANY} messages
+     */
+    private static Flow.Publisher<WebSocketMessage> manyMessages() {
+        return subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+            private int next;
+            private boolean done;
+
+            @Override
+            public void request(long n) {
+                for (long i = 0; i < n && next < MANY && !done; i++) {
+                    subscriber.onNext(WebSocketMessage.text(String.valueOf(next++)));
+                }
+                if (next == MANY && !done) {
+                    done = true;
+                    subscriber.onComplete();
+                }
+            }
+
+            @Override
+            public void cancel() {
+                done = true;
+            }
+        });
+    }
+
+    @Test
+    public void messageTooBig() throws Exception {
+        try (Socket socket = connect("/small", null)) {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            writeFrame(socket.getOutputStream(), TEXT, "a message longer than sixteen bytes");
+            Frame close = readFrame(in);
+            assertThat(close.opcode, is(CLOSE));
+            assertThat(close.statusCode(), is(WebSocketSession.MESSAGE_TOO_BIG));
+        }
+    }
+
+    @Test
+    public void perMessageDeflateNegotiated() throws Exception {
+        String offer = "permessage-deflate; client_max_window_bits";
+        // header names are sent in lower case
+        assertThat(handshake("/echo", offer).toLowerCase(), containsString("sec-websocket-extensions: permessage-deflate"));
+        assertThat(handshake("/small", offer).toLowerCase(), not(containsString("sec-websocket-extensions")));
+    }
+
+    @Test
+    public void unsupportedVersion() throws Exception {
+        try (Socket socket = new Socket("localhost", webServer.port())) {
+            socket.setSoTimeout(10_000);
+            socket.getOutputStream().write(("GET /echo HTTP/1.1\r\nHost: localhost\r\nConnection: Upgrade, close\r\n"
+                                                    + "Upgrade: websocket\r\nSec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n"
+                                                    + "Sec-WebSocket-Version: 8\r\n\r\n")
+                                                   .getBytes(StandardCharsets.US_ASCII));
+            String response = new String(readAll(socket.getInputStream()), StandardCharsets.UTF_8);
+            assertThat(response, containsString("426"));
+            assertThat(response, containsString("Sec-WebSocket-Version: 13"));
+        }
+    }
+
+    private static String handshake(String path, String extensions) throws Exception {
+        try (Socket socket = new Socket("localhost", webServer.port())) {
+            socket.setSoTimeout(10_000);
+            return sendHandshake(socket, path, extensions);
+        }
+    }
+
+    private static Socket connect(String path, String extensions) throws Exception {
+        Socket socket = new Socket("localhost", webServer.port());
+        socket.setSoTimeout(10_000);
+        String response = sendHandshake(socket, path, extensions);
+        assertThat(response, containsString("101 Switching Protocols"));
+        assertThat(response, containsString("s3pPLMBiTxaQ9kYGzzhZRbK+xOo="));
+        return socket;
+    }
+
+    private static String sendHandshake(Socket socket, String path, String extensions) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(("GET " + path + " HTTP/1.1\r\nHost: localhost\r\nConnection: Upgrade\r\nUpgrade: websocket\r\n"
+                           + "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\nSec-WebSocket-Version: 13\r\n"
+                           + (extensions == null ? "" : "Sec-WebSocket-Extensions: " + extensions + "\r\n")
+                           + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+
+        // read the response head byte by byte not to consume the frames
+        InputStream in = socket.getInputStream();
+        StringBuilder head = new StringBuilder();
+        int b;
+        while (head.indexOf("\r\n\r\n") < 0 && (b = in.read()) >= 0) {
+            head.append((char) b);
+        }
+        return head.toString();
+    }
+
+    private static void writeFrame(OutputStream out, int opcode, String payload) throws IOException {
+        writeFrame(out, opcode, payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeFrame(OutputStream out, int opcode, byte[] payload) throws IOException {
+        // client frames must be masked, payloads shorter than 126 bytes only
+        byte[] mask = {1, 2, 3, 4};
+        out.write(0x80 | opcode);
+        out.write(0x80 | payload.length);
+        out.write(mask);
+        for (int i = 0; i < payload.length; i++) {
+            out.write(payload[i] ^ mask[i % 4]);
+        }
+        out.flush();
+    }
+
+    private static void assertFrame(DataInputStream in, int opcode, String payload) throws IOException {
+        Frame frame = readFrame(in);
+        assertThat(frame.opcode, is(opcode));
+        assertThat(new String(frame.payload, StandardCharsets.UTF_8), is(payload));
+    }
+
+    private static Frame readFrame(DataInputStream in) throws IOException {
+        int first = in.readUnsignedByte();
+        int length = in.readUnsignedByte() & 0x7F;
+        if (length == 126) {
+            length = in.readUnsignedShort();
+        } else if (length == 127) {
+            length = (int) in.readLong();
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return new Frame(first & 0x0F, payload);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static final class Frame {
+        private final int opcode;
+        private final byte[] payload;
+
+        private Frame(int opcode, byte[] payload) {
+            this.opcode = opcode;
+            this.payload = payload;
+        }
+
+        private int statusCode() {
+            return payload.length < 2 ? -1 : ((payload[0] & 0xFF) << 8) | (payload[1] & 0xFF);
+        }
+
+        @Override
+        public String toString() {
+            return "Frame{opcode=" + opcode + ", payload=" + Arrays.toString(payload) + "}";
+        }
+    }
+}